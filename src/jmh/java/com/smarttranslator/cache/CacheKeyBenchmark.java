@@ -0,0 +1,93 @@
+package com.smarttranslator.cache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 緩存鍵查找基準測試
+ * 比較舊的 MD5 十六進位字串鍵 + ConcurrentHashMap 與 64 位雜湊 + 基本型別索引。
+ * 使用 ./gradlew jmh 執行，gc 分析器會報告每次操作的分配位元組數。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheKeyBenchmark {
+    private static final String LANGUAGE = "zh-TW";
+
+    @Param({"10000", "100000"})
+    public int entries;
+
+    private String[] texts;
+    private Map<String, CachedTranslation> md5Map;
+    private TranslationIndex index;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() throws NoSuchAlgorithmException {
+        texts = new String[entries];
+        md5Map = new ConcurrentHashMap<>();
+        index = new TranslationIndex(entries);
+        for (int i = 0; i < entries; i++) {
+            String text = "§6[Lv. " + i + "] §fCorrupted Dungeon Key §7#" + i;
+            texts[i] = text;
+            CachedTranslation cached = new CachedTranslation(text, "翻譯 " + i, LANGUAGE, System.currentTimeMillis());
+            md5Map.put(md5Key(text, LANGUAGE), cached);
+            index.put(TranslationKeyHash.hash(text, LANGUAGE), cached);
+        }
+    }
+
+    private String nextText() {
+        int i = cursor;
+        cursor = i + 1 == texts.length ? 0 : i + 1;
+        return texts[i];
+    }
+
+    @Benchmark
+    public CachedTranslation md5HexKey() throws NoSuchAlgorithmException {
+        String text = nextText();
+        return md5Map.get(md5Key(text, LANGUAGE));
+    }
+
+    @Benchmark
+    public CachedTranslation primitiveIndex() {
+        String text = nextText();
+        return index.get(TranslationKeyHash.hash(text, LANGUAGE), text, LanguageIds.idOf(LANGUAGE));
+    }
+
+    @Benchmark
+    public long hashOnly() {
+        return TranslationKeyHash.hash(nextText(), LANGUAGE);
+    }
+
+    /**
+     * 舊版 TranslationCache.generateCacheKey 的實現
+     */
+    private static String md5Key(String originalText, String targetLanguage) throws NoSuchAlgorithmException {
+        String combined = originalText + "|" + targetLanguage;
+        MessageDigest md = MessageDigest.getInstance("MD5");
+        byte[] hash = md.digest(combined.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : hash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) {
+                hexString.append('0');
+            }
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+}
@@ -3,9 +3,13 @@ package com.smarttranslator;
 import com.smarttranslator.cache.TranslationCache;
 import com.smarttranslator.client.SmartTranslatorModMenuIntegration;
 import com.smarttranslator.config.SmartTranslatorConfig;
+import com.smarttranslator.events.CacheNamespaceHandler;
 import com.smarttranslator.events.ChatTranslationHandler;
 import com.smarttranslator.events.ItemTooltipHandler;
 import com.smarttranslator.events.KeyBindingHandler;
+import com.smarttranslator.network.ClientRelay;
+import com.smarttranslator.network.RelayNetwork;
+import com.smarttranslator.translation.LanguageAssetResolver;
 import com.smarttranslator.translation.TranslationManager;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.ModContainer;
@@ -13,8 +17,11 @@ import net.neoforged.fml.common.Mod;
 import net.neoforged.fml.config.ModConfig;
 import net.neoforged.fml.event.lifecycle.FMLClientSetupEvent;
 import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
+import net.neoforged.fml.loading.FMLEnvironment;
+import net.neoforged.neoforge.client.event.RegisterClientReloadListenersEvent;
 import net.neoforged.neoforge.client.event.RegisterKeyMappingsEvent;
 import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.GameShuttingDownEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,27 +33,45 @@ public class SmartTranslator {
     private static SmartTranslator instance;
     private TranslationCache translationCache;
     private TranslationManager translationManager;
+    private final LanguageAssetResolver languageAssetResolver;
     
     public SmartTranslator(IEventBus modEventBus, ModContainer modContainer) {
         instance = this;
+        boolean client = FMLEnvironment.dist.isClient();
+        // 遊戲語言檔的官方翻譯，資源載入後交給翻譯管理器（只在客戶端載入語言資源）
+        this.languageAssetResolver = client ? new LanguageAssetResolver(index -> {
+            if (this.translationManager != null) {
+                this.translationManager.setLanguageAssets(index);
+            }
+        }) : null;
         
-        // 註冊配置
-        modContainer.registerConfig(ModConfig.Type.CLIENT, SmartTranslatorConfig.SPEC);
+        // 註冊配置（專用伺服器不載入客戶端配置，改為通用配置，供伺服器中繼使用）
+        modContainer.registerConfig(client ? ModConfig.Type.CLIENT : ModConfig.Type.COMMON, SmartTranslatorConfig.SPEC);
         
         // 註冊事件監聽器
         modEventBus.addListener(this::onCommonSetup);
-        modEventBus.addListener(this::onClientSetup);
-        modEventBus.addListener(this::onRegisterKeyMappings);
+        if (client) {
+            modEventBus.addListener(this::onClientSetup);
+            modEventBus.addListener(this::onRegisterKeyMappings);
+            modEventBus.addListener(this::onRegisterReloadListeners);
+        }
+        NeoForge.EVENT_BUS.addListener(this::onGameShuttingDown);
+        
+        // 伺服器翻譯中繼：專用伺服器為所有玩家翻譯，客戶端在此類伺服器上不自行調用 API
+        RelayNetwork.register(modEventBus);
         
         LOGGER.info("Smart Translator MOD 初始化完成");
     }
     
     private void onCommonSetup(FMLCommonSetupEvent event) {
-        // 初始化翻譯緩存
-        this.translationCache = new TranslationCache();
+        // 初始化翻譯緩存（啟用共用緩存時與其他遊戲實例共用同一份翻譯）
+        this.translationCache = new TranslationCache(SmartTranslatorConfig.SHARED_CACHE.get());
         
         // 初始化翻譯管理器
         this.translationManager = new TranslationManager(this.translationCache);
+        if (this.languageAssetResolver != null) {
+            this.translationManager.setLanguageAssets(this.languageAssetResolver.getIndex());
+        }
         
         LOGGER.info("Smart Translator 組件初始化完成");
     }
@@ -56,6 +81,8 @@ public class SmartTranslator {
         NeoForge.EVENT_BUS.register(new ChatTranslationHandler());
         NeoForge.EVENT_BUS.register(new KeyBindingHandler());
         NeoForge.EVENT_BUS.register(new ItemTooltipHandler());
+        NeoForge.EVENT_BUS.register(new CacheNamespaceHandler());
+        this.translationManager.setRelay(ClientRelay.INSTANCE);
         
         // 註冊配置螢幕
         event.enqueueWork(() -> {
@@ -71,6 +98,17 @@ public class SmartTranslator {
         event.register(KeyBindingHandler.SHOW_ORIGINAL_TOOLTIP.get());
     }
     
+    private void onRegisterReloadListeners(RegisterClientReloadListenersEvent event) {
+        event.registerReloadListener(this.languageAssetResolver);
+    }
+    
+    private void onGameShuttingDown(GameShuttingDownEvent event) {
+        // 寫入緩存日誌中剩餘的記錄
+        if (this.translationCache != null) {
+            this.translationCache.shutdown();
+        }
+    }
+    
     public static SmartTranslator getInstance() {
         return instance;
     }
@@ -82,4 +120,11 @@ public class SmartTranslator {
     public TranslationManager getTranslationManager() {
         return translationManager;
     }
+    
+    /**
+     * 遊戲語言資源解析器（專用伺服器上為 null）
+     */
+    public LanguageAssetResolver getLanguageAssetResolver() {
+        return languageAssetResolver;
+    }
 }
\ No newline at end of file
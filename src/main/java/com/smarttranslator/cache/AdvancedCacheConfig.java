@@ -59,8 +59,13 @@ public class AdvancedCacheConfig {
      * 獲取推薦的緩存大小
      */
     public static int getRecommendedCacheSize() {
-        int configuredSize = SmartTranslatorConfig.MAX_CACHE_SIZE.get();
-        
+        return getRecommendedCacheSize(SmartTranslatorConfig.MAX_CACHE_SIZE.get());
+    }
+    
+    /**
+     * 依指定的設定值獲取推薦的緩存大小
+     */
+    public static int getRecommendedCacheSize(int configuredSize) {
         // 如果配置為自適應模式（-1），則計算最佳大小
         if (configuredSize <= 0) {
             return calculateOptimalCacheSize();
@@ -0,0 +1,100 @@
+package com.smarttranslator.cache;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 64 位鍵的布隆過濾器
+ * 鍵本身已是混合過的雜湊，以雙重雜湊從中導出各個位元位置，不再重新計算字串雜湊。
+ * 位元以原子操作設定，查詢不需要加鎖。
+ */
+final class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(AtomicLongArray words, int hashCount) {
+        this.words = words;
+        this.bitCount = (long) words.length() * Long.SIZE;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * 依預期鍵數量與誤判率建立過濾器
+     */
+    static BloomFilter create(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(1, expectedInsertions);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int wordCount = (int) Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE);
+        int hashes = (int) Math.max(1, Math.round((double) wordCount * Long.SIZE / n * ln2));
+        return new BloomFilter(new AtomicLongArray(wordCount), Math.min(hashes, 16));
+    }
+
+    void put(long key) {
+        long h1 = key;
+        long h2 = TranslationKeyHash.mix(key ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(index);
+            while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                word = words.get(index);
+            }
+        }
+    }
+
+    /**
+     * @return false 表示鍵一定不存在；true 表示可能存在
+     */
+    boolean mightContain(long key) {
+        long h1 = key;
+        long h2 = TranslationKeyHash.mix(key ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 依目前已設定的位元比例估計誤判率
+     */
+    double expectedFalsePositiveRate() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) set / bitCount, hashCount);
+    }
+
+    int getByteSize() {
+        return words.length() * Long.BYTES;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(hashCount);
+        out.writeInt(words.length());
+        for (int i = 0; i < words.length(); i++) {
+            out.writeLong(words.get(i));
+        }
+    }
+
+    static BloomFilter readFrom(DataInputStream in) throws IOException {
+        int hashes = in.readInt();
+        int wordCount = in.readInt();
+        if (hashes < 1 || hashes > 16 || wordCount < 1 || wordCount > (1 << 24)) {
+            throw new IOException("布隆過濾器參數無效");
+        }
+        AtomicLongArray words = new AtomicLongArray(wordCount);
+        for (int i = 0; i < wordCount; i++) {
+            words.set(i, in.readLong());
+        }
+        return new BloomFilter(words, hashes);
+    }
+}
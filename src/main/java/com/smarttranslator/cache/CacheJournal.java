@@ -0,0 +1,529 @@
+package com.smarttranslator.cache;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.smarttranslator.config.PerformanceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 翻譯緩存寫入日誌（write-behind）
+ * 新增/移除的緩存項目以一行緊湊 JSON 追加到日誌檔案，
+ * 由專用 I/O 線程分組提交；後台定期調用 {@link SnapshotWriter} 將內容寫入持久儲存後截斷日誌。
+ * 啟動時先由儲存層載入已提交的內容，再重放日誌。
+ */
+public class CacheJournal {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheJournal.class);
+    static final String SNAPSHOT_FILE_NAME = "translation_cache.json";
+    static final String JOURNAL_FILE_NAME = "translation_cache.journal";
+
+    // 日誌使用緊湊格式；舊版 JSON 快照只用於遷移
+    private static final Gson GSON = new Gson();
+
+    private static final String OP_PUT = "put";
+    private static final String OP_REMOVE = "del";
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final SnapshotWriter snapshotWriter;
+    private final ScheduledExecutorService ioExecutor;
+    private final boolean ownsExecutor;
+    private final ScheduledFuture<?> compactTask;
+
+    // 等待寫入的記錄（生產者為任意線程，消費者只有 I/O 線程）
+    private final ConcurrentLinkedQueue<JournalRecord> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean commitScheduled = new AtomicBoolean(false);
+    private FileChannel journalChannel;
+
+    // 統計
+    private final AtomicLong appendedRecords = new AtomicLong(0);
+    private final AtomicLong groupCommits = new AtomicLong(0);
+    private final AtomicLong compactions = new AtomicLong(0);
+    private final AtomicLong bytesLoaded = new AtomicLong(0);
+    private volatile long journalBytes = 0;
+    private volatile boolean closed = false;
+
+    /**
+     * 將日誌中的內容寫入持久儲存，在 I/O 線程上於截斷日誌之前調用
+     */
+    @FunctionalInterface
+    public interface SnapshotWriter {
+        void write() throws IOException;
+
+        /**
+         * 清除持久儲存中的所有內容
+         */
+        default void clear() throws IOException {
+        }
+    }
+
+    /**
+     * 日誌重放回調
+     */
+    public interface ReplayHandler {
+        void onPut(CachedTranslation cached);
+
+        /**
+         * @param cached 被移除的項目（譯文為 null）
+         */
+        void onRemove(CachedTranslation cached);
+    }
+
+    /**
+     * @param directory 緩存檔案所在目錄
+     * @param snapshotWriter 壓縮時將當前內容寫入持久儲存
+     */
+    public CacheJournal(Path directory, SnapshotWriter snapshotWriter) {
+        this(directory, snapshotWriter, newIoExecutor(), true);
+    }
+
+    /**
+     * 使用共用的 I/O 執行器（例如同一緩存的多個分區），關閉日誌時不關閉執行器
+     *
+     * @param ioExecutor 單線程執行器；日誌依賴所有 I/O 任務依序執行
+     */
+    CacheJournal(Path directory, SnapshotWriter snapshotWriter, ScheduledExecutorService ioExecutor) {
+        this(directory, snapshotWriter, ioExecutor, false);
+    }
+
+    private CacheJournal(Path directory, SnapshotWriter snapshotWriter, ScheduledExecutorService ioExecutor,
+                         boolean ownsExecutor) {
+        this.snapshotPath = directory.resolve(SNAPSHOT_FILE_NAME);
+        this.journalPath = directory.resolve(JOURNAL_FILE_NAME);
+        this.snapshotWriter = snapshotWriter;
+        this.ioExecutor = ioExecutor;
+        this.ownsExecutor = ownsExecutor;
+
+        // 定期檢查是否需要將日誌合併到快照
+        this.compactTask = ioExecutor.scheduleWithFixedDelay(
+            this::compactIfNeeded,
+            PerformanceConfig.JOURNAL_COMPACT_INTERVAL_SECONDS,
+            PerformanceConfig.JOURNAL_COMPACT_INTERVAL_SECONDS,
+            TimeUnit.SECONDS
+        );
+    }
+
+    /**
+     * 建立日誌 I/O 線程
+     */
+    static ScheduledExecutorService newIoExecutor() {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "SmartTranslator-CacheJournal");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 以 JsonReader 逐項串流載入舊版 JSON 快照（僅用於遷移到新的儲存格式）
+     * 不會先建立完整映射，每讀出一項就交給 consumer
+     *
+     * @return 是否存在舊版快照
+     */
+    public boolean loadLegacySnapshot(Consumer<CachedTranslation> consumer) {
+        if (!Files.exists(snapshotPath)) {
+            return false;
+        }
+        try (JsonReader reader = new JsonReader(new InputStreamReader(
+                new CountingInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath))),
+                StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                reader.nextName(); // 舊版的 MD5 鍵，已不再使用
+                LegacyEntry entry = GSON.fromJson(reader, LegacyEntry.class);
+                if (entry != null && entry.originalText != null) {
+                    consumer.accept(new CachedTranslation(entry.originalText, entry.translatedText,
+                        entry.targetLanguage, entry.timestamp));
+                }
+            }
+            reader.endObject();
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            LOGGER.error("載入舊版緩存快照失敗: {}", snapshotPath, e);
+        }
+        return true;
+    }
+
+    /**
+     * 啟動時需要讀取的位元組總數（舊版快照加上日誌），用於計算載入進度
+     */
+    public long getBytesToLoad() {
+        long total = 0;
+        try {
+            if (Files.exists(snapshotPath)) {
+                total += Files.size(snapshotPath);
+            }
+            if (Files.exists(journalPath)) {
+                total += Files.size(journalPath);
+            }
+        } catch (IOException e) {
+            LOGGER.debug("無法取得緩存檔案大小", e);
+        }
+        return total;
+    }
+
+    /**
+     * 目前已讀取的位元組數
+     */
+    public long getBytesLoaded() {
+        return bytesLoaded.get();
+    }
+
+    /**
+     * 遷移完成後刪除舊版 JSON 快照
+     */
+    public void deleteLegacySnapshot() {
+        try {
+            Files.deleteIfExists(snapshotPath);
+        } catch (IOException e) {
+            LOGGER.warn("刪除舊版緩存快照失敗: {}", snapshotPath, e);
+        }
+    }
+
+    /**
+     * 按寫入順序重放日誌
+     *
+     * @return 重放的日誌記錄數量
+     */
+    public int replay(ReplayHandler handler) {
+        if (!Files.exists(journalPath)) {
+            return 0;
+        }
+
+        int replayed = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new CountingInputStream(Files.newInputStream(journalPath)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                JournalRecord record;
+                try {
+                    record = GSON.fromJson(line, JournalRecord.class);
+                } catch (JsonParseException e) {
+                    // 最後一行可能因崩潰只寫入一半，忽略即可
+                    LOGGER.warn("忽略損壞的日誌記錄: {}", line);
+                    continue;
+                }
+                if (record == null || record.o == null) {
+                    continue;
+                }
+                if (OP_REMOVE.equals(record.op)) {
+                    handler.onRemove(new CachedTranslation(record.o, null, record.l, record.ts));
+                } else {
+                    handler.onPut(new CachedTranslation(record.o, record.t, record.l, record.ts));
+                }
+                replayed++;
+            }
+            journalBytes = Files.size(journalPath);
+        } catch (IOException e) {
+            LOGGER.error("重放緩存日誌失敗: {}", journalPath, e);
+        }
+
+        LOGGER.info("緩存日誌重放完成，共 {} 條記錄", replayed);
+        return replayed;
+    }
+
+    /**
+     * 記錄新增的緩存項目
+     */
+    public void appendPut(CachedTranslation cached) {
+        enqueue(new JournalRecord(OP_PUT, cached));
+    }
+
+    /**
+     * 記錄被移除的緩存項目（保留原文與語言，以便儲存層寫入刪除標記）
+     */
+    public void appendRemove(CachedTranslation cached) {
+        enqueue(new JournalRecord(OP_REMOVE, cached));
+    }
+
+    private void enqueue(JournalRecord record) {
+        if (closed) {
+            return;
+        }
+        pending.offer(record);
+
+        // 同一提交窗口內的記錄合併為一次寫入
+        if (commitScheduled.compareAndSet(false, true)) {
+            try {
+                ioExecutor.schedule(this::groupCommit, PerformanceConfig.JOURNAL_GROUP_COMMIT_MS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                commitScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * 將等待中的記錄一次性寫入日誌（僅在 I/O 線程執行）
+     */
+    private void groupCommit() {
+        commitScheduled.set(false);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<JournalRecord> batch = new ArrayList<>();
+        JournalRecord record;
+        while ((record = pending.poll()) != null) {
+            batch.add(record);
+        }
+
+        StringBuilder lines = new StringBuilder(batch.size() * 96);
+        for (JournalRecord r : batch) {
+            lines.append(GSON.toJson(r)).append('\n');
+        }
+
+        try {
+            FileChannel channel = openJournal();
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            journalBytes = channel.size();
+            appendedRecords.addAndGet(batch.size());
+            groupCommits.incrementAndGet();
+        } catch (IOException e) {
+            LOGGER.error("寫入緩存日誌失敗，{} 條記錄將在下次壓縮時寫入快照", batch.size(), e);
+        }
+    }
+
+    private FileChannel openJournal() throws IOException {
+        if (journalChannel == null || !journalChannel.isOpen()) {
+            journalChannel = FileChannel.open(journalPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return journalChannel;
+    }
+
+    /**
+     * 日誌超過閾值時合併到快照
+     */
+    private void compactIfNeeded() {
+        try {
+            if (journalBytes >= PerformanceConfig.JOURNAL_COMPACT_THRESHOLD_BYTES) {
+                doCompact();
+            }
+        } catch (Exception e) {
+            LOGGER.error("緩存日誌壓縮失敗", e);
+        }
+    }
+
+    /**
+     * 將內容寫入持久儲存，然後截斷日誌（僅在 I/O 線程執行）
+     * 在 I/O 線程上執行保證寫入與日誌截斷之間不會有記錄寫入
+     */
+    private void doCompact() throws IOException {
+        // 先寫完已排隊的記錄，寫入儲存之後它們才能被安全丟棄
+        groupCommit();
+
+        snapshotWriter.write();
+
+        openJournal().truncate(0);
+        journalBytes = 0;
+        compactions.incrementAndGet();
+        LOGGER.debug("緩存日誌已合併到持久儲存");
+    }
+
+    /**
+     * 等待所有已排隊的記錄寫入磁碟
+     */
+    public void flush() {
+        runOnIoThread(() -> {
+            groupCommit();
+            return true;
+        });
+    }
+
+    /**
+     * 立即將日誌合併到持久儲存
+     *
+     * @return 是否成功
+     */
+    public boolean compact() {
+        return runOnIoThread(() -> {
+            try {
+                doCompact();
+                return true;
+            } catch (IOException e) {
+                LOGGER.error("緩存日誌壓縮失敗", e);
+                return false;
+            }
+        });
+    }
+
+    /**
+     * 丟棄所有日誌與持久儲存內容（清除緩存時使用）
+     */
+    public void clear() {
+        runOnIoThread(() -> {
+            pending.clear();
+            try {
+                openJournal().truncate(0);
+                journalBytes = 0;
+                snapshotWriter.clear();
+                deleteLegacySnapshot();
+            } catch (IOException e) {
+                LOGGER.error("清除緩存日誌失敗", e);
+            }
+            return true;
+        });
+    }
+
+    private boolean runOnIoThread(Callable<Boolean> task) {
+        if (ioExecutor.isShutdown()) {
+            return false;
+        }
+        try {
+            return ioExecutor.submit(task).get(PerformanceConfig.REQUEST_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.error("緩存日誌 I/O 任務失敗", e);
+        }
+        return false;
+    }
+
+    /**
+     * 寫入剩餘記錄、合併到持久儲存並關閉 I/O 線程（共用的執行器由其擁有者關閉）
+     */
+    public void shutdown() {
+        compact();
+        closed = true;
+        compactTask.cancel(false);
+        if (!ownsExecutor) {
+            // 在 I/O 線程上寫入關閉前剛排隊的記錄並關閉檔案，之後的提交任務不會再有記錄
+            runOnIoThread(() -> {
+                groupCommit();
+                closeJournal();
+                return true;
+            });
+            logClosed();
+            return;
+        }
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                ioExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ioExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        closeJournal();
+        logClosed();
+    }
+
+    private void closeJournal() {
+        try {
+            if (journalChannel != null) {
+                journalChannel.close();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("關閉緩存日誌失敗", e);
+        }
+    }
+
+    private void logClosed() {
+        LOGGER.info("緩存日誌已關閉，共追加 {} 條記錄，{} 次分組提交，{} 次壓縮",
+            appendedRecords.get(), groupCommits.get(), compactions.get());
+    }
+
+    public long getJournalBytes() {
+        return journalBytes;
+    }
+
+    public long getAppendedRecords() {
+        return appendedRecords.get();
+    }
+
+    public long getGroupCommits() {
+        return groupCommits.get();
+    }
+
+    /**
+     * 日誌記錄（欄位名稱保持簡短以減少磁碟佔用）
+     */
+    private static class JournalRecord {
+        private String op;
+        private String o;
+        private String t;
+        private String l;
+        private long ts;
+
+        JournalRecord(String op, CachedTranslation cached) {
+            this.op = op;
+            this.o = cached.getOriginalText();
+            // 移除記錄不需要譯文
+            this.t = OP_REMOVE.equals(op) ? null : cached.getTranslatedText();
+            this.l = cached.getTargetLanguage();
+            this.ts = cached.getTimestamp();
+        }
+    }
+
+    /**
+     * 統計已讀取位元組數的輸入流
+     */
+    private class CountingInputStream extends FilterInputStream {
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                bytesLoaded.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                bytesLoaded.addAndGet(n);
+            }
+            return n;
+        }
+    }
+
+    /**
+     * 舊版 JSON 快照的項目格式
+     */
+    private static class LegacyEntry {
+        private String originalText;
+        private String translatedText;
+        private String targetLanguage;
+        private long timestamp;
+    }
+}
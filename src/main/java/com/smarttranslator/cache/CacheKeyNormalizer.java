@@ -0,0 +1,204 @@
+package com.smarttranslator.cache;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 緩存鍵正規化
+ * 將等價的文字映射為同一個查找鍵：NFKC 正規化、移除格式化代碼與零寬字元、統一引號與破折號、
+ * 合併空白；目標語言沒有大小寫時再摺疊大小寫。語言代碼統一為 BCP 47 形式（zh_tw → zh-TW）。
+ * 正規化只用於查找，送往 API 的仍是原本的文字；大小寫由 {@link #restoreCase} 依原文還原。
+ */
+public final class CacheKeyNormalizer {
+    // 沒有大小寫區分的書寫系統，譯文不受原文大小寫影響，摺疊大小寫是安全的
+    private static final Set<String> CASELESS_LANGUAGES = Set.of(
+        "zh", "ja", "ko", "th", "lo", "km", "my", "ar", "fa", "ur", "he", "hi", "bn", "ta", "te", "ka", "am");
+    private static final String FORMATTING_CODES = "0123456789abcdefklmnorABCDEFKLMNOR";
+    private static final Map<String, String> LANGUAGE_TAGS = new ConcurrentHashMap<>();
+    private static final int MAX_LANGUAGE_TAGS = 256;
+
+    private CacheKeyNormalizer() {
+        // 工具類，不允許實例化
+    }
+
+    /**
+     * 正規化語言代碼（zh_tw、ZH-tw → zh-TW）
+     */
+    public static String language(String language) {
+        if (language == null || language.isEmpty()) {
+            return "";
+        }
+        String cached = LANGUAGE_TAGS.get(language);
+        if (cached != null) {
+            return cached;
+        }
+        String tag = Locale.forLanguageTag(language.trim().replace('_', '-')).toLanguageTag();
+        if ("und".equals(tag)) {
+            tag = language.trim();
+        }
+        if (LANGUAGE_TAGS.size() < MAX_LANGUAGE_TAGS) {
+            LANGUAGE_TAGS.put(language, tag);
+        }
+        return tag;
+    }
+
+    /**
+     * 是否為已知語言的正規化語言代碼（先經過 {@link #language} 正規化）
+     * 語言與地區必須是 JDK 認得的代碼；不接受變體、擴展與私用標籤，避免同一語言有無數種寫法
+     */
+    public static boolean isKnownLanguage(String language) {
+        Locale locale = Locale.forLanguageTag(language);
+        if (locale.getLanguage().isEmpty() || !locale.toLanguageTag().equals(language)
+                || !locale.getVariant().isEmpty() || locale.hasExtensions()) {
+            return false;
+        }
+        // 未知的代碼沒有顯示名稱，返回代碼本身
+        return !locale.getDisplayLanguage(Locale.ENGLISH).equals(locale.getLanguage())
+            && (locale.getCountry().isEmpty() || !locale.getDisplayCountry(Locale.ENGLISH).equals(locale.getCountry()));
+    }
+
+    /**
+     * 目標語言是否沒有大小寫區分
+     */
+    public static boolean isCaseless(String language) {
+        int dash = language.indexOf('-');
+        return CASELESS_LANGUAGES.contains(dash < 0 ? language : language.substring(0, dash));
+    }
+
+    /**
+     * 產生查找鍵文字
+     *
+     * @param text 原文（預處理前後皆可，結果相同）
+     * @param language 已正規化的目標語言
+     * @return 正規化後的文字；已是正規形式時返回同一實例
+     */
+    public static String text(String text, String language) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        String normalized = isAscii(text) || Normalizer.isNormalized(text, Normalizer.Form.NFKC)
+            ? text : Normalizer.normalize(text, Normalizer.Form.NFKC);
+        boolean foldCase = isCaseless(language);
+
+        StringBuilder key = new StringBuilder(normalized.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c == '§' && i + 1 < normalized.length() && FORMATTING_CODES.indexOf(normalized.charAt(i + 1)) >= 0) {
+                // 格式化代碼不影響文字內容
+                i++;
+                continue;
+            }
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                pendingSpace = key.length() > 0;
+                continue;
+            }
+            char mapped = canonicalChar(c);
+            if (mapped == 0) {
+                continue;
+            }
+            if (pendingSpace) {
+                key.append(' ');
+                pendingSpace = false;
+            }
+            key.append(foldCase ? Character.toLowerCase(mapped) : mapped);
+        }
+        return key.length() == text.length() && key.toString().equals(text) ? text : key.toString();
+    }
+
+    /**
+     * 統一引號、破折號等易混字元；返回 0 表示移除（零寬字元）
+     */
+    private static char canonicalChar(char c) {
+        switch (c) {
+            case '\u2018': case '\u2019': case '\u201A': case '\u201B': case '\u2032': case '`':
+                return '\'';
+            case '\u201C': case '\u201D': case '\u201E': case '\u201F': case '\u00AB': case '\u00BB':
+                return '"';
+            case '\u2010': case '\u2011': case '\u2012': case '\u2013': case '\u2014': case '\u2015': case '\u2212':
+                return '-';
+            case '\u200B': case '\u200C': case '\u200D': case '\u2060': case '\uFEFF':
+                return 0;
+            default:
+                return c;
+        }
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 依原文還原譯文中保留的拉丁字詞的大小寫
+     * 大小寫摺疊後，緩存中的譯文可能來自另一種大小寫的原文（例如保留未翻譯的玩家名稱）
+     */
+    public static String restoreCase(String translated, String original) {
+        if (translated == null || original == null) {
+            return translated;
+        }
+        StringBuilder result = null;
+        int i = 0;
+        while (i < translated.length()) {
+            if (!isLatinLetter(translated.charAt(i))) {
+                i++;
+                continue;
+            }
+            int end = i;
+            while (end < translated.length() && isLatinLetter(translated.charAt(end))) {
+                end++;
+            }
+            String word = translated.substring(i, end);
+            String cased = findWord(original, word);
+            if (cased != null && !cased.equals(word)) {
+                if (result == null) {
+                    result = new StringBuilder(translated);
+                }
+                result.replace(i, end, cased);
+            }
+            i = end;
+        }
+        return result != null ? result.toString() : translated;
+    }
+
+    /**
+     * 在原文中找出忽略大小寫相等的完整字詞
+     */
+    private static String findWord(String original, String word) {
+        int from = 0;
+        while (from <= original.length() - word.length()) {
+            int start = indexOfIgnoreCase(original, word, from);
+            if (start < 0) {
+                return null;
+            }
+            int end = start + word.length();
+            boolean whole = (start == 0 || !isLatinLetter(original.charAt(start - 1)))
+                && (end == original.length() || !isLatinLetter(original.charAt(end)));
+            if (whole) {
+                return original.substring(start, end);
+            }
+            from = start + 1;
+        }
+        return null;
+    }
+
+    private static int indexOfIgnoreCase(String text, String word, int from) {
+        for (int i = from; i <= text.length() - word.length(); i++) {
+            if (text.regionMatches(true, i, word, 0, word.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isLatinLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -4,33 +4,29 @@ import com.smarttranslator.config.PerformanceConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 緩存優化器
- * 負責緩存的智能管理和優化
+ * 統計命中率並定期排空訪問緩衝區；L1 的准入與驅逐由 Caffeine 的 W-TinyLFU 策略執行
  */
 public class CacheOptimizer {
     private static final Logger LOGGER = LoggerFactory.getLogger(CacheOptimizer.class);
     
     private final TranslationCache cache;
+    private final FrequencyTracker frequencyTracker;
     private final ScheduledExecutorService scheduler;
     
-    // 緩存統計
-    private final AtomicLong hitCount = new AtomicLong(0);
-    private final AtomicLong missCount = new AtomicLong(0);
-    private final AtomicLong evictionCount = new AtomicLong(0);
+    // 緩存統計（命中路徑上只做一次無競爭的累加）
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
     
-    // 訪問頻率統計
-    private final Map<String, AccessInfo> accessStats = new ConcurrentHashMap<>();
-    
-    public CacheOptimizer(TranslationCache cache) {
+    public CacheOptimizer(TranslationCache cache, FrequencyTracker frequencyTracker) {
         this.cache = cache;
+        this.frequencyTracker = frequencyTracker;
         this.scheduler = Executors.newScheduledThreadPool(1);
         
         // 定期清理過期緩存和優化
@@ -45,33 +41,17 @@ public class CacheOptimizer {
     }
     
     /**
-     * 記錄緩存命中
+     * 記錄緩存命中（訪問頻率由 {@link FrequencyTracker} 記錄）
      */
-    public void recordHit(String key) {
-        hitCount.incrementAndGet();
-        updateAccessInfo(key);
+    public void recordHit() {
+        hitCount.increment();
     }
     
     /**
      * 記錄緩存未命中
      */
-    public void recordMiss(String key) {
-        missCount.incrementAndGet();
-    }
-    
-    /**
-     * 更新訪問信息
-     */
-    private void updateAccessInfo(String key) {
-        accessStats.compute(key, (k, info) -> {
-            if (info == null) {
-                return new AccessInfo(1, System.currentTimeMillis());
-            } else {
-                info.incrementAccess();
-                info.updateLastAccess();
-                return info;
-            }
-        });
+    public void recordMiss() {
+        missCount.increment();
     }
     
     /**
@@ -79,70 +59,29 @@ public class CacheOptimizer {
      */
     private void optimizeCache() {
         try {
-            // 清理過期的訪問統計
-            cleanupAccessStats();
-            
-            // 如果緩存大小超過限制，執行LRU清理
-            if (cache.getCacheSize() > PerformanceConfig.DEFAULT_CACHE_SIZE) {
-                performLRUEviction();
-            }
+            // 訪問量少時緩衝區不會填滿，定期排空讓頻率估計保持更新
+            frequencyTracker.drain();
             
             // 記錄統計信息
             logCacheStats();
-            
+        
         } catch (Exception e) {
             LOGGER.error("緩存優化過程中發生錯誤", e);
         }
     }
     
-    /**
-     * 清理過期的訪問統計
-     */
-    private void cleanupAccessStats() {
-        long expireTime = System.currentTimeMillis() - PerformanceConfig.CACHE_EXPIRE_TIME_MS;
-        accessStats.entrySet().removeIf(entry -> 
-            entry.getValue().getLastAccess() < expireTime
-        );
-    }
-    
-    /**
-     * 執行LRU清理
-     */
-    private void performLRUEviction() {
-        // 找出最少使用的緩存項目
-        String lruKey = accessStats.entrySet().stream()
-            .min((e1, e2) -> {
-                AccessInfo info1 = e1.getValue();
-                AccessInfo info2 = e2.getValue();
-                
-                // 首先比較訪問次數，然後比較最後訪問時間
-                int countCompare = Integer.compare(info1.getAccessCount(), info2.getAccessCount());
-                if (countCompare != 0) {
-                    return countCompare;
-                }
-                return Long.compare(info1.getLastAccess(), info2.getLastAccess());
-            })
-            .map(Map.Entry::getKey)
-            .orElse(null);
-        
-        if (lruKey != null) {
-            // 移除最少使用的項目
-            accessStats.remove(lruKey);
-            evictionCount.incrementAndGet();
-            LOGGER.debug("執行LRU清理，移除緩存項目: {}", lruKey);
-        }
-    }
-    
     /**
      * 記錄緩存統計信息
      */
     private void logCacheStats() {
-        long totalRequests = hitCount.get() + missCount.get();
+        long hits = hitCount.sum();
+        long misses = missCount.sum();
+        long totalRequests = hits + misses;
         if (totalRequests > 0) {
-            double hitRate = (double) hitCount.get() / totalRequests * 100;
-            LOGGER.info("緩存統計 - 命中率: {:.2f}%, 總請求: {}, 命中: {}, 未命中: {}, 清理: {}, 緩存大小: {}", 
-                hitRate, totalRequests, hitCount.get(), missCount.get(), 
-                evictionCount.get(), cache.getCacheSize());
+            double hitRate = (double) hits / totalRequests * 100;
+            LOGGER.info("緩存統計 - 命中率: {}%, 總請求: {}, 命中: {}, 未命中: {}, L1 驅逐: {}, 緩存大小: {}", 
+                String.format("%.2f", hitRate), totalRequests, hits, misses, 
+                cache.getTierStats().getL1Evictions(), cache.getCacheSize());
         }
     }
     
@@ -150,11 +89,12 @@ public class CacheOptimizer {
      * 獲取緩存命中率
      */
     public double getHitRate() {
-        long totalRequests = hitCount.get() + missCount.get();
+        long hits = hitCount.sum();
+        long totalRequests = hits + missCount.sum();
         if (totalRequests == 0) {
             return 0.0;
         }
-        return (double) hitCount.get() / totalRequests;
+        return (double) hits / totalRequests;
     }
     
     /**
@@ -162,12 +102,12 @@ public class CacheOptimizer {
      */
     public CacheOptimizerStats getStats() {
         return new CacheOptimizerStats(
-            hitCount.get(),
-            missCount.get(),
-            evictionCount.get(),
+            hitCount.sum(),
+            missCount.sum(),
+            cache.getTierStats().getL1Evictions(),
             getHitRate(),
             cache.getCacheSize(),
-            accessStats.size()
+            frequencyTracker.getDropped()
         );
     }
     
@@ -191,41 +131,12 @@ public class CacheOptimizer {
      * 重置統計信息
      */
     public void reset() {
-        hitCount.set(0);
-        missCount.set(0);
-        accessStats.clear();
+        hitCount.reset();
+        missCount.reset();
+        frequencyTracker.reset();
         LOGGER.info("緩存優化器統計信息已重置");
     }
     
-    /**
-     * 訪問信息類
-     */
-    private static class AccessInfo {
-        private int accessCount;
-        private long lastAccess;
-        
-        public AccessInfo(int accessCount, long lastAccess) {
-            this.accessCount = accessCount;
-            this.lastAccess = lastAccess;
-        }
-        
-        public void incrementAccess() {
-            this.accessCount++;
-        }
-        
-        public void updateLastAccess() {
-            this.lastAccess = System.currentTimeMillis();
-        }
-        
-        public int getAccessCount() {
-            return accessCount;
-        }
-        
-        public long getLastAccess() {
-            return lastAccess;
-        }
-    }
-    
     /**
      * 緩存優化器統計信息
      */
@@ -235,16 +146,16 @@ public class CacheOptimizer {
         private final long evictionCount;
         private final double hitRate;
         private final int cacheSize;
-        private final int accessStatsSize;
+        private final long droppedAccesses;
         
         public CacheOptimizerStats(long hitCount, long missCount, long evictionCount, 
-                                 double hitRate, int cacheSize, int accessStatsSize) {
+                                 double hitRate, int cacheSize, long droppedAccesses) {
             this.hitCount = hitCount;
             this.missCount = missCount;
             this.evictionCount = evictionCount;
             this.hitRate = hitRate;
             this.cacheSize = cacheSize;
-            this.accessStatsSize = accessStatsSize;
+            this.droppedAccesses = droppedAccesses;
         }
         
         // Getters
@@ -253,6 +164,6 @@ public class CacheOptimizer {
         public long getEvictionCount() { return evictionCount; }
         public double getHitRate() { return hitRate; }
         public int getCacheSize() { return cacheSize; }
-        public int getAccessStatsSize() { return accessStatsSize; }
+        public long getDroppedAccesses() { return droppedAccesses; }
     }
 }
\ No newline at end of file
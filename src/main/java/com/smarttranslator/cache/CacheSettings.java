@@ -0,0 +1,80 @@
+package com.smarttranslator.cache;
+
+import com.smarttranslator.config.SmartTranslatorConfig;
+
+/**
+ * 緩存讀取的使用者設定
+ * 遊戲中使用 {@link #CONFIG} 即時讀取設定檔；不依賴遊戲環境建立的緩存（例如測試）使用 {@link #DEFAULTS}
+ * 或自訂的 {@link Fixed}，設定檔載入前不會讀取設定值。
+ */
+public interface CacheSettings {
+
+    /**
+     * L1 的項目數量上限，0 或負數時依可用記憶體計算
+     */
+    int maxCacheSize();
+
+    /**
+     * 記憶體壓力縮減 L1 時，被縮減的項目是否降級為軟引用
+     */
+    boolean softReferenceDemotion();
+
+    /**
+     * 是否預取同組文字
+     */
+    boolean prefetchEnabled();
+
+    /**
+     * 每分鐘的預取請求上限
+     */
+    int prefetchBudgetPerMinute();
+
+    /**
+     * 即時讀取 {@link SmartTranslatorConfig}
+     */
+    CacheSettings CONFIG = new CacheSettings() {
+        @Override
+        public int maxCacheSize() {
+            return SmartTranslatorConfig.MAX_CACHE_SIZE.get();
+        }
+
+        @Override
+        public boolean softReferenceDemotion() {
+            return SmartTranslatorConfig.SOFT_REFERENCE_DEMOTION.get();
+        }
+
+        @Override
+        public boolean prefetchEnabled() {
+            return SmartTranslatorConfig.PREFETCH_ENABLED.get();
+        }
+
+        @Override
+        public int prefetchBudgetPerMinute() {
+            return SmartTranslatorConfig.PREFETCH_BUDGET_PER_MINUTE.get();
+        }
+    };
+
+    /**
+     * 設定檔的預設值
+     */
+    Fixed DEFAULTS = new Fixed(
+        SmartTranslatorConfig.MAX_CACHE_SIZE.getDefault(),
+        SmartTranslatorConfig.SOFT_REFERENCE_DEMOTION.getDefault(),
+        SmartTranslatorConfig.PREFETCH_ENABLED.getDefault(),
+        SmartTranslatorConfig.PREFETCH_BUDGET_PER_MINUTE.getDefault());
+
+    /**
+     * 固定的設定值
+     */
+    record Fixed(int maxCacheSize, boolean softReferenceDemotion, boolean prefetchEnabled,
+                 int prefetchBudgetPerMinute) implements CacheSettings {
+
+        public Fixed withSoftReferenceDemotion(boolean enabled) {
+            return new Fixed(maxCacheSize, enabled, prefetchEnabled, prefetchBudgetPerMinute);
+        }
+
+        public Fixed withPrefetch(boolean enabled, int budgetPerMinute) {
+            return new Fixed(maxCacheSize, softReferenceDemotion, enabled, budgetPerMinute);
+        }
+    }
+}
@@ -6,13 +6,14 @@ package com.smarttranslator.cache;
 public class CachedTranslation {
     private final String originalText;
     private final String translatedText;
-    private final String targetLanguage;
+    private final short languageId;
     private final long timestamp;
     
     public CachedTranslation(String originalText, String translatedText, String targetLanguage, long timestamp) {
-        this.originalText = originalText;
-        this.translatedText = translatedText;
-        this.targetLanguage = targetLanguage;
+        // 重複的原文與譯文共用同一實例
+        this.originalText = StringPool.intern(originalText);
+        this.translatedText = StringPool.intern(translatedText);
+        this.languageId = (short) LanguageIds.intern(targetLanguage);
         this.timestamp = timestamp;
     }
     
@@ -25,19 +26,30 @@ public class CachedTranslation {
     }
     
     public String getTargetLanguage() {
-        return targetLanguage;
+        return LanguageIds.nameOf(languageId);
+    }
+    
+    public int getLanguageId() {
+        return languageId;
     }
     
     public long getTimestamp() {
         return timestamp;
     }
     
+    /**
+     * 驗證雜湊命中的項目確實是同一原文與語言
+     */
+    boolean matches(String originalText, int languageId) {
+        return this.languageId == languageId && this.originalText.equals(originalText);
+    }
+    
     @Override
     public String toString() {
         return "CachedTranslation{" +
                 "originalText='" + originalText + '\'' +
                 ", translatedText='" + translatedText + '\'' +
-                ", targetLanguage='" + targetLanguage + '\'' +
+                ", targetLanguage='" + getTargetLanguage() + '\'' +
                 ", timestamp=" + timestamp +
                 '}';
     }
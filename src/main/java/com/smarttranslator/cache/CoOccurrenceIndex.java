@@ -0,0 +1,142 @@
+package com.smarttranslator.cache;
+
+import com.smarttranslator.config.PerformanceConfig;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 文字共現索引
+ * 記錄經常一起出現的文字（同一個物品提示中的各行、同一段對話的前後句），
+ * 某一行未命中時可據此找出同組中其他可能即將需要的文字。
+ * 追蹤的文字數量與每個文字的鄰居數量都有上限，超出時淘汰最久未使用的文字與計數最低的鄰居。
+ */
+final class CoOccurrenceIndex {
+    private final int maxTexts;
+    private final int maxNeighbors;
+    private final Map<String, Neighbors> index;
+    // 最近觀察過的組，避免每一幀重複渲染的提示反覆累加計數
+    private final Map<Long, Boolean> recentGroups;
+
+    CoOccurrenceIndex() {
+        this(PerformanceConfig.PREFETCH_MAX_TEXTS, PerformanceConfig.PREFETCH_MAX_NEIGHBORS);
+    }
+
+    CoOccurrenceIndex(int maxTexts, int maxNeighbors) {
+        this.maxTexts = maxTexts;
+        this.maxNeighbors = maxNeighbors;
+        this.index = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Neighbors> eldest) {
+                return size() > CoOccurrenceIndex.this.maxTexts;
+            }
+        };
+        this.recentGroups = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > PerformanceConfig.PREFETCH_RECENT_GROUPS;
+            }
+        };
+    }
+
+    /**
+     * 觀察一組同時出現的文字
+     *
+     * @return 是否為新的組（最近觀察過的組不重複計數）
+     */
+    synchronized boolean observe(List<String> group) {
+        int size = Math.min(group.size(), PerformanceConfig.PREFETCH_MAX_GROUP_SIZE);
+        if (size < 2) {
+            return false;
+        }
+        long signature = 1;
+        for (int i = 0; i < size; i++) {
+            signature = signature * 31 + group.get(i).hashCode();
+        }
+        if (recentGroups.put(signature, Boolean.TRUE) != null) {
+            return false;
+        }
+
+        for (int i = 0; i < size; i++) {
+            String text = StringPool.intern(group.get(i));
+            Neighbors neighbors = index.computeIfAbsent(text, k -> new Neighbors(maxNeighbors));
+            for (int j = 0; j < size; j++) {
+                if (i != j) {
+                    neighbors.add(StringPool.intern(group.get(j)));
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 獲取與指定文字共同出現至少 minCount 次的文字，依次數由高到低
+     */
+    synchronized List<String> neighbors(String text, int minCount) {
+        Neighbors neighbors = index.get(text);
+        if (neighbors == null) {
+            return List.of();
+        }
+        return neighbors.atLeast(minCount);
+    }
+
+    synchronized int size() {
+        return index.size();
+    }
+
+    synchronized void clear() {
+        index.clear();
+        recentGroups.clear();
+    }
+
+    /**
+     * 固定大小的鄰居計數（滿時替換計數最低者）
+     */
+    private static final class Neighbors {
+        final String[] texts;
+        final int[] counts;
+
+        Neighbors(int capacity) {
+            this.texts = new String[capacity];
+            this.counts = new int[capacity];
+        }
+
+        void add(String text) {
+            int lowest = 0;
+            for (int i = 0; i < texts.length; i++) {
+                if (texts[i] == null) {
+                    texts[i] = text;
+                    counts[i] = 1;
+                    return;
+                }
+                if (texts[i].equals(text)) {
+                    counts[i]++;
+                    return;
+                }
+                if (counts[i] < counts[lowest]) {
+                    lowest = i;
+                }
+            }
+            // 新鄰居從 1 開始，需要再次共同出現才會超過其他鄰居
+            texts[lowest] = text;
+            counts[lowest] = 1;
+        }
+
+        List<String> atLeast(int minCount) {
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < texts.length && texts[i] != null; i++) {
+                if (counts[i] >= minCount) {
+                    order.add(i);
+                }
+            }
+            order.sort((a, b) -> Integer.compare(counts[b], counts[a]));
+            List<String> result = new ArrayList<>(order.size());
+            for (int i : order) {
+                result.add(texts[i]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,675 @@
+package com.smarttranslator.cache;
+
+import com.smarttranslator.config.PerformanceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 冷歸檔
+ * 過期或合併時被丟棄的翻譯不直接刪除，而是追加到磁碟上的壓縮歸檔。過期的文字仍會重新翻譯，
+ * 重新翻譯失敗（API 錯誤、逾時）時可以取回舊譯文，而不是顯示原文。
+ * <p>
+ * 歸檔檔案由多個區塊組成，每個區塊包含按鍵排序的未壓縮鍵表與 Deflate 壓縮的記錄區。
+ * 查找時先查記憶體中的布隆過濾器，確定不存在時不讀取磁碟；只有可能存在時才由新到舊讀取區塊。
+ * 布隆過濾器與歸檔一同持久化，檔案長度不符時從各區塊的鍵表重建。
+ */
+public class ColdArchive {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ColdArchive.class);
+    static final String FILE_NAME = "cold_archive.dat";
+    static final String FILTER_FILE_NAME = "cold_archive.bloom";
+
+    private static final int BLOCK_MAGIC = 0x53544341; // "STCA"
+    private static final int FILTER_MAGIC = 0x53544246; // "STBF"
+    private static final int FILTER_VERSION = 1;
+    private static final int BLOCK_HEADER_SIZE = 16; // magic + 項目數 + 原始長度 + 壓縮長度
+    private static final int KEY_SLOT_SIZE = 12; // long 鍵 + int 記錄偏移（-1 表示刪除標記）
+
+    private final Path file;
+    private final Path filterFile;
+    private final Executor flushExecutor;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    // 尚未寫入磁碟的項目（譯文為 null 表示刪除標記）
+    private final Map<Long, CachedTranslation> pending = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private volatile boolean loaded = false;
+
+    // 以下欄位只在持有鎖時讀寫
+    private FileChannel channel;
+    private long[] blockOffsets = new long[0];
+    private int entryCount = 0;
+    private int filterCapacity;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder filterNegatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder archived = new LongAdder();
+
+    ColdArchive(Path directory, Executor flushExecutor) {
+        this.file = directory.resolve(FILE_NAME);
+        this.filterFile = directory.resolve(FILTER_FILE_NAME);
+        this.flushExecutor = flushExecutor;
+        this.filterCapacity = PerformanceConfig.ARCHIVE_FILTER_CAPACITY;
+        this.filter = BloomFilter.create(filterCapacity, PerformanceConfig.ARCHIVE_FILTER_FPP);
+    }
+
+    /**
+     * 開啟歸檔檔案並載入（或重建）布隆過濾器；載入完成前的查找一律視為未命中
+     */
+    public synchronized void load() {
+        if (channel != null) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            scanBlocks();
+            BloomFilter persisted = readFilter(channel.size());
+            if (persisted != null) {
+                filter = persisted;
+            } else {
+                rebuildFilter();
+            }
+            // 載入期間加入的項目仍在待寫入表中，補回過濾器
+            for (Long key : pending.keySet()) {
+                filter.put(key);
+            }
+            loaded = true;
+            LOGGER.info("冷歸檔已開啟，共 {} 個區塊、{} 條記錄", blockOffsets.length, entryCount);
+        } catch (IOException e) {
+            LOGGER.error("開啟冷歸檔失敗: {}", file, e);
+        }
+    }
+
+    /**
+     * 讀取所有區塊的位置；尾端不完整的區塊（寫入中斷）會被截斷
+     */
+    private void scanBlocks() throws IOException {
+        long size = channel.size();
+        List<Long> offsets = new ArrayList<>();
+        int entries = 0;
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        while (position + BLOCK_HEADER_SIZE <= size) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            int magic = header.getInt();
+            int count = header.getInt();
+            int rawLength = header.getInt();
+            int compressedLength = header.getInt();
+            long length = BLOCK_HEADER_SIZE + (long) count * KEY_SLOT_SIZE + compressedLength;
+            if (magic != BLOCK_MAGIC || count < 0 || rawLength < 0 || compressedLength < 0 || position + length > size) {
+                break;
+            }
+            offsets.add(position);
+            entries += count;
+            position += length;
+        }
+        if (position < size) {
+            LOGGER.warn("冷歸檔尾端有 {} 位元組不完整的資料，已截斷", size - position);
+            channel.truncate(position);
+        }
+        blockOffsets = offsets.stream().mapToLong(Long::longValue).toArray();
+        entryCount = entries;
+    }
+
+    /**
+     * 查找歸檔的翻譯
+     *
+     * @return 找到的項目，不存在或已被移除時返回 null
+     */
+    public CachedTranslation get(long key, String originalText, String targetLanguage) {
+        CachedTranslation cached = pending.get(key);
+        int languageId = LanguageIds.idOf(targetLanguage);
+        if (cached != null && cached.matches(originalText, languageId)) {
+            if (cached.getTranslatedText() == null) {
+                return null;
+            }
+            hits.increment();
+            return cached;
+        }
+        if (!loaded) {
+            return null;
+        }
+
+        lookups.increment();
+        if (!filter.mightContain(key)) {
+            filterNegatives.increment();
+            return null;
+        }
+        CachedTranslation found = findOnDisk(key, originalText, languageId);
+        if (found == null) {
+            falsePositives.increment();
+            return null;
+        }
+        if (found.getTranslatedText() == null) {
+            return null;
+        }
+        hits.increment();
+        return found;
+    }
+
+    /**
+     * 檢查歸檔中是否有項目（不計入統計）
+     */
+    public boolean contains(long key, String originalText, String targetLanguage) {
+        int languageId = LanguageIds.idOf(targetLanguage);
+        CachedTranslation cached = pending.get(key);
+        if (cached != null && cached.matches(originalText, languageId)) {
+            return cached.getTranslatedText() != null;
+        }
+        if (!loaded || !filter.mightContain(key)) {
+            return false;
+        }
+        CachedTranslation found = findOnDisk(key, originalText, languageId);
+        return found != null && found.getTranslatedText() != null;
+    }
+
+    /**
+     * 由新到舊在區塊中查找；找到刪除標記時返回該標記
+     */
+    private synchronized CachedTranslation findOnDisk(long key, String originalText, int languageId) {
+        try {
+            for (int i = blockOffsets.length - 1; i >= 0; i--) {
+                CachedTranslation found = findInBlock(blockOffsets[i], key, originalText, languageId);
+                if (found != null) {
+                    return found;
+                }
+            }
+        } catch (IOException | DataFormatException e) {
+            LOGGER.warn("讀取冷歸檔失敗: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private CachedTranslation findInBlock(long blockOffset, long key, String originalText, int languageId)
+            throws IOException, DataFormatException {
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        readFully(header, blockOffset);
+        header.flip();
+        header.getInt();
+        int count = header.getInt();
+        int rawLength = header.getInt();
+        int compressedLength = header.getInt();
+
+        ByteBuffer table = ByteBuffer.allocate(count * KEY_SLOT_SIZE);
+        readFully(table, blockOffset + BLOCK_HEADER_SIZE);
+        int low = 0;
+        int high = count - 1;
+        int slot = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = table.getLong(mid * KEY_SLOT_SIZE);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                slot = mid;
+                break;
+            }
+        }
+        if (slot < 0) {
+            return null;
+        }
+
+        int recordOffset = table.getInt(slot * KEY_SLOT_SIZE + 8);
+        if (recordOffset < 0) {
+            return new CachedTranslation(originalText, null, LanguageIds.nameOf(languageId), 0);
+        }
+        ByteBuffer compressed = ByteBuffer.allocate(compressedLength);
+        readFully(compressed, blockOffset + BLOCK_HEADER_SIZE + (long) count * KEY_SLOT_SIZE);
+        byte[] raw = inflate(compressed.array(), rawLength);
+        CachedTranslation cached = decodeRecord(ByteBuffer.wrap(raw), recordOffset);
+        // 雜湊碰撞時繼續查找更舊的區塊
+        return cached.matches(originalText, languageId) ? cached : null;
+    }
+
+    /**
+     * 歸檔一個項目（先進入待寫入表，累積到一個區塊後在後台寫入）
+     */
+    public void add(CachedTranslation cached) {
+        if (cached.getTranslatedText() == null) {
+            return;
+        }
+        long key = TranslationKeyHash.hash(cached.getOriginalText(), cached.getTargetLanguage());
+        pending.put(key, cached);
+        filter.put(key);
+        archived.increment();
+        if (pending.size() >= PerformanceConfig.ARCHIVE_BLOCK_ENTRIES) {
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * 移除歸檔的項目（寫入刪除標記，遮蔽更舊區塊中的記錄）
+     */
+    public void remove(long key, String originalText, String targetLanguage) {
+        if (!pending.containsKey(key) && !filter.mightContain(key)) {
+            return;
+        }
+        pending.put(key, new CachedTranslation(originalText, null, targetLanguage, System.currentTimeMillis()));
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(() -> {
+                    flushScheduled.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * 將待寫入的項目追加為新區塊；區塊過多時重寫整個歸檔
+     */
+    public synchronized void flush() {
+        if (!loaded || pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, CachedTranslation>> entries = new ArrayList<>(pending.entrySet());
+        try {
+            long position = channel.size();
+            List<Long> offsets = new ArrayList<>();
+            for (int start = 0; start < entries.size(); start += PerformanceConfig.ARCHIVE_BLOCK_ENTRIES) {
+                List<Map.Entry<Long, CachedTranslation>> block =
+                    entries.subList(start, Math.min(entries.size(), start + PerformanceConfig.ARCHIVE_BLOCK_ENTRIES));
+                ByteBuffer encoded = encodeBlock(block);
+                offsets.add(position);
+                while (encoded.hasRemaining()) {
+                    position += channel.write(encoded, position);
+                }
+            }
+            channel.force(false);
+
+            long[] updated = Arrays.copyOf(blockOffsets, blockOffsets.length + offsets.size());
+            for (int i = 0; i < offsets.size(); i++) {
+                updated[blockOffsets.length + i] = offsets.get(i);
+            }
+            blockOffsets = updated;
+            entryCount += entries.size();
+            // 寫入期間被更新的項目保留在待寫入表中
+            for (Map.Entry<Long, CachedTranslation> entry : entries) {
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+
+            if (blockOffsets.length > PerformanceConfig.ARCHIVE_COMPACT_BLOCKS) {
+                compact();
+            } else if (entryCount > filterCapacity) {
+                rebuildFilter();
+            }
+            writeFilter();
+        } catch (IOException e) {
+            LOGGER.error("寫入冷歸檔失敗: {}", file, e);
+        }
+    }
+
+    /**
+     * 重寫歸檔：每個鍵只保留最新的記錄，丟棄刪除標記及超過保留期限的項目
+     */
+    private void compact() throws IOException {
+        long expireBefore = System.currentTimeMillis() - PerformanceConfig.ARCHIVE_RETENTION_MS;
+        Map<Long, CachedTranslation> live = new LinkedHashMap<>();
+        try {
+            for (long blockOffset : blockOffsets) {
+                readBlock(blockOffset, (key, cached) -> {
+                    if (cached == null || cached.getTimestamp() < expireBefore) {
+                        live.remove(key);
+                    } else {
+                        live.put(key, cached);
+                    }
+                });
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("冷歸檔區塊已損壞", e);
+        }
+
+        List<Map.Entry<Long, CachedTranslation>> entries = new ArrayList<>(live.entrySet());
+        Path temp = file.resolveSibling(FILE_NAME + ".tmp");
+        List<Long> offsets = new ArrayList<>();
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            for (int start = 0; start < entries.size(); start += PerformanceConfig.ARCHIVE_BLOCK_ENTRIES) {
+                ByteBuffer encoded = encodeBlock(
+                    entries.subList(start, Math.min(entries.size(), start + PerformanceConfig.ARCHIVE_BLOCK_ENTRIES)));
+                offsets.add(position);
+                while (encoded.hasRemaining()) {
+                    position += out.write(encoded, position);
+                }
+            }
+            out.force(false);
+        }
+        channel.close();
+        moveReplacing(temp, file);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        blockOffsets = offsets.stream().mapToLong(Long::longValue).toArray();
+        entryCount = entries.size();
+        rebuildFilter();
+        LOGGER.info("冷歸檔已重寫，保留 {} 條記錄", entryCount);
+    }
+
+    /**
+     * 從各區塊的鍵表重建布隆過濾器（不需要解壓記錄）
+     */
+    private void rebuildFilter() throws IOException {
+        filterCapacity = Math.max(PerformanceConfig.ARCHIVE_FILTER_CAPACITY, entryCount * 2);
+        BloomFilter rebuilt = BloomFilter.create(filterCapacity, PerformanceConfig.ARCHIVE_FILTER_FPP);
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        for (long blockOffset : blockOffsets) {
+            header.clear();
+            readFully(header, blockOffset);
+            int count = header.getInt(4);
+            ByteBuffer table = ByteBuffer.allocate(count * KEY_SLOT_SIZE);
+            readFully(table, blockOffset + BLOCK_HEADER_SIZE);
+            for (int slot = 0; slot < count; slot++) {
+                if (table.getInt(slot * KEY_SLOT_SIZE + 8) >= 0) {
+                    rebuilt.put(table.getLong(slot * KEY_SLOT_SIZE));
+                }
+            }
+        }
+        for (Long key : pending.keySet()) {
+            rebuilt.put(key);
+        }
+        filter = rebuilt;
+    }
+
+    private BloomFilter readFilter(long expectedLength) {
+        if (!Files.exists(filterFile)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(filterFile)))) {
+            if (in.readInt() != FILTER_MAGIC || in.readInt() != FILTER_VERSION) {
+                return null;
+            }
+            long coveredLength = in.readLong();
+            int capacity = in.readInt();
+            if (coveredLength != expectedLength || capacity < entryCount) {
+                // 歸檔在過濾器保存後又有寫入（例如異常退出），重建
+                return null;
+            }
+            BloomFilter persisted = BloomFilter.readFrom(in);
+            filterCapacity = capacity;
+            return persisted;
+        } catch (IOException e) {
+            LOGGER.warn("讀取冷歸檔過濾器失敗，將重建: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeFilter() throws IOException {
+        Path temp = filterFile.resolveSibling(FILTER_FILE_NAME + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FILTER_MAGIC);
+            out.writeInt(FILTER_VERSION);
+            out.writeLong(channel.size());
+            out.writeInt(filterCapacity);
+            filter.writeTo(out);
+        }
+        moveReplacing(temp, filterFile);
+    }
+
+    /**
+     * 清除所有歸檔
+     */
+    public synchronized void clear() {
+        pending.clear();
+        try {
+            if (channel != null) {
+                channel.truncate(0);
+            }
+            Files.deleteIfExists(filterFile);
+        } catch (IOException e) {
+            LOGGER.error("清除冷歸檔失敗: {}", file, e);
+        }
+        blockOffsets = new long[0];
+        entryCount = 0;
+        filterCapacity = PerformanceConfig.ARCHIVE_FILTER_CAPACITY;
+        filter = BloomFilter.create(filterCapacity, PerformanceConfig.ARCHIVE_FILTER_FPP);
+    }
+
+    /**
+     * 寫入剩餘的項目並關閉檔案
+     */
+    public synchronized void shutdown() {
+        flush();
+        loaded = false;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.warn("關閉冷歸檔失敗: {}", e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    // ===== 區塊編碼 =====
+
+    private static ByteBuffer encodeBlock(List<Map.Entry<Long, CachedTranslation>> entries) throws IOException {
+        List<Map.Entry<Long, CachedTranslation>> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(Map.Entry::getKey));
+
+        long[] keys = new long[sorted.size()];
+        int[] offsets = new int[sorted.size()];
+        ByteArrayOutputStream rawBytes = new ByteArrayOutputStream();
+        DataOutputStream raw = new DataOutputStream(rawBytes);
+        for (int i = 0; i < sorted.size(); i++) {
+            CachedTranslation cached = sorted.get(i).getValue();
+            keys[i] = sorted.get(i).getKey();
+            if (cached.getTranslatedText() == null) {
+                offsets[i] = -1;
+                continue;
+            }
+            offsets[i] = raw.size();
+            raw.writeLong(cached.getTimestamp());
+            writeString(raw, cached.getTargetLanguage());
+            writeString(raw, cached.getOriginalText());
+            writeString(raw, cached.getTranslatedText());
+        }
+        raw.flush();
+        byte[] rawArray = rawBytes.toByteArray();
+        byte[] compressed = deflate(rawArray);
+
+        ByteBuffer buffer = ByteBuffer.allocate(BLOCK_HEADER_SIZE + keys.length * KEY_SLOT_SIZE + compressed.length);
+        buffer.putInt(BLOCK_MAGIC).putInt(keys.length).putInt(rawArray.length).putInt(compressed.length);
+        for (int i = 0; i < keys.length; i++) {
+            buffer.putLong(keys[i]).putInt(offsets[i]);
+        }
+        buffer.put(compressed);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * 依序讀出區塊中的所有記錄；刪除標記以 null 傳回
+     */
+    private void readBlock(long blockOffset, BlockVisitor visitor) throws IOException, DataFormatException {
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        readFully(header, blockOffset);
+        int count = header.getInt(4);
+        int rawLength = header.getInt(8);
+        int compressedLength = header.getInt(12);
+        ByteBuffer table = ByteBuffer.allocate(count * KEY_SLOT_SIZE);
+        readFully(table, blockOffset + BLOCK_HEADER_SIZE);
+        ByteBuffer compressed = ByteBuffer.allocate(compressedLength);
+        readFully(compressed, blockOffset + BLOCK_HEADER_SIZE + (long) count * KEY_SLOT_SIZE);
+        ByteBuffer raw = ByteBuffer.wrap(inflate(compressed.array(), rawLength));
+        for (int slot = 0; slot < count; slot++) {
+            long key = table.getLong(slot * KEY_SLOT_SIZE);
+            int recordOffset = table.getInt(slot * KEY_SLOT_SIZE + 8);
+            visitor.visit(key, recordOffset < 0 ? null : decodeRecord(raw, recordOffset));
+        }
+    }
+
+    @FunctionalInterface
+    private interface BlockVisitor {
+        void visit(long key, CachedTranslation cached);
+    }
+
+    private static CachedTranslation decodeRecord(ByteBuffer raw, int offset) {
+        raw.position(offset);
+        long timestamp = raw.getLong();
+        String language = readString(raw);
+        String original = readString(raw);
+        String translated = readString(raw);
+        return new CachedTranslation(original, translated, language, timestamp);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer raw) {
+        int length = raw.getInt();
+        String value = new String(raw.array(), raw.position(), length, StandardCharsets.UTF_8);
+        raw.position(raw.position() + length);
+        return value;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 2));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int rawLength) throws DataFormatException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength) {
+                int n = inflater.inflate(raw, length, rawLength - length);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != rawLength) {
+                throw new DataFormatException("冷歸檔區塊長度不符");
+            }
+            return raw;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) {
+                throw new IOException("冷歸檔意外結束");
+            }
+        }
+    }
+
+    private static void moveReplacing(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // ===== 統計 =====
+
+    /**
+     * 歸檔中的記錄數（含尚未合併掉的重複與刪除標記，近似值）
+     */
+    public synchronized int size() {
+        return entryCount + pending.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * 查詢過濾器的次數（不含命中待寫入表的查找）
+     */
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * 過濾器判定一定不存在、免去磁碟讀取的次數
+     */
+    public long getFilterNegatives() {
+        return filterNegatives.sum();
+    }
+
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * 實測誤判率：過濾器判定可能存在但磁碟上沒有的查找，佔所有實際不存在的查找的比例
+     */
+    public double getFalsePositiveRate() {
+        long fp = falsePositives.sum();
+        long negatives = filterNegatives.sum() + fp;
+        return negatives > 0 ? (double) fp / negatives : 0.0;
+    }
+
+    /**
+     * 依過濾器的填充程度估計的誤判率
+     */
+    public double getExpectedFalsePositiveRate() {
+        return filter.expectedFalsePositiveRate();
+    }
+
+    /**
+     * 累計歸檔的項目數
+     */
+    public long getArchived() {
+        return archived.sum();
+    }
+}
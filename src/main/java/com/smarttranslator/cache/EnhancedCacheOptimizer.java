@@ -6,42 +6,75 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 增強版緩存優化器
- * 實現智能 LRU 算法、預加載機制和動態大小調整
+ * 實現預測性預取和動態大小調整，L1 驅逐由 Caffeine 依目標大小執行；
+ * 訪問頻率來自共用的 {@link FrequencyTracker}，不再為每個鍵保留訪問記錄。
+ * 預取：學習經常一起出現的文字，其中一行未命中時，在後台以低優先級翻譯同組中尚未緩存的文字，
+ * 每分鐘的 API 請求數受預算限制。
+ * 記憶體壓力：由 {@link MemoryPressureMonitor} 的 JMX 通知驅動，老年代接近上限時依權重縮減 L1，
+ * 連續數次 GC 後老年代都穩定再逐步恢復到目標大小。
  */
-public class EnhancedCacheOptimizer {
+public class EnhancedCacheOptimizer implements MemoryPressureMonitor.Listener {
     private static final Logger LOGGER = LoggerFactory.getLogger(EnhancedCacheOptimizer.class);
     
     private final TranslationCache cache;
+    private final FrequencyTracker frequencyTracker;
+    private final CacheSettings settings;
     private final ScheduledExecutorService scheduler;
-    private final ExecutorService preloadExecutor;
+    private final ThreadPoolExecutor preloadExecutor;
     
     // 緩存統計
-    private final AtomicLong hitCount = new AtomicLong(0);
-    private final AtomicLong missCount = new AtomicLong(0);
-    private final AtomicLong evictionCount = new AtomicLong(0);
-    private final AtomicLong preloadCount = new AtomicLong(0);
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
     
-    // 訪問模式分析
-    private final Map<String, AccessPattern> accessPatterns = new ConcurrentHashMap<>();
-    private final Queue<String> recentAccesses = new ConcurrentLinkedQueue<>();
+    // 上次分析時的熱點數量
+    private long lastHotKeys = 0;
     
-    // 預加載候選
-    private final Set<String> preloadCandidates = ConcurrentHashMap.newKeySet();
+    // 預取
+    private final CoOccurrenceIndex coOccurrence = new CoOccurrenceIndex();
+    private volatile PrefetchTranslator prefetchTranslator;
+    private final Set<Long> prefetchInFlight = ConcurrentHashMap.newKeySet();
+    // 已預取但尚未被使用的項目（鍵 -> 完成時間）
+    private final Map<Long, Long> prefetchedKeys = new ConcurrentHashMap<>();
+    private final LongAdder prefetchRequests = new LongAdder();
+    private final LongAdder prefetchUseful = new LongAdder();
+    private final LongAdder prefetchWasted = new LongAdder();
+    private final LongAdder prefetchOverBudget = new LongAdder();
+    private long budgetWindowStart = 0;
+    private int budgetUsed = 0;
     
     // 動態配置
     private volatile int targetCacheSize;
     private volatile double lastHitRate = 0.0;
     
-    public EnhancedCacheOptimizer(TranslationCache cache) {
+    // 記憶體壓力（pressureLimit 為 L1 權重上限，Long.MAX_VALUE 表示沒有壓力）
+    private final MemoryPressureMonitor memoryMonitor;
+    private long pressureLimit = Long.MAX_VALUE;
+    private int stableCollections = 0;
+    private final LongAdder memoryShedEvents = new LongAdder();
+    
+    public EnhancedCacheOptimizer(TranslationCache cache, FrequencyTracker frequencyTracker, CacheSettings settings) {
         this.cache = cache;
+        this.frequencyTracker = frequencyTracker;
+        this.settings = settings;
         this.scheduler = Executors.newScheduledThreadPool(2);
-        this.preloadExecutor = Executors.newFixedThreadPool(2);
-        this.targetCacheSize = AdvancedCacheConfig.getRecommendedCacheSize();
+        // 單一低優先級線程，隊列滿時丟棄新的預取
+        this.preloadExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(PerformanceConfig.PREFETCH_QUEUE_SIZE), r -> {
+                Thread t = new Thread(r, "SmartTranslator-Prefetch");
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        this.targetCacheSize = AdvancedCacheConfig.getRecommendedCacheSize(settings.maxCacheSize());
+        cache.setL1Capacity(targetCacheSize);
+        
+        // 記憶體壓力通知在優化線程上處理
+        this.memoryMonitor = new MemoryPressureMonitor(this, scheduler);
+        memoryMonitor.start();
         
         // 定期優化任務
         scheduler.scheduleAtFixedRate(
@@ -61,49 +94,33 @@ public class EnhancedCacheOptimizer {
     /**
      * 記錄緩存命中
      */
-    public void recordHit(String key) {
-        hitCount.incrementAndGet();
-        updateAccessPattern(key, true);
-        trackRecentAccess(key);
+    public void recordHit(long key) {
+        hitCount.increment();
+        if (!prefetchedKeys.isEmpty() && prefetchedKeys.remove(key) != null) {
+            prefetchUseful.increment();
+        }
     }
     
     /**
-     * 記錄緩存未命中
+     * 記錄緩存未命中，並預取同組中的其他文字
      */
-    public void recordMiss(String key) {
-        missCount.incrementAndGet();
-        updateAccessPattern(key, false);
-        trackRecentAccess(key);
-        
-        // 將未命中的項目加入預加載候選
-        if (shouldPreload(key)) {
-            preloadCandidates.add(key);
-        }
+    public void recordMiss(long key, String originalText, String targetLanguage) {
+        missCount.increment();
+        schedulePrefetch(originalText, targetLanguage);
     }
     
     /**
-     * 更新訪問模式
+     * 設定預取時使用的翻譯方法（由翻譯管理器提供）
      */
-    private void updateAccessPattern(String key, boolean hit) {
-        accessPatterns.compute(key, (k, pattern) -> {
-            if (pattern == null) {
-                pattern = new AccessPattern();
-            }
-            pattern.recordAccess(hit);
-            return pattern;
-        });
+    public void setPrefetchTranslator(PrefetchTranslator prefetchTranslator) {
+        this.prefetchTranslator = prefetchTranslator;
     }
     
     /**
-     * 追蹤最近訪問
+     * 觀察一組同時出現的文字（例如同一個物品提示的各行）
      */
-    private void trackRecentAccess(String key) {
-        recentAccesses.offer(key);
-        
-        // 保持最近訪問記錄在合理範圍內
-        while (recentAccesses.size() > 1000) {
-            recentAccesses.poll();
-        }
+    public void observeGroup(List<String> texts) {
+        coOccurrence.observe(texts);
     }
     
     /**
@@ -112,98 +129,102 @@ public class EnhancedCacheOptimizer {
     private void performOptimization() {
         try {
             // 計算當前統計信息
-            long hits = hitCount.get();
-            long misses = missCount.get();
+            long hits = hitCount.sum();
+            long misses = missCount.sum();
             double currentHitRate = hits + misses > 0 ? (double) hits / (hits + misses) : 0.0;
-            double memoryUsage = AdvancedCacheConfig.getMemoryUsage();
+            // 使用最近一次 GC 後的老年代使用率，不受每幀分配的短命物件影響
+            double memoryUsage = memoryMonitor.getOldGenUsage();
             
-            // 動態調整緩存大小
-            if (AdvancedCacheConfig.shouldAdjustCacheSize(targetCacheSize, currentHitRate, memoryUsage)) {
+            // 動態調整緩存大小（記憶體壓力期間只由壓力通知調整）
+            if (!isUnderMemoryPressure()
+                && AdvancedCacheConfig.shouldAdjustCacheSize(targetCacheSize, currentHitRate, memoryUsage)) {
                 int newSize = AdvancedCacheConfig.calculateNewCacheSize(targetCacheSize, currentHitRate, memoryUsage);
                 if (newSize != targetCacheSize) {
                     LOGGER.info("調整緩存大小: {} -> {} (命中率: {:.2f}%, 內存使用: {:.2f}%)", 
                         targetCacheSize, newSize, currentHitRate * 100, memoryUsage * 100);
                     targetCacheSize = newSize;
+                    applyL1Limit();
                 }
             }
             
-            // 執行智能 LRU 清理
-            performIntelligentEviction();
-            
-            // 執行預加載
-            performPreloading();
+            // 超過時間仍未被使用的預取視為浪費
+            expirePrefetched();
             
             // 記錄統計信息
             if (hits + misses > 0) {
-                LOGGER.debug("緩存統計 - 命中率: {:.2f}%, 緩存大小: {}, 內存使用: {:.2f}%, 預加載: {}", 
-                    currentHitRate * 100, cache.getCacheSize(), memoryUsage * 100, preloadCount.get());
+                LOGGER.debug("緩存統計 - 命中率: {:.2f}%, 緩存大小: {}, 內存使用: {:.2f}%, 預取: {}", 
+                    currentHitRate * 100, cache.getCacheSize(), memoryUsage * 100, prefetchRequests.sum());
             }
             
             lastHitRate = currentHitRate;
-            
+        
         } catch (Exception e) {
             LOGGER.error("緩存優化過程中發生錯誤", e);
         }
     }
     
     /**
-     * 執行智能驅逐
+     * 老年代超過壓力閾值：將 L1 依權重縮減到目前的一部分（不低於下限）
      */
-    private void performIntelligentEviction() {
-        int currentSize = cache.getCacheSize();
-        if (currentSize <= targetCacheSize) {
+    @Override
+    public synchronized void onMemoryPressure(double oldGenUsage) {
+        stableCollections = 0;
+        long current = Math.min(cache.getL1WeightedSize(), cache.getL1MaximumWeight());
+        long limit = Math.max(PerformanceConfig.MEMORY_SHED_FLOOR_BYTES,
+            (long) (current * PerformanceConfig.MEMORY_SHED_RATIO));
+        if (limit >= pressureLimit && pressureLimit != Long.MAX_VALUE) {
             return;
         }
-        
-        int itemsToEvict = currentSize - targetCacheSize;
-        
-        // 獲取所有緩存項目的訪問模式
-        List<Map.Entry<String, AccessPattern>> sortedEntries = accessPatterns.entrySet()
-            .stream()
-            .filter(entry -> cache.containsKey(entry.getKey()))
-            .sorted((e1, e2) -> {
-                AccessPattern p1 = e1.getValue();
-                AccessPattern p2 = e2.getValue();
-                
-                // 綜合考慮訪問頻率、最近訪問時間和命中率
-                double score1 = calculateEvictionScore(p1);
-                double score2 = calculateEvictionScore(p2);
-                
-                return Double.compare(score1, score2);
-            })
-            .collect(Collectors.toList());
-        
-        // 驅逐得分最低的項目
-        int evicted = 0;
-        for (Map.Entry<String, AccessPattern> entry : sortedEntries) {
-            if (evicted >= itemsToEvict) {
-                break;
-            }
-            
-            String key = entry.getKey();
-            if (cache.removeFromCache(key)) {
-                accessPatterns.remove(key);
-                evictionCount.incrementAndGet();
-                evicted++;
-            }
+        pressureLimit = Math.min(limit, targetWeight());
+        memoryShedEvents.increment();
+        cache.setDemoteEvictions(settings.softReferenceDemotion());
+        applyL1Limit();
+        // 之後的容量驅逐是正常替換，不再降級
+        cache.setDemoteEvictions(false);
+        LOGGER.info("記憶體壓力 (老年代 {}%)，L1 縮減到 {} KB", 
+            String.format("%.1f", oldGenUsage * 100), pressureLimit / 1024);
+    }
+    
+    /**
+     * GC 完成：老年代連續數次都穩定時逐步擴大 L1，直到恢復目標大小
+     */
+    @Override
+    public synchronized void onCollection(double oldGenUsage) {
+        if (pressureLimit == Long.MAX_VALUE) {
+            return;
         }
-        
-        if (evicted > 0) {
-            LOGGER.debug("智能驅逐完成，移除 {} 個項目", evicted);
+        if (oldGenUsage >= PerformanceConfig.MEMORY_RECOVERY_RATIO) {
+            stableCollections = 0;
+            return;
+        }
+        if (++stableCollections < PerformanceConfig.MEMORY_RECOVERY_COLLECTIONS) {
+            return;
         }
+        stableCollections = 0;
+        long grown = (long) (pressureLimit * PerformanceConfig.MEMORY_GROW_FACTOR);
+        if (grown >= targetWeight()) {
+            pressureLimit = Long.MAX_VALUE;
+            LOGGER.info("記憶體已穩定，L1 恢復到目標大小");
+        } else {
+            pressureLimit = grown;
+            LOGGER.debug("記憶體穩定，L1 擴大到 {} KB", grown / 1024);
+        }
+        applyL1Limit();
     }
     
     /**
-     * 計算驅逐得分（越低越容易被驅逐）
+     * 是否因記憶體壓力限制了 L1
      */
-    private double calculateEvictionScore(AccessPattern pattern) {
-        long timeSinceLastAccess = System.currentTimeMillis() - pattern.getLastAccessTime();
-        double accessFrequency = pattern.getAccessCount() / Math.max(1.0, timeSinceLastAccess / 3600000.0); // 每小時訪問次數
-        double hitRate = pattern.getHitRate();
-        
-        // 綜合得分：訪問頻率 * 命中率 / 時間衰減
-        double timeDecay = Math.exp(-timeSinceLastAccess / 86400000.0); // 24小時衰減
-        return accessFrequency * hitRate * timeDecay;
+    public synchronized boolean isUnderMemoryPressure() {
+        return pressureLimit != Long.MAX_VALUE;
+    }
+    
+    private long targetWeight() {
+        return (long) targetCacheSize * PerformanceConfig.L1_AVERAGE_ENTRY_BYTES;
+    }
+    
+    private synchronized void applyL1Limit() {
+        cache.setL1MaximumWeight(Math.min(targetWeight(), pressureLimit));
     }
     
     /**
@@ -211,91 +232,111 @@ public class EnhancedCacheOptimizer {
      */
     private void analyzeAccessPatterns() {
         try {
-            // 分析最近訪問的模式
-            Map<String, Integer> recentAccessCount = new HashMap<>();
-            for (String key : recentAccesses) {
-                recentAccessCount.merge(key, 1, Integer::sum);
-            }
-            
-            // 識別熱點數據
-            List<String> hotKeys = recentAccessCount.entrySet()
-                .stream()
-                .filter(entry -> entry.getValue() >= 3) // 最近被訪問3次以上
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-            
-            if (!hotKeys.isEmpty()) {
-                LOGGER.debug("識別到 {} 個熱點數據項", hotKeys.size());
+            // 頻率估計會自行衰減，這裡只需統計新出現的熱點
+            long hotKeys = frequencyTracker.getHotKeys();
+            if (hotKeys > lastHotKeys) {
+                LOGGER.debug("識別到 {} 個新的熱點數據項", hotKeys - lastHotKeys);
             }
-            
-            // 清理過期的訪問模式
-            long cutoffTime = System.currentTimeMillis() - 7 * 24 * 3600 * 1000L; // 7天前
-            accessPatterns.entrySet().removeIf(entry -> 
-                entry.getValue().getLastAccessTime() < cutoffTime
-            );
-            
+            lastHotKeys = hotKeys;
+        
         } catch (Exception e) {
             LOGGER.error("訪問模式分析失敗", e);
         }
     }
     
     /**
-     * 執行預加載
+     * 為未命中的文字安排預取：同組中共同出現足夠次數、且尚未緩存的文字
      */
-    private void performPreloading() {
-        if (preloadCandidates.isEmpty()) {
+    private void schedulePrefetch(String originalText, String targetLanguage) {
+        PrefetchTranslator translator = prefetchTranslator;
+        if (translator == null || !settings.prefetchEnabled()) {
             return;
         }
-        
-        // 限制預加載數量
-        int maxPreload = Math.min(10, preloadCandidates.size());
-        List<String> toPreload = preloadCandidates.stream()
-            .limit(maxPreload)
-            .collect(Collectors.toList());
-        
-        for (String key : toPreload) {
-            preloadExecutor.submit(() -> {
-                try {
-                    // 這裡可以實現預加載邏輯
-                    // 例如：預測性翻譯、相關內容預加載等
-                    preloadCount.incrementAndGet();
-                    LOGGER.debug("預加載項目: {}", key);
-                } catch (Exception e) {
-                    LOGGER.warn("預加載失敗: {}", key, e);
-                }
-            });
-            
-            preloadCandidates.remove(key);
+        List<String> neighbors = coOccurrence.neighbors(originalText, PerformanceConfig.PREFETCH_MIN_COOCCURRENCE);
+        int scheduled = 0;
+        for (String neighbor : neighbors) {
+            if (scheduled >= PerformanceConfig.PREFETCH_MAX_PER_MISS) {
+                break;
+            }
+            // 與緩存命中時記錄的鍵一致
+            long key = TranslationKeyHash.hash(CacheKeyNormalizer.text(neighbor, targetLanguage), targetLanguage);
+            if (prefetchedKeys.containsKey(key) || !prefetchInFlight.add(key)) {
+                continue;
+            }
+            try {
+                preloadExecutor.execute(() -> prefetch(translator, key, neighbor, targetLanguage));
+                scheduled++;
+            } catch (RejectedExecutionException e) {
+                prefetchInFlight.remove(key);
+                break;
+            }
+        }
+    }
+    
+    private void prefetch(PrefetchTranslator translator, long key, String text, String targetLanguage) {
+        try {
+            if (cache.containsTranslation(text, targetLanguage)) {
+                return;
+            }
+            if (!tryAcquireBudget()) {
+                prefetchOverBudget.increment();
+                return;
+            }
+            if (!translator.prefetch(text, targetLanguage)) {
+                return;
+            }
+            prefetchRequests.increment();
+            if (prefetchedKeys.size() < PerformanceConfig.PREFETCH_TRACKED_LIMIT) {
+                prefetchedKeys.put(key, System.currentTimeMillis());
+            }
+        } catch (Exception e) {
+            LOGGER.debug("預取失敗: {}", text, e);
+        } finally {
+            prefetchInFlight.remove(key);
         }
     }
     
     /**
-     * 判斷是否應該預加載
+     * 每分鐘的預取請求預算
      */
-    private boolean shouldPreload(String key) {
-        AccessPattern pattern = accessPatterns.get(key);
-        if (pattern == null) {
+    private synchronized boolean tryAcquireBudget() {
+        long now = System.currentTimeMillis();
+        if (now - budgetWindowStart >= 60_000) {
+            budgetWindowStart = now;
+            budgetUsed = 0;
+        }
+        if (budgetUsed >= settings.prefetchBudgetPerMinute()) {
             return false;
         }
-        
-        // 如果訪問頻率高且最近被訪問過，則考慮預加載
-        return pattern.getAccessCount() >= 2 && 
-               (System.currentTimeMillis() - pattern.getLastAccessTime()) < 3600000; // 1小時內
+        budgetUsed++;
+        return true;
+    }
+    
+    private void expirePrefetched() {
+        long deadline = System.currentTimeMillis() - PerformanceConfig.PREFETCH_USEFUL_WINDOW_MS;
+        prefetchedKeys.entrySet().removeIf(entry -> {
+            if (entry.getValue() < deadline) {
+                prefetchWasted.increment();
+                return true;
+            }
+            return false;
+        });
     }
     
     /**
      * 獲取緩存統計信息
      */
     public CacheStats getStats() {
-        long hits = hitCount.get();
-        long misses = missCount.get();
+        long hits = hitCount.sum();
+        long misses = missCount.sum();
         double hitRate = hits + misses > 0 ? (double) hits / (hits + misses) : 0.0;
         
         return new CacheStats(
             hits, misses, hitRate, 
             cache.getCacheSize(), targetCacheSize,
-            evictionCount.get(), preloadCount.get(),
-            AdvancedCacheConfig.getMemoryUsage()
+            cache.getTierStats().getL1Evictions(), prefetchRequests.sum(),
+            prefetchUseful.sum(), prefetchWasted.sum(), prefetchOverBudget.sum(),
+            memoryMonitor.getOldGenUsage(), memoryShedEvents.sum(), cache.getDemotedSize()
         );
     }
     
@@ -303,6 +344,7 @@ public class EnhancedCacheOptimizer {
      * 關閉優化器
      */
     public void shutdown() {
+        memoryMonitor.close();
         scheduler.shutdown();
         preloadExecutor.shutdown();
         try {
@@ -321,32 +363,16 @@ public class EnhancedCacheOptimizer {
     }
     
     /**
-     * 訪問模式類
+     * 預取翻譯方法
      */
-    private static class AccessPattern {
-        private int accessCount = 0;
-        private int hitCount = 0;
-        private long lastAccessTime = System.currentTimeMillis();
-        
-        public void recordAccess(boolean hit) {
-            accessCount++;
-            if (hit) {
-                hitCount++;
-            }
-            lastAccessTime = System.currentTimeMillis();
-        }
-        
-        public int getAccessCount() {
-            return accessCount;
-        }
-        
-        public double getHitRate() {
-            return accessCount > 0 ? (double) hitCount / accessCount : 0.0;
-        }
-        
-        public long getLastAccessTime() {
-            return lastAccessTime;
-        }
+    @FunctionalInterface
+    public interface PrefetchTranslator {
+        /**
+         * 翻譯並寫入緩存
+         *
+         * @return 是否成功寫入緩存
+         */
+        boolean prefetch(String originalText, String targetLanguage);
     }
     
     /**
@@ -360,11 +386,18 @@ public class EnhancedCacheOptimizer {
         private final int targetSize;
         private final long evictionCount;
         private final long preloadCount;
+        private final long prefetchUseful;
+        private final long prefetchWasted;
+        private final long prefetchOverBudget;
         private final double memoryUsage;
+        private final long memoryShedEvents;
+        private final long demotedSize;
         
         public CacheStats(long hitCount, long missCount, double hitRate, 
                          int currentSize, int targetSize, long evictionCount, 
-                         long preloadCount, double memoryUsage) {
+                         long preloadCount, long prefetchUseful, long prefetchWasted,
+                         long prefetchOverBudget, double memoryUsage,
+                         long memoryShedEvents, long demotedSize) {
             this.hitCount = hitCount;
             this.missCount = missCount;
             this.hitRate = hitRate;
@@ -372,7 +405,12 @@ public class EnhancedCacheOptimizer {
             this.targetSize = targetSize;
             this.evictionCount = evictionCount;
             this.preloadCount = preloadCount;
+            this.prefetchUseful = prefetchUseful;
+            this.prefetchWasted = prefetchWasted;
+            this.prefetchOverBudget = prefetchOverBudget;
             this.memoryUsage = memoryUsage;
+            this.memoryShedEvents = memoryShedEvents;
+            this.demotedSize = demotedSize;
         }
         
         // Getters
@@ -383,13 +421,34 @@ public class EnhancedCacheOptimizer {
         public int getTargetSize() { return targetSize; }
         public long getEvictionCount() { return evictionCount; }
         public long getPreloadCount() { return preloadCount; }
+        public long getPrefetchUseful() { return prefetchUseful; }
+        public long getPrefetchWasted() { return prefetchWasted; }
+        public long getPrefetchOverBudget() { return prefetchOverBudget; }
         public double getMemoryUsage() { return memoryUsage; }
+        public long getMemoryShedEvents() { return memoryShedEvents; }
+        public long getDemotedSize() { return demotedSize; }
+        
+        /**
+         * 預取準確率：被使用的預取佔全部完成預取的比例
+         */
+        public double getPrefetchAccuracy() {
+            return preloadCount > 0 ? (double) prefetchUseful / preloadCount : 0.0;
+        }
+        
+        /**
+         * 浪費率：直到過期都未被使用的預取（浪費的 API 請求）佔全部完成預取的比例
+         */
+        public double getPrefetchWasteRatio() {
+            return preloadCount > 0 ? (double) prefetchWasted / preloadCount : 0.0;
+        }
         
         @Override
         public String toString() {
             return String.format(
-                "CacheStats{命中率=%.2f%%, 大小=%d/%d, 驅逐=%d, 預加載=%d, 內存=%.2f%%}",
-                hitRate * 100, currentSize, targetSize, evictionCount, preloadCount, memoryUsage * 100
+                "CacheStats{命中率=%.2f%%, 大小=%d/%d, 驅逐=%d, 預取=%d, 預取準確率=%.2f%%, 預取浪費率=%.2f%%, 超出預算=%d, 老年代=%.2f%%, 記憶體縮減=%d, 軟引用=%d}",
+                hitRate * 100, currentSize, targetSize, evictionCount, preloadCount,
+                getPrefetchAccuracy() * 100, getPrefetchWasteRatio() * 100, prefetchOverBudget, memoryUsage * 100,
+                memoryShedEvents, demotedSize
             );
         }
     }
@@ -0,0 +1,141 @@
+package com.smarttranslator.cache;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 訪問頻率估計（Count-Min Sketch，4 位元計數器）
+ * 每個 long 存放 16 個計數器，每個鍵在 4 行中各佔一個，頻率取最小值，上限 15。
+ * 記錄次數達到樣本大小後所有計數器減半，舊的熱點會逐漸衰減，佔用的記憶體固定不變。
+ * 寫入只在單一線程（訪問緩衝區的排空線程）進行；讀取可在任何線程，結果為近似值。
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    static final int MAX_FREQUENCY = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    /**
+     * @param capacity 預期追蹤的鍵數量（計數表大小取不小於此值的 2 的冪）
+     */
+    FrequencySketch(int capacity) {
+        int length = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = 10 * length;
+    }
+
+    /**
+     * 估計鍵的訪問頻率（0 ~ 15）
+     */
+    int frequency(long key) {
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long hash = mix(key + SEEDS[i]);
+            int shift = (int) (hash >>> 60) << 2;
+            int count = (int) ((table[(int) hash & tableMask] >>> shift) & 0xF);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * 增加鍵的訪問頻率
+     *
+     * @return 增加後的頻率估計
+     */
+    int increment(long key) {
+        boolean added = false;
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long hash = mix(key + SEEDS[i]);
+            int index = (int) hash & tableMask;
+            int shift = (int) (hash >>> 60) << 2;
+            int count = (int) ((table[index] >>> shift) & 0xF);
+            if (count < MAX_FREQUENCY) {
+                table[index] += 1L << shift;
+                count++;
+                added = true;
+            }
+            frequency = Math.min(frequency, count);
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+        return frequency;
+    }
+
+    /**
+     * 所有計數器減半（老化）
+     */
+    void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        // 減半時捨去的奇數部分按每個鍵 4 個計數器折算
+        size = (size - (odd >>> 2)) >>> 1;
+    }
+
+    /**
+     * 清除所有計數
+     */
+    void clear() {
+        Arrays.fill(table, 0L);
+        size = 0;
+    }
+
+    /**
+     * 寫出計數表與老化進度
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(table.length);
+        out.writeInt(size);
+        for (long word : table) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * 讀入先前保存的計數表；大小不同時（容量配置已改變）保持不變
+     *
+     * @return 是否已讀入
+     */
+    boolean readFrom(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        int savedSize = in.readInt();
+        if (length != table.length || savedSize < 0) {
+            return false;
+        }
+        long[] words = new long[length];
+        for (int i = 0; i < length; i++) {
+            words[i] = in.readLong();
+        }
+        System.arraycopy(words, 0, table, 0, length);
+        size = Math.min(savedSize, sampleSize - 1);
+        return true;
+    }
+
+    /**
+     * 計數表佔用的位元組數
+     */
+    int getTableBytes() {
+        return table.length * Long.BYTES;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,201 @@
+package com.smarttranslator.cache;
+
+import com.smarttranslator.config.PerformanceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 訪問頻率追蹤
+ * 查找時把鍵寫入有損的分條緩衝區，緩衝區滿時在後台排空到頻率估計；
+ * 追蹤所需的記憶體固定，不再為每個鍵保留物件。頻率估計在關閉時保存，下次啟動時恢復，
+ * 長期常用的文字不會因為新的遊戲階段而被視為冷門。
+ */
+public class FrequencyTracker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FrequencyTracker.class);
+    private static final int MAGIC = 0x53544651; // "STFQ"
+    private static final int VERSION = 1;
+    static final String FILE_NAME = "access_frequency.bin";
+
+    private final FrequencySketch sketch;
+    private final StripedAccessBuffer buffer;
+    private final Executor drainExecutor;
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder hotKeys = new LongAdder();
+
+    FrequencyTracker(Executor drainExecutor) {
+        this(new FrequencySketch(PerformanceConfig.FREQUENCY_SKETCH_CAPACITY), new StripedAccessBuffer(), drainExecutor);
+    }
+
+    FrequencyTracker(FrequencySketch sketch, StripedAccessBuffer buffer, Executor drainExecutor) {
+        this.sketch = sketch;
+        this.buffer = buffer;
+        this.drainExecutor = drainExecutor;
+    }
+
+    /**
+     * 記錄一次訪問（不會阻塞）
+     */
+    public void record(long key) {
+        int result = buffer.offer(key);
+        if (result == StripedAccessBuffer.SUCCESS) {
+            recorded.increment();
+            return;
+        }
+        dropped.increment();
+        if (result == StripedAccessBuffer.FULL) {
+            scheduleDrain();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                drainExecutor.execute(() -> {
+                    drainScheduled.set(false);
+                    drain();
+                });
+            } catch (RejectedExecutionException e) {
+                drainScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * 將緩衝區中的訪問寫入頻率估計；已有其他線程在排空時直接返回
+     */
+    public void drain() {
+        if (!drainLock.tryLock()) {
+            return;
+        }
+        try {
+            buffer.drainTo(this::increment);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void increment(long key) {
+        int before = sketch.frequency(key);
+        int after = sketch.increment(key);
+        if (before < PerformanceConfig.HOT_KEY_FREQUENCY && after >= PerformanceConfig.HOT_KEY_FREQUENCY) {
+            hotKeys.increment();
+        }
+    }
+
+    /**
+     * 估計鍵的訪問頻率（0 ~ 15，尚未排空的訪問不計入）
+     */
+    public int frequency(long key) {
+        return sketch.frequency(key);
+    }
+
+    /**
+     * 清除所有頻率
+     */
+    public void reset() {
+        drainLock.lock();
+        try {
+            buffer.drainTo(key -> { });
+            sketch.clear();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * 保存頻率估計（先排空緩衝區）
+     */
+    public void save(Path file) {
+        drainLock.lock();
+        try {
+            buffer.drainTo(this::increment);
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.createDirectories(file.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                sketch.writeTo(out);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOGGER.error("保存訪問頻率失敗: {}", file, e);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * 恢復先前保存的頻率估計；本次啟動後已記錄的訪問會被覆蓋，只在啟動時調用
+     *
+     * @return 是否已恢復
+     */
+    public boolean load(Path file) {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        drainLock.lock();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                LOGGER.warn("訪問頻率檔案格式不符，已忽略: {}", file);
+                return false;
+            }
+            return sketch.readFrom(in);
+        } catch (IOException e) {
+            LOGGER.warn("讀取訪問頻率失敗: {} ({})", file, e.getMessage());
+            return false;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * 已記錄的訪問次數
+     */
+    public long getRecorded() {
+        return recorded.sum();
+    }
+
+    /**
+     * 因緩衝區已滿或競爭而丟棄的訪問次數
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * 頻率達到熱點門檻的鍵數量（累計）
+     */
+    public long getHotKeys() {
+        return hotKeys.sum();
+    }
+
+    /**
+     * 頻率估計佔用的位元組數
+     */
+    public int getSketchBytes() {
+        return sketch.getTableBytes();
+    }
+}
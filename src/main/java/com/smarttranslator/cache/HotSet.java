@@ -0,0 +1,118 @@
+package com.smarttranslator.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 熱點集合
+ * 關閉或切換命名空間時，從 L1 中挑出訪問頻率最高的項目，只保存原文與語言；
+ * 下次進入同一命名空間時據此從 L2 讀回並放入 L1，不必等待玩家重新訪問。
+ */
+final class HotSet {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HotSet.class);
+    static final String FILE_NAME = "hot_set.bin";
+    private static final int MAGIC = 0x53544853; // "STHS"
+    private static final int VERSION = 1;
+    // writeUTF 的上限為 65535 位元組，過長的文字不值得預熱
+    private static final int MAX_TEXT_LENGTH = 8192;
+
+    private HotSet() {
+        // 工具類，不允許實例化
+    }
+
+    /**
+     * 熱點項目
+     */
+    static final class Entry {
+        final String originalText;
+        final String targetLanguage;
+        final int frequency;
+
+        Entry(String originalText, String targetLanguage, int frequency) {
+            this.originalText = originalText;
+            this.targetLanguage = targetLanguage;
+            this.frequency = frequency;
+        }
+    }
+
+    /**
+     * 依訪問頻率挑出最熱的項目（頻率為 0 的項目不保存）
+     */
+    static List<Entry> select(Collection<CachedTranslation> residents, FrequencyTracker tracker, int limit) {
+        List<Entry> candidates = new ArrayList<>();
+        for (CachedTranslation cached : residents) {
+            String language = cached.getTargetLanguage();
+            if (cached.getOriginalText().length() > MAX_TEXT_LENGTH) {
+                continue;
+            }
+            int frequency = tracker.frequency(TranslationKeyHash.hash(cached.getOriginalText(), language));
+            if (frequency > 0) {
+                candidates.add(new Entry(cached.getOriginalText(), language, frequency));
+            }
+        }
+        candidates.sort(Comparator.comparingInt((Entry e) -> e.frequency).reversed());
+        return candidates.size() > limit ? new ArrayList<>(candidates.subList(0, limit)) : candidates;
+    }
+
+    static void write(Path file, List<Entry> entries) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(FILE_NAME + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                out.writeByte(entry.frequency);
+                out.writeUTF(entry.targetLanguage);
+                out.writeUTF(entry.originalText);
+            }
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 讀取熱點集合（依頻率由高到低）；檔案不存在或損壞時返回空集合
+     */
+    static List<Entry> read(Path file) {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return entries;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                LOGGER.warn("熱點集合檔案格式不符，已忽略: {}", file);
+                return entries;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int frequency = in.readUnsignedByte();
+                String language = in.readUTF();
+                entries.add(new Entry(in.readUTF(), language, frequency));
+            }
+        } catch (EOFException e) {
+            LOGGER.warn("熱點集合檔案不完整，只讀取前 {} 項: {}", entries.size(), file);
+        } catch (IOException e) {
+            LOGGER.warn("讀取熱點集合失敗: {} ({})", file, e.getMessage());
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,62 @@
+package com.smarttranslator.cache;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 語言代碼駐留表
+ * 將語言代碼映射為小整數，讓每個緩存項目只需保存一個 short 而不是字串
+ */
+public final class LanguageIds {
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[0];
+
+    private LanguageIds() {
+        // 工具類，不允許實例化
+    }
+
+    /**
+     * 取得語言代碼的編號，首次出現時分配新編號
+     */
+    public static int intern(String language) {
+        String name = language == null ? "" : language;
+        Integer id = IDS.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (LanguageIds.class) {
+            id = IDS.get(name);
+            if (id != null) {
+                return id;
+            }
+            String[] current = names;
+            if (current.length >= Short.MAX_VALUE) {
+                throw new IllegalStateException("語言代碼數量超過上限");
+            }
+            String[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = name;
+            // 先發布名稱再發布編號，保證讀到編號的線程一定能讀到名稱
+            names = updated;
+            IDS.put(name, current.length);
+            return current.length;
+        }
+    }
+
+    /**
+     * 查詢語言代碼的編號（不分配）
+     *
+     * @return 編號，未出現過的語言返回 -1
+     */
+    public static int idOf(String language) {
+        Integer id = IDS.get(language == null ? "" : language);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * 根據編號取得語言代碼
+     */
+    public static String nameOf(int id) {
+        return names[id];
+    }
+}
@@ -0,0 +1,192 @@
+package com.smarttranslator.cache;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.smarttranslator.config.PerformanceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 記憶體壓力監控
+ * 訂閱老年代記憶體池的使用量閾值與回收後閾值通知，以及每次 GC 的完成通知，取代定期輪詢 freeMemory。
+ * 遊戲每幀都大量分配短命物件，未經 GC 的使用量只是雜訊；這裡只以 GC 後的老年代使用率判斷壓力與恢復。
+ * 通知在 JMX 通知線程上到達，處理轉交給指定的執行器，不在通知線程上驅逐項目。
+ */
+final class MemoryPressureMonitor implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryPressureMonitor.class);
+
+    /**
+     * 記憶體狀態回調
+     */
+    interface Listener {
+        /**
+         * 老年代使用率超過壓力閾值
+         */
+        void onMemoryPressure(double oldGenUsage);
+
+        /**
+         * 一次 GC 完成後的老年代使用率
+         */
+        void onCollection(double oldGenUsage);
+    }
+
+    private final Listener listener;
+    private final Executor executor;
+    private final List<MemoryPoolMXBean> tenuredPools = new ArrayList<>();
+    private final List<NotificationEmitter> gcEmitters = new ArrayList<>();
+    private final NotificationListener thresholdListener = this::handleThreshold;
+    private final NotificationListener gcListener = this::handleCollection;
+    private NotificationEmitter memoryEmitter;
+    private volatile double lastUsageAfterGc = -1;
+
+    MemoryPressureMonitor(Listener listener, Executor executor) {
+        this.listener = listener;
+        this.executor = executor;
+    }
+
+    /**
+     * 設定閾值並註冊通知
+     *
+     * @return 是否找到可監控的老年代記憶體池
+     */
+    boolean start() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            // 只有老年代同時支援使用量閾值與回收後閾值（新生代與倖存區只支援後者）
+            if (pool.getType() != MemoryType.HEAP || !pool.isUsageThresholdSupported()
+                || !pool.isCollectionUsageThresholdSupported()) {
+                continue;
+            }
+            long max = pool.getUsage().getMax();
+            if (max <= 0) {
+                continue;
+            }
+            // 已由其他元件設定的閾值保持不變，通知到達時再以自己的比例判斷
+            if (pool.getUsageThreshold() == 0) {
+                pool.setUsageThreshold((long) (max * PerformanceConfig.MEMORY_PRESSURE_RATIO));
+            }
+            if (pool.getCollectionUsageThreshold() == 0) {
+                pool.setCollectionUsageThreshold((long) (max * PerformanceConfig.MEMORY_PRESSURE_RATIO));
+            }
+            tenuredPools.add(pool);
+        }
+        if (tenuredPools.isEmpty()) {
+            LOGGER.info("找不到支援閾值通知的老年代記憶體池，不監控記憶體壓力");
+            return false;
+        }
+
+        if (ManagementFactory.getMemoryMXBean() instanceof NotificationEmitter emitter) {
+            emitter.addNotificationListener(thresholdListener, null, null);
+            memoryEmitter = emitter;
+        }
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(gcListener, null, null);
+                gcEmitters.add(emitter);
+            }
+        }
+        LOGGER.info("記憶體壓力監控已啟動，老年代記憶體池: {}", tenuredPools.stream().map(MemoryPoolMXBean::getName).toList());
+        return true;
+    }
+
+    private void handleThreshold(Notification notification, Object handback) {
+        String type = notification.getType();
+        if (!MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(type)
+            && !MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)) {
+            return;
+        }
+        MemoryNotificationInfo info = MemoryNotificationInfo.from((CompositeData) notification.getUserData());
+        double usage = ratio(info.getUsage());
+        if (usage >= PerformanceConfig.MEMORY_PRESSURE_RATIO) {
+            dispatch(() -> listener.onMemoryPressure(usage));
+        }
+    }
+
+    private void handleCollection(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+            GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        Map<String, MemoryUsage> afterGc = info.getGcInfo().getMemoryUsageAfterGc();
+        double usage = -1;
+        for (MemoryPoolMXBean pool : tenuredPools) {
+            MemoryUsage poolUsage = afterGc.get(pool.getName());
+            if (poolUsage != null) {
+                usage = Math.max(usage, ratio(poolUsage));
+            }
+        }
+        if (usage < 0) {
+            return;
+        }
+        lastUsageAfterGc = usage;
+        double observed = usage;
+        dispatch(() -> listener.onCollection(observed));
+    }
+
+    private void dispatch(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // 關閉期間的通知直接忽略
+        }
+    }
+
+    private static double ratio(MemoryUsage usage) {
+        long max = usage.getMax() > 0 ? usage.getMax() : usage.getCommitted();
+        return max > 0 ? (double) usage.getUsed() / max : 0.0;
+    }
+
+    /**
+     * 老年代使用率：最近一次 GC 後的值；尚未發生 GC 時讀取目前值
+     */
+    double getOldGenUsage() {
+        double usage = lastUsageAfterGc;
+        if (usage >= 0 || tenuredPools.isEmpty()) {
+            return Math.max(usage, 0.0);
+        }
+        double current = 0;
+        for (MemoryPoolMXBean pool : tenuredPools) {
+            current = Math.max(current, ratio(pool.getUsage()));
+        }
+        return current;
+    }
+
+    /**
+     * 移除所有通知監聽器（設定的閾值保留，不影響其他元件）
+     */
+    @Override
+    public void close() {
+        if (memoryEmitter != null) {
+            removeListener(memoryEmitter, thresholdListener);
+        }
+        for (NotificationEmitter emitter : gcEmitters) {
+            removeListener(emitter, gcListener);
+        }
+        gcEmitters.clear();
+        memoryEmitter = null;
+    }
+
+    private static void removeListener(NotificationEmitter emitter, NotificationListener listener) {
+        try {
+            emitter.removeNotificationListener(listener);
+        } catch (ListenerNotFoundException e) {
+            LOGGER.debug("移除記憶體通知監聽器失敗: {}", e.getMessage());
+        }
+    }
+}
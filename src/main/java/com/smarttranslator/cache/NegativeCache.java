@@ -0,0 +1,209 @@
+package com.smarttranslator.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smarttranslator.config.PerformanceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 負緩存
+ * 記錄不應再送往 API 的文字（翻譯結果與原文相同、被內容過濾器阻擋、不需要翻譯、專有名詞），
+ * 每種原因有各自的有效期。以文字與目標語言的 64 位元雜湊為鍵，項目數量有上限，並持久化到檔案。
+ */
+public class NegativeCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NegativeCache.class);
+    static final String FILE_NAME = "negative_cache.bin";
+    private static final int MAGIC = 0x53544e43; // "STNC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int RECORD_BYTES = 17;
+
+    /**
+     * 不翻譯的原因
+     */
+    public enum Reason {
+        UNCHANGED(PerformanceConfig.NEGATIVE_TTL_UNCHANGED_MS),
+        BLOCKED(PerformanceConfig.NEGATIVE_TTL_BLOCKED_MS),
+        SKIPPED(PerformanceConfig.NEGATIVE_TTL_SKIPPED_MS),
+        PROPER_NOUN(PerformanceConfig.NEGATIVE_TTL_PROPER_NOUN_MS);
+
+        private final long ttlMs;
+
+        Reason(long ttlMs) {
+            this.ttlMs = ttlMs;
+        }
+
+        public long getTtlMs() {
+            return ttlMs;
+        }
+    }
+
+    private final Path file;
+    private final Cache<Long, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private volatile boolean dirty = false;
+
+    public NegativeCache(Path directory) {
+        this.file = directory.resolve(FILE_NAME);
+        this.entries = Caffeine.newBuilder()
+            .maximumSize(PerformanceConfig.NEGATIVE_CACHE_MAX_ENTRIES)
+            .build();
+    }
+
+    /**
+     * 查找文字被記錄的原因
+     *
+     * @return 未記錄或已過期時返回 null
+     */
+    public Reason get(String text, String targetLanguage) {
+        long key = TranslationKeyHash.hash(text, targetLanguage);
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.invalidate(key);
+            dirty = true;
+            return null;
+        }
+        hits.increment();
+        return entry.reason;
+    }
+
+    /**
+     * 記錄不應翻譯的文字
+     */
+    public void put(String text, String targetLanguage, Reason reason) {
+        entries.put(TranslationKeyHash.hash(text, targetLanguage),
+            new Entry(reason, System.currentTimeMillis() + reason.getTtlMs()));
+        dirty = true;
+    }
+
+    /**
+     * 移除記錄（例如文字已有正常的翻譯）
+     */
+    public void remove(String text, String targetLanguage) {
+        if (entries.asMap().remove(TranslationKeyHash.hash(text, targetLanguage)) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * 從檔案載入（略過已過期的記錄）
+     */
+    public void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                LOGGER.warn("負緩存檔案格式不符，已忽略: {}", file);
+                return;
+            }
+            int count = buffer.getInt();
+            if (count < 0 || (long) count * RECORD_BYTES > buffer.remaining()) {
+                LOGGER.warn("負緩存檔案已損壞，已忽略: {}", file);
+                return;
+            }
+            Reason[] reasons = Reason.values();
+            long now = System.currentTimeMillis();
+            int loaded = 0;
+            for (int i = 0; i < count; i++) {
+                long key = buffer.getLong();
+                int ordinal = buffer.get();
+                long expiresAt = buffer.getLong();
+                if (ordinal >= 0 && ordinal < reasons.length && expiresAt > now) {
+                    // 載入期間的新記錄優先
+                    entries.asMap().putIfAbsent(key, new Entry(reasons[ordinal], expiresAt));
+                    loaded++;
+                }
+            }
+            LOGGER.info("載入 {} 個負緩存項目", loaded);
+        } catch (IOException e) {
+            LOGGER.error("載入負緩存失敗: {}", file, e);
+        }
+    }
+
+    /**
+     * 保存到檔案（沒有變更時略過；先寫臨時檔案再原子重命名）
+     */
+    public void save() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        long now = System.currentTimeMillis();
+        Map<Long, Entry> snapshot = entries.asMap();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + snapshot.size() * RECORD_BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(0);
+        int count = 0;
+        for (Map.Entry<Long, Entry> entry : snapshot.entrySet()) {
+            if (entry.getValue().expiresAt <= now) {
+                continue;
+            }
+            if (buffer.remaining() < RECORD_BYTES) {
+                // 保存期間新增的記錄留到下次保存
+                dirty = true;
+                break;
+            }
+            buffer.putLong(entry.getKey());
+            buffer.put((byte) entry.getValue().reason.ordinal());
+            buffer.putLong(entry.getValue().expiresAt);
+            count++;
+        }
+        buffer.putInt(8, count);
+
+        try {
+            Path temp = file.resolveSibling(FILE_NAME + ".tmp");
+            Files.write(temp, Arrays.copyOf(buffer.array(), buffer.position()));
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            dirty = true;
+            LOGGER.error("保存負緩存失敗: {}", file, e);
+        }
+    }
+
+    /**
+     * 清除所有記錄
+     */
+    public void clear() {
+        entries.invalidateAll();
+        dirty = true;
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    private static final class Entry {
+        final Reason reason;
+        final long expiresAt;
+
+        Entry(Reason reason, long expiresAt) {
+            this.reason = reason;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.smarttranslator.cache;
+
+import com.smarttranslator.config.PerformanceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 共用模式下擁有者實例 L2 的唯讀視圖
+ * 非擁有者實例不寫入設定目錄中的 L2，但未命中時仍要讀到擁有者已持久化的翻譯，
+ * 否則擁有者磁碟上已有的文字會再調用一次 API。此視圖以唯讀方式映射擁有者寫入的分段檔案
+ * （目前命名空間的各語言分區與舊版未分區的緩存），不寫入、合併或刪除任何檔案。
+ * <p>
+ * 擁有者寫入新分段或合併後，查找時按間隔重新掃描目錄；共用緩存重置時在下次查找立即重新掃描。
+ * 擁有者尚未寫入分段的項目都還在共用緩存中（擁有者在重置共用緩存前先將日誌寫入分段）。
+ */
+final class OwnerStoreView {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OwnerStoreView.class);
+
+    private final Path rootDirectory;
+    private final View legacy;
+    // 以「命名空間/語言」為鍵
+    private final Map<String, View> partitions = new ConcurrentHashMap<>();
+    private volatile String namespace = PartitionedTranslationStore.DEFAULT_NAMESPACE;
+
+    /**
+     * @param rootDirectory 擁有者的緩存根目錄（設定目錄）
+     */
+    OwnerStoreView(Path rootDirectory) {
+        this.rootDirectory = rootDirectory;
+        this.legacy = new View(rootDirectory);
+    }
+
+    /**
+     * 依序查找目前命名空間的分區與舊版緩存
+     */
+    CachedTranslation get(long key, String originalText, String targetLanguage) {
+        String currentNamespace = namespace;
+        View partition = partitions.computeIfAbsent(currentNamespace + "/" + PartitionedTranslationStore.toNamespace(targetLanguage),
+            k -> new View(PartitionedTranslationStore.partitionDirectory(rootDirectory, currentNamespace, targetLanguage)));
+        CachedTranslation found = partition.get(key, originalText, targetLanguage);
+        return found != null ? found : legacy.get(key, originalText, targetLanguage);
+    }
+
+    /**
+     * 切換命名空間；其他命名空間的映射交由 GC 釋放
+     */
+    void switchNamespace(String newNamespace) {
+        namespace = PartitionedTranslationStore.toNamespace(newNamespace);
+        partitions.clear();
+    }
+
+    /**
+     * 擁有者的分段可能已改變（例如共用緩存重置），下次查找時立即重新掃描
+     */
+    void invalidate() {
+        legacy.nextRefresh = 0;
+        for (View view : partitions.values()) {
+            view.nextRefresh = 0;
+        }
+    }
+
+    private static final class View {
+        final SegmentStore store;
+        volatile long nextRefresh = 0;
+
+        View(Path directory) {
+            this.store = SegmentStore.readOnly(directory);
+        }
+
+        CachedTranslation get(long key, String originalText, String targetLanguage) {
+            long now = System.currentTimeMillis();
+            if (now >= nextRefresh) {
+                nextRefresh = now + PerformanceConfig.SHARED_CACHE_REFRESH_MS;
+                try {
+                    store.refresh();
+                } catch (IOException e) {
+                    LOGGER.debug("無法掃描擁有者的緩存分段: {}", e.getMessage());
+                }
+            }
+            return store.get(key, originalText, targetLanguage);
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package com.smarttranslator.cache;
+
+import com.smarttranslator.config.PerformanceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+
+/**
+ * 按命名空間分區的持久化翻譯儲存（L2）
+ * 每個伺服器（或單人世界）與目標語言的組合各有一個 {@link PersistentTranslationStore}，
+ * 存放在 {@code partitions/<命名空間>/<語言>/} 目錄下。切換到某個命名空間時載入其已有的分區，
+ * 其他語言的分區在首次存取時才載入，查找不會建立新分區（只有寫入才建立）；切換命名空間或閒置超時後卸載，
+ * 記憶體中只保留目前使用中的部分。所有分區共用維護線程（載入與卸載）與一個日誌 I/O 線程。
+ * 舊版未分區的緩存作為唯讀後備：分區未命中時查找，命中的項目複製到目前分區。
+ */
+public class PartitionedTranslationStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedTranslationStore.class);
+    public static final String DEFAULT_NAMESPACE = "default";
+    static final String PARTITIONS_DIRECTORY = "partitions";
+
+    private final Path rootDirectory;
+    private final long expireAfterMs;
+    private final LongPredicate retainExpired;
+    private final Consumer<CachedTranslation> expiredSink;
+    private final PersistentTranslationStore legacy;
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+    // 正在卸載的分區；重新打開同一分區前需等待其日誌寫完
+    private final Map<String, CompletableFuture<Void>> unloading = new ConcurrentHashMap<>();
+    // 分區的載入與卸載在維護線程上執行，所有分區的日誌共用一個 I/O 線程
+    private final ScheduledExecutorService maintenanceExecutor;
+    private final ScheduledExecutorService journalExecutor;
+    private volatile String namespace = DEFAULT_NAMESPACE;
+
+    /**
+     * @param rootDirectory 緩存根目錄（舊版未分區的緩存也在此目錄）
+     * @param expireAfterMs 合併分段時丟棄早於此時長的項目
+     */
+    public PartitionedTranslationStore(Path rootDirectory, long expireAfterMs) {
+        this(rootDirectory, expireAfterMs, null, null);
+    }
+
+    /**
+     * @param retainExpired 各分區合併時對過期項目的鍵返回 true 則保留，可為 null
+     * @param expiredSink 各分區合併時接收過期項目，為 null 時直接丟棄
+     */
+    public PartitionedTranslationStore(Path rootDirectory, long expireAfterMs, LongPredicate retainExpired,
+                                       Consumer<CachedTranslation> expiredSink) {
+        this.rootDirectory = rootDirectory;
+        this.expireAfterMs = expireAfterMs;
+        this.retainExpired = retainExpired;
+        this.expiredSink = expiredSink;
+        this.maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "SmartTranslator-CachePartitions");
+            t.setDaemon(true);
+            return t;
+        });
+        this.journalExecutor = CacheJournal.newIoExecutor();
+        this.legacy = hasLegacyFiles(rootDirectory) ? newStore(rootDirectory) : null;
+        maintenanceExecutor.scheduleWithFixedDelay(this::unloadIdlePartitions,
+            PerformanceConfig.PARTITION_IDLE_CHECK_SECONDS, PerformanceConfig.PARTITION_IDLE_CHECK_SECONDS,
+            TimeUnit.SECONDS);
+        openExisting();
+    }
+
+    private static boolean hasLegacyFiles(Path directory) {
+        if (Files.exists(directory.resolve(CacheJournal.SNAPSHOT_FILE_NAME))
+                || Files.exists(directory.resolve(CacheJournal.JOURNAL_FILE_NAME))) {
+            return true;
+        }
+        if (!Files.isDirectory(directory)) {
+            return false;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SegmentStore.SEGMENT_PREFIX + "*" + SegmentStore.SEGMENT_SUFFIX)) {
+            return stream.iterator().hasNext();
+        } catch (IOException e) {
+            LOGGER.warn("無法檢查舊版緩存: {}", directory, e);
+            return false;
+        }
+    }
+
+    /**
+     * 將伺服器地址或世界名稱轉換為可作為目錄名稱的命名空間
+     */
+    public static String toNamespace(String name) {
+        if (name == null || name.isBlank()) {
+            return DEFAULT_NAMESPACE;
+        }
+        StringBuilder builder = new StringBuilder(name.length());
+        for (char c : name.trim().toLowerCase(Locale.ROOT).toCharArray()) {
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '.' || c == '-' || c == '_';
+            builder.append(allowed ? c : '_');
+        }
+        // 避免 "." 與 ".." 被解釋為目錄引用
+        String result = builder.toString();
+        return result.replace(".", "").isEmpty() ? DEFAULT_NAMESPACE : result;
+    }
+
+    /**
+     * 切換命名空間；其他命名空間的分區在後台卸載
+     *
+     * @return 命名空間是否改變
+     */
+    public boolean switchNamespace(String newNamespace) {
+        String target = toNamespace(newNamespace);
+        if (target.equals(namespace)) {
+            return false;
+        }
+        namespace = target;
+        LOGGER.info("切換緩存命名空間: {}", target);
+        openExisting();
+        submit(() -> {
+            for (Partition partition : new ArrayList<>(partitions.values())) {
+                if (!partition.namespace.equals(namespace)) {
+                    unload(partition);
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 在後台載入目前命名空間中已存在的分區
+     */
+    private void openExisting() {
+        for (String language : listPartitions()) {
+            open(language);
+        }
+    }
+
+    /**
+     * 列出目前命名空間在磁碟上的分區（目錄名稱即語言）
+     */
+    private List<String> listPartitions() {
+        List<String> languages = new ArrayList<>();
+        Path directory = namespaceDirectory(namespace);
+        if (!Files.isDirectory(directory)) {
+            return languages;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path languageDirectory : stream) {
+                languages.add(languageDirectory.getFileName().toString());
+            }
+        } catch (IOException e) {
+            LOGGER.error("無法列出緩存分區: {}", directory, e);
+        }
+        return languages;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * 預先載入目前命名空間中指定語言的分區（例如加入伺服器或切換語言時）
+     */
+    public void open(String targetLanguage) {
+        withPartition(targetLanguage, false, store -> null);
+    }
+
+    public CachedTranslation get(long key, String originalText, String targetLanguage) {
+        CachedTranslation cached = withPartition(targetLanguage, false, store -> store.get(key, originalText, targetLanguage));
+        if (cached != null || legacy == null) {
+            return cached;
+        }
+        cached = legacy.get(key, originalText, targetLanguage);
+        if (cached != null) {
+            // 逐步遷移：舊版緩存中被使用到的項目寫入目前分區
+            CachedTranslation migrated = cached;
+            withPartition(targetLanguage, true, store -> {
+                store.put(key, migrated);
+                return null;
+            });
+        }
+        return cached;
+    }
+
+    public void put(long key, CachedTranslation cached) {
+        withPartition(cached.getTargetLanguage(), true, store -> {
+            store.put(key, cached);
+            return null;
+        });
+    }
+
+    public void remove(long key, String originalText, String targetLanguage) {
+        withPartition(targetLanguage, false, store -> {
+            store.remove(key, originalText, targetLanguage);
+            return null;
+        });
+        if (legacy != null) {
+            // 否則查找分區未命中時會從舊版緩存讀回
+            legacy.remove(key, originalText, targetLanguage);
+        }
+    }
+
+    /**
+     * 在持有分區讀鎖時執行操作；分區正被卸載時重新打開
+     * 查找不建立分區：分區未打開且磁碟上也沒有時直接返回 null，未見過的語言不會建立目錄與載入任務
+     *
+     * @param create 分區不存在時是否建立（只有寫入需要）
+     */
+    private <T> T withPartition(String targetLanguage, boolean create, Function<PersistentTranslationStore, T> action) {
+        String currentNamespace = namespace;
+        String key = partitionKey(currentNamespace, targetLanguage);
+        while (true) {
+            Partition partition = partitions.get(key);
+            if (partition == null) {
+                if (!create && !Files.isDirectory(partitionDirectory(rootDirectory, currentNamespace, targetLanguage))) {
+                    return null;
+                }
+                partition = partitions.computeIfAbsent(key, k -> openPartition(currentNamespace, targetLanguage));
+            }
+            partition.lock.readLock().lock();
+            try {
+                if (!partition.closed) {
+                    partition.lastAccess = System.currentTimeMillis();
+                    return action.apply(partition.store);
+                }
+            } finally {
+                partition.lock.readLock().unlock();
+            }
+        }
+    }
+
+    private static String partitionKey(String namespace, String targetLanguage) {
+        return namespace + "/" + toNamespace(targetLanguage);
+    }
+
+    private Partition openPartition(String partitionNamespace, String targetLanguage) {
+        CompletableFuture<Void> pendingUnload = unloading.get(partitionKey(partitionNamespace, targetLanguage));
+        if (pendingUnload != null) {
+            pendingUnload.join();
+        }
+        Path directory = partitionDirectory(rootDirectory, partitionNamespace, targetLanguage);
+        PersistentTranslationStore store = newStore(directory);
+        store.load();
+        LOGGER.debug("載入緩存分區: {}", directory);
+        return new Partition(partitionNamespace, partitionKey(partitionNamespace, targetLanguage), store);
+    }
+
+    private PersistentTranslationStore newStore(Path directory) {
+        return new PersistentTranslationStore(directory, expireAfterMs, retainExpired, expiredSink,
+            journalExecutor, maintenanceExecutor);
+    }
+
+    private Path namespaceDirectory(String partitionNamespace) {
+        return rootDirectory.resolve(PARTITIONS_DIRECTORY).resolve(partitionNamespace);
+    }
+
+    /**
+     * 分區目錄：{@code <緩存根目錄>/partitions/<命名空間>/<語言>}
+     */
+    static Path partitionDirectory(Path rootDirectory, String partitionNamespace, String targetLanguage) {
+        return rootDirectory.resolve(PARTITIONS_DIRECTORY).resolve(partitionNamespace).resolve(toNamespace(targetLanguage));
+    }
+
+    /**
+     * 卸載分區：等待進行中的操作結束，寫入剩餘日誌後釋放
+     */
+    private void unload(Partition partition) {
+        partition.lock.writeLock().lock();
+        try {
+            if (partition.closed) {
+                return;
+            }
+            partition.closed = true;
+            unloading.put(partition.key, partition.unloaded);
+            partitions.remove(partition.key, partition);
+        } finally {
+            partition.lock.writeLock().unlock();
+        }
+        try {
+            partition.store.shutdown();
+        } finally {
+            unloading.remove(partition.key, partition.unloaded);
+            partition.unloaded.complete(null);
+        }
+        LOGGER.debug("卸載緩存分區: {}", partition.store.getDirectory());
+    }
+
+    private void unloadIdlePartitions() {
+        long deadline = System.currentTimeMillis() - PerformanceConfig.PARTITION_IDLE_TIMEOUT_MS;
+        for (Partition partition : new ArrayList<>(partitions.values())) {
+            if (partition.lastAccess < deadline) {
+                unload(partition);
+            }
+        }
+    }
+
+    private void submit(Runnable task) {
+        try {
+            maintenanceExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // 已關閉時由 shutdown 統一卸載
+        }
+    }
+
+    /**
+     * 重新載入已打開的分區與舊版緩存
+     */
+    public void load() {
+        for (Partition partition : partitions.values()) {
+            partition.store.load();
+        }
+        if (legacy != null) {
+            legacy.load();
+        }
+    }
+
+    public boolean isReady() {
+        for (PersistentTranslationStore store : stores()) {
+            if (!store.isReady()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 等待所有已打開的分區載入完成
+     *
+     * @param timeoutMs 最長等待時間（所有分區共用）
+     */
+    public boolean awaitReady(long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        for (PersistentTranslationStore store : stores()) {
+            if (!store.awaitReady(Math.max(0, deadline - System.currentTimeMillis()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public double getLoadProgress() {
+        List<PersistentTranslationStore> stores = stores();
+        if (stores.isEmpty()) {
+            return 1.0;
+        }
+        double total = 0;
+        for (PersistentTranslationStore store : stores) {
+            total += store.getLoadProgress();
+        }
+        return total / stores.size();
+    }
+
+    public boolean compact() {
+        boolean success = true;
+        for (PersistentTranslationStore store : stores()) {
+            success &= store.compact();
+        }
+        return success;
+    }
+
+    /**
+     * 清除目前命名空間的所有分區（包括未載入的）與舊版緩存
+     */
+    public void clear() {
+        for (String language : listPartitions()) {
+            withPartition(language, false, store -> {
+                store.clear();
+                return null;
+            });
+        }
+        if (legacy != null) {
+            legacy.clear();
+        }
+    }
+
+    public void shutdown() {
+        // 不中斷進行中的載入：中斷會關閉正在映射的檔案通道
+        maintenanceExecutor.shutdown();
+        for (Partition partition : new ArrayList<>(partitions.values())) {
+            unload(partition);
+        }
+        if (legacy != null) {
+            legacy.shutdown();
+        }
+        journalExecutor.shutdown();
+        try {
+            if (!journalExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                journalExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            journalExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 已打開分區的項目數量（不含舊版緩存，近似值）
+     */
+    public int size() {
+        int size = 0;
+        for (Partition partition : partitions.values()) {
+            size += partition.store.size();
+        }
+        return size;
+    }
+
+    public int getLoadedPartitionCount() {
+        return partitions.size();
+    }
+
+    /**
+     * 目前命名空間的目錄
+     */
+    public Path getDirectory() {
+        return namespaceDirectory(namespace);
+    }
+
+    private List<PersistentTranslationStore> stores() {
+        List<PersistentTranslationStore> stores = new ArrayList<>();
+        for (Partition partition : partitions.values()) {
+            stores.add(partition.store);
+        }
+        if (legacy != null) {
+            stores.add(legacy);
+        }
+        return stores;
+    }
+
+    private static final class Partition {
+        final String namespace;
+        final String key;
+        final PersistentTranslationStore store;
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final CompletableFuture<Void> unloaded = new CompletableFuture<>();
+        volatile long lastAccess = System.currentTimeMillis();
+        // 只在寫鎖內修改
+        boolean closed;
+
+        Partition(String namespace, String key, PersistentTranslationStore store) {
+            this.namespace = namespace;
+            this.key = key;
+            this.store = store;
+        }
+    }
+}
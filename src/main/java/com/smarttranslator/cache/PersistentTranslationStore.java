@@ -0,0 +1,341 @@
+package com.smarttranslator.cache;
+
+import com.smarttranslator.config.PerformanceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+/**
+ * 持久化翻譯儲存（L2）
+ * 已提交的內容存放在記憶體映射的分段檔案中；尚未寫入分段的新增項目與刪除標記
+ * 保存在基本型別索引中，並同步追加到寫入日誌，因此寫入 L2 的項目不會因進程退出而遺失。
+ * 啟動時在後台線程載入，載入期間查找只會命中已載入的部分。
+ */
+public class PersistentTranslationStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PersistentTranslationStore.class);
+
+    // 尚未寫入分段的新增項目
+    private final TranslationIndex pending = new TranslationIndex();
+    // 尚未寫入分段的刪除標記
+    private final TranslationIndex removed = new TranslationIndex();
+    private final Path directory;
+    private final long expireAfterMs;
+    private final LongPredicate retainExpired;
+    private final Consumer<CachedTranslation> expiredSink;
+    private final SegmentStore segmentStore;
+    private final CacheJournal journal;
+    private final Executor loadExecutor;
+
+    // 後台載入狀態
+    private volatile CompletableFuture<Void> loadFuture = CompletableFuture.completedFuture(null);
+    private volatile boolean loaded = false;
+    private volatile long bytesToLoad = 0;
+    private volatile long bytesLoadedAtStart = 0;
+
+    /**
+     * @param directory 緩存檔案所在目錄
+     * @param expireAfterMs 合併分段時丟棄早於此時長的項目
+     */
+    public PersistentTranslationStore(Path directory, long expireAfterMs) {
+        this(directory, expireAfterMs, null, null);
+    }
+
+    /**
+     * @param retainExpired 合併時對過期項目的鍵返回 true 則保留（例如仍經常被訪問），可為 null
+     * @param expiredSink 合併時接收過期項目（例如移入冷歸檔），為 null 時直接丟棄
+     */
+    public PersistentTranslationStore(Path directory, long expireAfterMs, LongPredicate retainExpired,
+                                      Consumer<CachedTranslation> expiredSink) {
+        this(directory, expireAfterMs, retainExpired, expiredSink, null, null);
+    }
+
+    /**
+     * 使用共用的執行器，不為每個儲存建立日誌線程與載入線程（例如分區儲存的各個分區）
+     *
+     * @param ioExecutor 共用的單線程日誌執行器，為 null 時建立專用線程
+     * @param loadExecutor 執行後台載入的執行器，為 null 時每次載入建立新線程
+     */
+    PersistentTranslationStore(Path directory, long expireAfterMs, LongPredicate retainExpired,
+                               Consumer<CachedTranslation> expiredSink, ScheduledExecutorService ioExecutor,
+                               Executor loadExecutor) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            LOGGER.error("無法創建配置目錄: {}", directory, e);
+        }
+        this.directory = directory;
+        this.expireAfterMs = expireAfterMs;
+        this.retainExpired = retainExpired;
+        this.expiredSink = expiredSink;
+        this.loadExecutor = loadExecutor != null ? loadExecutor : PersistentTranslationStore::startLoader;
+        this.segmentStore = new SegmentStore(directory);
+        CacheJournal.SnapshotWriter snapshotWriter = new CacheJournal.SnapshotWriter() {
+            @Override
+            public void write() throws IOException {
+                if (!loaded) {
+                    // 日誌尚未重放完畢，不能截斷
+                    throw new IOException("緩存仍在載入中，延後寫入分段");
+                }
+                flushToSegment();
+            }
+
+            @Override
+            public void clear() {
+                segmentStore.clear();
+            }
+        };
+        this.journal = ioExecutor != null
+            ? new CacheJournal(directory, snapshotWriter, ioExecutor) : new CacheJournal(directory, snapshotWriter);
+    }
+
+    private static void startLoader(Runnable task) {
+        Thread loader = new Thread(task, "SmartTranslator-CacheLoader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * 查找項目，順序：未寫入的新增項目 → 刪除標記 → 記憶體映射分段
+     */
+    public CachedTranslation get(long key, String originalText, String targetLanguage) {
+        int languageId = LanguageIds.idOf(targetLanguage);
+        CachedTranslation cached = pending.get(key, originalText, languageId);
+        if (cached != null) {
+            return cached;
+        }
+        if (removed.get(key, originalText, languageId) != null) {
+            return null;
+        }
+        return segmentStore.get(key, originalText, targetLanguage);
+    }
+
+    /**
+     * 寫入項目（先進入待寫入索引並追加日誌）
+     */
+    public void put(long key, CachedTranslation cached) {
+        pending.put(key, cached);
+        removed.remove(key, cached.getOriginalText(), cached.getLanguageId());
+        // 只追加單條記錄，由日誌線程異步分組寫入
+        journal.appendPut(cached);
+    }
+
+    /**
+     * 移除項目（寫入刪除標記，持久生效）
+     */
+    public void remove(long key, String originalText, String targetLanguage) {
+        int languageId = LanguageIds.intern(targetLanguage);
+        pending.remove(key, originalText, languageId);
+        // 刪除標記使用移除時間，載入時據此判斷先後
+        CachedTranslation tombstone = new CachedTranslation(
+            originalText, null, targetLanguage, System.currentTimeMillis());
+        removed.put(key, tombstone);
+        journal.appendRemove(tombstone);
+    }
+
+    /**
+     * 將未寫入的新增項目和刪除標記寫入新分段（在日誌 I/O 線程調用）
+     */
+    private void flushToSegment() throws IOException {
+        List<CachedTranslation> puts = pending.values();
+        List<CachedTranslation> tombstones = removed.values();
+        segmentStore.writeSegment(puts, tombstones);
+
+        // 寫入期間被更新的項目保留在待寫入索引中
+        for (CachedTranslation cached : puts) {
+            pending.removeValue(TranslationKeyHash.hash(cached.getOriginalText(), cached.getTargetLanguage()), cached);
+        }
+        for (CachedTranslation cached : tombstones) {
+            removed.removeValue(TranslationKeyHash.hash(cached.getOriginalText(), cached.getTargetLanguage()), cached);
+        }
+
+        if (segmentStore.getSegmentCount() > PerformanceConfig.SEGMENT_MERGE_THRESHOLD) {
+            segmentStore.mergeAll(System.currentTimeMillis() - expireAfterMs, retainExpired, expiredSink);
+        }
+    }
+
+    /**
+     * 在後台線程映射緩存分段並重放寫入日誌；舊版 JSON 快照會被遷移到分段
+     * 方法立即返回，可通過 {@link #isReady()} 與 {@link #awaitReady(long)} 查詢載入狀態
+     */
+    public void load() {
+        if (!loadFuture.isDone()) {
+            return;
+        }
+        loaded = false;
+        pending.clear();
+        removed.clear();
+        bytesLoadedAtStart = journal.getBytesLoaded();
+        bytesToLoad = journal.getBytesToLoad();
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        loadFuture = future;
+        try {
+            loadExecutor.execute(() -> {
+                try {
+                    doLoad();
+                } catch (Exception e) {
+                    LOGGER.error("載入翻譯緩存失敗", e);
+                } finally {
+                    loaded = true;
+                    future.complete(null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 執行器已關閉（正在關閉緩存），不再載入；日誌未重放前不會被截斷
+            future.complete(null);
+        }
+    }
+
+    private void doLoad() {
+        long startTime = System.currentTimeMillis();
+        try {
+            segmentStore.open();
+        } catch (IOException e) {
+            LOGGER.error("映射緩存分段失敗: {}", directory, e);
+        }
+
+        // 載入期間可能已有新寫入或移除，舊記錄只在不會覆蓋較新狀態時才生效
+        boolean legacy = journal.loadLegacySnapshot(this::replayPut);
+        journal.replay(new CacheJournal.ReplayHandler() {
+            @Override
+            public void onPut(CachedTranslation cached) {
+                replayPut(cached);
+            }
+
+            @Override
+            public void onRemove(CachedTranslation tombstone) {
+                long key = TranslationKeyHash.hash(tombstone.getOriginalText(), tombstone.getTargetLanguage());
+                CachedTranslation existing = pending.get(key, tombstone.getOriginalText(), tombstone.getLanguageId());
+                if (existing != null && existing.getTimestamp() > tombstone.getTimestamp()) {
+                    return;
+                }
+                pending.remove(key, tombstone.getOriginalText(), tombstone.getLanguageId());
+                removed.putIfNewer(key, tombstone);
+            }
+        });
+        loaded = true;
+
+        if (legacy) {
+            LOGGER.info("正在將舊版緩存快照遷移到分段儲存，共 {} 個項目", pending.size());
+            if (journal.compact()) {
+                journal.deleteLegacySnapshot();
+            }
+        }
+        LOGGER.info("成功載入 {} 個緩存項目（{} 個分段，映射 {} 位元組），耗時 {} ms",
+            size(), segmentStore.getSegmentCount(), segmentStore.getMappedBytes(),
+            System.currentTimeMillis() - startTime);
+    }
+
+    private void replayPut(CachedTranslation cached) {
+        long key = TranslationKeyHash.hash(cached.getOriginalText(), cached.getTargetLanguage());
+        CachedTranslation tombstone = removed.get(key, cached.getOriginalText(), cached.getLanguageId());
+        if (tombstone != null && tombstone.getTimestamp() >= cached.getTimestamp()) {
+            return;
+        }
+        if (pending.putIfNewer(key, cached) && tombstone != null) {
+            removed.removeValue(key, tombstone);
+        }
+    }
+
+    /**
+     * 是否已完成載入
+     */
+    public boolean isReady() {
+        return loadFuture.isDone();
+    }
+
+    /**
+     * 等待載入完成
+     *
+     * @param timeoutMs 最長等待時間
+     * @return 是否已完成載入
+     */
+    public boolean awaitReady(long timeoutMs) {
+        CompletableFuture<Void> future = loadFuture;
+        if (future.isDone()) {
+            return true;
+        }
+        try {
+            future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // 超時則返回當前狀態
+        }
+        return future.isDone();
+    }
+
+    /**
+     * 獲取載入進度（0.0 ~ 1.0）
+     */
+    public double getLoadProgress() {
+        if (isReady()) {
+            return 1.0;
+        }
+        long total = bytesToLoad;
+        if (total <= 0) {
+            return 0.0;
+        }
+        return Math.min(1.0, (double) (journal.getBytesLoaded() - bytesLoadedAtStart) / total);
+    }
+
+    /**
+     * 將寫入日誌合併到分段
+     *
+     * @return 是否成功
+     */
+    public boolean compact() {
+        return journal.compact();
+    }
+
+    /**
+     * 清除所有持久內容
+     */
+    public void clear() {
+        // 等待載入結束，避免清除後又被後台載入的舊項目填回
+        awaitReady(PerformanceConfig.REQUEST_TIMEOUT_MS);
+        pending.clear();
+        removed.clear();
+        journal.clear();
+    }
+
+    /**
+     * 寫入剩餘的日誌記錄並合併到分段
+     */
+    public void shutdown() {
+        journal.shutdown();
+    }
+
+    /**
+     * 項目數量（分段中的記錄加上尚未寫入的項目，近似值）
+     */
+    public int size() {
+        return segmentStore.getEntryCount() + pending.size();
+    }
+
+    public int getSegmentCount() {
+        return segmentStore.getSegmentCount();
+    }
+
+    public long getMappedBytes() {
+        return segmentStore.getMappedBytes();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+}
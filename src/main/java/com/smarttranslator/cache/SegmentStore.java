@@ -0,0 +1,777 @@
+package com.smarttranslator.cache;
+
+import com.smarttranslator.config.PerformanceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import java.util.zip.Deflater;
+
+/**
+ * 記憶體映射的二進位分段儲存
+ * 每個分段是一個不可變檔案：檔頭 + 開放定址雜湊索引 + 記錄區，
+ * 以唯讀方式 mmap 後直接在堆外查找，只有命中的項目才會被解碼為 Java 字串。
+ * 新分段總是寫入臨時檔案再原子重命名；分段過多時合併為一個並丟棄刪除標記。
+ * 累積足夠的項目後會訓練共享的預設字典，記錄的原文與譯文以字典 Deflate 壓縮後儲存；
+ * 字典存放在獨立檔案中，由分段檔頭以編號引用，合併時重新訓練。
+ */
+public class SegmentStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SegmentStore.class);
+
+    static final String SEGMENT_PREFIX = "translation_cache-";
+    static final String SEGMENT_SUFFIX = ".seg";
+    static final String DICTIONARY_PREFIX = "translation_dict-";
+    static final String DICTIONARY_SUFFIX = ".dict";
+
+    private static final int MAGIC = 0x53545347; // "STSG"
+    private static final int VERSION = 2;
+    private static final int LEGACY_VERSION = 1; // 無壓縮、無字典編號的舊格式，仍可讀取
+    private static final int HEADER_SIZE = 40;
+    private static final int LEGACY_HEADER_SIZE = 32;
+    private static final int SLOT_SIZE = 12; // long 雜湊 + int 記錄偏移
+    private static final int RECORD_HEADER_SIZE = 22;
+    private static final int LEGACY_RECORD_HEADER_SIZE = 18;
+
+    private static final byte FLAG_PUT = 0;
+    private static final byte FLAG_TOMBSTONE = 1;
+    private static final byte FLAG_COMPRESSED = 2;
+
+    private final Path directory;
+    private final boolean compression;
+    // 唯讀：只映射其他實例寫入的分段，不寫入也不刪除任何檔案
+    private final boolean readOnly;
+    // 唯讀模式上次重新映射時目錄中的分段檔案
+    private Set<Path> listedFiles = Collections.emptySet();
+
+    // 由新到舊排列；寫入只發生在緩存日誌的 I/O 線程，讀取可以在任何線程
+    private volatile List<Segment> segments = Collections.emptyList();
+    private long nextGeneration = 1;
+    // 新分段使用的字典，只在 I/O 線程讀寫
+    private volatile TranslationDictionary dictionary;
+
+    public SegmentStore(Path directory) {
+        this(directory, true);
+    }
+
+    /**
+     * @param compression 是否訓練字典並壓縮記錄（關閉時只用於比較檔案大小）
+     */
+    SegmentStore(Path directory, boolean compression) {
+        this(directory, compression, false);
+    }
+
+    private SegmentStore(Path directory, boolean compression, boolean readOnly) {
+        this.directory = directory;
+        this.compression = compression;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * 建立唯讀的分段儲存（共用模式下讀取擁有者實例的 L2，檔案由擁有者寫入、合併與刪除）
+     */
+    static SegmentStore readOnly(Path directory) {
+        return new SegmentStore(directory, false, true);
+    }
+
+    /**
+     * 映射目錄中現有的分段，並刪除已被合併分段取代的舊檔案
+     */
+    public void open() throws IOException {
+        List<Segment> opened = new ArrayList<>();
+        Map<Integer, TranslationDictionary> dictionaries = new HashMap<>();
+        DictionaryResolver resolver = id -> {
+            TranslationDictionary loaded = dictionaries.get(id);
+            if (loaded == null) {
+                loaded = TranslationDictionary.read(dictionaryPath(id));
+                dictionaries.put(id, loaded);
+            }
+            return loaded;
+        };
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                try {
+                    opened.add(Segment.map(path, resolver));
+                } catch (IOException | IllegalStateException e) {
+                    LOGGER.warn("忽略無法讀取的緩存分段: {} ({})", path, e.getMessage());
+                }
+            }
+        }
+        opened.sort(Comparator.comparingLong((Segment s) -> s.generation).reversed());
+
+        // 合併分段包含 [baseGeneration, generation] 範圍內的所有分段，範圍內的舊檔案可以刪除
+        List<Segment> live = new ArrayList<>();
+        long coveredFrom = Long.MAX_VALUE;
+        for (Segment segment : opened) {
+            if (segment.generation >= coveredFrom) {
+                if (!readOnly) {
+                    deleteQuietly(segment.path);
+                }
+                continue;
+            }
+            live.add(segment);
+            coveredFrom = Math.min(coveredFrom, segment.baseGeneration);
+        }
+
+        this.segments = Collections.unmodifiableList(live);
+        this.nextGeneration = live.isEmpty() ? 1 : live.get(0).generation + 1;
+        this.dictionary = null;
+        for (Segment segment : live) {
+            if (segment.dictionary != null) {
+                this.dictionary = segment.dictionary;
+                break;
+            }
+        }
+        if (readOnly) {
+            LOGGER.debug("已唯讀映射 {} 個緩存分段: {}", live.size(), directory);
+            return;
+        }
+        deleteUnreferencedDictionaries(live);
+        LOGGER.info("已映射 {} 個緩存分段，共 {} 條記錄", live.size(), getEntryCount());
+    }
+
+    /**
+     * 目錄中的分段檔案與已映射的不同時（其他實例寫入新分段或合併後）重新映射
+     *
+     * @return 是否重新映射
+     */
+    public synchronized boolean refresh() throws IOException {
+        Set<Path> files = new HashSet<>();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+                stream.forEach(files::add);
+            }
+        }
+        if (files.equals(listedFiles)) {
+            return false;
+        }
+        if (files.isEmpty()) {
+            segments = Collections.emptyList();
+        } else {
+            open();
+        }
+        listedFiles = files;
+        return true;
+    }
+
+    /**
+     * 查找翻譯（由新到舊），遇到刪除標記視為未命中
+     */
+    public CachedTranslation get(String originalText, String targetLanguage) {
+        return get(TranslationKeyHash.hash(originalText, targetLanguage), originalText, targetLanguage);
+    }
+
+    /**
+     * 以調用者已計算的雜湊查找
+     */
+    public CachedTranslation get(long hash, String originalText, String targetLanguage) {
+        List<Segment> current = segments;
+        if (current.isEmpty()) {
+            return null;
+        }
+        byte[] originalBytes = null;
+        byte[] languageBytes = null;
+        for (Segment segment : current) {
+            int offset = segment.find(hash);
+            while (offset >= 0) {
+                if (originalBytes == null) {
+                    originalBytes = originalText.getBytes(StandardCharsets.UTF_8);
+                    languageBytes = targetLanguage.getBytes(StandardCharsets.UTF_8);
+                }
+                // 先比對未壓縮的語言與原文長度，符合後才讀取（解壓）內容比對原文
+                if (segment.matchesHeader(offset, originalBytes.length, languageBytes)) {
+                    byte[] payload = segment.payload(offset);
+                    if (Arrays.equals(payload, 0, originalBytes.length, originalBytes, 0, originalBytes.length)) {
+                        return segment.isTombstone(offset) ? null
+                            : segment.toTranslation(offset, payload, originalText, targetLanguage);
+                    }
+                }
+                offset = segment.findNext(hash, offset);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 將新增項目和刪除標記寫入一個新分段（在緩存日誌的 I/O 線程調用）
+     */
+    public void writeSegment(Collection<CachedTranslation> puts, Collection<CachedTranslation> tombstones) throws IOException {
+        if (puts.isEmpty() && tombstones.isEmpty()) {
+            return;
+        }
+        if (compression && dictionary == null && puts.size() >= PerformanceConfig.DICTIONARY_MIN_SAMPLES) {
+            List<String> samples = new ArrayList<>(puts.size() * 2);
+            for (CachedTranslation cached : puts) {
+                samples.add(cached.getOriginalText());
+                samples.add(cached.getTranslatedText());
+            }
+            installDictionary(TranslationDictionary.train(samples, PerformanceConfig.DICTIONARY_MAX_BYTES));
+        }
+        SegmentWriter writer = new SegmentWriter(puts.size() + tombstones.size(), dictionary);
+        for (CachedTranslation cached : puts) {
+            writer.add(FLAG_PUT, cached);
+        }
+        for (CachedTranslation cached : tombstones) {
+            writer.add(FLAG_TOMBSTONE, cached);
+        }
+        long generation = nextGeneration++;
+        Segment segment = writer.finish(generation, generation);
+
+        List<Segment> updated = new ArrayList<>(segments.size() + 1);
+        updated.add(segment);
+        updated.addAll(segments);
+        segments = Collections.unmodifiableList(updated);
+    }
+
+    /**
+     * 將所有分段合併為一個，丟棄被覆蓋的舊版本、刪除標記及早於 expireBefore 的項目
+     * 合併時以保留的項目重新訓練字典；記錄只解壓為位元組再以新字典壓縮，不會解碼為字串
+     */
+    public void mergeAll(long expireBefore) throws IOException {
+        mergeAll(expireBefore, null);
+    }
+
+    /**
+     * 合併所有分段，過期的項目在丟棄前交給 expired（為 null 時直接丟棄）
+     */
+    public void mergeAll(long expireBefore, Consumer<CachedTranslation> expired) throws IOException {
+        mergeAll(expireBefore, null, expired);
+    }
+
+    /**
+     * 合併所有分段
+     *
+     * @param retainExpired 對過期項目的雜湊返回 true 時保留該項目（例如仍經常被訪問），為 null 時不保留
+     * @param expired 接收被丟棄的過期項目，為 null 時直接丟棄
+     */
+    public void mergeAll(long expireBefore, LongPredicate retainExpired, Consumer<CachedTranslation> expired)
+            throws IOException {
+        List<Segment> current = segments;
+        if (current.size() <= 1 && (current.isEmpty() || current.get(0).tombstones == 0)) {
+            return;
+        }
+
+        int upperBound = 0;
+        for (Segment segment : current) {
+            upperBound += segment.entryCount;
+        }
+
+        // 先找出保留的記錄，再決定使用的字典
+        LongHashSet seen = new LongHashSet(upperBound);
+        List<Segment> sources = new ArrayList<>();
+        int[] offsets = new int[upperBound];
+        long[] hashes = new long[upperBound];
+        int survivors = 0;
+        for (Segment segment : current) {
+            for (int slot = 0; slot < segment.slotCount; slot++) {
+                int offset = segment.offsetAt(slot);
+                if (offset < 0) {
+                    continue;
+                }
+                long hash = segment.hashAt(slot);
+                // 新分段優先；刪除標記也要佔位，以遮蔽更舊分段中的同一項目
+                if (!seen.add(hash)) {
+                    continue;
+                }
+                if (segment.isTombstone(offset)) {
+                    continue;
+                }
+                if (segment.timestamp(offset) < expireBefore
+                        && (retainExpired == null || !retainExpired.test(hash))) {
+                    if (expired != null) {
+                        expired.accept(segment.decode(offset));
+                    }
+                    continue;
+                }
+                sources.add(segment);
+                offsets[survivors] = offset;
+                hashes[survivors] = hash;
+                survivors++;
+            }
+        }
+
+        if (compression && survivors >= PerformanceConfig.DICTIONARY_MIN_SAMPLES) {
+            int step = Math.max(1, survivors / PerformanceConfig.DICTIONARY_SAMPLE_LIMIT);
+            List<String> samples = new ArrayList<>();
+            for (int i = 0; i < survivors; i += step) {
+                Segment segment = sources.get(i);
+                byte[] payload = segment.payload(offsets[i]);
+                int originalLength = segment.originalLength(offsets[i]);
+                samples.add(new String(payload, 0, originalLength, StandardCharsets.UTF_8));
+                samples.add(new String(payload, originalLength, payload.length - originalLength, StandardCharsets.UTF_8));
+            }
+            installDictionary(TranslationDictionary.train(samples, PerformanceConfig.DICTIONARY_MAX_BYTES));
+        }
+
+        SegmentWriter writer = new SegmentWriter(survivors, dictionary);
+        for (int i = 0; i < survivors; i++) {
+            writer.copyRecord(hashes[i], sources.get(i), offsets[i]);
+        }
+
+        long generation = nextGeneration++;
+        Segment merged = writer.finish(generation, current.get(current.size() - 1).generation);
+        segments = Collections.singletonList(merged);
+
+        for (Segment old : current) {
+            // Windows 上仍被映射的檔案無法刪除，下次啟動時會依 baseGeneration 清理
+            deleteQuietly(old.path);
+        }
+        deleteUnreferencedDictionaries(segments);
+        LOGGER.info("已合併 {} 個緩存分段，保留 {} 條記錄", current.size(), merged.entryCount);
+    }
+
+    /**
+     * 刪除所有分段
+     */
+    public void clear() {
+        List<Segment> current = segments;
+        segments = Collections.emptyList();
+        for (Segment segment : current) {
+            deleteQuietly(segment.path);
+        }
+        dictionary = null;
+        deleteUnreferencedDictionaries(Collections.emptyList());
+    }
+
+    /**
+     * 寫入並啟用新訓練的字典；內容相同時沿用現有字典
+     */
+    private void installDictionary(TranslationDictionary trained) throws IOException {
+        if (trained == null || (dictionary != null && dictionary.getId() == trained.getId())) {
+            return;
+        }
+        trained.write(dictionaryPath(trained.getId()));
+        dictionary = trained;
+        LOGGER.info("已訓練緩存壓縮字典: {} 位元組", trained.size());
+    }
+
+    private Path dictionaryPath(int id) {
+        return directory.resolve(String.format("%s%08x%s", DICTIONARY_PREFIX, id, DICTIONARY_SUFFIX));
+    }
+
+    /**
+     * 刪除沒有分段引用的字典檔案（保留當前字典）
+     */
+    private void deleteUnreferencedDictionaries(List<Segment> live) {
+        Set<Path> referenced = new HashSet<>();
+        for (Segment segment : live) {
+            if (segment.dictionary != null) {
+                referenced.add(dictionaryPath(segment.dictionary.getId()));
+            }
+        }
+        if (dictionary != null) {
+            referenced.add(dictionaryPath(dictionary.getId()));
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, DICTIONARY_PREFIX + "*" + DICTIONARY_SUFFIX)) {
+            for (Path path : stream) {
+                if (!referenced.contains(path)) {
+                    deleteQuietly(path);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.debug("無法列出緩存字典: {}", directory);
+        }
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * 所有分段中的有效記錄總數（未扣除被新分段覆蓋的舊版本）
+     */
+    public int getEntryCount() {
+        int count = 0;
+        for (Segment segment : segments) {
+            count += segment.entryCount - segment.tombstones;
+        }
+        return count;
+    }
+
+    public long getMappedBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.buffer.capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * 當前字典大小（沒有字典時為 0）
+     */
+    public int getDictionaryBytes() {
+        TranslationDictionary current = dictionary;
+        return current == null ? 0 : current.size();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.debug("暫時無法刪除緩存分段: {}", path);
+        }
+    }
+
+    /**
+     * 讀取分段時依編號載入字典
+     */
+    private interface DictionaryResolver {
+        TranslationDictionary resolve(int id) throws IOException;
+    }
+
+    /**
+     * 單個唯讀分段
+     */
+    private static final class Segment {
+        final Path path;
+        final MappedByteBuffer buffer;
+        final long generation;
+        final long baseGeneration;
+        final int entryCount;
+        final int slotCount;
+        final int headerSize;
+        final int recordHeaderSize;
+        final int dataStart;
+        final int tombstones;
+        final TranslationDictionary dictionary;
+
+        private Segment(Path path, MappedByteBuffer buffer, DictionaryResolver resolver) throws IOException {
+            this.path = path;
+            this.buffer = buffer;
+            if (buffer.capacity() < LEGACY_HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IllegalStateException("分段格式不符");
+            }
+            int version = buffer.getInt(4);
+            if (version != VERSION && version != LEGACY_VERSION) {
+                throw new IllegalStateException("分段版本不符: " + version);
+            }
+            this.headerSize = version == VERSION ? HEADER_SIZE : LEGACY_HEADER_SIZE;
+            this.recordHeaderSize = version == VERSION ? RECORD_HEADER_SIZE : LEGACY_RECORD_HEADER_SIZE;
+            this.generation = buffer.getLong(8);
+            this.baseGeneration = buffer.getLong(16);
+            this.entryCount = buffer.getInt(24);
+            this.slotCount = buffer.getInt(28);
+            int dictionaryId = version == VERSION ? buffer.getInt(32) : 0;
+            this.dictionary = dictionaryId == 0 ? null : resolver.resolve(dictionaryId);
+            this.dataStart = headerSize + slotCount * SLOT_SIZE;
+            int deleted = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                int offset = offsetAt(slot);
+                if (offset >= 0 && isTombstone(offset)) {
+                    deleted++;
+                }
+            }
+            this.tombstones = deleted;
+        }
+
+        static Segment map(Path path, DictionaryResolver resolver) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                return new Segment(path, buffer, resolver);
+            }
+        }
+
+        int find(long hash) {
+            int mask = slotCount - 1;
+            for (int slot = (int) hash & mask, probes = 0; probes < slotCount; slot = (slot + 1) & mask, probes++) {
+                int offset = offsetAt(slot);
+                if (offset < 0) {
+                    return -1;
+                }
+                if (hashAt(slot) == hash) {
+                    return offset;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * 雜湊衝突時繼續探測下一個相同雜湊的記錄
+         */
+        int findNext(long hash, int previousOffset) {
+            int mask = slotCount - 1;
+            boolean passed = false;
+            for (int slot = (int) hash & mask, probes = 0; probes < slotCount; slot = (slot + 1) & mask, probes++) {
+                int offset = offsetAt(slot);
+                if (offset < 0) {
+                    return -1;
+                }
+                if (hashAt(slot) == hash) {
+                    if (passed) {
+                        return offset;
+                    }
+                    passed = offset == previousOffset;
+                }
+            }
+            return -1;
+        }
+
+        long hashAt(int slot) {
+            return buffer.getLong(headerSize + slot * SLOT_SIZE);
+        }
+
+        int offsetAt(int slot) {
+            return buffer.getInt(headerSize + slot * SLOT_SIZE + 8) - 1;
+        }
+
+        byte flags(int offset) {
+            return buffer.get(dataStart + offset);
+        }
+
+        boolean isTombstone(int offset) {
+            return (flags(offset) & FLAG_TOMBSTONE) != 0;
+        }
+
+        long timestamp(int offset) {
+            return buffer.getLong(dataStart + offset + 1);
+        }
+
+        int languageLength(int offset) {
+            return buffer.get(dataStart + offset + 9) & 0xFF;
+        }
+
+        int originalLength(int offset) {
+            return buffer.getInt(dataStart + offset + 10);
+        }
+
+        int translatedLength(int offset) {
+            return buffer.getInt(dataStart + offset + 14);
+        }
+
+        /**
+         * 記錄中原文與譯文實際佔用的位元組數（壓縮時為壓縮後大小）
+         */
+        int storedLength(int offset) {
+            if (recordHeaderSize == LEGACY_RECORD_HEADER_SIZE) {
+                return originalLength(offset) + translatedLength(offset);
+            }
+            return buffer.getInt(dataStart + offset + 18);
+        }
+
+        boolean matchesHeader(int offset, int originalLength, byte[] languageBytes) {
+            int languageLength = languageLength(offset);
+            if (languageLength != languageBytes.length || originalLength(offset) != originalLength) {
+                return false;
+            }
+            int position = dataStart + offset + recordHeaderSize;
+            for (int i = 0; i < languageLength; i++) {
+                if (buffer.get(position + i) != languageBytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        byte[] language(int offset) {
+            byte[] language = new byte[languageLength(offset)];
+            buffer.get(dataStart + offset + recordHeaderSize, language);
+            return language;
+        }
+
+        /**
+         * 讀取原文與譯文的原始位元組（原文在前），必要時解壓
+         */
+        byte[] payload(int offset) {
+            byte[] stored = new byte[storedLength(offset)];
+            buffer.get(dataStart + offset + recordHeaderSize + languageLength(offset), stored);
+            if ((flags(offset) & FLAG_COMPRESSED) == 0) {
+                return stored;
+            }
+            if (dictionary == null) {
+                throw new IllegalStateException("壓縮記錄缺少字典: " + path);
+            }
+            return dictionary.decompress(stored, originalLength(offset) + translatedLength(offset));
+        }
+
+        /**
+         * 解碼完整的項目（原文、語言與譯文）
+         */
+        CachedTranslation decode(int offset) {
+            byte[] payload = payload(offset);
+            String originalText = new String(payload, 0, originalLength(offset), StandardCharsets.UTF_8);
+            return toTranslation(offset, payload, originalText, new String(language(offset), StandardCharsets.UTF_8));
+        }
+
+        /**
+         * 建立項目；原文與語言已由調用者提供，只需解碼譯文
+         */
+        CachedTranslation toTranslation(int offset, byte[] payload, String originalText, String targetLanguage) {
+            int originalLength = originalLength(offset);
+            String translated = new String(payload, originalLength, payload.length - originalLength, StandardCharsets.UTF_8);
+            return new CachedTranslation(originalText, translated, targetLanguage, timestamp(offset));
+        }
+    }
+
+    /**
+     * 分段寫入器：先收集記錄，再一次寫出檔頭、索引與記錄區
+     */
+    private final class SegmentWriter {
+        private final long[] hashes;
+        private final int[] offsets;
+        private final TranslationDictionary dictionary;
+        private final Deflater deflater;
+        private int count = 0;
+        private ByteBuffer data;
+
+        SegmentWriter(int expectedEntries, TranslationDictionary dictionary) {
+            this.hashes = new long[Math.max(1, expectedEntries)];
+            this.offsets = new int[Math.max(1, expectedEntries)];
+            this.dictionary = dictionary;
+            this.deflater = dictionary == null ? null : new Deflater(Deflater.BEST_COMPRESSION, true);
+            this.data = ByteBuffer.allocate(Math.max(1024, expectedEntries * 64)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        void add(byte flag, CachedTranslation cached) {
+            byte[] language = cached.getTargetLanguage().getBytes(StandardCharsets.UTF_8);
+            byte[] original = cached.getOriginalText().getBytes(StandardCharsets.UTF_8);
+            byte[] translated = flag == FLAG_TOMBSTONE || cached.getTranslatedText() == null
+                ? new byte[0]
+                : cached.getTranslatedText().getBytes(StandardCharsets.UTF_8);
+            if (language.length > 255) {
+                throw new IllegalArgumentException("語言代碼過長: " + cached.getTargetLanguage());
+            }
+            byte[] payload = Arrays.copyOf(original, original.length + translated.length);
+            System.arraycopy(translated, 0, payload, original.length, translated.length);
+            addRecord(TranslationKeyHash.hash(cached.getOriginalText(), cached.getTargetLanguage()),
+                flag, cached.getTimestamp(), language, payload, original.length);
+        }
+
+        void copyRecord(long hash, Segment source, int sourceOffset) {
+            addRecord(hash, (byte) (source.flags(sourceOffset) & FLAG_TOMBSTONE), source.timestamp(sourceOffset),
+                source.language(sourceOffset), source.payload(sourceOffset), source.originalLength(sourceOffset));
+        }
+
+        private void addRecord(long hash, byte flag, long timestamp, byte[] language, byte[] payload, int originalLength) {
+            byte[] stored = payload;
+            if (dictionary != null && payload.length > 0) {
+                byte[] compressed = dictionary.compress(payload, deflater);
+                if (compressed != null) {
+                    stored = compressed;
+                    flag |= FLAG_COMPRESSED;
+                }
+            }
+            ensureCapacity(RECORD_HEADER_SIZE + language.length + stored.length);
+            hashes[count] = hash;
+            offsets[count] = data.position();
+            count++;
+            data.put(flag)
+                .putLong(timestamp)
+                .put((byte) language.length)
+                .putInt(originalLength)
+                .putInt(payload.length - originalLength)
+                .putInt(stored.length)
+                .put(language)
+                .put(stored);
+        }
+
+        private void ensureCapacity(int needed) {
+            if (data.remaining() < needed) {
+                int newCapacity = Math.max(data.capacity() * 2, data.position() + needed);
+                ByteBuffer grown = ByteBuffer.allocate(newCapacity).order(ByteOrder.LITTLE_ENDIAN);
+                data.flip();
+                grown.put(data);
+                data = grown;
+            }
+        }
+
+        Segment finish(long generation, long baseGeneration) throws IOException {
+            if (deflater != null) {
+                deflater.end();
+            }
+            // 負載因子不超過 0.5，保持探測鏈短
+            int slotCount = Integer.highestOneBit(Math.max(2, count * 2 - 1)) << 1;
+            int mask = slotCount - 1;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + slotCount * SLOT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(generation).putLong(baseGeneration)
+                .putInt(count).putInt(slotCount)
+                .putInt(dictionary == null ? 0 : dictionary.getId()).putInt(0);
+
+            int[] slotOffsets = new int[slotCount];
+            long[] slotHashes = new long[slotCount];
+            for (int i = 0; i < count; i++) {
+                int slot = (int) hashes[i] & mask;
+                while (slotOffsets[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slotHashes[slot] = hashes[i];
+                slotOffsets[slot] = offsets[i] + 1;
+            }
+            for (int slot = 0; slot < slotCount; slot++) {
+                header.putLong(slotHashes[slot]).putInt(slotOffsets[slot]);
+            }
+            header.flip();
+            data.flip();
+
+            Path target = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, generation, SEGMENT_SUFFIX));
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return Segment.map(target, id -> dictionary);
+        }
+    }
+
+    /**
+     * 合併時用於去重的基本型別雜湊集合
+     */
+    private static final class LongHashSet {
+        private final long[] keys;
+        private final boolean[] used;
+        private final int mask;
+
+        LongHashSet(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(2, expected * 2 - 1)) << 1;
+            this.keys = new long[capacity];
+            this.used = new boolean[capacity];
+            this.mask = capacity - 1;
+        }
+
+        boolean add(long key) {
+            int slot = (int) key & mask;
+            while (used[slot]) {
+                if (keys[slot] == key) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            return true;
+        }
+    }
+}
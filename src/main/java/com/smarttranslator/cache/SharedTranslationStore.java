@@ -0,0 +1,480 @@
+package com.smarttranslator.cache;
+
+import com.smarttranslator.config.PerformanceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * 跨進程共用的翻譯緩存
+ * 同一台機器上使用同一設定目錄的多個遊戲實例映射同一個檔案：檔頭 + 開放定址槽位表 + 只追加的記錄區。
+ * 查找不加鎖，直接在映射記憶體上探測槽位（槽位以 volatile 讀寫發布）；寫入先以檔案鎖協調，
+ * 將記錄追加到記錄區尾端後再發布槽位，因此各實例的新翻譯立即互相可見，也不會覆蓋彼此的寫入。
+ *
+ * <p>第一個打開的實例取得擁有者鎖，負責將其他實例追加的記錄匯入自己的持久儲存（{@link #drain}），
+ * 記錄區使用超過一定比例時在匯入後重置。
+ */
+public final class SharedTranslationStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedTranslationStore.class);
+
+    static final String DIRECTORY = "shared";
+    static final String FILE_NAME = "shared_cache.bin";
+    static final String OWNER_LOCK_FILE_NAME = "owner.lock";
+
+    static final int MAGIC = 0x53545348; // "STSH"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int SLOT_SIZE = 16; // long 鍵雜湊 + long 記錄偏移（加 1，0 表示尚未發布）
+    // 記錄頭：long 雜湊 + long 時間戳 + int 寫入者 + int 原文長度 + int 譯文長度（-1 為刪除標記）+ short 語言長度 + short 保留
+    static final int RECORD_HEADER_SIZE = 32;
+
+    // 檔頭欄位位置
+    private static final int SLOT_COUNT_OFFSET = 8;
+    private static final int ENTRY_COUNT_OFFSET = 12;
+    private static final int DATA_CAPACITY_OFFSET = 16;
+    private static final int DATA_END_OFFSET = 24;
+    private static final int IMPORTED_END_OFFSET = 32;
+    // 覆蓋、刪除或重置的次數；各實例據此判斷本地 L1 是否可能過時
+    private static final int MODIFICATION_COUNT_OFFSET = 40;
+
+    // 在映射記憶體上以 volatile 語義讀寫 8 位元組欄位（位置皆為 8 的倍數）
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    // 同一 JVM 內的檔案鎖不能重疊，先以監視器排隊再取得檔案鎖
+    private static final Map<Path, Object> APPEND_MONITORS = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final Object appendMonitor;
+    private final FileChannel ownerChannel;
+    private final FileLock ownerLock;
+    private final int slotCount;
+    private final long dataCapacity;
+    private final int dataStart;
+    private final int writerId = ThreadLocalRandom.current().nextInt() | 1;
+    private volatile boolean fullWarned = false;
+
+    private SharedTranslationStore(Path path, FileChannel channel, MappedByteBuffer buffer,
+                                   FileChannel ownerChannel, FileLock ownerLock) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.appendMonitor = APPEND_MONITORS.computeIfAbsent(path, p -> new Object());
+        this.ownerChannel = ownerChannel;
+        this.ownerLock = ownerLock;
+        this.slotCount = buffer.getInt(SLOT_COUNT_OFFSET);
+        this.dataCapacity = buffer.getLong(DATA_CAPACITY_OFFSET);
+        this.dataStart = HEADER_SIZE + slotCount * SLOT_SIZE;
+    }
+
+    /**
+     * 以預設容量打開（不存在時建立）共用緩存
+     *
+     * @param directory 共用檔案所在目錄
+     */
+    public static SharedTranslationStore open(Path directory) throws IOException {
+        return open(directory, PerformanceConfig.SHARED_CACHE_SLOTS, PerformanceConfig.SHARED_CACHE_DATA_BYTES);
+    }
+
+    /**
+     * 打開共用緩存；檔案已存在時沿用其容量
+     *
+     * @param slotCount    槽位數（2 的冪）
+     * @param dataCapacity 記錄區位元組數
+     */
+    static SharedTranslationStore open(Path directory, int slotCount, long dataCapacity) throws IOException {
+        if (Integer.bitCount(slotCount) != 1 || HEADER_SIZE + (long) slotCount * SLOT_SIZE + dataCapacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("共用緩存容量無效: " + slotCount + " 槽位, " + dataCapacity + " 位元組");
+        }
+        Files.createDirectories(directory);
+        Path file = directory.resolve(FILE_NAME).toAbsolutePath().normalize();
+        FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel ownerChannel = null;
+        try {
+            MappedByteBuffer buffer;
+            synchronized (APPEND_MONITORS.computeIfAbsent(file, p -> new Object())) {
+                try (FileLock lock = channel.lock(0, HEADER_SIZE, false)) {
+                    buffer = mapOrInitialize(channel, slotCount, dataCapacity);
+                }
+            }
+            ownerChannel = FileChannel.open(directory.resolve(OWNER_LOCK_FILE_NAME),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock ownerLock;
+            try {
+                ownerLock = ownerChannel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                // 同一 JVM 中已有實例持有
+                ownerLock = null;
+            }
+            if (ownerLock == null) {
+                ownerChannel.close();
+                ownerChannel = null;
+            }
+            SharedTranslationStore store = new SharedTranslationStore(file, channel, buffer, ownerChannel, ownerLock);
+            LOGGER.info("已映射共用緩存: {}（{} 項，{}）", file, store.size(), store.isOwner() ? "擁有者" : "共用實例");
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            if (ownerChannel != null) {
+                ownerChannel.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 映射現有檔案；檔案為空或不是共用緩存格式時以指定容量初始化（在檔頭鎖內調用）
+     */
+    private static MappedByteBuffer mapOrInitialize(FileChannel channel, int slotCount, long dataCapacity) throws IOException {
+        if (channel.size() >= HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            if (header.getInt(0) == MAGIC && header.getInt(4) == VERSION) {
+                long size = HEADER_SIZE + (long) header.getInt(SLOT_COUNT_OFFSET) * SLOT_SIZE + header.getLong(DATA_CAPACITY_OFFSET);
+                if (Integer.bitCount(header.getInt(SLOT_COUNT_OFFSET)) != 1 || size > Integer.MAX_VALUE || channel.size() < size) {
+                    throw new IllegalStateException("共用緩存檔頭損壞");
+                }
+                return map(channel, size);
+            }
+            LOGGER.warn("共用緩存格式不符，重新建立");
+        }
+        long size = HEADER_SIZE + (long) slotCount * SLOT_SIZE + dataCapacity;
+        channel.truncate(0);
+        // 寫入最後一個位元組擴展檔案（稀疏檔案，未寫入的部分不佔用磁碟）
+        channel.write(ByteBuffer.wrap(new byte[1]), size - 1);
+        MappedByteBuffer buffer = map(channel, size);
+        buffer.putInt(SLOT_COUNT_OFFSET, slotCount);
+        buffer.putLong(DATA_CAPACITY_OFFSET, dataCapacity);
+        buffer.putInt(4, VERSION);
+        // 格式標記最後寫入
+        buffer.putInt(0, MAGIC);
+        return buffer;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * 查找項目（不加鎖）
+     *
+     * @return 找到的項目；其他實例寫入的刪除標記以譯文為 null 的項目返回；沒有時返回 null
+     */
+    public CachedTranslation get(long hash, String originalText, String targetLanguage) {
+        long stored = slotHash(hash);
+        int mask = slotCount - 1;
+        int slot = (int) stored & mask;
+        for (int probe = 0; probe < slotCount; probe++, slot = (slot + 1) & mask) {
+            int position = HEADER_SIZE + slot * SLOT_SIZE;
+            long slotHash = (long) LONG.getVolatile(buffer, position);
+            if (slotHash == 0) {
+                return null;
+            }
+            if (slotHash != stored) {
+                continue;
+            }
+            long offset = (long) LONG.getVolatile(buffer, position + 8);
+            if (offset > 0) {
+                CachedTranslation cached = read(offset - 1, stored, originalText, targetLanguage);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 寫入項目（譯文為 null 時寫入刪除標記），覆蓋同一原文與語言的舊記錄
+     *
+     * @return 是否已寫入；記錄區或槽位表已滿時返回 false
+     */
+    public boolean put(CachedTranslation cached) {
+        byte[] original = cached.getOriginalText().getBytes(StandardCharsets.UTF_8);
+        byte[] language = cached.getTargetLanguage().getBytes(StandardCharsets.UTF_8);
+        byte[] translated = cached.getTranslatedText() != null
+            ? cached.getTranslatedText().getBytes(StandardCharsets.UTF_8) : null;
+        int length = RECORD_HEADER_SIZE + language.length + original.length + (translated != null ? translated.length : 0);
+        int recordSize = (length + 7) & ~7;
+        long stored = slotHash(TranslationKeyHash.hash(cached.getOriginalText(), cached.getTargetLanguage()));
+
+        try {
+            synchronized (appendMonitor) {
+                try (FileLock lock = channel.lock(0, HEADER_SIZE, false)) {
+                    long end = (long) LONG.getVolatile(buffer, DATA_END_OFFSET);
+                    int slotPosition = findSlot(stored, cached.getOriginalText(), cached.getTargetLanguage());
+                    boolean newSlot = slotPosition >= 0 && (long) LONG.getVolatile(buffer, slotPosition) == 0;
+                    if (end + recordSize > dataCapacity || slotPosition < 0
+                        || newSlot && buffer.getInt(ENTRY_COUNT_OFFSET) >= slotCount * PerformanceConfig.SHARED_CACHE_MAX_LOAD) {
+                        warnFull();
+                        return false;
+                    }
+
+                    int position = dataStart + (int) end;
+                    buffer.putLong(position, stored);
+                    buffer.putLong(position + 8, cached.getTimestamp());
+                    buffer.putInt(position + 16, writerId);
+                    buffer.putInt(position + 20, original.length);
+                    buffer.putInt(position + 24, translated != null ? translated.length : -1);
+                    buffer.putShort(position + 28, (short) language.length);
+                    buffer.put(position + RECORD_HEADER_SIZE, language);
+                    buffer.put(position + RECORD_HEADER_SIZE + language.length, original);
+                    if (translated != null) {
+                        buffer.put(position + RECORD_HEADER_SIZE + language.length + original.length, translated);
+                    }
+                    LONG.setVolatile(buffer, DATA_END_OFFSET, end + recordSize);
+
+                    // 先發布記錄偏移再發布雜湊，讀取方看到雜湊時記錄必定完整
+                    LONG.setVolatile(buffer, slotPosition + 8, end + 1);
+                    if (newSlot) {
+                        LONG.setVolatile(buffer, slotPosition, stored);
+                        buffer.putInt(ENTRY_COUNT_OFFSET, buffer.getInt(ENTRY_COUNT_OFFSET) + 1);
+                    } else {
+                        incrementModificationCount();
+                    }
+                    return true;
+                }
+            }
+        } catch (IOException | OverlappingFileLockException e) {
+            LOGGER.warn("寫入共用緩存失敗: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 找出同一原文與語言的槽位，或第一個空槽位（在檔頭鎖內調用）
+     *
+     * @return 槽位在檔案中的位置；槽位表已滿時返回 -1
+     */
+    private int findSlot(long stored, String originalText, String targetLanguage) {
+        int mask = slotCount - 1;
+        int slot = (int) stored & mask;
+        for (int probe = 0; probe < slotCount; probe++, slot = (slot + 1) & mask) {
+            int position = HEADER_SIZE + slot * SLOT_SIZE;
+            long slotHash = (long) LONG.getVolatile(buffer, position);
+            if (slotHash == 0) {
+                return position;
+            }
+            long offset = (long) LONG.getVolatile(buffer, position + 8);
+            if (slotHash == stored && offset > 0 && read(offset - 1, stored, originalText, targetLanguage) != null) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 將其他實例追加的記錄交給 sink（例如寫入擁有者的持久儲存），並記住匯入位置；
+     * 匯入後記錄區使用超過 {@link PerformanceConfig#SHARED_CACHE_RESET_RATIO} 時重置共用緩存。
+     * 只有擁有者實例可以匯入
+     *
+     * @return 匯入的記錄數
+     */
+    public int drain(Consumer<CachedTranslation> sink) {
+        return drain(sink, () -> true);
+    }
+
+    /**
+     * 匯入其他實例的記錄；需要重置時先調用 persist，確保所有項目已寫入其他實例也能讀取的持久檔案，
+     * persist 返回 false 時本次不重置
+     *
+     * @return 匯入的記錄數
+     */
+    public int drain(Consumer<CachedTranslation> sink, BooleanSupplier persist) {
+        if (!isOwner()) {
+            return 0;
+        }
+        try {
+            synchronized (appendMonitor) {
+                try (FileLock lock = channel.lock(0, HEADER_SIZE, false)) {
+                    long position = (long) LONG.getVolatile(buffer, IMPORTED_END_OFFSET);
+                    long end = (long) LONG.getVolatile(buffer, DATA_END_OFFSET);
+                    int imported = 0;
+                    while (position < end) {
+                        int record = dataStart + (int) position;
+                        int originalLength = buffer.getInt(record + 20);
+                        int translatedLength = buffer.getInt(record + 24);
+                        int languageLength = buffer.getShort(record + 28);
+                        int length = RECORD_HEADER_SIZE + languageLength + originalLength + Math.max(translatedLength, 0);
+                        if (buffer.getInt(record + 16) != writerId) {
+                            String language = decode(record + RECORD_HEADER_SIZE, languageLength);
+                            String original = decode(record + RECORD_HEADER_SIZE + languageLength, originalLength);
+                            String translated = translatedLength >= 0
+                                ? decode(record + RECORD_HEADER_SIZE + languageLength + originalLength, translatedLength) : null;
+                            sink.accept(new CachedTranslation(original, translated, language, buffer.getLong(record + 8)));
+                            imported++;
+                        }
+                        position += (length + 7) & ~7;
+                    }
+                    LONG.setVolatile(buffer, IMPORTED_END_OFFSET, end);
+                    if (end > dataCapacity * PerformanceConfig.SHARED_CACHE_RESET_RATIO
+                        || buffer.getInt(ENTRY_COUNT_OFFSET) > slotCount * PerformanceConfig.SHARED_CACHE_MAX_LOAD * PerformanceConfig.SHARED_CACHE_RESET_RATIO) {
+                        if (persist.getAsBoolean()) {
+                            reset();
+                            LOGGER.info("共用緩存已匯入持久儲存並重置（記錄區使用 {} 位元組）", end);
+                        } else {
+                            LOGGER.warn("共用緩存的項目尚未寫入持久儲存，延後重置");
+                        }
+                    }
+                    return imported;
+                }
+            }
+        } catch (IOException | OverlappingFileLockException e) {
+            LOGGER.warn("匯入共用緩存失敗: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * 清除共用緩存中的所有項目（所有實例立即生效）
+     */
+    public void clear() {
+        try {
+            synchronized (appendMonitor) {
+                try (FileLock lock = channel.lock(0, HEADER_SIZE, false)) {
+                    reset();
+                }
+            }
+        } catch (IOException | OverlappingFileLockException e) {
+            LOGGER.warn("清除共用緩存失敗: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 清空槽位表與記錄區（在檔頭鎖內調用）
+     * 先清除雜湊，讀取方不會再探測到舊記錄；之後的記錄從頭寫起
+     */
+    private void reset() {
+        for (int position = HEADER_SIZE; position < dataStart; position += SLOT_SIZE) {
+            LONG.setVolatile(buffer, position, 0L);
+            LONG.setVolatile(buffer, position + 8, 0L);
+        }
+        buffer.putInt(ENTRY_COUNT_OFFSET, 0);
+        LONG.setVolatile(buffer, IMPORTED_END_OFFSET, 0L);
+        LONG.setVolatile(buffer, DATA_END_OFFSET, 0L);
+        incrementModificationCount();
+        fullWarned = false;
+    }
+
+    private void incrementModificationCount() {
+        LONG.setVolatile(buffer, MODIFICATION_COUNT_OFFSET, (long) LONG.getVolatile(buffer, MODIFICATION_COUNT_OFFSET) + 1);
+    }
+
+    /**
+     * 讀取並驗證記錄；記錄不屬於此原文與語言（或在讀取時被重置覆蓋）時返回 null
+     */
+    private CachedTranslation read(long offset, long stored, String originalText, String targetLanguage) {
+        if (offset < 0 || offset + RECORD_HEADER_SIZE > dataCapacity) {
+            return null;
+        }
+        int record = dataStart + (int) offset;
+        if (buffer.getLong(record) != stored) {
+            return null;
+        }
+        int originalLength = buffer.getInt(record + 20);
+        int translatedLength = buffer.getInt(record + 24);
+        int languageLength = buffer.getShort(record + 28);
+        if (originalLength < 0 || translatedLength < -1 || languageLength < 0
+            || offset + RECORD_HEADER_SIZE + languageLength + originalLength + Math.max(translatedLength, 0) > dataCapacity) {
+            return null;
+        }
+        int languageStart = record + RECORD_HEADER_SIZE;
+        if (!targetLanguage.equals(decode(languageStart, languageLength))
+            || !originalText.equals(decode(languageStart + languageLength, originalLength))) {
+            return null;
+        }
+        String translated = translatedLength >= 0
+            ? decode(languageStart + languageLength + originalLength, translatedLength) : null;
+        return new CachedTranslation(originalText, translated, targetLanguage, buffer.getLong(record + 8));
+    }
+
+    private String decode(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 槽位中以 0 表示空槽位，雜湊恰好為 0 的鍵改存為 1
+     */
+    private static long slotHash(long hash) {
+        return hash == 0 ? 1 : hash;
+    }
+
+    private void warnFull() {
+        if (!fullWarned) {
+            fullWarned = true;
+            LOGGER.warn("共用緩存已滿（{} 項，{} 位元組），新翻譯只保留在本實例，等待擁有者實例匯入後重置",
+                size(), getUsedBytes());
+        }
+    }
+
+    /**
+     * 關閉檔案並釋放擁有者鎖（映射在 GC 回收前仍有效）
+     */
+    public void close() {
+        try {
+            if (ownerLock != null) {
+                ownerLock.release();
+                ownerChannel.close();
+            }
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warn("關閉共用緩存失敗: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 本實例是否為擁有者（負責匯入與持久化）
+     */
+    public boolean isOwner() {
+        return ownerLock != null && ownerLock.isValid();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 槽位表中的項目數（含刪除標記）
+     */
+    public int size() {
+        return buffer.getInt(ENTRY_COUNT_OFFSET);
+    }
+
+    public long getUsedBytes() {
+        return (long) LONG.getVolatile(buffer, DATA_END_OFFSET);
+    }
+
+    public long getCapacity() {
+        return dataCapacity;
+    }
+
+    /**
+     * 已有項目被覆蓋、刪除或共用緩存被重置的次數（新增項目不計入）
+     */
+    public long getModificationCount() {
+        return (long) LONG.getVolatile(buffer, MODIFICATION_COUNT_OFFSET);
+    }
+}
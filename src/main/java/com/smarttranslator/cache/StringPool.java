@@ -0,0 +1,66 @@
+package com.smarttranslator.cache;
+
+import com.smarttranslator.config.PerformanceConfig;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 共享字串池
+ * 物品提示中大量重複相同的文字（屬性名稱、稀有度、套裝效果及其譯文），
+ * 從日誌或分段解碼出的字串經過此池後，相同內容的項目共用同一個實例。
+ * 使用固定大小的直接映射表：槽位衝突時直接覆蓋，佔用有上限，也不會無限期持有字串。
+ */
+final class StringPool {
+    private static final StringPool SHARED = new StringPool(PerformanceConfig.STRING_POOL_SIZE);
+
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    StringPool(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.table = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 透過共享字串池去重
+     */
+    static String intern(String value) {
+        return SHARED.pool(value);
+    }
+
+    static StringPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * 返回池中內容相同的實例；沒有時將此字串放入池中
+     */
+    String pool(String value) {
+        if (value == null || value.length() > PerformanceConfig.STRING_POOL_MAX_LENGTH) {
+            return value;
+        }
+        int hash = value.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        String pooled = table.get(slot);
+        if (pooled != null && pooled.equals(value)) {
+            hits.increment();
+            return pooled;
+        }
+        // 字串不可變，覆蓋時不需要與其他線程同步
+        table.lazySet(slot, value);
+        misses.increment();
+        return value;
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+}
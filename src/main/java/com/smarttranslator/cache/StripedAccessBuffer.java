@@ -0,0 +1,96 @@
+package com.smarttranslator.cache;
+
+import com.smarttranslator.config.PerformanceConfig;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+
+/**
+ * 分條的有損訪問緩衝區
+ * 命中路徑只需一次 CAS 把鍵寫入所屬線程的環形緩衝區；緩衝區已滿或 CAS 失敗時直接丟棄，
+ * 訪問頻率只用於估計，少量遺失不影響結果。緩衝區由單一線程排空到頻率估計中。
+ */
+final class StripedAccessBuffer {
+    // 鍵 0 表示槽位尚未寫入
+    private static final long EMPTY = 0L;
+    // 每條的頭尾指標相隔一個快取行，避免不同線程互相干擾
+    private static final int PAD = 8;
+
+    static final int SUCCESS = 0;
+    static final int FULL = 1;
+    static final int FAILED = 2;
+
+    private final int stripeMask;
+    private final int bufferSize;
+    private final int bufferMask;
+    private final AtomicLongArray slots;
+    private final AtomicLongArray heads;
+    private final AtomicLongArray tails;
+
+    StripedAccessBuffer() {
+        this(Math.min(64, Runtime.getRuntime().availableProcessors() * 4), PerformanceConfig.ACCESS_BUFFER_SIZE);
+    }
+
+    StripedAccessBuffer(int stripes, int bufferSize) {
+        int stripeCount = Integer.highestOneBit(Math.max(2, stripes - 1)) << 1;
+        this.stripeMask = stripeCount - 1;
+        this.bufferSize = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.bufferMask = this.bufferSize - 1;
+        this.slots = new AtomicLongArray(stripeCount * this.bufferSize);
+        this.heads = new AtomicLongArray(stripeCount * PAD);
+        this.tails = new AtomicLongArray(stripeCount * PAD);
+    }
+
+    /**
+     * 記錄一次訪問
+     *
+     * @return {@link #SUCCESS}、{@link #FULL}（已滿，應盡快排空）或 {@link #FAILED}（競爭失敗）；後兩者的訪問被丟棄
+     */
+    int offer(long key) {
+        int stripe = stripe();
+        int pointer = stripe * PAD;
+        long tail = tails.get(pointer);
+        long size = tail - heads.get(pointer);
+        if (size >= bufferSize) {
+            return FULL;
+        }
+        if (!tails.compareAndSet(pointer, tail, tail + 1)) {
+            return FAILED;
+        }
+        slots.lazySet(stripe * bufferSize + (int) (tail & bufferMask), key == EMPTY ? 1L : key);
+        return SUCCESS;
+    }
+
+    /**
+     * 排空所有緩衝區（同一時間只能由一個線程調用）
+     *
+     * @return 排空的記錄數
+     */
+    int drainTo(LongConsumer consumer) {
+        int drained = 0;
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            int pointer = stripe * PAD;
+            long head = heads.get(pointer);
+            long tail = tails.get(pointer);
+            for (; head < tail; head++) {
+                int index = stripe * bufferSize + (int) (head & bufferMask);
+                long key = slots.get(index);
+                if (key == EMPTY) {
+                    // 寫入者已佔位但尚未寫入，下次再處理
+                    break;
+                }
+                slots.lazySet(index, EMPTY);
+                consumer.accept(key);
+                drained++;
+            }
+            heads.lazySet(pointer, head);
+        }
+        return drained;
+    }
+
+    private int stripe() {
+        // 同一線程固定寫入同一條
+        int hash = System.identityHashCode(Thread.currentThread()) * 0x9e3779b9;
+        return (hash ^ (hash >>> 16)) & stripeMask;
+    }
+}
@@ -1,219 +1,1027 @@
 package com.smarttranslator.cache;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
-import net.minecraft.client.Minecraft;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.smarttranslator.config.PerformanceConfig;
+import net.neoforged.fml.loading.FMLPaths;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.*;
-import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 /**
  * 翻譯緩存管理器
- * 負責本地翻譯結果的儲存和讀取
+ * 兩層結構：以權重限制大小的 Caffeine L1 保存熱點項目，持久化的 L2 保存全部項目。
+ * L2 按伺服器與目標語言分區，只有目前使用中的分區會被載入。
+ * 寫入同時進入兩層，因此 L1 驅逐的項目仍可從 L2 讀回，不會遺失。
+ * 訪問頻率與各命名空間的熱點集合在關閉時保存，啟動或進入伺服器時據此預熱 L1。
+ * 掛載的唯讀翻譯包（預先編譯的大型語料）在 L1 之前查找，依優先級與版本排序。
+ * 共用模式下多個遊戲實例透過 {@link SharedTranslationStore} 交換翻譯：只有擁有者實例寫入設定目錄中的 L2
+ * 與其他持久檔案，並匯入其他實例的寫入；其他實例的本地檔案放在臨時目錄，關閉時刪除，
+ * 並透過 {@link OwnerStoreView} 唯讀查找擁有者已持久化的翻譯。
  */
 public class TranslationCache {
     private static final Logger LOGGER = LoggerFactory.getLogger(TranslationCache.class);
-    private static final String CACHE_FILE_NAME = "translation_cache.json";
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final long EXPIRE_TIME_MS = 30L * 24 * 60 * 60 * 1000; // 30天
     
-    private final Map<String, CachedTranslation> cache = new ConcurrentHashMap<>();
-    private final Path cacheFilePath;
+    // L1 以原文為鍵，查找時不需要組合鍵字串；值中的語言不符視為未命中
+    private final Cache<String, CachedTranslation> l1;
+    // 記憶體壓力下從 L1 驅逐的項目以軟引用保留，GC 需要空間時可直接回收
+    private final Cache<String, CachedTranslation> demoted;
+    private volatile boolean demoteEvictions = false;
+    private final PartitionedTranslationStore l2;
+    private final ExecutorService l2Executor;
+    // 過期或合併時丟棄的項目移到冷歸檔，重新翻譯失敗時仍可取回舊譯文
+    private final ColdArchive archive;
+    private final FrequencyTracker frequencyTracker;
+    private final NegativeCache negativeCache;
+    // 近似重複查找：多一個字或標點不同的文字可沿用或參考既有翻譯
+    private final TranslationMemory translationMemory;
+    // 唯讀翻譯包，按查找順序排列；掛載與卸載時整體替換
+    private volatile List<TranslationPack> packs = List.of();
+    private final Path packDirectory;
+    private final Path configDirectory;
+    // 共用緩存（多個遊戲實例共用同一設定目錄時），未啟用時為 null
+    private final SharedTranslationStore shared;
+    // 是否由本實例寫入設定目錄中的持久檔案；共用模式下只有擁有者實例寫入
+    private final boolean persistent;
+    // L2、負緩存、冷歸檔等本地檔案所在目錄（非擁有者實例為臨時目錄）
+    private final Path dataDirectory;
+    // 非擁有者實例讀取擁有者 L2 的唯讀視圖（擁有者與獨立模式為 null）
+    private final OwnerStoreView ownerView;
+    // 上次看到的共用緩存修改次數，改變時本地 L1 可能已過時
+    private volatile long seenSharedModifications;
+    private final Path frequencyFile;
+    private final Path memoryFile;
     private final CacheOptimizer optimizer;
     private final EnhancedCacheOptimizer enhancedOptimizer;
     
+    // 分層統計
+    private final AtomicLong l1Hits = new AtomicLong(0);
+    private final AtomicLong l1Misses = new AtomicLong(0);
+    private final AtomicLong l2Hits = new AtomicLong(0);
+    private final AtomicLong l2Misses = new AtomicLong(0);
+    private final AtomicLong l1Evictions = new AtomicLong(0);
+    private final AtomicLong prewarmed = new AtomicLong(0);
+    private final AtomicLong packHits = new AtomicLong(0);
+    private final AtomicLong sharedHits = new AtomicLong(0);
+    // 已有的翻譯被替換、移除或清空時遞增，供依賴緩存內容的上層結果判斷是否過時
+    private final AtomicLong contentVersion = new AtomicLong(0);
+    
     public TranslationCache() {
-        // 獲取 Minecraft 配置目錄
-        Path configDir = Paths.get(Minecraft.getInstance().gameDirectory.getAbsolutePath(), "config", "smarttranslator");
-        try {
-            Files.createDirectories(configDir);
-        } catch (IOException e) {
-            LOGGER.error("無法創建配置目錄: {}", configDir, e);
-        }
-        this.cacheFilePath = configDir.resolve(CACHE_FILE_NAME);
-        this.optimizer = new CacheOptimizer(this);
-        this.enhancedOptimizer = new EnhancedCacheOptimizer(this);
+        this(false);
+    }
+    
+    /**
+     * @param sharedMode 是否與同一設定目錄的其他遊戲實例共用緩存
+     */
+    public TranslationCache(boolean sharedMode) {
+        // 獲取配置目錄（客戶端與專用伺服器皆可用）
+        this(FMLPaths.CONFIGDIR.get().resolve("smarttranslator"), sharedMode, CacheSettings.CONFIG);
+    }
+    
+    /**
+     * 使用指定目錄建立緩存（測試時不依賴遊戲環境，使用設定檔的預設值）
+     */
+    public TranslationCache(Path configDir) {
+        this(configDir, false, CacheSettings.DEFAULTS);
+    }
+    
+    TranslationCache(Path configDir, boolean sharedMode) {
+        this(configDir, sharedMode, CacheSettings.DEFAULTS);
+    }
+    
+    /**
+     * @param settings 緩存讀取的使用者設定
+     */
+    TranslationCache(Path configDir, boolean sharedMode, CacheSettings settings) {
+        this.shared = sharedMode ? openShared(configDir) : null;
+        this.persistent = shared == null || shared.isOwner();
+        this.dataDirectory = persistent ? configDir : instanceDirectory(configDir);
+        this.ownerView = persistent ? null : new OwnerStoreView(configDir);
+        this.seenSharedModifications = shared != null ? shared.getModificationCount() : 0;
+        this.demoted = Caffeine.newBuilder()
+            .softValues()
+            .build();
+        this.l1 = Caffeine.newBuilder()
+            .maximumWeight((long) PerformanceConfig.DEFAULT_CACHE_SIZE * PerformanceConfig.L1_AVERAGE_ENTRY_BYTES)
+            .weigher(TranslationCache::weigh)
+            .removalListener((String key, CachedTranslation value, RemovalCause cause) -> {
+                if (cause.wasEvicted()) {
+                    l1Evictions.incrementAndGet();
+                }
+            })
+            // 驅逐監聽器在驅逐時同步調用，降級不會錯過縮減期間的項目
+            .evictionListener((String key, CachedTranslation value, RemovalCause cause) -> {
+                if (cause == RemovalCause.SIZE && demoteEvictions && value != null) {
+                    demoted.put(key, value);
+                }
+            })
+            .build();
+        this.l2Executor = Executors.newFixedThreadPool(PerformanceConfig.L2_READ_THREADS, r -> {
+            Thread t = new Thread(r, "SmartTranslator-CacheL2");
+            t.setDaemon(true);
+            return t;
+        });
+        this.archive = new ColdArchive(dataDirectory, l2Executor);
+        // 合併分段時仍經常被訪問的過期項目保留在 L2，其餘移到冷歸檔
+        this.l2 = new PartitionedTranslationStore(dataDirectory, EXPIRE_TIME_MS, this::isHot, archive::add);
+        this.frequencyTracker = new FrequencyTracker(l2Executor);
+        this.negativeCache = new NegativeCache(dataDirectory);
+        this.frequencyFile = dataDirectory.resolve(FrequencyTracker.FILE_NAME);
+        this.translationMemory = new TranslationMemory();
+        this.memoryFile = dataDirectory.resolve(TranslationMemory.FILE_NAME);
+        this.packDirectory = configDir.resolve(TranslationPack.DIRECTORY);
+        this.configDirectory = configDir;
+        this.optimizer = new CacheOptimizer(this, frequencyTracker);
+        this.enhancedOptimizer = new EnhancedCacheOptimizer(this, frequencyTracker, settings);
         
         // 載入現有緩存
         loadCache();
     }
     
     /**
-     * 生成文本的 MD5 雜湊值作為緩存鍵
+     * 打開共用緩存；失敗時退回獨立模式
      */
-    private String generateCacheKey(String originalText, String targetLanguage) {
+    private static SharedTranslationStore openShared(Path configDir) {
         try {
-            String combined = originalText + "|" + targetLanguage;
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            byte[] hash = md.digest(combined.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
+            return SharedTranslationStore.open(configDir.resolve(SharedTranslationStore.DIRECTORY));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("無法打開共用緩存，改用獨立緩存", e);
+            return null;
+        }
+    }
+    
+    /**
+     * 非擁有者實例的本地檔案目錄（不與擁有者寫入同一批檔案）
+     */
+    private static Path instanceDirectory(Path configDir) {
+        try {
+            return Files.createTempDirectory("smarttranslator-instance-");
+        } catch (IOException e) {
+            LOGGER.warn("無法建立臨時目錄，改用設定目錄下的實例目錄: {}", e.getMessage());
+            return configDir.resolve(SharedTranslationStore.DIRECTORY).resolve("instance-" + ProcessHandle.current().pid());
+        }
+    }
+    
+    /**
+     * 估算 L1 項目佔用的位元組數（字串以 UTF-16 計算）
+     */
+    private static int weigh(String originalText, CachedTranslation cached) {
+        String translated = cached.getTranslatedText();
+        int chars = originalText.length() + (translated != null ? translated.length() : 0);
+        return PerformanceConfig.L1_ENTRY_OVERHEAD_BYTES + chars * 2;
+    }
+    
+    /**
+     * 從緩存中獲取翻譯結果（先查翻譯包，再同步查找 L1，未命中時讀取 L2）
+     * 原文與語言先經 {@link CacheKeyNormalizer} 正規化，等價的寫法共用同一項目
+     */
+    public String getCachedTranslation(String originalText, String targetLanguage) {
+        String language = CacheKeyNormalizer.language(targetLanguage);
+        String text = CacheKeyNormalizer.text(originalText, language);
+        String packed = getFromPacks(text, language);
+        if (packed != null) {
+            return restoreCase(packed, text, originalText);
+        }
+        checkSharedModifications();
+        CachedTranslation cached = getFromL1(text, language);
+        if (cached == null) {
+            cached = getFromSharedOrL2(text, language, originalText);
+        }
+        return toResult(cached, text, language, originalText);
+    }
+    
+    /**
+     * 異步獲取翻譯結果
+     * 翻譯包或 L1 命中時返回已完成的 Future；否則在 L2 讀取線程查找，避免在調用線程上觸碰磁碟映射頁面
+     *
+     * @return 翻譯結果，兩層都未命中時結果為 null
+     */
+    public CompletableFuture<String> getCachedTranslationAsync(String originalText, String targetLanguage) {
+        String language = CacheKeyNormalizer.language(targetLanguage);
+        String text = CacheKeyNormalizer.text(originalText, language);
+        String packed = getFromPacks(text, language);
+        if (packed != null) {
+            return CompletableFuture.completedFuture(restoreCase(packed, text, originalText));
+        }
+        checkSharedModifications();
+        CachedTranslation cached = getFromL1(text, language);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(toResult(cached, text, language, originalText));
+        }
+        return CompletableFuture.supplyAsync(
+            () -> toResult(getFromSharedOrL2(text, language, originalText), text, language, originalText),
+            l2Executor);
+    }
+    
+    
+    private String getFromPacks(String originalText, String targetLanguage) {
+        for (TranslationPack pack : packs) {
+            String translated = pack.get(originalText, targetLanguage);
+            if (translated != null) {
+                packHits.incrementAndGet();
+                return translated;
+            }
+        }
+        return null;
+    }
+    
+    private CachedTranslation getFromL1(String originalText, String targetLanguage) {
+        CachedTranslation cached = l1.getIfPresent(originalText);
+        if (cached != null && cached.matches(originalText, LanguageIds.idOf(targetLanguage))) {
+            l1Hits.incrementAndGet();
+            return cached;
+        }
+        cached = demoted.getIfPresent(originalText);
+        if (cached != null && cached.matches(originalText, LanguageIds.idOf(targetLanguage))) {
+            // 尚未被 GC 回收的降級項目放回 L1
+            demoted.invalidate(originalText);
+            l1.put(originalText, cached);
+            l1Hits.incrementAndGet();
+            return cached;
+        }
+        l1Misses.incrementAndGet();
+        return null;
+    }
+    
+    /**
+     * 共用緩存中已有項目被覆蓋、刪除或重置時清空 L1，之後從共用緩存重新讀取（只讀一個映射欄位）
+     */
+    private void checkSharedModifications() {
+        if (shared == null) {
+            return;
+        }
+        long modifications = shared.getModificationCount();
+        if (modifications != seenSharedModifications) {
+            seenSharedModifications = modifications;
+            if (ownerView != null) {
+                // 重置前擁有者已將項目寫入分段
+                ownerView.invalidate();
+            }
+            l1.invalidateAll();
+            demoted.invalidateAll();
+            contentVersion.incrementAndGet();
+        }
+    }
+    
+    /**
+     * L1 未命中時先查共用緩存（其他實例的新翻譯），再查 L2
+     */
+    private CachedTranslation getFromSharedOrL2(String originalText, String targetLanguage, String legacyText) {
+        if (shared != null) {
+            CachedTranslation found = shared.get(TranslationKeyHash.hash(originalText, targetLanguage), originalText, targetLanguage);
+            if (found != null) {
+                if (found.getTranslatedText() == null) {
+                    // 已被其他實例移除
+                    return null;
                 }
-                hexString.append(hex);
+                sharedHits.incrementAndGet();
+                promote(found);
+                return found;
             }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            LOGGER.error("MD5 算法不可用", e);
-            return String.valueOf((originalText + targetLanguage).hashCode());
         }
+        return getFromL2(originalText, targetLanguage, legacyText);
+    }
+    
+    private CachedTranslation getFromL2(String originalText, String targetLanguage, String legacyText) {
+        long key = TranslationKeyHash.hash(originalText, targetLanguage);
+        CachedTranslation stored = l2.get(key, originalText, targetLanguage);
+        if (stored == null) {
+            stored = migrateLegacy(key, originalText, targetLanguage, legacyText);
+        }
+        if (stored == null && ownerView != null) {
+            stored = ownerView.get(key, originalText, targetLanguage);
+        }
+        CachedTranslation cached = stored;
+        if (cached == null) {
+            l2Misses.incrementAndGet();
+            return null;
+        }
+        l2Hits.incrementAndGet();
+        promote(cached);
+        if (shared != null && persistent && System.currentTimeMillis() - cached.getTimestamp() < EXPIRE_TIME_MS) {
+            // 讓其他實例也能讀到擁有者 L2 中尚未寫入分段的項目
+            shared.put(cached);
+        }
+        return cached;
     }
     
     /**
-     * 從緩存中獲取翻譯結果
+     * 提升到 L1；讀取期間若已有同語言的較新寫入則保留
      */
-    public String getCachedTranslation(String originalText, String targetLanguage) {
-        String key = generateCacheKey(originalText, targetLanguage);
-        CachedTranslation cached = cache.get(key);
-        
+    private void promote(CachedTranslation cached) {
+        l1.asMap().compute(cached.getOriginalText(), (text, existing) ->
+            existing != null && existing.getLanguageId() == cached.getLanguageId()
+                && existing.getTimestamp() >= cached.getTimestamp() ? existing : cached);
+    }
+    
+    /**
+     * 正規化之前寫入的項目以未正規化的原文為鍵；讀到時改存到正規化的鍵下（保留原時間戳）
+     */
+    private CachedTranslation migrateLegacy(long key, String originalText, String targetLanguage, String legacyText) {
+        String legacy = legacyText.trim();
+        if (legacy.equals(originalText)) {
+            return null;
+        }
+        long legacyKey = TranslationKeyHash.hash(legacy, targetLanguage);
+        CachedTranslation found = l2.get(legacyKey, legacy, targetLanguage);
+        if (found == null) {
+            return null;
+        }
+        CachedTranslation migrated = new CachedTranslation(
+            originalText, found.getTranslatedText(), targetLanguage, found.getTimestamp());
+        l2.put(key, migrated);
+        l2.remove(legacyKey, legacy, targetLanguage);
+        LOGGER.debug("緩存項目改用正規化的鍵: {} -> {}", legacy, originalText);
+        return migrated;
+    }
+    
+    /**
+     * @param requestText 調用者傳入的原文（正規化之前），用於預取、舊鍵與還原大小寫
+     */
+    private String toResult(CachedTranslation cached, String originalText, String targetLanguage, String requestText) {
+        long key = TranslationKeyHash.hash(originalText, targetLanguage);
+        frequencyTracker.record(key);
         if (cached != null) {
             // 檢查緩存是否過期（30天）
-            long thirtyDaysInMillis = 30L * 24 * 60 * 60 * 1000;
-            if (System.currentTimeMillis() - cached.getTimestamp() < thirtyDaysInMillis) {
+            if (System.currentTimeMillis() - cached.getTimestamp() < EXPIRE_TIME_MS) {
                 LOGGER.debug("從緩存中找到翻譯: {} -> {}", originalText, cached.getTranslatedText());
-                optimizer.recordHit(key);
+                optimizer.recordHit();
                 enhancedOptimizer.recordHit(key);
-                return cached.getTranslatedText();
-            } else {
-                // 移除過期的緩存
-                cache.remove(key);
-                LOGGER.debug("移除過期的緩存項目: {}", originalText);
+                return restoreCase(cached.getTranslatedText(), originalText, requestText);
             }
+            // 過期的項目移到冷歸檔（保留原時間戳），視為未命中以重新翻譯
+            archive.add(cached);
+            remove(key, originalText, targetLanguage);
+            LOGGER.debug("過期的緩存項目移入冷歸檔: {}", originalText);
         }
         
-        optimizer.recordMiss(key);
-        enhancedOptimizer.recordMiss(key);
+        optimizer.recordMiss();
+        // 共現關係以調用者的原文學習，預取時送往 API 的也是原文
+        enhancedOptimizer.recordMiss(key, requestText, targetLanguage);
         return null;
     }
     
     /**
-     * 將翻譯結果添加到緩存
+     * 查找鍵經過大小寫摺疊時，依調用者的原文還原譯文中拉丁字詞的大小寫
+     */
+    private static String restoreCase(String translated, String originalText, String requestText) {
+        return originalText != requestText ? CacheKeyNormalizer.restoreCase(translated, requestText) : translated;
+    }
+    
+    /**
+     * 檢查緩存中是否有未過期的翻譯（不計入命中統計，也不提升到 L1；冷歸檔中的過期項目不算）
+     */
+    public boolean containsTranslation(String originalText, String targetLanguage) {
+        targetLanguage = CacheKeyNormalizer.language(targetLanguage);
+        originalText = CacheKeyNormalizer.text(originalText, targetLanguage);
+        for (TranslationPack pack : packs) {
+            if (pack.get(originalText, targetLanguage) != null) {
+                return true;
+            }
+        }
+        checkSharedModifications();
+        long key = TranslationKeyHash.hash(originalText, targetLanguage);
+        CachedTranslation cached = l1.getIfPresent(originalText);
+        if (cached == null || !cached.matches(originalText, LanguageIds.idOf(targetLanguage))) {
+            cached = shared != null ? shared.get(key, originalText, targetLanguage) : null;
+            if (cached != null && cached.getTranslatedText() == null) {
+                return false;
+            }
+        }
+        if (cached == null) {
+            cached = l2.get(key, originalText, targetLanguage);
+        }
+        if (cached == null && ownerView != null) {
+            cached = ownerView.get(key, originalText, targetLanguage);
+        }
+        return cached != null && System.currentTimeMillis() - cached.getTimestamp() < EXPIRE_TIME_MS;
+    }
+    
+    /**
+     * 從冷歸檔取得過期的舊翻譯，供重新翻譯失敗時暫時顯示
+     * 不寫回 L1 與 L2，過期的項目不會因此延長有效期
+     * 
+     * @return 舊譯文；歸檔中沒有時返回 null
+     */
+    public String getArchivedTranslation(String originalText, String targetLanguage) {
+        String language = CacheKeyNormalizer.language(targetLanguage);
+        String text = CacheKeyNormalizer.text(originalText, language);
+        // 冷歸檔：布隆過濾器判定不存在時不讀取磁碟
+        CachedTranslation archived = archive.get(TranslationKeyHash.hash(text, language), text, language);
+        String legacy = originalText.trim();
+        if (archived == null && !legacy.equals(text)) {
+            // 正規化之前歸檔的項目以未正規化的原文為鍵
+            archived = archive.get(TranslationKeyHash.hash(legacy, language), legacy, language);
+        }
+        if (archived == null || archived.getTranslatedText() == null) {
+            return null;
+        }
+        LOGGER.debug("使用冷歸檔中的舊翻譯: {} -> {}", text, archived.getTranslatedText());
+        return restoreCase(archived.getTranslatedText(), text, originalText);
+    }
+    
+    /**
+     * 觀察一組同時出現的文字，供預取學習
+     */
+    public void observeGroup(List<String> texts) {
+        enhancedOptimizer.observeGroup(texts);
+    }
+    
+    /**
+     * 設定預取時使用的翻譯方法
+     */
+    public void setPrefetchTranslator(EnhancedCacheOptimizer.PrefetchTranslator prefetchTranslator) {
+        enhancedOptimizer.setPrefetchTranslator(prefetchTranslator);
+    }
+    
+    /**
+     * 將翻譯結果添加到緩存（同時寫入 L1 與 L2）
      */
     public void addToCache(String originalText, String translatedText, String targetLanguage) {
-        String key = generateCacheKey(originalText, targetLanguage);
+        targetLanguage = CacheKeyNormalizer.language(targetLanguage);
+        originalText = CacheKeyNormalizer.text(originalText, targetLanguage);
+        long key = TranslationKeyHash.hash(originalText, targetLanguage);
         CachedTranslation cached = new CachedTranslation(
-            originalText, 
-            translatedText, 
-            targetLanguage, 
+            originalText,
+            translatedText,
+            targetLanguage,
             System.currentTimeMillis()
         );
         
-        cache.put(key, cached);
+        CachedTranslation previous = l1.getIfPresent(originalText);
+        if (previous != null && !previous.getTranslatedText().equals(translatedText)) {
+            contentVersion.incrementAndGet();
+        }
+        
+        // 以字串池中的原文作為鍵，鍵與值共用同一實例
+        demoted.invalidate(originalText);
+        l1.put(cached.getOriginalText(), cached);
+        if (persistent) {
+            l2.put(key, cached);
+        }
+        if (shared != null) {
+            shared.put(cached);
+        }
+        translationMemory.add(key, originalText, targetLanguage, translatedText);
+        negativeCache.remove(originalText, targetLanguage);
         LOGGER.debug("添加翻譯到緩存: {} -> {}", originalText, translatedText);
+    }
+    
+    /**
+     * 在翻譯記憶中查找相似文字的既有翻譯（不含完全相同的文字）
+     *
+     * @return 相似度達到參考門檻的最接近項目，沒有時返回 null
+     */
+    public TranslationMemory.Match findSimilar(String originalText, String targetLanguage) {
+        String language = CacheKeyNormalizer.language(targetLanguage);
+        return translationMemory.find(CacheKeyNormalizer.text(originalText, language), language,
+            PerformanceConfig.TRANSLATION_MEMORY_HINT_SIMILARITY);
+    }
+    
+    /**
+     * 查詢文字是否被記錄為不應翻譯
+     *
+     * @return 記錄的原因，未記錄或已過期時返回 null
+     */
+    public NegativeCache.Reason getNegativeReason(String originalText, String targetLanguage) {
+        String language = CacheKeyNormalizer.language(targetLanguage);
+        return negativeCache.get(CacheKeyNormalizer.text(originalText, language), language);
+    }
+    
+    /**
+     * 記錄不應再送往 API 的文字
+     */
+    public void addNegative(String originalText, String targetLanguage, NegativeCache.Reason reason) {
+        String language = CacheKeyNormalizer.language(targetLanguage);
+        negativeCache.put(CacheKeyNormalizer.text(originalText, language), language, reason);
+        LOGGER.debug("記錄不翻譯的文字 ({}): {}", reason, originalText);
+    }
+    
+    /**
+     * 獲取負緩存
+     */
+    public NegativeCache getNegativeCache() {
+        return negativeCache;
+    }
+    
+    private void remove(long key, String originalText, String targetLanguage) {
+        CachedTranslation cached = l1.getIfPresent(originalText);
+        if (cached != null && cached.matches(originalText, LanguageIds.idOf(targetLanguage))) {
+            l1.invalidate(originalText);
+        }
+        demoted.invalidate(originalText);
+        l2.remove(key, originalText, targetLanguage);
+        translationMemory.remove(key);
+    }
+    
+    /**
+     * 切換緩存命名空間（伺服器地址或單人世界名稱）
+     * L1 不區分命名空間，切換時先保存目前命名空間的熱點集合再清空，然後在後台預熱新命名空間；
+     * 其他命名空間的 L2 分區在後台卸載
+     */
+    public void switchNamespace(String namespace) {
+        if (PartitionedTranslationStore.toNamespace(namespace).equals(l2.getNamespace())) {
+            return;
+        }
+        List<HotSet.Entry> hot = selectHotSet();
+        Path hotSetFile = l2.getDirectory().resolve(HotSet.FILE_NAME);
+        if (l2.switchNamespace(namespace)) {
+            if (ownerView != null) {
+                ownerView.switchNamespace(namespace);
+            }
+            l1.invalidateAll();
+            demoted.invalidateAll();
+            contentVersion.incrementAndGet();
+            String current = l2.getNamespace();
+            submitMaintenance(() -> {
+                writeHotSet(hotSetFile, hot);
+                prewarm(current);
+            });
+        }
+    }
+    
+    private boolean isHot(long key) {
+        return frequencyTracker.frequency(key) >= PerformanceConfig.HOT_KEY_FREQUENCY;
+    }
+    
+    /**
+     * 從 L1 中挑出訪問頻率最高的項目
+     */
+    private List<HotSet.Entry> selectHotSet() {
+        frequencyTracker.drain();
+        return HotSet.select(l1.asMap().values(), frequencyTracker, PerformanceConfig.PREWARM_HOT_ENTRIES);
+    }
+    
+    private void writeHotSet(Path file, List<HotSet.Entry> hot) {
+        if (hot.isEmpty()) {
+            // L1 剛被清空時保留上次的熱點集合
+            return;
+        }
+        try {
+            HotSet.write(file, hot);
+            LOGGER.debug("已保存 {} 個熱點項目: {}", hot.size(), file);
+        } catch (IOException e) {
+            LOGGER.error("保存熱點集合失敗: {}", file, e);
+        }
+    }
+    
+    /**
+     * 從 L2 讀回命名空間的熱點集合並放入 L1（在後台線程執行）
+     */
+    private void prewarm(String namespace) {
+        List<HotSet.Entry> hot = HotSet.read(l2.getDirectory().resolve(HotSet.FILE_NAME));
+        if (hot.isEmpty() || !namespace.equals(l2.getNamespace())) {
+            return;
+        }
+        Set<String> languages = new LinkedHashSet<>();
+        for (HotSet.Entry entry : hot) {
+            languages.add(entry.targetLanguage);
+        }
+        for (String language : languages) {
+            l2.open(language);
+        }
+        l2.awaitReady(PerformanceConfig.PREWARM_WAIT_MS);
         
-        // 異步保存緩存
-        saveCache();
+        int warmed = 0;
+        long now = System.currentTimeMillis();
+        for (HotSet.Entry entry : hot) {
+            if (!namespace.equals(l2.getNamespace())) {
+                // 預熱期間已切換到其他命名空間
+                return;
+            }
+            long key = TranslationKeyHash.hash(entry.originalText, entry.targetLanguage);
+            CachedTranslation cached = l2.get(key, entry.originalText, entry.targetLanguage);
+            if (cached != null && now - cached.getTimestamp() < EXPIRE_TIME_MS
+                    && l1.asMap().putIfAbsent(cached.getOriginalText(), cached) == null) {
+                warmed++;
+            }
+        }
+        prewarmed.addAndGet(warmed);
+        LOGGER.info("已預熱 {} 個熱點項目（命名空間: {}）", warmed, namespace);
+    }
+    
+    private void submitMaintenance(Runnable task) {
+        try {
+            l2Executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("緩存已關閉，略過後台任務");
+        }
+    }
+    
+    /**
+     * 獲取目前的緩存命名空間
+     */
+    public String getNamespace() {
+        return l2.getNamespace();
+    }
+    
+    /**
+     * 在後台預先載入目前命名空間中指定語言的分區
+     */
+    public void preparePartition(String targetLanguage) {
+        l2.open(CacheKeyNormalizer.language(targetLanguage));
     }
     
     /**
-     * 從檔案載入緩存
+     * 在後台線程載入 L2；方法立即返回，緩存進入預熱狀態
+     * 可通過 {@link #isReady()} 與 {@link #awaitReady(long)} 查詢
      */
     public void loadCache() {
-        if (!Files.exists(cacheFilePath)) {
-            LOGGER.info("緩存檔案不存在，創建新的緩存");
+        l1.invalidateAll();
+        mountPacks();
+        l2.load();
+        l2Executor.execute(negativeCache::load);
+        l2Executor.execute(archive::load);
+        String namespace = l2.getNamespace();
+        l2Executor.execute(() -> {
+            // 先恢復訪問頻率，讓合併分段與預熱使用上次保存的頻率
+            frequencyTracker.load(frequencyFile);
+            boolean memoryLoaded = translationMemory.load(memoryFile);
+            prewarm(namespace);
+            drainShared();
+            if (!memoryLoaded) {
+                // 尚未保存過翻譯記憶時，以預熱後的 L1 項目建立
+                for (CachedTranslation cached : l1.asMap().values()) {
+                    translationMemory.add(TranslationKeyHash.hash(cached.getOriginalText(), cached.getTargetLanguage()),
+                        cached.getOriginalText(), cached.getTargetLanguage(), cached.getTranslatedText());
+                }
+            }
+        });
+    }
+    
+    /**
+     * 掛載翻譯包目錄中的所有翻譯包（映射只讀取檔頭，不論包多大都很快）
+     */
+    private void mountPacks() {
+        packs = List.of();
+        if (!Files.isDirectory(packDirectory)) {
             return;
         }
-        
-        try (Reader reader = Files.newBufferedReader(cacheFilePath, StandardCharsets.UTF_8)) {
-            Type type = new TypeToken<Map<String, CachedTranslation>>(){}.getType();
-            Map<String, CachedTranslation> loadedCache = GSON.fromJson(reader, type);
-            
-            if (loadedCache != null) {
-                cache.clear();
-                cache.putAll(loadedCache);
-                LOGGER.info("成功載入 {} 個緩存項目", cache.size());
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(packDirectory, "*" + TranslationPack.EXTENSION)) {
+            for (Path file : files) {
+                mountPack(file);
             }
         } catch (IOException e) {
-            LOGGER.error("載入緩存檔案失敗", e);
+            LOGGER.warn("讀取翻譯包目錄失敗: {}", e.getMessage());
         }
     }
     
     /**
-     * 保存緩存到檔案
+     * 掛載翻譯包；已掛載同名的包時只保留版本較新者
+     *
+     * @return 是否已掛載
      */
-    public void saveCache() {
-        try (Writer writer = Files.newBufferedWriter(cacheFilePath, StandardCharsets.UTF_8)) {
-            GSON.toJson(cache, writer);
-            LOGGER.debug("緩存已保存到檔案，共 {} 個項目", cache.size());
-        } catch (IOException e) {
-            LOGGER.error("保存緩存檔案失敗", e);
+    public synchronized boolean mountPack(Path file) {
+        TranslationPack pack;
+        try {
+            pack = TranslationPack.open(file);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("無法掛載翻譯包 {}: {}", file.getFileName(), e.getMessage());
+            return false;
         }
+        List<TranslationPack> mounted = new ArrayList<>(packs);
+        for (TranslationPack existing : mounted) {
+            if (existing.getName().equals(pack.getName()) && existing.getTargetLanguage().equals(pack.getTargetLanguage())) {
+                if (existing.getVersion() >= pack.getVersion()) {
+                    LOGGER.info("略過翻譯包 {}：已掛載較新或相同的版本 {}", file.getFileName(), existing.getVersion());
+                    return false;
+                }
+                mounted.remove(existing);
+                break;
+            }
+        }
+        mounted.add(pack);
+        mounted.sort(TranslationPack.LOOKUP_ORDER);
+        packs = List.copyOf(mounted);
+        LOGGER.info("已掛載翻譯包: {}", pack);
+        return true;
+    }
+    
+    /**
+     * 卸載指定名稱的翻譯包
+     *
+     * @return 是否有包被卸載
+     */
+    public synchronized boolean unmountPack(String name) {
+        List<TranslationPack> mounted = new ArrayList<>(packs);
+        boolean removed = mounted.removeIf(pack -> pack.getName().equals(name));
+        packs = List.copyOf(mounted);
+        return removed;
+    }
+    
+    /**
+     * 緩存與使用者資料（術語表、翻譯包）所在的設定目錄
+     */
+    public Path getConfigDirectory() {
+        return configDirectory;
+    }
+    
+    /**
+     * 共用緩存；未啟用共用模式時為 null
+     */
+    public SharedTranslationStore getSharedStore() {
+        return shared;
+    }
+    
+    public long getSharedHits() {
+        return sharedHits.get();
+    }
+    
+    /**
+     * 目前掛載的翻譯包（按查找順序）
+     */
+    public List<TranslationPack> getPacks() {
+        return packs;
     }
     
     /**
-     * 清除所有緩存
+     * 由翻譯包提供的查找結果數
+     */
+    public long getPackHits() {
+        return packHits.get();
+    }
+    
+    /**
+     * 緩存是否已完成載入
+     */
+    public boolean isReady() {
+        return l2.isReady();
+    }
+    
+    /**
+     * 等待緩存載入完成
+     *
+     * @param timeoutMs 最長等待時間
+     * @return 是否已完成載入
+     */
+    public boolean awaitReady(long timeoutMs) {
+        return l2.awaitReady(timeoutMs);
+    }
+    
+    /**
+     * 獲取載入進度（0.0 ~ 1.0）
+     */
+    public double getLoadProgress() {
+        return l2.getLoadProgress();
+    }
+    
+    /**
+     * 保存緩存到檔案（將寫入日誌合併到分段，並保存訪問頻率、熱點集合與翻譯記憶）
+     */
+    public void saveCache() {
+        drainShared();
+        l2.compact();
+        negativeCache.save();
+        archive.flush();
+        saveAccessMetadata();
+        translationMemory.save(memoryFile);
+        LOGGER.debug("緩存已保存到檔案，共 {} 個項目", getCacheSize());
+    }
+    
+    private void saveAccessMetadata() {
+        writeHotSet(l2.getDirectory().resolve(HotSet.FILE_NAME), selectHotSet());
+        frequencyTracker.save(frequencyFile);
+    }
+    
+    /**
+     * 清除目前命名空間的所有緩存
      */
     public void clearCache() {
-        cache.clear();
+        if (shared != null) {
+            shared.clear();
+        }
+        l2.clear();
+        l1.invalidateAll();
+        demoted.invalidateAll();
+        contentVersion.incrementAndGet();
+        negativeCache.clear();
+        archive.clear();
+        translationMemory.clear();
+        try {
+            Files.deleteIfExists(l2.getDirectory().resolve(HotSet.FILE_NAME));
+        } catch (IOException e) {
+            LOGGER.warn("刪除熱點集合失敗: {}", e.getMessage());
+        }
         optimizer.reset();
-        saveCache();
         LOGGER.info("翻譯緩存已清除");
     }
     
     /**
      * 獲取緩存大小
-     * 
-     * @return 緩存項目數量
+     *
+     * @return 緩存項目數量（已載入的 L2 分區中的項目，近似值）
      */
     public int getCacheSize() {
-        return cache.size();
+        return persistent ? l2.size() : shared.size();
+    }
+    
+    /**
+     * 獲取 L1 中的項目數量
+     */
+    public long getResidentSize() {
+        return l1.estimatedSize();
+    }
+    
+    /**
+     * 設定 L1 容量（以項目數計，換算為權重上限）
+     */
+    public void setL1Capacity(int entries) {
+        setL1MaximumWeight((long) entries * PerformanceConfig.L1_AVERAGE_ENTRY_BYTES);
+    }
+    
+    /**
+     * 設定 L1 的權重上限（位元組），低於目前權重時立即依權重驅逐
+     */
+    public void setL1MaximumWeight(long maximumWeight) {
+        l1.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maximumWeight));
+    }
+    
+    /**
+     * L1 的權重上限（位元組）
+     */
+    public long getL1MaximumWeight() {
+        return l1.policy().eviction().map(eviction -> eviction.getMaximum()).orElse(Long.MAX_VALUE);
+    }
+    
+    /**
+     * L1 目前的總權重（位元組，依原文與譯文長度估算）
+     */
+    public long getL1WeightedSize() {
+        return l1.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+    
+    /**
+     * 是否將因容量驅逐的 L1 項目降級為軟引用，而不是直接丟棄
+     */
+    public void setDemoteEvictions(boolean demote) {
+        this.demoteEvictions = demote;
+    }
+    
+    /**
+     * 降級為軟引用且尚未被回收的項目數量
+     */
+    public long getDemotedSize() {
+        return demoted.estimatedSize();
     }
     
     /**
      * 獲取緩存統計資訊
      */
     public CacheStats getStats() {
-        return new CacheStats(cache.size(), cacheFilePath.toString());
+        return new CacheStats(getCacheSize(), l2.getDirectory().toString());
     }
     
     /**
-     * 獲取緩存優化器
+     * 獲取分層命中統計
      */
-    public CacheOptimizer getOptimizer() {
-        return optimizer;
+    public TierStats getTierStats() {
+        return new TierStats(
+            l1Hits.get(), l1Misses.get(), l2Hits.get(), l2Misses.get(),
+            l1Evictions.get(), l1.estimatedSize(), l2.size(),
+            archive.getHits(), archive.getLookups(), archive.getFalsePositiveRate(), archive.size()
+        );
+    }
+    
+    /**
+     * 啟動或切換命名空間後預熱到 L1 的項目數（累計）
+     */
+    public long getPrewarmedCount() {
+        return prewarmed.get();
+    }
+    
+    /**
+     * 緩存內容版本（已有的翻譯被替換、移除或清空時改變）
+     */
+    public long getContentVersion() {
+        return contentVersion.get();
     }
     
     /**
-     * 獲取內部緩存映射（供優化器使用）
+     * 獲取冷歸檔
      */
-    Map<String, CachedTranslation> getCacheMap() {
-        return cache;
+    public ColdArchive getArchive() {
+        return archive;
+    }
+    
+    /**
+     * 獲取訪問頻率追蹤
+     */
+    public FrequencyTracker getFrequencyTracker() {
+        return frequencyTracker;
+    }
+    
+    /**
+     * 獲取翻譯記憶
+     */
+    public TranslationMemory getTranslationMemory() {
+        return translationMemory;
+    }
+    
+    /**
+     * 獲取緩存優化器
+     */
+    public CacheOptimizer getOptimizer() {
+        return optimizer;
     }
     
     /**
      * 關閉緩存（清理資源）
      */
     public void shutdown() {
+        saveAccessMetadata();
         optimizer.shutdown();
         enhancedOptimizer.shutdown();
-        saveCache();
+        l2Executor.shutdown();
+        try {
+            if (!l2Executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                l2Executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            l2Executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        // 寫入剩餘的日誌記錄並合併到分段
+        drainShared();
+        l2.shutdown();
+        negativeCache.save();
+        archive.shutdown();
+        translationMemory.save(memoryFile);
+        if (shared != null) {
+            shared.close();
+        }
+        if (!persistent) {
+            deleteInstanceDirectory();
+        }
     }
     
     /**
-     * 檢查緩存中是否包含指定鍵
+     * 擁有者實例將其他實例寫入共用緩存的項目匯入 L2（刪除標記同時移除 L2 與冷歸檔中的項目）
      */
-    public boolean containsKey(String key) {
-        return cache.containsKey(key);
+    private void drainShared() {
+        if (shared == null || !persistent) {
+            return;
+        }
+        // 重置共用緩存前先將日誌寫入分段，非擁有者實例才能從擁有者的 L2 讀到這些項目
+        int imported = shared.drain(cached -> {
+            long key = TranslationKeyHash.hash(cached.getOriginalText(), cached.getTargetLanguage());
+            if (cached.getTranslatedText() == null) {
+                l2.remove(key, cached.getOriginalText(), cached.getTargetLanguage());
+                archive.remove(key, cached.getOriginalText(), cached.getTargetLanguage());
+            } else {
+                l2.put(key, cached);
+            }
+        }, l2::compact);
+        if (imported > 0) {
+            LOGGER.info("已從共用緩存匯入 {} 個其他實例的項目", imported);
+        }
+    }
+    
+    private void deleteInstanceDirectory() {
+        try (Stream<Path> files = Files.walk(dataDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            LOGGER.debug("刪除實例目錄失敗: {}", e.getMessage());
+        }
     }
     
     /**
-     * 從緩存中移除指定項目
+     * 從緩存中移除指定項目（兩層都移除，並寫入持久的刪除標記）
+     *
+     * @return 移除前是否存在
      */
-    public boolean removeFromCache(String key) {
-        return cache.remove(key) != null;
+    public boolean removeFromCache(String originalText, String targetLanguage) {
+        targetLanguage = CacheKeyNormalizer.language(targetLanguage);
+        originalText = CacheKeyNormalizer.text(originalText, targetLanguage);
+        long key = TranslationKeyHash.hash(originalText, targetLanguage);
+        boolean existed = l2.get(key, originalText, targetLanguage) != null;
+        if (shared != null) {
+            CachedTranslation found = shared.get(key, originalText, targetLanguage);
+            existed |= found != null && found.getTranslatedText() != null;
+            // 寫入刪除標記，其他實例立即不再命中
+            shared.put(new CachedTranslation(originalText, null, targetLanguage, System.currentTimeMillis()));
+        }
+        remove(key, originalText, targetLanguage);
+        archive.remove(key, originalText, targetLanguage);
+        contentVersion.incrementAndGet();
+        return existed;
     }
     
     /**
@@ -250,4 +1058,71 @@ public class TranslationCache {
             return cacheFilePath;
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * 分層命中統計
+     */
+    public static class TierStats {
+        private final long l1Hits;
+        private final long l1Misses;
+        private final long l2Hits;
+        private final long l2Misses;
+        private final long l1Evictions;
+        private final long l1Size;
+        private final int l2Size;
+        private final long archiveHits;
+        private final long archiveLookups;
+        private final double archiveFalsePositiveRate;
+        private final int archiveSize;
+        
+        public TierStats(long l1Hits, long l1Misses, long l2Hits, long l2Misses,
+                         long l1Evictions, long l1Size, int l2Size,
+                         long archiveHits, long archiveLookups, double archiveFalsePositiveRate, int archiveSize) {
+            this.l1Hits = l1Hits;
+            this.l1Misses = l1Misses;
+            this.l2Hits = l2Hits;
+            this.l2Misses = l2Misses;
+            this.l1Evictions = l1Evictions;
+            this.l1Size = l1Size;
+            this.l2Size = l2Size;
+            this.archiveHits = archiveHits;
+            this.archiveLookups = archiveLookups;
+            this.archiveFalsePositiveRate = archiveFalsePositiveRate;
+            this.archiveSize = archiveSize;
+        }
+        
+        // Getters
+        public long getL1Hits() { return l1Hits; }
+        public long getL1Misses() { return l1Misses; }
+        public long getL2Hits() { return l2Hits; }
+        public long getL2Misses() { return l2Misses; }
+        public long getL1Evictions() { return l1Evictions; }
+        public long getL1Size() { return l1Size; }
+        public int getL2Size() { return l2Size; }
+        public long getArchiveHits() { return archiveHits; }
+        public long getArchiveLookups() { return archiveLookups; }
+        public double getArchiveFalsePositiveRate() { return archiveFalsePositiveRate; }
+        public int getArchiveSize() { return archiveSize; }
+        
+        public double getL1HitRate() {
+            long total = l1Hits + l1Misses;
+            return total > 0 ? (double) l1Hits / total : 0.0;
+        }
+        
+        public double getL2HitRate() {
+            long total = l2Hits + l2Misses;
+            return total > 0 ? (double) l2Hits / total : 0.0;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(
+                "TierStats{L1 命中率=%.2f%% (%d/%d), L2 命中率=%.2f%% (%d/%d), L1 驅逐=%d, "
+                    + "冷歸檔 命中=%d/%d (%d 項), 過濾器誤判率=%.2f%%}",
+                getL1HitRate() * 100, l1Hits, l1Hits + l1Misses,
+                getL2HitRate() * 100, l2Hits, l2Hits + l2Misses, l1Evictions,
+                archiveHits, archiveLookups, archiveSize, archiveFalsePositiveRate * 100
+            );
+        }
+    }
+}
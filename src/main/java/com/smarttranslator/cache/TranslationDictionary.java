@@ -0,0 +1,201 @@
+package com.smarttranslator.cache;
+
+import com.smarttranslator.config.PerformanceConfig;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 分段記錄壓縮用的預設字典
+ * 單條翻譯記錄太短，單獨 Deflate 幾乎沒有收益；以緩存中高頻出現的片段訓練字典後，
+ * 每條記錄都能直接引用字典中的「Walk Speed」「Legendary Item」等文字。
+ * 使用無檔頭的原始 Deflate 格式，每條記錄省去 zlib 檔頭與校驗和。
+ */
+final class TranslationDictionary {
+    private static final int MAGIC = 0x53544443; // "STDC"
+    private static final int MIN_FRAGMENT_BYTES = 4;
+    private static final int MAX_NGRAM_WORDS = 3;
+
+    // Inflater 不是線程安全的，讀取可能發生在任何線程
+    private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private final int id;
+    private final byte[] bytes;
+
+    TranslationDictionary(byte[] bytes) {
+        this.bytes = bytes;
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        // 0 保留給「沒有字典」
+        int value = (int) crc.getValue();
+        this.id = value == 0 ? 1 : value;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    int size() {
+        return bytes.length;
+    }
+
+    /**
+     * 以樣本中重複出現的文字訓練字典
+     * 候選片段為完整文字及 1~3 個單詞的片段，依「出現次數 × 長度」估計可節省的位元組排序，
+     * 最有價值的片段放在字典末尾，讓記錄以最短的距離引用。
+     *
+     * @return 樣本不足或沒有重複片段時返回 null
+     */
+    static TranslationDictionary train(List<String> samples, int maxBytes) {
+        if (samples.size() < PerformanceConfig.DICTIONARY_MIN_SAMPLES) {
+            return null;
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        int step = Math.max(1, samples.size() / PerformanceConfig.DICTIONARY_SAMPLE_LIMIT);
+        for (int i = 0; i < samples.size(); i += step) {
+            String text = samples.get(i);
+            if (text == null || text.isEmpty()) {
+                continue;
+            }
+            counts.merge(text, 1, Integer::sum);
+            List<String> words = Arrays.asList(text.split(" "));
+            // 與完整文字相同的片段已計入，不重複計算
+            for (int n = 1; n <= MAX_NGRAM_WORDS && n < words.size(); n++) {
+                for (int start = 0; start + n <= words.size(); start++) {
+                    counts.merge(String.join(" ", words.subList(start, start + n)), 1, Integer::sum);
+                }
+            }
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            int length = entry.getKey().getBytes(StandardCharsets.UTF_8).length;
+            if (entry.getValue() >= 2 && length >= MIN_FRAGMENT_BYTES) {
+                candidates.add(new Candidate(entry.getKey(), (long) (entry.getValue() - 1) * length));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        candidates.sort((a, b) -> Long.compare(b.score, a.score));
+
+        // 依價值由高到低挑選，已被包含的片段不重複放入
+        List<String> selected = new ArrayList<>();
+        StringBuilder content = new StringBuilder();
+        int total = 0;
+        for (Candidate candidate : candidates) {
+            int length = candidate.text.getBytes(StandardCharsets.UTF_8).length;
+            if (total + length > maxBytes) {
+                continue;
+            }
+            if (content.indexOf(candidate.text) >= 0) {
+                continue;
+            }
+            selected.add(candidate.text);
+            content.append(candidate.text);
+            total += length;
+        }
+
+        StringBuilder dictionary = new StringBuilder(content.length());
+        for (int i = selected.size() - 1; i >= 0; i--) {
+            dictionary.append(selected.get(i));
+        }
+        return new TranslationDictionary(dictionary.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 壓縮一條記錄
+     *
+     * @param deflater 由調用者重複使用的原始格式 Deflater
+     * @return 壓縮後不比原文小時返回 null
+     */
+    byte[] compress(byte[] raw, Deflater deflater) {
+        deflater.reset();
+        deflater.setDictionary(bytes);
+        deflater.setInput(raw);
+        deflater.finish();
+        byte[] output = new byte[raw.length];
+        int length = deflater.deflate(output);
+        if (!deflater.finished() || length >= raw.length) {
+            return null;
+        }
+        return Arrays.copyOf(output, length);
+    }
+
+    /**
+     * 解壓一條記錄
+     */
+    byte[] decompress(byte[] stored, int rawLength) {
+        Inflater inflater = INFLATERS.get();
+        inflater.reset();
+        inflater.setDictionary(bytes);
+        inflater.setInput(stored);
+        byte[] raw = new byte[rawLength];
+        try {
+            int length = inflater.inflate(raw);
+            if (length != rawLength || !inflater.finished()) {
+                throw new IllegalStateException("壓縮記錄長度不符");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("壓縮記錄損壞", e);
+        }
+        return raw;
+    }
+
+    /**
+     * 寫入字典檔案（先寫臨時檔案再原子重命名）
+     */
+    void write(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8 + bytes.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(bytes.length).put(bytes);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temp, buffer.array());
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 讀取字典檔案
+     */
+    static TranslationDictionary read(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new IOException("字典格式不符: " + path);
+        }
+        int length = buffer.getInt();
+        if (length != buffer.remaining()) {
+            throw new IOException("字典長度不符: " + path);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new TranslationDictionary(bytes);
+    }
+
+    private static final class Candidate {
+        final String text;
+        final long score;
+
+        Candidate(String text, long score) {
+            this.text = text;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.smarttranslator.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 以 64 位雜湊為鍵的基本型別開放定址索引
+ * 鍵直接存放在 long 陣列中，不需要為每個項目建立鍵字串或映射節點；
+ * 雜湊命中後再比對原文與語言編號以排除衝突。
+ * 讀取使用 StampedLock 樂觀讀，查找過程不分配任何物件。
+ */
+final class TranslationIndex {
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+    // 雜湊與值放在同一個物件中，樂觀讀取時兩個陣列的長度一定一致
+    private Table table;
+    private int size;
+
+    TranslationIndex() {
+        this(MIN_CAPACITY);
+    }
+
+    TranslationIndex(int expectedSize) {
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    /**
+     * 查找項目
+     *
+     * @param languageId 語言編號，未出現過的語言為 -1
+     */
+    CachedTranslation get(long hash, String originalText, int languageId) {
+        if (languageId < 0) {
+            return null;
+        }
+        long stamp = lock.tryOptimisticRead();
+        CachedTranslation result = table.find(hash, originalText, languageId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = table.find(hash, originalText, languageId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 是否包含指定雜湊的項目（供只持有雜湊的優化器使用）
+     */
+    boolean containsHash(long hash) {
+        long stamp = lock.readLock();
+        try {
+            return table.slotOfHash(hash) >= 0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 插入或替換項目
+     *
+     * @return 被替換的舊項目
+     */
+    CachedTranslation put(long hash, CachedTranslation value) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = table.slotOf(hash, value.getOriginalText(), value.getLanguageId());
+            if (slot >= 0) {
+                CachedTranslation previous = table.values[slot];
+                table.values[slot] = value;
+                return previous;
+            }
+            insertNew(hash, value);
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 只有在沒有同鍵項目或現有項目較舊時才寫入
+     * 啟動載入與新寫入並行時，避免舊記錄覆蓋較新的項目
+     *
+     * @return 是否寫入
+     */
+    boolean putIfNewer(long hash, CachedTranslation value) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = table.slotOf(hash, value.getOriginalText(), value.getLanguageId());
+            if (slot >= 0) {
+                if (table.values[slot].getTimestamp() > value.getTimestamp()) {
+                    return false;
+                }
+                table.values[slot] = value;
+                return true;
+            }
+            insertNew(hash, value);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void insertNew(long hash, CachedTranslation value) {
+        if ((size + 1) * 2 > table.values.length) {
+            table = table.resize(table.values.length * 2);
+        }
+        table.insert(hash, value);
+        size++;
+    }
+
+    /**
+     * 移除指定原文與語言的項目
+     */
+    CachedTranslation remove(long hash, String originalText, int languageId) {
+        if (languageId < 0) {
+            return null;
+        }
+        long stamp = lock.writeLock();
+        try {
+            int slot = table.slotOf(hash, originalText, languageId);
+            return slot >= 0 ? removeAt(slot) : null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 只有當前值仍是 expected（同一實例）時才移除
+     */
+    boolean removeValue(long hash, CachedTranslation expected) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = table.slotOf(hash, expected.getOriginalText(), expected.getLanguageId());
+            if (slot >= 0 && table.values[slot] == expected) {
+                removeAt(slot);
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 移除第一個具有指定雜湊的項目
+     */
+    CachedTranslation removeHash(long hash) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = table.slotOfHash(hash);
+            return slot >= 0 ? removeAt(slot) : null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 以向後移位刪除，避免留下刪除標記拉長探測鏈
+     */
+    private CachedTranslation removeAt(int slot) {
+        long[] hashes = table.hashes;
+        CachedTranslation[] values = table.values;
+        int mask = values.length - 1;
+        CachedTranslation removed = values[slot];
+
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (values[next] != null) {
+            int home = (int) hashes[next] & mask;
+            // 只有原始槽位不在 (gap, next] 範圍內的項目才能移到空位
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                hashes[gap] = hashes[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[gap] = null;
+        hashes[gap] = 0;
+        size--;
+        return removed;
+    }
+
+    int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 當前所有項目的快照
+     */
+    List<CachedTranslation> values() {
+        long stamp = lock.readLock();
+        try {
+            List<CachedTranslation> result = new ArrayList<>(size);
+            for (CachedTranslation value : table.values) {
+                if (value != null) {
+                    result.add(value);
+                }
+            }
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    void clear() {
+        long stamp = lock.writeLock();
+        try {
+            table = new Table(MIN_CAPACITY);
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * 槽位陣列
+     */
+    private static final class Table {
+        final long[] hashes;
+        final CachedTranslation[] values;
+
+        Table(int capacity) {
+            this.hashes = new long[capacity];
+            this.values = new CachedTranslation[capacity];
+        }
+
+        CachedTranslation find(long hash, String originalText, int languageId) {
+            int mask = values.length - 1;
+            // 樂觀讀可能看到寫入中途的狀態，探測次數以容量為上限
+            for (int slot = (int) hash & mask, probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+                CachedTranslation value = values[slot];
+                if (value == null) {
+                    return null;
+                }
+                if (hashes[slot] == hash && value.matches(originalText, languageId)) {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        int slotOf(long hash, String originalText, int languageId) {
+            int mask = values.length - 1;
+            for (int slot = (int) hash & mask; values[slot] != null; slot = (slot + 1) & mask) {
+                if (hashes[slot] == hash && values[slot].matches(originalText, languageId)) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        int slotOfHash(long hash) {
+            int mask = values.length - 1;
+            for (int slot = (int) hash & mask; values[slot] != null; slot = (slot + 1) & mask) {
+                if (hashes[slot] == hash) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        void insert(long hash, CachedTranslation value) {
+            int mask = values.length - 1;
+            int slot = (int) hash & mask;
+            while (values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            hashes[slot] = hash;
+            values[slot] = value;
+        }
+
+        Table resize(int capacity) {
+            Table resized = new Table(capacity);
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    resized.insert(hashes[i], values[i]);
+                }
+            }
+            return resized;
+        }
+    }
+}
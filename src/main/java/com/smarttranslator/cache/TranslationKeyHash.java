@@ -0,0 +1,42 @@
+package com.smarttranslator.cache;
+
+/**
+ * 翻譯緩存鍵雜湊
+ * 對「原文 + 目標語言」計算 64 位非加密雜湊，不產生任何臨時物件
+ */
+public final class TranslationKeyHash {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final char SEPARATOR = '\u001F';
+
+    private TranslationKeyHash() {
+        // 工具類，不允許實例化
+    }
+
+    /**
+     * 計算原文與目標語言的 64 位雜湊值
+     */
+    public static long hash(CharSequence originalText, CharSequence targetLanguage) {
+        long h = FNV_OFFSET;
+        for (int i = 0, n = originalText.length(); i < n; i++) {
+            h = (h ^ originalText.charAt(i)) * FNV_PRIME;
+        }
+        h = (h ^ SEPARATOR) * FNV_PRIME;
+        for (int i = 0, n = targetLanguage.length(); i < n; i++) {
+            h = (h ^ targetLanguage.charAt(i)) * FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    /**
+     * MurmurHash3 的 64 位收尾混合，讓低位也充分擴散以便直接作為槽位索引
+     */
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
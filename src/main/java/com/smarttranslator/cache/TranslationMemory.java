@@ -0,0 +1,436 @@
+package com.smarttranslator.cache;
+
+import com.smarttranslator.config.PerformanceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 翻譯記憶
+ * 為已緩存的翻譯建立近似重複索引：原文（已正規化）的字元三元組經 MinHash 產生簽名，簽名分成數個頻帶，
+ * 任一頻帶相同的項目即為候選，再以編輯距離驗證相似度。多一個字、標點不同、單複數或玩家名稱不同的文字
+ * 因此可以找到最接近的既有翻譯，不必每次都當作完全未命中。
+ * <p>
+ * 找到的結果分兩種用法：只差在標點、空白或複數詞尾的可以直接採用；其餘達到相似度門檻的只作為翻譯時的參考。
+ * 索引在 addToCache 時逐項建立，數量超過上限時淘汰最早加入的項目，與緩存一同保存。
+ */
+public class TranslationMemory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TranslationMemory.class);
+    private static final int MAGIC = 0x5354544D; // "STTM"
+    private static final int VERSION = 1;
+    static final String FILE_NAME = "translation_memory.bin";
+
+    private static final int SHINGLE_SIZE = 3;
+    private static final int ROWS_PER_BAND = PerformanceConfig.TRANSLATION_MEMORY_HASHES / PerformanceConfig.TRANSLATION_MEMORY_BANDS;
+    private static final long[] SEEDS = new long[PerformanceConfig.TRANSLATION_MEMORY_HASHES];
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < SEEDS.length; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private final int maxEntries;
+    // 按加入順序保存，超過上限時從最早的開始淘汰
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>();
+    private final Map<Long, Bucket> buckets = new HashMap<>();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+
+    public TranslationMemory() {
+        this(PerformanceConfig.TRANSLATION_MEMORY_MAX_ENTRIES);
+    }
+
+    TranslationMemory(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 加入或更新一個翻譯
+     *
+     * @param key 緩存鍵（{@link TranslationKeyHash#hash}）
+     * @param originalText 已正規化的原文
+     */
+    public synchronized void add(long key, String originalText, String targetLanguage, String translatedText) {
+        if (originalText == null || originalText.isEmpty() || translatedText == null) {
+            return;
+        }
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            unindex(key, previous);
+        }
+        Entry entry = new Entry(originalText, targetLanguage, translatedText, bandKeys(originalText, targetLanguage));
+        entries.put(key, entry);
+        for (long band : entry.bands) {
+            buckets.computeIfAbsent(band, b -> new Bucket()).add(key);
+        }
+        if (entries.size() > maxEntries) {
+            Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+            Map.Entry<Long, Entry> evicted = eldest.next();
+            eldest.remove();
+            unindex(evicted.getKey(), evicted.getValue());
+        }
+    }
+
+    /**
+     * 移除一個翻譯
+     */
+    public synchronized void remove(long key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unindex(key, entry);
+        }
+    }
+
+    private void unindex(long key, Entry entry) {
+        for (long band : entry.bands) {
+            Bucket bucket = buckets.get(band);
+            if (bucket != null && bucket.remove(key) && bucket.size == 0) {
+                buckets.remove(band);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        buckets.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 查找最相似的既有翻譯（不含原文完全相同的項目）
+     *
+     * @param originalText 已正規化的原文
+     * @param minSimilarity 最低相似度（1 - 編輯距離 / 較長的長度）
+     * @return 最相似的項目，沒有達到門檻的候選時返回 null
+     */
+    public Match find(String originalText, String targetLanguage, double minSimilarity) {
+        if (originalText == null || originalText.isEmpty()) {
+            return null;
+        }
+        lookups.increment();
+        long[] bands = bandKeys(originalText, targetLanguage);
+        Entry best = null;
+        double bestSimilarity = minSimilarity;
+        synchronized (this) {
+            List<Long> candidates = new ArrayList<>();
+            for (long band : bands) {
+                Bucket bucket = buckets.get(band);
+                if (bucket == null) {
+                    continue;
+                }
+                for (int i = 0; i < bucket.size && candidates.size() < PerformanceConfig.TRANSLATION_MEMORY_MAX_CANDIDATES; i++) {
+                    if (!candidates.contains(bucket.keys[i])) {
+                        candidates.add(bucket.keys[i]);
+                    }
+                }
+            }
+            for (long key : candidates) {
+                Entry entry = entries.get(key);
+                if (entry == null || !entry.language.equals(targetLanguage) || entry.text.equals(originalText)) {
+                    continue;
+                }
+                double similarity = similarity(originalText, entry.text, bestSimilarity);
+                if (similarity >= bestSimilarity) {
+                    best = entry;
+                    bestSimilarity = similarity;
+                }
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        matches.increment();
+        return new Match(best.text, best.translation, bestSimilarity, interchangeable(originalText, best.text));
+    }
+
+    /**
+     * 計算 MinHash 簽名並組合為各頻帶的鍵（語言包含在鍵中）
+     */
+    static long[] bandKeys(String text, String language) {
+        long[] signature = new long[SEEDS.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        int shingles = Math.max(1, text.length() - SHINGLE_SIZE + 1);
+        for (int s = 0; s < shingles; s++) {
+            long shingle = 0;
+            int end = Math.min(text.length(), s + SHINGLE_SIZE);
+            for (int i = s; i < end; i++) {
+                shingle = shingle * 31 + text.charAt(i);
+            }
+            for (int h = 0; h < SEEDS.length; h++) {
+                long value = mix(shingle ^ SEEDS[h]);
+                if (value < signature[h]) {
+                    signature[h] = value;
+                }
+            }
+        }
+        long languageHash = language.hashCode();
+        long[] bands = new long[PerformanceConfig.TRANSLATION_MEMORY_BANDS];
+        for (int b = 0; b < bands.length; b++) {
+            long band = mix(languageHash * 31 + b);
+            for (int r = 0; r < ROWS_PER_BAND; r++) {
+                band = mix(band ^ signature[b * ROWS_PER_BAND + r]);
+            }
+            bands[b] = band;
+        }
+        return bands;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 編輯距離相似度；長度差已使相似度低於 floor 時不計算距離
+     */
+    static double similarity(String a, String b, double floor) {
+        int longer = Math.max(a.length(), b.length());
+        if (longer == 0) {
+            return 1.0;
+        }
+        if (1.0 - (double) Math.abs(a.length() - b.length()) / longer < floor) {
+            return 0.0;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = c == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return 1.0 - (double) previous[b.length()] / longer;
+    }
+
+    /**
+     * 兩段文字是否只差在標點、空白、大小寫或英文複數詞尾，可以直接共用翻譯
+     */
+    static boolean interchangeable(String a, String b) {
+        return looseForm(a).equals(looseForm(b));
+    }
+
+    private static String looseForm(String text) {
+        StringBuilder result = new StringBuilder(text.length());
+        int i = 0;
+        while (i < text.length()) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int end = i;
+            while (end < text.length() && Character.isLetterOrDigit(text.charAt(end))) {
+                end++;
+            }
+            String word = text.substring(i, end).toLowerCase(Locale.ROOT);
+            word = singular(word);
+            if (result.length() > 0) {
+                result.append(' ');
+            }
+            result.append(word);
+            i = end;
+        }
+        return result.toString();
+    }
+
+    /**
+     * 去掉英文複數詞尾（boxes → box、gates → gate、swords → sword；boss 不變）
+     */
+    private static String singular(String word) {
+        if (word.length() <= 3 || !word.endsWith("s") || word.endsWith("ss")) {
+            return word;
+        }
+        String stem = word.substring(0, word.length() - 2);
+        if (word.endsWith("es") && (stem.endsWith("x") || stem.endsWith("z") || stem.endsWith("ch")
+                || stem.endsWith("sh") || stem.endsWith("ss"))) {
+            return stem;
+        }
+        return word.substring(0, word.length() - 1);
+    }
+
+    /**
+     * 保存索引中的翻譯（頻帶在載入時重新計算）
+     */
+    public void save(Path file) {
+        List<Map.Entry<Long, Entry>> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(entries.entrySet());
+        }
+        try {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.createDirectories(file.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<Long, Entry> item : snapshot) {
+                    out.writeLong(item.getKey());
+                    out.writeUTF(item.getValue().text);
+                    out.writeUTF(item.getValue().language);
+                    out.writeUTF(item.getValue().translation);
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOGGER.error("保存翻譯記憶失敗: {}", file, e);
+        }
+    }
+
+    /**
+     * 載入先前保存的翻譯記憶（與本次啟動後加入的項目合併）
+     *
+     * @return 是否已載入
+     */
+    public boolean load(Path file) {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                LOGGER.warn("翻譯記憶檔案格式不符，已忽略: {}", file);
+                return false;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long key = in.readLong();
+                String text = in.readUTF();
+                String language = in.readUTF();
+                String translation = in.readUTF();
+                synchronized (this) {
+                    // 本次啟動後已加入的較新翻譯優先
+                    if (!entries.containsKey(key)) {
+                        add(key, text, language, translation);
+                    }
+                }
+            }
+            LOGGER.info("已載入翻譯記憶，共 {} 個項目", size());
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("讀取翻譯記憶失敗: {} ({})", file, e.getMessage());
+            return false;
+        }
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    public long getMatches() {
+        return matches.sum();
+    }
+
+    private static final class Entry {
+        final String text;
+        final String language;
+        final String translation;
+        final long[] bands;
+
+        Entry(String text, String language, String translation, long[] bands) {
+            this.text = text;
+            this.language = language;
+            this.translation = translation;
+            this.bands = bands;
+        }
+    }
+
+    /**
+     * 同一頻帶鍵下的緩存鍵列表
+     */
+    private static final class Bucket {
+        long[] keys = new long[2];
+        int size;
+
+        void add(long key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            keys[size++] = key;
+        }
+
+        boolean remove(long key) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    keys[i] = keys[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 近似匹配結果
+     */
+    public static final class Match {
+        private final String originalText;
+        private final String translatedText;
+        private final double similarity;
+        private final boolean interchangeable;
+
+        Match(String originalText, String translatedText, double similarity, boolean interchangeable) {
+            this.originalText = originalText;
+            this.translatedText = translatedText;
+            this.similarity = similarity;
+            this.interchangeable = interchangeable;
+        }
+
+        /**
+         * 相似項目的原文（已正規化）
+         */
+        public String getOriginalText() {
+            return originalText;
+        }
+
+        public String getTranslatedText() {
+            return translatedText;
+        }
+
+        public double getSimilarity() {
+            return similarity;
+        }
+
+        /**
+         * 是否只差在標點、空白或複數詞尾，可以直接採用
+         */
+        public boolean isInterchangeable() {
+            return interchangeable;
+        }
+    }
+}
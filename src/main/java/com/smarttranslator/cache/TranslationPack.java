@@ -0,0 +1,157 @@
+package com.smarttranslator.cache;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+
+/**
+ * 唯讀翻譯包
+ * 由 {@link TranslationPackCompiler} 從 TSV/JSON 語料預先編譯，整個檔案以唯讀方式 mmap：
+ * 檔頭 + 最小完美雜湊的位移表 + 槽位陣列（鍵雜湊與字串偏移）+ 字串表。
+ * 開啟時只驗證檔頭，不論包多大都是常數時間，也不為項目建立任何物件；
+ * 查找只需一次位移表讀取與一個槽位比對，命中時才解碼字串。
+ */
+public final class TranslationPack {
+    static final String DIRECTORY = "packs";
+    static final String EXTENSION = ".stpack";
+
+    static final int MAGIC = 0x5354504B; // "STPK"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 48;
+    static final int SLOT_SIZE = 16; // long 鍵雜湊 + int 原文偏移 + int 譯文偏移
+    // 位移值的乘數；負的位移值表示該桶只有一個鍵，直接指向 -(位移 + 1) 槽位
+    static final long DISPLACEMENT_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * 掛載順序：優先級高者先查，同優先級時版本新者先查
+     */
+    static final Comparator<TranslationPack> LOOKUP_ORDER = Comparator
+        .comparingInt(TranslationPack::getPriority).reversed()
+        .thenComparing(Comparator.comparingInt(TranslationPack::getVersion).reversed());
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int entryCount;
+    private final int bucketCount;
+    private final int priority;
+    private final int version;
+    private final int displacementsOffset;
+    private final int slotsOffset;
+    private final int stringsOffset;
+    private final String name;
+    private final String targetLanguage;
+
+    private TranslationPack(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("翻譯包格式不符: " + path.getFileName());
+        }
+        int formatVersion = buffer.getInt(4);
+        if (formatVersion != VERSION) {
+            throw new IllegalStateException("翻譯包版本不符: " + formatVersion);
+        }
+        this.entryCount = buffer.getInt(8);
+        this.bucketCount = buffer.getInt(12);
+        this.priority = buffer.getInt(16);
+        this.version = buffer.getInt(20);
+        this.displacementsOffset = buffer.getInt(24);
+        this.slotsOffset = buffer.getInt(28);
+        this.stringsOffset = buffer.getInt(32);
+        if (bucketCount <= 0 || entryCount < 0
+            || displacementsOffset != HEADER_SIZE
+            || slotsOffset != displacementsOffset + bucketCount * 4
+            || stringsOffset != slotsOffset + entryCount * SLOT_SIZE
+            || stringsOffset > buffer.capacity()) {
+            throw new IllegalStateException("翻譯包檔頭損壞: " + path.getFileName());
+        }
+        this.name = readString(buffer.getInt(36));
+        this.targetLanguage = readString(buffer.getInt(40));
+    }
+
+    /**
+     * 以唯讀方式映射翻譯包
+     */
+    public static TranslationPack open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return new TranslationPack(file, buffer);
+        }
+    }
+
+    /**
+     * 查找翻譯
+     *
+     * @param originalText   正規化後的原文
+     * @param targetLanguage 正規化後的目標語言
+     * @return 譯文；包中沒有此項目時返回 null
+     */
+    public String get(String originalText, String targetLanguage) {
+        if (entryCount == 0 || !this.targetLanguage.equals(targetLanguage)) {
+            return null;
+        }
+        long hash = TranslationKeyHash.hash(originalText, targetLanguage);
+        int slot = slotOf(hash, buffer.getInt(displacementsOffset + bucketOf(hash, bucketCount) * 4), entryCount);
+        int position = slotsOffset + slot * SLOT_SIZE;
+        // 完美雜湊會把包外的鍵也映射到某個槽位，必須比對雜湊與原文
+        if (buffer.getLong(position) != hash || !originalText.equals(readString(buffer.getInt(position + 8)))) {
+            return null;
+        }
+        return readString(buffer.getInt(position + 12));
+    }
+
+    static int bucketOf(long hash, int bucketCount) {
+        return (int) Long.remainderUnsigned(hash >>> 32, bucketCount);
+    }
+
+    static int slotOf(long hash, int displacement, int slotCount) {
+        if (displacement < 0) {
+            return -displacement - 1;
+        }
+        return (int) Long.remainderUnsigned(TranslationKeyHash.mix(hash ^ displacement * DISPLACEMENT_MULTIPLIER), slotCount);
+    }
+
+    private String readString(int offset) {
+        int position = stringsOffset + offset;
+        int length = buffer.getInt(position);
+        byte[] bytes = new byte[length];
+        buffer.get(position + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTargetLanguage() {
+        return targetLanguage;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TranslationPack{%s v%d, 語言=%s, 優先級=%d, %d 項}",
+            name, version, targetLanguage, priority, entryCount);
+    }
+}
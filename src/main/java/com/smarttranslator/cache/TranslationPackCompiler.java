@@ -0,0 +1,396 @@
+package com.smarttranslator.cache;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 翻譯包編譯器（建構時使用，見 Gradle 任務 compileTranslationPacks）
+ * 將 TSV 或 JSON 語料編譯為 {@link TranslationPack}：原文經 {@link CacheKeyNormalizer} 正規化後，
+ * 以雜湊與位移（hash-and-displace）建立最小完美雜湊，n 個項目恰好佔用 n 個槽位。
+ *
+ * <p>TSV 每行為「原文 Tab 譯文」，可用 \n、\t、\\ 轉義；以 # 開頭的行為註解，
+ * 其中「# name: / # language: / # priority: / # version:」設定包的屬性。
+ * JSON 可以是原文到譯文的物件，或含 name、language、priority、version 與 entries 的物件。
+ * 未指定語言時從檔名「名稱.語言.tsv」取得。
+ */
+public final class TranslationPackCompiler {
+    // 平均每個雜湊桶的鍵數；越大位移表越小，但建構時尋找位移值越久
+    private static final int AVERAGE_BUCKET_SIZE = 4;
+    private static final int MAX_DISPLACEMENT = 1 << 24;
+    private static final Pattern DIRECTIVE = Pattern.compile("#\\s*(name|language|priority|version)\\s*:\\s*(.+)");
+
+    private TranslationPackCompiler() {
+        // 工具類，不允許實例化
+    }
+
+    /**
+     * 用法：TranslationPackCompiler &lt;輸入檔或目錄&gt; &lt;輸出檔或目錄&gt; [--language 語言] [--priority 數字] [--version 數字] [--name 名稱]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("用法: TranslationPackCompiler <輸入檔或目錄> <輸出檔或目錄> "
+                + "[--language 語言] [--priority 數字] [--version 數字] [--name 名稱]");
+            System.exit(2);
+        }
+        Source overrides = new Source();
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--language" -> overrides.language = args[i + 1];
+                case "--priority" -> overrides.priority = Integer.parseInt(args[i + 1]);
+                case "--version" -> overrides.version = Integer.parseInt(args[i + 1]);
+                case "--name" -> overrides.name = args[i + 1];
+                default -> throw new IllegalArgumentException("未知的參數: " + args[i]);
+            }
+        }
+        Path input = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+        if (!Files.isDirectory(input)) {
+            compile(input, Files.isDirectory(output) ? output.resolve(packFileName(input)) : output, overrides);
+            return;
+        }
+        Files.createDirectories(output);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(input, "*.{tsv,json}")) {
+            for (Path file : files) {
+                compile(file, output.resolve(packFileName(file)), overrides);
+            }
+        }
+    }
+
+    /**
+     * 編譯單個語料檔案
+     *
+     * @param overrides 命令列指定的屬性，優先於檔案內的設定
+     * @return 寫入的項目數
+     */
+    static int compile(Path input, Path output, Source overrides) throws IOException {
+        Source source = read(input);
+        String language = firstNonNull(overrides.language, source.language, languageFromFileName(input));
+        if (language == null) {
+            throw new IllegalArgumentException("無法確定目標語言: " + input.getFileName() + "（請使用「名稱.語言.tsv」檔名或 --language）");
+        }
+        String name = firstNonNull(overrides.name, source.name, baseName(input));
+        int priority = overrides.priority != null ? overrides.priority : source.priority != null ? source.priority : 0;
+        int version = overrides.version != null ? overrides.version : source.version != null ? source.version : 1;
+        language = CacheKeyNormalizer.language(language);
+
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : source.entries.entrySet()) {
+            // 重複的原文以後出現者為準
+            entries.put(CacheKeyNormalizer.text(entry.getKey(), language), entry.getValue());
+        }
+        int written = write(output, name, language, priority, version, entries);
+        System.out.printf("%s -> %s: %d 項 (語言=%s, 優先級=%d, 版本=%d)%n",
+            input.getFileName(), output.getFileName(), written, language, priority, version);
+        return written;
+    }
+
+    /**
+     * 將已正規化的項目寫成翻譯包（先寫臨時檔案再原子重命名）
+     *
+     * @return 寫入的項目數（64 位雜湊衝突的項目會被略過）
+     */
+    static int write(Path output, String name, String language, int priority, int version,
+                     Map<String, String> entries) throws IOException {
+        List<String> sources = new ArrayList<>(entries.size());
+        List<Long> hashes = new ArrayList<>(entries.size());
+        Map<Long, String> seen = new HashMap<>();
+        for (String text : entries.keySet()) {
+            if (text.isEmpty() || entries.get(text) == null) {
+                continue;
+            }
+            long hash = TranslationKeyHash.hash(text, language);
+            String previous = seen.putIfAbsent(hash, text);
+            if (previous != null) {
+                System.err.printf("略過雜湊衝突的項目: \"%s\" 與 \"%s\"%n", text, previous);
+                continue;
+            }
+            sources.add(text);
+            hashes.add(hash);
+        }
+
+        int n = sources.size();
+        int bucketCount = Math.max(1, (n + AVERAGE_BUCKET_SIZE - 1) / AVERAGE_BUCKET_SIZE);
+        int[] displacements = new int[bucketCount];
+        int[] slotOwner = buildPerfectHash(hashes, bucketCount, displacements);
+
+        // 字串表：相同的字串只存一份
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        Map<String, Integer> offsets = new HashMap<>();
+        int nameOffset = appendString(strings, offsets, name);
+        int languageOffset = appendString(strings, offsets, language);
+        int[] sourceOffsets = new int[n];
+        int[] translationOffsets = new int[n];
+        for (int slot = 0; slot < n; slot++) {
+            String text = sources.get(slotOwner[slot]);
+            sourceOffsets[slot] = appendString(strings, offsets, text);
+            translationOffsets[slot] = appendString(strings, offsets, entries.get(text));
+        }
+
+        int slotsOffset = TranslationPack.HEADER_SIZE + bucketCount * 4;
+        int stringsOffset = slotsOffset + n * TranslationPack.SLOT_SIZE;
+        long total = (long) stringsOffset + strings.size();
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("翻譯包超過 2GB，請拆分語料");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) total).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(TranslationPack.MAGIC)
+            .putInt(TranslationPack.VERSION)
+            .putInt(n)
+            .putInt(bucketCount)
+            .putInt(priority)
+            .putInt(version)
+            .putInt(TranslationPack.HEADER_SIZE)
+            .putInt(slotsOffset)
+            .putInt(stringsOffset)
+            .putInt(nameOffset)
+            .putInt(languageOffset)
+            .putInt(0);
+        for (int displacement : displacements) {
+            buffer.putInt(displacement);
+        }
+        for (int slot = 0; slot < n; slot++) {
+            buffer.putLong(hashes.get(slotOwner[slot]))
+                .putInt(sourceOffsets[slot])
+                .putInt(translationOffsets[slot]);
+        }
+        buffer.put(strings.toByteArray());
+
+        Path parent = output.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, output.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, buffer.array());
+            try {
+                Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return n;
+    }
+
+    /**
+     * 為每個桶尋找位移值，使所有鍵落在互不相同的槽位
+     * 鍵多的桶先處理；只有一個鍵的桶直接指定剩餘的空槽位
+     *
+     * @return 每個槽位對應的鍵索引
+     */
+    private static int[] buildPerfectHash(List<Long> hashes, int bucketCount, int[] displacements) {
+        int n = hashes.size();
+        List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int i = 0; i < n; i++) {
+            buckets.get(TranslationPack.bucketOf(hashes.get(i), bucketCount)).add(i);
+        }
+        Integer[] order = new Integer[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(buckets.get(b).size(), buckets.get(a).size()));
+
+        int[] slotOwner = new int[n];
+        Arrays.fill(slotOwner, -1);
+        int nextFree = 0;
+        for (int bucket : order) {
+            List<Integer> keys = buckets.get(bucket);
+            if (keys.isEmpty()) {
+                break;
+            }
+            if (keys.size() == 1) {
+                while (slotOwner[nextFree] >= 0) {
+                    nextFree++;
+                }
+                slotOwner[nextFree] = keys.get(0);
+                displacements[bucket] = -nextFree - 1;
+                continue;
+            }
+            int[] slots = new int[keys.size()];
+            int displacement = 0;
+            while (!tryPlace(hashes, keys, displacement, slotOwner, slots)) {
+                if (++displacement >= MAX_DISPLACEMENT) {
+                    throw new IllegalStateException("找不到可用的位移值，桶大小 " + keys.size());
+                }
+            }
+            for (int i = 0; i < slots.length; i++) {
+                slotOwner[slots[i]] = keys.get(i);
+            }
+            displacements[bucket] = displacement;
+        }
+        return slotOwner;
+    }
+
+    private static boolean tryPlace(List<Long> hashes, List<Integer> keys, int displacement, int[] slotOwner, int[] slots) {
+        int n = slotOwner.length;
+        for (int i = 0; i < keys.size(); i++) {
+            int slot = TranslationPack.slotOf(hashes.get(keys.get(i)), displacement, n);
+            if (slotOwner[slot] >= 0) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (slots[j] == slot) {
+                    return false;
+                }
+            }
+            slots[i] = slot;
+        }
+        return true;
+    }
+
+    private static int appendString(ByteArrayOutputStream strings, Map<String, Integer> offsets, String value) {
+        Integer existing = offsets.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        int offset = strings.size();
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer length = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(bytes.length);
+        strings.writeBytes(length.array());
+        strings.writeBytes(bytes);
+        offsets.put(value, offset);
+        return offset;
+    }
+
+    /**
+     * 讀取語料檔案
+     */
+    static Source read(Path input) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            return input.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json")
+                ? readJson(reader) : readTsv(reader);
+        }
+    }
+
+    private static Source readTsv(BufferedReader reader) throws IOException {
+        Source source = new Source();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("#")) {
+                Matcher directive = DIRECTIVE.matcher(line.trim());
+                if (directive.matches()) {
+                    source.set(directive.group(1), directive.group(2).trim());
+                }
+                continue;
+            }
+            String[] columns = line.split("\t", -1);
+            if (columns.length >= 2 && !columns[0].isBlank() && !columns[1].isEmpty()) {
+                source.entries.put(unescape(columns[0]), unescape(columns[1]));
+            }
+        }
+        return source;
+    }
+
+    private static Source readJson(Reader reader) {
+        Source source = new Source();
+        JsonObject root = JsonParser.parseReader(reader).getAsJsonObject();
+        JsonObject entries = root;
+        if (root.has("entries") && root.get("entries").isJsonObject()) {
+            entries = root.getAsJsonObject("entries");
+            for (String key : new String[] {"name", "language", "priority", "version"}) {
+                if (root.has(key)) {
+                    source.set(key, root.get(key).getAsString());
+                }
+            }
+        }
+        for (Map.Entry<String, JsonElement> entry : entries.entrySet()) {
+            if (entry.getValue().isJsonPrimitive()) {
+                source.entries.put(entry.getKey(), entry.getValue().getAsString());
+            }
+        }
+        return source;
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                result.append(next == 'n' ? '\n' : next == 't' ? '\t' : next);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    static String packFileName(Path input) {
+        String fileName = input.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        return (dot > 0 ? fileName.substring(0, dot) : fileName) + TranslationPack.EXTENSION;
+    }
+
+    /**
+     * 「名稱.語言.tsv」中的語言部分
+     */
+    private static String languageFromFileName(Path input) {
+        String[] parts = input.getFileName().toString().split("\\.");
+        return parts.length >= 3 ? parts[parts.length - 2] : null;
+    }
+
+    private static String baseName(Path input) {
+        String fileName = input.getFileName().toString();
+        int dot = fileName.indexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    @SafeVarargs
+    private static <T> T firstNonNull(T... values) {
+        for (T value : values) {
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 語料內容與包屬性
+     */
+    static final class Source {
+        String name;
+        String language;
+        Integer priority;
+        Integer version;
+        final Map<String, String> entries = new LinkedHashMap<>();
+
+        void set(String key, String value) {
+            switch (key) {
+                case "name" -> name = value;
+                case "language" -> language = value;
+                case "priority" -> priority = Integer.parseInt(value);
+                case "version" -> version = Integer.parseInt(value);
+                default -> { }
+            }
+        }
+    }
+}
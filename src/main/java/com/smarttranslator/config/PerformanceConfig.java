@@ -15,6 +15,111 @@ public class PerformanceConfig {
     public static final int DEFAULT_CACHE_SIZE = 5000; // 增加到 5000
     public static final long CACHE_EXPIRE_TIME_MS = 60 * 60 * 1000; // 增加到 60分鐘
     
+    // 緩存持久化配置（寫入日誌）
+    public static final long JOURNAL_GROUP_COMMIT_MS = 200; // 分組提交窗口
+    public static final long JOURNAL_COMPACT_INTERVAL_SECONDS = 300; // 壓縮檢查間隔
+    public static final long JOURNAL_COMPACT_THRESHOLD_BYTES = 4L * 1024 * 1024; // 日誌超過 4MB 時合併到分段
+    public static final int SEGMENT_MERGE_THRESHOLD = 4; // 分段數超過此值時合併
+    public static final long CACHE_WARMING_WAIT_MS = 250; // 緩存預熱期間未命中時的最長等待時間
+    
+    // 分層緩存配置
+    public static final int L1_AVERAGE_ENTRY_BYTES = 256; // L1 容量換算為權重時的平均項目大小
+    public static final int L1_ENTRY_OVERHEAD_BYTES = 96; // 每個 L1 項目的物件開銷估計
+    public static final int L2_READ_THREADS = 2; // 異步讀取 L2 的線程數
+    public static final long PARTITION_IDLE_TIMEOUT_MS = 10 * 60 * 1000; // 分區閒置超過 10 分鐘後卸載
+    public static final long PARTITION_IDLE_CHECK_SECONDS = 60; // 閒置分區檢查間隔
+    
+    // 記憶體壓力配置
+    public static final double MEMORY_PRESSURE_RATIO = 0.85; // 老年代使用率超過此值時縮減 L1
+    public static final double MEMORY_RECOVERY_RATIO = 0.60; // GC 後老年代使用率低於此值視為穩定
+    public static final int MEMORY_RECOVERY_COLLECTIONS = 3; // 連續此次數的 GC 後都穩定才逐步擴大 L1
+    public static final double MEMORY_SHED_RATIO = 0.5; // 每次壓力通知將 L1 權重縮減到目前的此比例
+    public static final long MEMORY_SHED_FLOOR_BYTES = 256 * 1024; // L1 縮減的下限（位元組）
+    public static final double MEMORY_GROW_FACTOR = 1.25; // 每次恢復時 L1 上限的擴大倍數
+    
+    // 訪問頻率配置
+    public static final int FREQUENCY_SKETCH_CAPACITY = 8192; // 頻率估計的計數表大小（每個 8 位元組，老化前約可追蹤此數量的鍵）
+    public static final int ACCESS_BUFFER_SIZE = 16; // 每條訪問緩衝區的槽位數
+    public static final int HOT_KEY_FREQUENCY = 3; // 頻率達到此值視為熱點
+    public static final int PREWARM_HOT_ENTRIES = 512; // 每個命名空間保存與預熱的熱點項目數
+    public static final long PREWARM_WAIT_MS = 5000; // 預熱前等待分區載入的最長時間
+    
+    // 渲染結果緩存配置
+    public static final int RENDERED_OUTPUT_CACHE_SIZE = 4096; // 以原始輸入為鍵的最終輸出數量上限
+    
+    // 數值模板配置
+    public static final int REJECTED_TEMPLATE_CACHE_SIZE = 1024; // 譯文未保留槽位、改為逐行翻譯的模板數量上限
+    
+    // 逐句翻譯配置
+    public static final int SENTENCE_SEGMENT_MIN_LENGTH = 160; // 達到此長度且有多個句子的文字才逐句翻譯
+    
+    // 翻譯記憶配置
+    public static final int TRANSLATION_MEMORY_MAX_ENTRIES = 20000; // 近似查找索引的項目數量上限
+    public static final int TRANSLATION_MEMORY_HASHES = 32; // MinHash 簽名長度
+    public static final int TRANSLATION_MEMORY_BANDS = 8; // LSH 頻帶數（每帶 4 列，約 0.6 的 Jaccard 相似度開始成為候選）
+    public static final int TRANSLATION_MEMORY_MAX_CANDIDATES = 32; // 每次查找最多驗證的候選數
+    public static final double TRANSLATION_MEMORY_HINT_SIMILARITY = 0.6; // 作為翻譯參考的最低編輯距離相似度
+    
+    // 預取配置
+    public static final int PREFETCH_MAX_TEXTS = 4096; // 共現索引追蹤的文字數量上限
+    public static final int PREFETCH_MAX_NEIGHBORS = 8; // 每個文字保留的共現文字數量
+    public static final int PREFETCH_MAX_GROUP_SIZE = 16; // 一組中參與學習的文字數量上限
+    public static final int PREFETCH_RECENT_GROUPS = 64; // 最近觀察過的組不重複計數
+    public static final int PREFETCH_MIN_COOCCURRENCE = 2; // 至少共同出現此次數才預取
+    public static final int PREFETCH_MAX_PER_MISS = 8; // 每次未命中最多預取的文字數
+    public static final int PREFETCH_QUEUE_SIZE = 64; // 預取隊列長度，滿時丟棄
+    public static final int PREFETCH_TRACKED_LIMIT = 2048; // 追蹤是否被使用的預取數量上限
+    public static final long PREFETCH_USEFUL_WINDOW_MS = 10 * 60 * 1000; // 預取後 10 分鐘內未被使用視為浪費
+    public static final int PREFETCH_RESERVED_TOKENS = 10; // 速率限制器至少保留此數量的令牌給前台請求
+    
+    // 負緩存配置
+    public static final int NEGATIVE_CACHE_MAX_ENTRIES = 20000; // 負緩存項目數量上限
+    public static final long NEGATIVE_TTL_UNCHANGED_MS = 7L * 24 * 60 * 60 * 1000; // 翻譯結果與原文相同，7 天後重試
+    public static final long NEGATIVE_TTL_BLOCKED_MS = 24L * 60 * 60 * 1000; // 被內容過濾器阻擋，1 天後重試
+    public static final long NEGATIVE_TTL_SKIPPED_MS = 30L * 24 * 60 * 60 * 1000; // 不需要翻譯的文字，30 天
+    public static final long NEGATIVE_TTL_PROPER_NOUN_MS = 30L * 24 * 60 * 60 * 1000; // 專有名詞（玩家名稱、ID），30 天
+    
+    // 冷歸檔配置
+    public static final int ARCHIVE_BLOCK_ENTRIES = 256; // 每個歸檔區塊的項目數上限（命中時整塊解壓）
+    public static final int ARCHIVE_COMPACT_BLOCKS = 64; // 區塊數超過此值時重寫歸檔
+    public static final int ARCHIVE_FILTER_CAPACITY = 100000; // 布隆過濾器的最小預期鍵數
+    public static final double ARCHIVE_FILTER_FPP = 0.01; // 布隆過濾器的目標誤判率
+    public static final long ARCHIVE_RETENTION_MS = 365L * 24 * 60 * 60 * 1000; // 歸檔項目保留 1 年
+    
+    // 共用緩存配置（多個遊戲實例共用同一設定目錄）
+    public static final int SHARED_CACHE_SLOTS = 1 << 18; // 槽位表大小（每個 16 位元組）
+    public static final long SHARED_CACHE_DATA_BYTES = 64L * 1024 * 1024; // 記錄區大小（稀疏檔案，只佔用實際寫入的部分）
+    public static final double SHARED_CACHE_MAX_LOAD = 0.75; // 槽位表的最高負載
+    public static final double SHARED_CACHE_RESET_RATIO = 0.5; // 擁有者匯入後使用超過此比例時重置
+    public static final long SHARED_CACHE_REFRESH_MS = 2000; // 非擁有者實例重新掃描擁有者 L2 分段的最短間隔
+    
+    // 對等緩存配置（區域網路中的其他玩家）
+    public static final long PEER_QUERY_TIMEOUT_MS = 150; // 查詢對等端的逾時，超過後直接調用 API
+    public static final int PEER_QUERY_FANOUT = 3; // 每次查詢最多詢問的對等端數量
+    public static final int PEER_GOSSIP_FANOUT = 4; // 每批新翻譯最多傳送的對等端數量
+    public static final long PEER_GOSSIP_INTERVAL_MS = 2000; // 傳播佇列的定時傳送間隔
+    public static final int PEER_GOSSIP_BATCH_SIZE = 32; // 佇列累積到此數量時立即傳送
+    public static final int PEER_GOSSIP_QUEUE_LIMIT = 512; // 傳播佇列上限，超過時丟棄新項目
+    public static final long PEER_HELLO_INTERVAL_MS = 30000; // 問候（探索）間隔
+    public static final long PEER_EXPIRY_MS = 95000; // 超過此時間沒有收到封包的對等端視為離線
+    public static final int PEER_MAX_PEERS = 32; // 記住的對等端數量上限
+    public static final int PEER_MAX_DATAGRAM_BYTES = 1400; // 單一封包上限（避免在區域網路上分片）
+    
+    // 伺服器中繼配置
+    public static final long RELAY_TIMEOUT_MS = 5000; // 客戶端等待伺服器譯文的時間，逾時後本次保留原文
+    public static final int RELAY_MAX_TEXT_LENGTH = 2048; // 中繼請求的文字長度上限
+    public static final int RELAY_MAX_PENDING_PER_PLAYER = 32; // 每位玩家同時未回應的請求上限
+    public static final int RELAY_MAX_LANGUAGES = 8; // 聊天訊息預先翻譯的目標語言數量上限
+    public static final int RELAY_PLAYER_BURST = 20; // 每位玩家可連續觸發的 API 翻譯次數
+    public static final double RELAY_PLAYER_REFILL_PER_SECOND = 2.0; // 每位玩家每秒恢復的 API 翻譯次數
+    
+    // 儲存壓縮配置
+    public static final int STRING_POOL_SIZE = 1 << 14; // 共享字串池槽位數（直接映射，衝突時覆蓋）
+    public static final int STRING_POOL_MAX_LENGTH = 256; // 超過此長度的字串不進入字串池
+    public static final int DICTIONARY_MAX_BYTES = 16 * 1024; // 預設字典上限（Deflater 視窗為 32KB）
+    public static final int DICTIONARY_MIN_SAMPLES = 200; // 至少有這麼多項目才訓練字典
+    public static final int DICTIONARY_SAMPLE_LIMIT = 5000; // 訓練字典時最多取樣的項目數
+    
     // 線程池配置
     public static final int TRANSLATION_THREAD_POOL_SIZE = 8;
     public static final int CLEANUP_THREAD_POOL_SIZE = 1;
@@ -27,6 +132,8 @@ public class PerformanceConfig {
     // 批量處理配置
     public static final int BATCH_SIZE = 10;
     public static final long BATCH_TIMEOUT_MS = 200;
+    public static final int API_BATCH_MAX_TEXTS = 32; // 單次批量 API 請求最多包含的文字段數
+    public static final int API_BATCH_MAX_CHARS = 4000; // 單次批量 API 請求的字元總數上限
     
     // 優先級配置
     public static final int HIGH_PRIORITY_QUEUE_SIZE = 50;
@@ -23,11 +23,15 @@ public class SmartTranslatorConfig {
     public static final ModConfigSpec.BooleanValue CACHE_ENABLED;
     public static final ModConfigSpec.IntValue CACHE_EXPIRY_DAYS;
     public static final ModConfigSpec.IntValue MAX_CACHE_SIZE;
+    public static final ModConfigSpec.BooleanValue SOFT_REFERENCE_DEMOTION;
+    public static final ModConfigSpec.BooleanValue ACCEPT_NEAR_MATCHES;
+    public static final ModConfigSpec.BooleanValue SHARED_CACHE;
     
     // 翻譯設定
     public static final ModConfigSpec.BooleanValue TRANSLATE_CHAT;
     public static final ModConfigSpec.BooleanValue TRANSLATE_SIGNS;
     public static final ModConfigSpec.BooleanValue TRANSLATE_BOOKS;
+    public static final ModConfigSpec.BooleanValue USE_LANGUAGE_ASSETS;
     public static final ModConfigSpec.IntValue TRANSLATION_DELAY_MS;
     
     // 性能設定
@@ -35,12 +39,25 @@ public class SmartTranslatorConfig {
     public static final ModConfigSpec.LongValue BATCH_TIMEOUT_MS;
     public static final ModConfigSpec.IntValue MAX_CONCURRENT_TRANSLATIONS;
     public static final ModConfigSpec.IntValue THREAD_POOL_SIZE;
+    public static final ModConfigSpec.BooleanValue PREFETCH_ENABLED;
+    public static final ModConfigSpec.IntValue PREFETCH_BUDGET_PER_MINUTE;
     
     // 顯示設定
     public static final ModConfigSpec.BooleanValue SHOW_ORIGINAL_TEXT;
     public static final ModConfigSpec.BooleanValue SHOW_TRANSLATION_STATUS;
     public static final ModConfigSpec.ConfigValue<String> TRANSLATION_PREFIX;
     
+    // 對等緩存設定
+    public static final ModConfigSpec.BooleanValue PEER_CACHE_ENABLED;
+    public static final ModConfigSpec.IntValue PEER_CACHE_PORT;
+    public static final ModConfigSpec.ConfigValue<String> PEER_CACHE_GROUP;
+    public static final ModConfigSpec.ConfigValue<String> PEER_CACHE_PEERS;
+    public static final ModConfigSpec.BooleanValue PEER_CACHE_DISCOVERY;
+    
+    // 伺服器中繼設定
+    public static final ModConfigSpec.BooleanValue USE_SERVER_RELAY;
+    public static final ModConfigSpec.BooleanValue SERVER_RELAY_ENABLED;
+    
     static {
         BUILDER.comment("Smart Translator 基本設定").push("general");
         
@@ -84,6 +101,18 @@ public class SmartTranslatorConfig {
                 .comment("最大緩存項目數量")
                 .defineInRange("maxCacheSize", 10000, 100, 100000);
         
+        SOFT_REFERENCE_DEMOTION = BUILDER
+                .comment("記憶體不足時，從記憶體緩存移出的翻譯以軟引用保留（由 GC 決定何時回收）")
+                .define("softReferenceDemotion", false);
+        
+        ACCEPT_NEAR_MATCHES = BUILDER
+                .comment("與已翻譯文字只差在標點、空白或英文複數詞尾時，直接沿用既有翻譯而不調用 API")
+                .define("acceptNearMatches", true);
+        
+        SHARED_CACHE = BUILDER
+                .comment("同時開啟多個遊戲實例時共用同一份翻譯緩存（任一實例翻譯過的文字，其他實例立即可用；重新啟動後生效）")
+                .define("sharedCache", false);
+        
         BUILDER.pop();
         
         BUILDER.comment("翻譯範圍設定").push("translation");
@@ -100,10 +129,14 @@ public class SmartTranslatorConfig {
                 .comment("翻譯書本內容")
                 .define("translateBooks", false);
         
+        USE_LANGUAGE_ASSETS = BUILDER
+                .comment("原版與模組的語言檔已有目標語言的官方翻譯時直接使用，不調用翻譯 API")
+                .define("useLanguageAssets", true);
+        
         TRANSLATION_DELAY_MS = BUILDER
                 .comment("翻譯延遲毫秒數 (避免頻繁請求)")
                 .defineInRange("translationDelayMs", 500, 0, 5000);
-
+        
         BUILDER.pop();
         
         BUILDER.comment("性能設定").push("performance");
@@ -123,7 +156,15 @@ public class SmartTranslatorConfig {
         THREAD_POOL_SIZE = BUILDER
                 .comment("翻譯線程池大小 (影響大文本翻譯性能)")
                 .defineInRange("threadPoolSize", 8, 2, 16);
-
+        
+        PREFETCH_ENABLED = BUILDER
+                .comment("是否預取經常一起出現的文字（例如同一個物品提示的其他行）")
+                .define("prefetchEnabled", true);
+        
+        PREFETCH_BUDGET_PER_MINUTE = BUILDER
+                .comment("預取每分鐘最多使用的 API 請求數")
+                .defineInRange("prefetchBudgetPerMinute", 30, 0, 600);
+        
         BUILDER.pop();
         
         BUILDER.comment("顯示設定").push("display");
@@ -141,6 +182,42 @@ public class SmartTranslatorConfig {
                 .define("translationPrefix", "§a[翻譯]§r ");
         
         BUILDER.pop();
+        
+        BUILDER.comment("對等緩存設定（與同一區域網路中的其他玩家共用翻譯，重新啟動後生效）").push("peer");
+        
+        PEER_CACHE_ENABLED = BUILDER
+                .comment("本地緩存未命中時先詢問區域網路中的其他玩家，並將新翻譯分享給他們（只在信任的網路中啟用）")
+                .define("peerCacheEnabled", false);
+        
+        PEER_CACHE_PORT = BUILDER
+                .comment("對等緩存使用的 UDP 連接埠（同一群組的玩家需使用相同的連接埠）")
+                .defineInRange("peerCachePort", 24455, 1024, 65535);
+        
+        PEER_CACHE_GROUP = BUILDER
+                .comment("群組名稱，只與群組名稱相同的玩家交換翻譯")
+                .define("peerCacheGroup", "");
+        
+        PEER_CACHE_PEERS = BUILDER
+                .comment("固定的對等端位址，以逗號分隔 (例如 192.168.1.20, 192.168.1.21:24455)")
+                .define("peerCachePeers", "");
+        
+        PEER_CACHE_DISCOVERY = BUILDER
+                .comment("是否以廣播自動探索區域網路中的對等端")
+                .define("peerCacheDiscovery", true);
+        
+        BUILDER.pop();
+        
+        BUILDER.comment("伺服器中繼設定").push("relay");
+        
+        USE_SERVER_RELAY = BUILDER
+                .comment("連上安裝了本模組的伺服器時，由伺服器翻譯而不自行調用 API")
+                .define("useServerRelay", true);
+        
+        SERVER_RELAY_ENABLED = BUILDER
+                .comment("作為專用伺服器時為玩家翻譯（同一段文字每種語言只調用一次 API，需在伺服器的設定檔填寫 API 設定）")
+                .define("serverRelayEnabled", true);
+        
+        BUILDER.pop();
     }
     
     public static final ModConfigSpec SPEC = BUILDER.build();
@@ -0,0 +1,49 @@
+package com.smarttranslator.events;
+
+import com.smarttranslator.SmartTranslator;
+import com.smarttranslator.cache.PartitionedTranslationStore;
+import com.smarttranslator.cache.TranslationCache;
+import com.smarttranslator.config.SmartTranslatorConfig;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ServerData;
+import net.minecraft.client.server.IntegratedServer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.client.event.ClientPlayerNetworkEvent;
+
+/**
+ * 緩存命名空間事件處理器
+ * 加入伺服器或單人世界時切換到對應的緩存分區，離開時切回預設命名空間
+ */
+public class CacheNamespaceHandler {
+
+    @SubscribeEvent
+    public void onLoggingIn(ClientPlayerNetworkEvent.LoggingIn event) {
+        TranslationCache cache = SmartTranslator.getInstance().getTranslationCache();
+        if (cache == null) {
+            return;
+        }
+        cache.switchNamespace(currentNamespace(Minecraft.getInstance()));
+        cache.preparePartition(SmartTranslatorConfig.TARGET_LANGUAGE.get());
+    }
+
+    @SubscribeEvent
+    public void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        TranslationCache cache = SmartTranslator.getInstance().getTranslationCache();
+        if (cache != null) {
+            cache.switchNamespace(PartitionedTranslationStore.DEFAULT_NAMESPACE);
+        }
+    }
+
+    private static String currentNamespace(Minecraft minecraft) {
+        IntegratedServer singleplayer = minecraft.getSingleplayerServer();
+        if (singleplayer != null) {
+            // 單人世界以存檔名稱區分，與伺服器地址加上前綴避免衝突
+            return "world_" + singleplayer.getWorldData().getLevelName();
+        }
+        ServerData server = minecraft.getCurrentServer();
+        if (server != null) {
+            return server.ip;
+        }
+        return PartitionedTranslationStore.DEFAULT_NAMESPACE;
+    }
+}
@@ -2,6 +2,7 @@ package com.smarttranslator.events;
 
 import com.smarttranslator.SmartTranslator;
 import com.smarttranslator.config.SmartTranslatorConfig;
+import com.smarttranslator.translation.TranslationManager;
 import net.minecraft.client.Minecraft;
 import net.minecraft.network.chat.Component;
 import net.neoforged.bus.api.SubscribeEvent;
@@ -9,11 +10,18 @@ import net.neoforged.neoforge.client.event.ClientChatReceivedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 /**
  * 聊天翻譯事件處理器
  */
 public class ChatTranslationHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(ChatTranslationHandler.class);
+    // 相隔在此時間內的訊息視為同一段對話
+    private static final long DIALOGUE_WINDOW_MS = 10_000;
+    
+    private String lastMessage;
+    private long lastMessageTime;
     
     @SubscribeEvent
     public void onChatReceived(ClientChatReceivedEvent event) {
@@ -31,8 +39,17 @@ public class ChatTranslationHandler {
             return;
         }
         
+        // 連續的訊息（例如同一位 NPC 的對話）供預取學習
+        TranslationManager translationManager = SmartTranslator.getInstance().getTranslationManager();
+        long now = System.currentTimeMillis();
+        if (lastMessage != null && now - lastMessageTime < DIALOGUE_WINDOW_MS) {
+            translationManager.observeTextGroup(List.of(lastMessage, originalText));
+        }
+        lastMessage = originalText;
+        lastMessageTime = now;
+        
         // 異步翻譯
-        SmartTranslator.getInstance().getTranslationManager()
+        translationManager
                 .translateAsync(originalText)
                 .thenAccept(translatedText -> {
                     if (!translatedText.equals(originalText)) {
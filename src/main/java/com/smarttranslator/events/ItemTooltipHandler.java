@@ -5,6 +5,7 @@ import com.smarttranslator.config.SmartTranslatorConfig;
 import com.smarttranslator.translation.TranslationManager;
 import com.smarttranslator.events.KeyBindingHandler;
 import com.smarttranslator.translation.ItemTranslationService;
+import com.smarttranslator.translation.LanguageAssetResolver;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
 import net.minecraft.network.chat.Component;
@@ -252,6 +253,10 @@ public class ItemTooltipHandler {
      * 4. 智能批量處理
      */
     private void processTooltipNonBlocking(List<Component> tooltip, ItemStack itemStack) {
+        List<String> lines = new ArrayList<>(tooltip.size());
+        List<String> pending = new ArrayList<>();
+        int itemNameIndex = -1;
+        
         // 第一階段：快速緩存檢查和應用（主線程，極快）
         for (int i = 0; i < tooltip.size(); i++) {
             Component component = tooltip.get(i);
@@ -260,6 +265,15 @@ public class ItemTooltipHandler {
             if (originalText == null || originalText.trim().isEmpty()) {
                 continue;
             }
+            lines.add(originalText);
+            
+            // 原版與模組已附帶官方翻譯的文字：有翻譯鍵時以鍵取得，否則以英文原文反向查找
+            String official = getOfficialTranslation(component, originalText);
+            if (official != null) {
+                originalTextCache.put(official, originalText);
+                tooltip.set(i, createBilingualComponent(originalText, official, component));
+                continue;
+            }
             
             // 檢查快速緩存
             String cachedTranslation = fastCache.get(originalText);
@@ -268,8 +282,23 @@ public class ItemTooltipHandler {
                 MutableComponent translatedComponent = createBilingualComponent(originalText, cachedTranslation, component);
                 tooltip.set(i, translatedComponent);
             } else if (!processingItems.contains(originalText)) {
-                // 標記為需要異步處理
-                scheduleAsyncTranslation(originalText, i == 0);
+                // 標記為需要異步處理，同一提示中的各行合併為一次批量翻譯
+                if (i == 0) {
+                    itemNameIndex = pending.size();
+                }
+                pending.add(originalText);
+            }
+        }
+        
+        if (!pending.isEmpty()) {
+            scheduleAsyncTranslation(pending, itemNameIndex);
+        }
+        
+        // 有新的翻譯請求時，在後台記錄同一提示中的各行，供預取學習
+        if (!pending.isEmpty() && lines.size() >= 2) {
+            TranslationManager translationManager = SmartTranslator.getInstance().getTranslationManager();
+            if (translationManager != null) {
+                scheduler.execute(() -> translationManager.observeTextGroup(lines));
             }
         }
     }
@@ -280,13 +309,24 @@ public class ItemTooltipHandler {
      * 1. 信號量控制並發數
      * 2. 避免重複翻譯請求
      * 3. 智能緩存更新
-     * 4. 最小化資源使用
+     * 4. 同一提示的各行合併為一次批量請求
      */
-    private void scheduleAsyncTranslation(String originalText, boolean isItemName) {
-        // 避免重複處理
-        if (!processingItems.add(originalText)) {
+    private void scheduleAsyncTranslation(List<String> texts, int itemNameIndex) {
+        // 避免重複處理，已在處理中的行不再加入本批
+        List<String> batch = new ArrayList<>(texts.size());
+        int nameIndex = -1;
+        for (int i = 0; i < texts.size(); i++) {
+            if (processingItems.add(texts.get(i))) {
+                if (i == itemNameIndex) {
+                    nameIndex = batch.size();
+                }
+                batch.add(texts.get(i));
+            }
+        }
+        if (batch.isEmpty()) {
             return;
         }
+        int batchNameIndex = nameIndex;
         
         // 異步執行翻譯，不阻塞主線程
         CompletableFuture.runAsync(() -> {
@@ -294,7 +334,7 @@ public class ItemTooltipHandler {
                 // 控制並發翻譯數量
                 if (translationSemaphore.tryAcquire(100, TimeUnit.MILLISECONDS)) {
                     try {
-                        performTranslation(originalText, isItemName);
+                        performTranslation(batch, batchNameIndex);
                     } finally {
                         translationSemaphore.release();
                     }
@@ -302,101 +342,85 @@ public class ItemTooltipHandler {
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             } finally {
-                processingItems.remove(originalText);
+                batch.forEach(processingItems::remove);
             }
         }, scheduler);
     }
     
     /**
-     * 執行實際翻譯操作
+     * 執行實際翻譯操作（需要翻譯的篩選與緩存查找由批量翻譯處理）
      */
-    private void performTranslation(String originalText, boolean isItemName) {
+    private void performTranslation(List<String> texts, int itemNameIndex) {
         try {
             ItemTranslationService service = getItemTranslationService();
             
-            // 檢查是否需要翻譯
-            if (!service.shouldTranslateText(originalText, isItemName)) {
-                return;
-            }
-            
-            // 檢查服務緩存
-            String cachedTranslation = service.getCachedTranslation(originalText);
-            if (cachedTranslation != null) {
-                // 更新快速緩存
-                fastCache.put(originalText, cachedTranslation);
-                return;
-            }
+            // 執行批量翻譯
+            service.translateTexts(texts, itemNameIndex)
+                .thenAccept(translated -> {
+                    for (int i = 0; i < texts.size(); i++) {
+                        String originalText = texts.get(i);
+                        String translatedText = translated.get(i);
+                        if (translatedText != null && !translatedText.equals(originalText)) {
+                            // 更新快速緩存
+                            fastCache.put(originalText, translatedText);
+                            // 存儲原文到緩存，以翻譯文本為鍵，原文為值
+                            originalTextCache.put(translatedText, originalText);
             
-            // 執行翻譯
-            service.translateText(originalText, isItemName)
-                .thenAccept(translatedText -> {
-                    if (translatedText != null && !translatedText.equals(originalText)) {
-                        // 更新快速緩存
-                        fastCache.put(originalText, translatedText);
-                        // 存儲原文到緩存，以翻譯文本為鍵，原文為值
-                        originalTextCache.put(translatedText, originalText);
-                        
-                        if (LOGGER.isDebugEnabled()) {
-                            LOGGER.debug("翻譯完成並緩存: '{}' -> '{}'", originalText, translatedText);
+                            if (LOGGER.isDebugEnabled()) {
+                                LOGGER.debug("翻譯完成並緩存: '{}' -> '{}'", originalText, translatedText);
+                            }
                         }
                     }
                 })
                 .exceptionally(throwable -> {
                     if (LOGGER.isDebugEnabled()) {
-                        LOGGER.debug("翻譯失敗: {}", originalText, throwable);
+                        LOGGER.debug("批量翻譯失敗: {} 行", texts.size(), throwable);
                     }
                     return null;
                 });
                 
         } catch (Exception e) {
             if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("翻譯過程中發生錯誤: {}", originalText, e);
+                LOGGER.debug("翻譯過程中發生錯誤: {} 行", texts.size(), e);
             }
         }
     }
     
     /**
-     * 簡單的翻譯邏輯（用於測試）
+     * 從遊戲語言檔取得官方翻譯
+     *
+     * @return 官方譯文；翻譯關閉、沒有對應的語言資源或譯文與原文相同時返回 null
+     */
+    private String getOfficialTranslation(Component component, String originalText) {
+        if (!SmartTranslatorConfig.ENABLED.get()) {
+            return null;
+        }
+        LanguageAssetResolver resolver = SmartTranslator.getInstance().getLanguageAssetResolver();
+        String official = resolver.resolve(component);
+        if (official == null) {
+            official = resolver.lookup(originalText);
+        }
+        return official != null && !official.equals(originalText) ? official : null;
+    }
+    
+    /**
+     * 翻譯管理器不可用時的翻譯邏輯：先查遊戲語言檔，再使用翻譯服務
      */
     private String getSimpleTranslation(String originalText) {
-        // 暫時使用簡單的映射來測試功能
-        String translation = null;
-        switch (originalText.toLowerCase()) {
-            case "oak log":
-                translation = "橡木原木";
-                break;
-            case "stone":
-                translation = "石頭";
-                break;
-            case "dirt":
-                translation = "泥土";
-                break;
-            case "grass block":
-                translation = "草方塊";
-                break;
-            case "cobblestone":
-                translation = "鵝卵石";
-                break;
-            case "wooden planks":
-                translation = "木板";
-                break;
-            case "oak planks":
-                translation = "橡木木板";
-                break;
-            default:
-                // 如果沒有預設翻譯，嘗試使用翻譯服務
-                try {
-                    return getItemTranslationService().translateText(originalText, false)
-                            .get(java.util.concurrent.TimeUnit.SECONDS.toMillis(1), 
-                                 java.util.concurrent.TimeUnit.MILLISECONDS);
-                } catch (Exception e) {
-                    LOGGER.warn("翻譯失敗: {}", originalText, e);
-                    return originalText;
-                }
+        String translation = SmartTranslator.getInstance().getLanguageAssetResolver().lookup(originalText);
+        if (translation == null) {
+            try {
+                return getItemTranslationService().translateText(originalText, false)
+                        .get(java.util.concurrent.TimeUnit.SECONDS.toMillis(1), 
+                             java.util.concurrent.TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                LOGGER.warn("翻譯失敗: {}", originalText, e);
+                return originalText;
+            }
         }
         
         // 如果有翻譯結果，存儲到原文緩存
-        if (translation != null && !translation.equals(originalText)) {
+        if (!translation.equals(originalText)) {
             originalTextCache.put(translation, originalText);
         }
         
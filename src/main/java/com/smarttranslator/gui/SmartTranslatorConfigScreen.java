@@ -1,5 +1,6 @@
 package com.smarttranslator.gui;
 
+import com.smarttranslator.SmartTranslator;
 import com.smarttranslator.config.SmartTranslatorConfig;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
@@ -167,6 +168,12 @@ public class SmartTranslatorConfigScreen extends Screen {
         
         // 儲存配置
         SmartTranslatorConfig.SPEC.save();
+        // 目標語言改變時重新建立官方翻譯索引
+        SmartTranslator.getInstance().getLanguageAssetResolver().current();
+        // 重新載入術語表，套用 glossary.tsv 的修改
+        if (SmartTranslator.getInstance().getTranslationManager() != null) {
+            SmartTranslator.getInstance().getTranslationManager().reloadGlossary();
+        }
         
         this.onClose();
     }
@@ -87,7 +87,7 @@ public class TranslationManagerScreen extends Screen {
         this.outputTextBox.setValue("翻譯中...");
         
         SmartTranslator.getInstance().getTranslationManager()
-                .translateAsync(inputText)
+                .translateAsync(inputText, partialText -> this.minecraft.execute(() -> this.outputTextBox.setValue(partialText)))
                 .thenAccept(translatedText -> {
                     this.minecraft.execute(() -> {
                         this.outputTextBox.setValue(translatedText);
@@ -0,0 +1,58 @@
+package com.smarttranslator.network;
+
+import com.smarttranslator.config.PerformanceConfig;
+import com.smarttranslator.config.SmartTranslatorConfig;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientPacketListener;
+import net.neoforged.neoforge.network.PacketDistributor;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 客戶端的翻譯中繼：將請求送往伺服器，收到回應時完成對應的 Future
+ */
+public final class ClientRelay implements TranslationRelay {
+    public static final ClientRelay INSTANCE = new ClientRelay();
+
+    private static final Map<Integer, CompletableFuture<String>> PENDING = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private ClientRelay() {
+    }
+
+    @Override
+    public boolean isAvailable() {
+        if (!SmartTranslatorConfig.USE_SERVER_RELAY.get()) {
+            return false;
+        }
+        Minecraft minecraft = Minecraft.getInstance();
+        ClientPacketListener connection = minecraft.getConnection();
+        // 單人遊戲的內建伺服器與客戶端共用同一個翻譯管理器，直接調用 API
+        return connection != null && !minecraft.isLocalServer() && connection.hasChannel(RelayRequestPayload.TYPE);
+    }
+
+    @Override
+    public CompletableFuture<String> request(String text, String targetLanguage) {
+        if (text.length() > PerformanceConfig.RELAY_MAX_TEXT_LENGTH) {
+            return CompletableFuture.completedFuture(null);
+        }
+        int id = NEXT_ID.incrementAndGet();
+        CompletableFuture<String> future = new CompletableFuture<>();
+        PENDING.put(id, future);
+        PacketDistributor.sendToServer(new RelayRequestPayload(id, text, targetLanguage));
+        return future
+            .completeOnTimeout(null, PerformanceConfig.RELAY_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+            .whenComplete((result, error) -> PENDING.remove(id));
+    }
+
+    static void handleResponse(RelayResponsePayload payload) {
+        CompletableFuture<String> future = PENDING.get(payload.id());
+        if (future != null) {
+            future.complete(payload.translatedText().isEmpty() ? null : payload.translatedText());
+        }
+    }
+}
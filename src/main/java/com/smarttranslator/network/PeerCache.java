@@ -0,0 +1,512 @@
+package com.smarttranslator.network;
+
+import com.smarttranslator.config.PerformanceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.BindException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 區域網路對等緩存
+ * 同一網路中的玩家（例如一起遊玩的公會成員）互相查詢與分享翻譯：本地緩存未命中時先向少數幾個對等端查詢，
+ * 在短暫的逾時內取得譯文就不調用 API；新翻譯的項目累積成批後傳播給對等端。
+ * 以 UDP 通訊：定期向廣播位址與設定的對等端發送問候，收到問候的實例回覆並記住對方。
+ * 查詢與傳播的對象數量都有上限；查詢逾時後直接放棄，回應緩慢的對等端不會拖慢提示框。
+ *
+ * <p>對等端傳來的譯文直接寫入本地緩存，只應在信任的網路中啟用；群組名稱不同的實例互相忽略。
+ */
+public final class PeerCache implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PeerCache.class);
+
+    static final int MAGIC = 0x53545050; // "STPP"
+    static final int VERSION = 1;
+    // 封包頭：int 魔數 + byte 版本 + byte 類型 + int 群組 + long 實例 ID
+    static final int HEADER_SIZE = 18;
+
+    static final byte HELLO = 1;
+    static final byte QUERY = 2;
+    static final byte HIT = 3;
+    static final byte MISS = 4;
+    static final byte GOSSIP = 5;
+
+    private static final int RECEIVE_BUFFER_SIZE = 65535;
+
+    /**
+     * 本地緩存的存取介面
+     */
+    public interface Store {
+        /**
+         * 查找本地已有的譯文（不觸發翻譯），沒有時返回 null
+         */
+        String lookup(String text, String targetLanguage);
+
+        /**
+         * 寫入對等端傳來的譯文
+         */
+        void store(String text, String translatedText, String targetLanguage);
+    }
+
+    private record Entry(String targetLanguage, String text, String translatedText) {
+    }
+
+    /**
+     * 進行中的查詢：第一個命中的回應完成查詢，所有對象都回應未命中時提早以 null 完成
+     */
+    private static final class PendingQuery {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        final AtomicInteger remaining;
+
+        PendingQuery(int targets) {
+            this.remaining = new AtomicInteger(targets);
+        }
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private final DatagramSocket socket;
+    private final Store store;
+    private final int group;
+    private final long instanceId = ThreadLocalRandom.current().nextLong();
+    private final List<InetSocketAddress> staticPeers;
+    // 廣播問候的目標（未啟用探索時為 null）
+    private final InetSocketAddress broadcastAddress;
+    // 已知的對等端與最後一次收到其封包的時間
+    private final Map<SocketAddress, Long> peers = new ConcurrentHashMap<>();
+    private final Map<Integer, PendingQuery> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger nextQueryId = new AtomicInteger();
+    private final Queue<Entry> outgoing = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger outgoingSize = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+    private final Thread receiver;
+    private volatile boolean closed = false;
+
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private PeerCache(DatagramSocket socket, Store store, String group,
+                      List<InetSocketAddress> staticPeers, InetSocketAddress broadcastAddress) {
+        this.socket = socket;
+        this.store = store;
+        this.group = group == null ? 0 : group.hashCode();
+        this.staticPeers = List.copyOf(staticPeers);
+        this.broadcastAddress = broadcastAddress;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "SmartTranslator-PeerGossip");
+            t.setDaemon(true);
+            return t;
+        });
+        this.receiver = new Thread(this::receiveLoop, "SmartTranslator-PeerReceiver");
+        this.receiver.setDaemon(true);
+    }
+
+    /**
+     * 綁定連接埠並開始通訊
+     * 連接埠已被佔用（同一台機器上的另一個實例）時改用臨時連接埠：仍可主動問候與查詢，但收不到廣播
+     *
+     * @param port 本地連接埠，0 表示臨時連接埠
+     * @param group 群組名稱，只與同名群組的實例通訊
+     * @param staticPeers 固定的對等端位址（無法廣播的網路使用）
+     * @param discovery 是否向區域網路廣播問候以自動探索對等端
+     */
+    public static PeerCache start(Store store, int port, String group,
+                                  List<InetSocketAddress> staticPeers, boolean discovery) throws IOException {
+        DatagramSocket socket;
+        try {
+            socket = new DatagramSocket(port);
+        } catch (BindException e) {
+            LOGGER.info("對等緩存連接埠 {} 已被佔用，改用臨時連接埠", port);
+            socket = new DatagramSocket(0);
+        }
+        InetSocketAddress broadcast = null;
+        if (discovery && port > 0) {
+            socket.setBroadcast(true);
+            broadcast = new InetSocketAddress("255.255.255.255", port);
+        }
+        PeerCache cache = new PeerCache(socket, store, group, staticPeers, broadcast);
+        cache.receiver.start();
+        cache.scheduler.scheduleWithFixedDelay(cache::sayHello,
+            0, PerformanceConfig.PEER_HELLO_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        cache.scheduler.scheduleWithFixedDelay(cache::flushGossip,
+            PerformanceConfig.PEER_GOSSIP_INTERVAL_MS, PerformanceConfig.PEER_GOSSIP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        LOGGER.info("對等緩存已啟動，連接埠: {}, 固定對等端: {}, 廣播探索: {}",
+            socket.getLocalPort(), staticPeers.size(), broadcast != null);
+        return cache;
+    }
+
+    /**
+     * 解析以逗號分隔的對等端清單（host 或 host:port），無法解析的項目略過
+     */
+    public static List<InetSocketAddress> parsePeers(String list, int defaultPort) {
+        if (list == null || list.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<InetSocketAddress> result = new ArrayList<>();
+        for (String item : list.split(",")) {
+            String peer = item.trim();
+            if (peer.isEmpty()) {
+                continue;
+            }
+            int colon = peer.lastIndexOf(':');
+            String host = colon > 0 ? peer.substring(0, colon) : peer;
+            int port = defaultPort;
+            try {
+                if (colon > 0) {
+                    port = Integer.parseInt(peer.substring(colon + 1));
+                }
+                InetSocketAddress address = new InetSocketAddress(host, port);
+                if (address.isUnresolved()) {
+                    LOGGER.warn("無法解析對等端位址: {}", peer);
+                } else {
+                    result.add(address);
+                }
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("無效的對等端位址: {}", peer);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 向最多 {@link PerformanceConfig#PEER_QUERY_FANOUT} 個對等端查詢譯文
+     *
+     * @return 第一個命中的譯文；沒有對等端、全部未命中或逾時時為 null（不會以例外完成）
+     */
+    public CompletableFuture<String> query(String text, String targetLanguage) {
+        if (closed) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<SocketAddress> targets = selectPeers(PerformanceConfig.PEER_QUERY_FANOUT);
+        if (targets.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        int id = nextQueryId.incrementAndGet();
+        byte[] packet = packet(QUERY, out -> {
+            out.writeInt(id);
+            out.writeUTF(targetLanguage);
+            out.writeUTF(text);
+        });
+        if (packet == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        PendingQuery query = new PendingQuery(targets.size());
+        pending.put(id, query);
+        queries.incrementAndGet();
+        for (SocketAddress target : targets) {
+            send(packet, target);
+        }
+        return query.future
+            .completeOnTimeout(null, PerformanceConfig.PEER_QUERY_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+            .whenComplete((result, error) -> pending.remove(id));
+    }
+
+    /**
+     * 將新翻譯的項目排入傳播佇列，累積到一批或定時傳送給對等端；佇列已滿時丟棄
+     */
+    public void publish(String text, String translatedText, String targetLanguage) {
+        if (closed) {
+            return;
+        }
+        if (outgoingSize.get() >= PerformanceConfig.PEER_GOSSIP_QUEUE_LIMIT) {
+            dropped.incrementAndGet();
+            return;
+        }
+        outgoing.add(new Entry(targetLanguage, text, translatedText));
+        if (outgoingSize.incrementAndGet() == PerformanceConfig.PEER_GOSSIP_BATCH_SIZE) {
+            scheduler.execute(this::flushGossip);
+        }
+    }
+
+    /**
+     * 將佇列中的項目打包成不超過 {@link PerformanceConfig#PEER_MAX_DATAGRAM_BYTES} 的封包，
+     * 傳送給最多 {@link PerformanceConfig#PEER_GOSSIP_FANOUT} 個對等端（只在排程線程上執行）
+     */
+    private void flushGossip() {
+        List<Entry> batch = new ArrayList<>();
+        Entry entry;
+        while ((entry = outgoing.poll()) != null) {
+            outgoingSize.decrementAndGet();
+            batch.add(entry);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<SocketAddress> targets = selectPeers(PerformanceConfig.PEER_GOSSIP_FANOUT);
+        if (targets.isEmpty()) {
+            return;
+        }
+        for (byte[] packet : gossipPackets(batch)) {
+            for (SocketAddress target : targets) {
+                send(packet, target);
+            }
+        }
+    }
+
+    private List<byte[]> gossipPackets(List<Entry> entries) {
+        int limit = PerformanceConfig.PEER_MAX_DATAGRAM_BYTES - HEADER_SIZE - Short.BYTES;
+        List<byte[]> packets = new ArrayList<>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(limit);
+        int count = 0;
+        for (Entry entry : entries) {
+            byte[] encoded = encodeEntry(entry);
+            if (encoded == null || encoded.length > limit) {
+                continue;
+            }
+            if (body.size() + encoded.length > limit) {
+                packets.add(gossipPacket(count, body));
+                body.reset();
+                count = 0;
+            }
+            body.writeBytes(encoded);
+            count++;
+        }
+        if (count > 0) {
+            packets.add(gossipPacket(count, body));
+        }
+        return packets;
+    }
+
+    private static byte[] encodeEntry(Entry entry) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(entry.targetLanguage());
+            out.writeUTF(entry.text());
+            out.writeUTF(entry.translatedText());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // 超過 writeUTF 長度上限的文字不傳播
+            return null;
+        }
+    }
+
+    private byte[] gossipPacket(int count, ByteArrayOutputStream body) {
+        return packet(GOSSIP, out -> {
+            out.writeShort(count);
+            body.writeTo(out);
+        });
+    }
+
+    private void sayHello() {
+        long now = System.currentTimeMillis();
+        peers.values().removeIf(lastSeen -> now - lastSeen > PerformanceConfig.PEER_EXPIRY_MS);
+        byte[] hello = hello(false);
+        for (InetSocketAddress peer : staticPeers) {
+            send(hello, peer);
+        }
+        if (broadcastAddress != null) {
+            send(hello, broadcastAddress);
+        }
+    }
+
+    private byte[] hello(boolean reply) {
+        return packet(HELLO, out -> out.writeBoolean(reply));
+    }
+
+    /**
+     * 隨機選出最多 limit 個最近有回應的對等端
+     */
+    private List<SocketAddress> selectPeers(int limit) {
+        long now = System.currentTimeMillis();
+        List<SocketAddress> live = new ArrayList<>();
+        peers.forEach((address, lastSeen) -> {
+            if (now - lastSeen <= PerformanceConfig.PEER_EXPIRY_MS) {
+                live.add(address);
+            }
+        });
+        if (live.size() > limit) {
+            Collections.shuffle(live, ThreadLocalRandom.current());
+            return live.subList(0, limit);
+        }
+        return live;
+    }
+
+    private void receiveLoop() {
+        byte[] buffer = new byte[RECEIVE_BUFFER_SIZE];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!closed) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+                handle(packet);
+            } catch (SocketException e) {
+                if (!closed) {
+                    LOGGER.warn("對等緩存接收失敗", e);
+                }
+                return;
+            } catch (IOException | RuntimeException e) {
+                LOGGER.debug("忽略無法解析的對等封包: {}", packet.getSocketAddress(), e);
+            }
+        }
+    }
+
+    private void handle(DatagramPacket packet) throws IOException {
+        DataInputStream in = new DataInputStream(
+            new ByteArrayInputStream(packet.getData(), packet.getOffset(), packet.getLength()));
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+            return;
+        }
+        byte type = in.readByte();
+        if (in.readInt() != group || in.readLong() == instanceId) {
+            return;
+        }
+        SocketAddress sender = packet.getSocketAddress();
+        if (peers.size() < PerformanceConfig.PEER_MAX_PEERS || peers.containsKey(sender)) {
+            peers.put(sender, System.currentTimeMillis());
+        }
+        switch (type) {
+            case HELLO -> {
+                if (!in.readBoolean()) {
+                    send(hello(true), sender);
+                }
+            }
+            case QUERY -> {
+                int id = in.readInt();
+                String targetLanguage = in.readUTF();
+                String text = in.readUTF();
+                String translated = store.lookup(text, targetLanguage);
+                byte[] reply = translated != null ? packet(HIT, out -> {
+                    out.writeInt(id);
+                    out.writeUTF(translated);
+                }) : null;
+                send(reply != null ? reply : packet(MISS, out -> out.writeInt(id)), sender);
+            }
+            case HIT -> {
+                PendingQuery query = pending.get(in.readInt());
+                if (query != null && query.future.complete(in.readUTF())) {
+                    hits.incrementAndGet();
+                }
+            }
+            case MISS -> {
+                PendingQuery query = pending.get(in.readInt());
+                if (query != null && query.remaining.decrementAndGet() <= 0) {
+                    query.future.complete(null);
+                }
+            }
+            case GOSSIP -> {
+                int count = in.readUnsignedShort();
+                for (int i = 0; i < count; i++) {
+                    String targetLanguage = in.readUTF();
+                    String text = in.readUTF();
+                    String translated = in.readUTF();
+                    store.store(text, translated, targetLanguage);
+                    received.incrementAndGet();
+                }
+            }
+            default -> {
+                // 較新版本的封包類型，忽略
+            }
+        }
+    }
+
+    private byte[] packet(byte type, BodyWriter body) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(type);
+            out.writeInt(group);
+            out.writeLong(instanceId);
+            body.write(out);
+            return bytes.size() <= PerformanceConfig.PEER_MAX_DATAGRAM_BYTES ? bytes.toByteArray() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void send(byte[] data, SocketAddress target) {
+        if (data == null || closed) {
+            return;
+        }
+        try {
+            socket.send(new DatagramPacket(data, data.length, target));
+        } catch (IOException e) {
+            LOGGER.debug("傳送對等封包失敗: {}", target, e);
+        }
+    }
+
+    /**
+     * 本地連接埠
+     */
+    public int getPort() {
+        return socket.getLocalPort();
+    }
+
+    /**
+     * 最近有回應的對等端數量
+     */
+    public int getPeerCount() {
+        return selectPeers(Integer.MAX_VALUE).size();
+    }
+
+    public long getQueries() {
+        return queries.get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * 從對等端收到並寫入本地緩存的項目數
+     */
+    public long getReceivedEntries() {
+        return received.get();
+    }
+
+    /**
+     * 傳播佇列已滿而丟棄的項目數
+     */
+    public long getDroppedEntries() {
+        return dropped.get();
+    }
+
+    /**
+     * 傳送佇列中剩餘的項目後停止通訊
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        try {
+            scheduler.submit(this::flushGossip).get(PerformanceConfig.PEER_QUERY_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            LOGGER.debug("關閉前傳送傳播佇列失敗", e);
+        }
+        closed = true;
+        scheduler.shutdownNow();
+        socket.close();
+        pending.values().forEach(query -> query.future.complete(null));
+        pending.clear();
+    }
+}
@@ -0,0 +1,37 @@
+package com.smarttranslator.network;
+
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
+import net.neoforged.neoforge.network.registration.HandlerThread;
+import net.neoforged.neoforge.network.registration.PayloadRegistrar;
+
+/**
+ * 伺服器翻譯中繼的網路註冊
+ * 頻道為可選：未安裝本模組的伺服器或客戶端照常連線，客戶端在這種伺服器上自行調用 API。
+ * 處理器在網路線程上執行，只完成 Future 或排入翻譯線程池，不佔用伺服器主線程。
+ */
+public final class RelayNetwork {
+    static final String PROTOCOL_VERSION = "1";
+
+    private RelayNetwork() {
+    }
+
+    /**
+     * 註冊中繼封包、伺服器端的聊天預先翻譯與玩家離線時的清理
+     */
+    public static void register(IEventBus modEventBus) {
+        modEventBus.addListener(RelayNetwork::onRegisterPayloadHandlers);
+        NeoForge.EVENT_BUS.addListener(ServerRelay::onServerChat);
+        NeoForge.EVENT_BUS.addListener(ServerRelay::onPlayerLoggedOut);
+    }
+
+    private static void onRegisterPayloadHandlers(RegisterPayloadHandlersEvent event) {
+        PayloadRegistrar registrar = event.registrar(PROTOCOL_VERSION)
+            .optional()
+            .executesOn(HandlerThread.NETWORK);
+        registrar.playToServer(RelayRequestPayload.TYPE, RelayRequestPayload.STREAM_CODEC, ServerRelay::handleRequest);
+        registrar.playToClient(RelayResponsePayload.TYPE, RelayResponsePayload.STREAM_CODEC,
+            (payload, context) -> ClientRelay.handleResponse(payload));
+    }
+}
@@ -0,0 +1,32 @@
+package com.smarttranslator.network;
+
+import com.smarttranslator.SmartTranslator;
+import com.smarttranslator.config.PerformanceConfig;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * 客戶端 → 伺服器：請伺服器翻譯一段文字
+ *
+ * @param id 客戶端的請求編號，伺服器在回應中原樣帶回
+ * @param text 已預處理的文字（數值與術語已替換為槽位）
+ * @param targetLanguage 目標語言
+ */
+public record RelayRequestPayload(int id, String text, String targetLanguage) implements CustomPacketPayload {
+    public static final CustomPacketPayload.Type<RelayRequestPayload> TYPE =
+        new CustomPacketPayload.Type<>(ResourceLocation.fromNamespaceAndPath(SmartTranslator.MODID, "relay_request"));
+
+    public static final StreamCodec<ByteBuf, RelayRequestPayload> STREAM_CODEC = StreamCodec.composite(
+        ByteBufCodecs.VAR_INT, RelayRequestPayload::id,
+        ByteBufCodecs.stringUtf8(PerformanceConfig.RELAY_MAX_TEXT_LENGTH), RelayRequestPayload::text,
+        ByteBufCodecs.stringUtf8(32), RelayRequestPayload::targetLanguage,
+        RelayRequestPayload::new);
+
+    @Override
+    public CustomPacketPayload.Type<RelayRequestPayload> type() {
+        return TYPE;
+    }
+}
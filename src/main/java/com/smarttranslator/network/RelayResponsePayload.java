@@ -0,0 +1,29 @@
+package com.smarttranslator.network;
+
+import com.smarttranslator.SmartTranslator;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * 伺服器 → 客戶端：中繼請求的譯文
+ *
+ * @param id 對應的請求編號
+ * @param translatedText 譯文；伺服器未能翻譯時為空字串
+ */
+public record RelayResponsePayload(int id, String translatedText) implements CustomPacketPayload {
+    public static final CustomPacketPayload.Type<RelayResponsePayload> TYPE =
+        new CustomPacketPayload.Type<>(ResourceLocation.fromNamespaceAndPath(SmartTranslator.MODID, "relay_response"));
+
+    public static final StreamCodec<ByteBuf, RelayResponsePayload> STREAM_CODEC = StreamCodec.composite(
+        ByteBufCodecs.VAR_INT, RelayResponsePayload::id,
+        ByteBufCodecs.STRING_UTF8, RelayResponsePayload::translatedText,
+        RelayResponsePayload::new);
+
+    @Override
+    public CustomPacketPayload.Type<RelayResponsePayload> type() {
+        return TYPE;
+    }
+}
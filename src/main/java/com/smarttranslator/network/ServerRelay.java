@@ -0,0 +1,163 @@
+package com.smarttranslator.network;
+
+import com.smarttranslator.SmartTranslator;
+import com.smarttranslator.cache.CacheKeyNormalizer;
+import com.smarttranslator.config.PerformanceConfig;
+import com.smarttranslator.config.SmartTranslatorConfig;
+import com.smarttranslator.translation.TranslationManager;
+import net.minecraft.network.chat.ChatType;
+import net.neoforged.neoforge.event.ServerChatEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 伺服器端的翻譯中繼
+ * 以伺服器自己的翻譯管理器與緩存回答玩家的翻譯請求；同一段文字與目標語言正在翻譯時共用同一個結果，
+ * 因此廣播訊息不論有多少玩家都只調用一次 API。玩家發送聊天訊息時，預先為目前有玩家使用的目標語言翻譯，
+ * 其他玩家收到訊息時譯文通常已在緩存中。
+ * 每位玩家有自己的 API 翻譯預算（令牌桶），緩存命中與共用正在進行的翻譯不消耗預算；玩家離線時移除其狀態，
+ * 沒有在線玩家使用的語言不再預先翻譯。
+ */
+final class ServerRelay {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServerRelay.class);
+
+    // 每位玩家尚未回應的請求數
+    private static final Map<UUID, Integer> PENDING = new ConcurrentHashMap<>();
+    // 每位玩家的 API 翻譯預算
+    private static final Map<UUID, Budget> BUDGETS = new ConcurrentHashMap<>();
+    // 每位在線玩家最近請求的目標語言
+    private static final Map<UUID, String> PLAYER_LANGUAGES = new ConcurrentHashMap<>();
+    // 在線玩家使用的目標語言，聊天訊息預先翻譯為這些語言（只在自身的鎖內修改）
+    private static final Set<String> LANGUAGES = ConcurrentHashMap.newKeySet();
+
+    private ServerRelay() {
+    }
+
+    private static TranslationManager manager() {
+        SmartTranslator mod = SmartTranslator.getInstance();
+        if (mod == null || !SmartTranslatorConfig.SERVER_RELAY_ENABLED.get()) {
+            return null;
+        }
+        return mod.getTranslationManager();
+    }
+
+    static void handleRequest(RelayRequestPayload payload, IPayloadContext context) {
+        TranslationManager manager = manager();
+        UUID player = context.player().getUUID();
+        // 只接受已知語言；語言數量已達上限時不為新語言翻譯（每個語言都會調用 API 並建立緩存分區）
+        String targetLanguage = CacheKeyNormalizer.language(payload.targetLanguage());
+        if (manager == null || !rememberLanguage(player, targetLanguage)) {
+            context.reply(new RelayResponsePayload(payload.id(), ""));
+            return;
+        }
+        // 單一玩家的未完成請求有上限；需要調用 API 的請求另受該玩家的預算限制，一個客戶端無法耗盡伺服器的 API 配額
+        if (PENDING.merge(player, 1, Integer::sum) > PerformanceConfig.RELAY_MAX_PENDING_PER_PLAYER) {
+            release(player);
+            context.reply(new RelayResponsePayload(payload.id(), ""));
+            return;
+        }
+        Budget budget = BUDGETS.computeIfAbsent(player, id -> new Budget());
+        manager.translateForRelay(payload.text(), targetLanguage, budget::tryAcquire).whenComplete((translated, error) -> {
+            release(player);
+            if (error != null) {
+                LOGGER.debug("中繼翻譯失敗: {}", payload.text(), error);
+            }
+            context.reply(new RelayResponsePayload(payload.id(), translated != null ? translated : ""));
+        });
+    }
+
+    /**
+     * 記住玩家使用的目標語言；檢查上限與加入在同一個鎖內，並發請求不會超過上限
+     * 玩家改用其他語言時，沒有其他在線玩家使用的舊語言隨即移除
+     *
+     * @param targetLanguage 已正規化的語言代碼
+     * @return 是否接受此語言（已記住，或是已知語言且尚未達到上限）
+     */
+    private static boolean rememberLanguage(UUID player, String targetLanguage) {
+        if (targetLanguage.equals(PLAYER_LANGUAGES.get(player))) {
+            return true;
+        }
+        if (!CacheKeyNormalizer.isKnownLanguage(targetLanguage)) {
+            return false;
+        }
+        synchronized (LANGUAGES) {
+            String previous = PLAYER_LANGUAGES.remove(player);
+            if (previous != null) {
+                releaseLanguage(previous);
+            }
+            if (!LANGUAGES.contains(targetLanguage) && LANGUAGES.size() >= PerformanceConfig.RELAY_MAX_LANGUAGES) {
+                return false;
+            }
+            PLAYER_LANGUAGES.put(player, targetLanguage);
+            LANGUAGES.add(targetLanguage);
+            return true;
+        }
+    }
+
+    /**
+     * 沒有在線玩家使用時移除語言（在 LANGUAGES 的鎖內調用）
+     */
+    private static void releaseLanguage(String language) {
+        if (!PLAYER_LANGUAGES.containsValue(language)) {
+            LANGUAGES.remove(language);
+        }
+    }
+
+    /**
+     * 玩家離線時移除其請求計數、預算與語言
+     */
+    static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        UUID player = event.getEntity().getUUID();
+        PENDING.remove(player);
+        BUDGETS.remove(player);
+        synchronized (LANGUAGES) {
+            String language = PLAYER_LANGUAGES.remove(player);
+            if (language != null) {
+                releaseLanguage(language);
+            }
+        }
+    }
+
+    private static void release(UUID player) {
+        PENDING.computeIfPresent(player, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * 玩家發送聊天訊息時，以其他玩家收到的完整格式（含玩家名稱）預先翻譯
+     */
+    static void onServerChat(ServerChatEvent event) {
+        TranslationManager manager = manager();
+        if (manager == null || LANGUAGES.isEmpty()) {
+            return;
+        }
+        String decorated = ChatType.bind(ChatType.CHAT, event.getPlayer()).decorate(event.getMessage()).getString();
+        manager.prewarmForRelay(decorated, Set.copyOf(LANGUAGES));
+    }
+
+    /**
+     * 單一玩家的 API 翻譯預算（令牌桶）
+     */
+    private static final class Budget {
+        private double tokens = PerformanceConfig.RELAY_PLAYER_BURST;
+        private long lastRefill = System.nanoTime();
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(PerformanceConfig.RELAY_PLAYER_BURST,
+                tokens + (now - lastRefill) / 1e9 * PerformanceConfig.RELAY_PLAYER_REFILL_PER_SECOND);
+            lastRefill = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
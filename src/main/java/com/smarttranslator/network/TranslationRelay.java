@@ -0,0 +1,24 @@
+package com.smarttranslator.network;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 伺服器翻譯中繼
+ * 連上提供中繼的伺服器時，客戶端不自行調用翻譯 API，而是把本地緩存未命中的文字交給伺服器翻譯。
+ * 伺服器對同一段文字與目標語言只調用一次 API，所有玩家共用結果，API 用量從每位玩家一次變為每段文字一次。
+ * 伺服器沒有返回譯文（停用中繼、無法翻譯或逾時）時，客戶端改用本地 API。
+ */
+public interface TranslationRelay {
+
+    /**
+     * 目前的連線是否可以使用中繼（伺服器已註冊中繼頻道且設定啟用）
+     */
+    boolean isAvailable();
+
+    /**
+     * 請伺服器翻譯已預處理的文字（數值模板）
+     *
+     * @return 伺服器的譯文；伺服器未能翻譯或逾時時為 null（不會以例外完成）
+     */
+    CompletableFuture<String> request(String text, String targetLanguage);
+}
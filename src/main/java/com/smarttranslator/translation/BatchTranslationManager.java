@@ -1,6 +1,5 @@
 package com.smarttranslator.translation;
 
-import com.smarttranslator.cache.TranslationCache;
 import com.smarttranslator.config.SmartTranslatorConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,19 +11,18 @@ import java.util.stream.Collectors;
 /**
  * 批量翻譯管理器
  * 負責處理多個文本的批量翻譯，提高翻譯效率
+ * 緩存查找與寫入統一由 TranslationManager 負責，L1 命中的文本不會進入翻譯線程
  */
 public class BatchTranslationManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(BatchTranslationManager.class);
     
     private final TranslationManager translationManager;
-    private final TranslationCache cache;
     private final ExecutorService executorService;
     private final int maxBatchSize;
     private final long batchTimeoutMs;
     
-    public BatchTranslationManager(TranslationManager translationManager, TranslationCache cache) {
+    public BatchTranslationManager(TranslationManager translationManager) {
         this.translationManager = translationManager;
-        this.cache = cache;
         this.maxBatchSize = SmartTranslatorConfig.MAX_BATCH_SIZE.get();
         this.batchTimeoutMs = SmartTranslatorConfig.BATCH_TIMEOUT_MS.get();
         this.executorService = Executors.newFixedThreadPool(
@@ -57,33 +55,14 @@ public class BatchTranslationManager {
         
         return CompletableFuture.supplyAsync(() -> {
             Map<String, String> results = new ConcurrentHashMap<>();
-            String targetLanguage = SmartTranslatorConfig.TARGET_LANGUAGE.get();
             
-            // 首先檢查緩存
-            List<String> uncachedTexts = new ArrayList<>();
-            for (String text : uniqueTexts) {
-                String cached = cache.getCachedTranslation(text, targetLanguage);
-                if (cached != null) {
-                    results.put(text, cached);
-                } else {
-                    uncachedTexts.add(text);
-                }
-            }
-            
-            LOGGER.debug("從緩存中找到 {} 個翻譯，需要翻譯 {} 個", 
-                results.size(), uncachedTexts.size());
-            
-            if (uncachedTexts.isEmpty()) {
-                return results;
-            }
-            
-            // 分批處理未緩存的文本
-            List<List<String>> batches = createBatches(uncachedTexts, maxBatchSize);
+            // 分批處理文本（緩存命中由 translateAsync 直接返回）
+            List<List<String>> batches = createBatches(uniqueTexts, maxBatchSize);
             List<CompletableFuture<Void>> batchFutures = new ArrayList<>();
             
             for (List<String> batch : batches) {
                 CompletableFuture<Void> batchFuture = CompletableFuture.runAsync(() -> {
-                    processBatch(batch, results, targetLanguage);
+                    processBatch(batch, results);
                 }, executorService);
                 batchFutures.add(batchFuture);
             }
@@ -95,7 +74,7 @@ public class BatchTranslationManager {
             } catch (InterruptedException | ExecutionException | TimeoutException e) {
                 LOGGER.error("批量翻譯過程中發生錯誤", e);
                 // 對於失敗的文本，嘗試單獨翻譯
-                handleFailedTranslations(uncachedTexts, results, targetLanguage);
+                handleFailedTranslations(uniqueTexts, results);
             }
             
             LOGGER.debug("批量翻譯完成，共翻譯 {} 個文本", results.size());
@@ -116,30 +95,18 @@ public class BatchTranslationManager {
     }
     
     /**
-     * 處理單個批次的翻譯
+     * 處理單個批次的翻譯（緩存未命中的文本合併為一次 API 請求）
      */
-    private void processBatch(List<String> batch, Map<String, String> results, String targetLanguage) {
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
-        
-        for (String text : batch) {
-            CompletableFuture<Void> future = translationManager.translateAsync(text)
-                .thenAccept(translatedText -> {
-                    if (translatedText != null && !translatedText.isEmpty()) {
-                        results.put(text, translatedText);
-                        // 添加到緩存
-                        cache.addToCache(text, translatedText, targetLanguage);
-                    }
-                })
-                .exceptionally(throwable -> {
-                    LOGGER.warn("翻譯文本失敗: {}", text, throwable);
-                    return null;
-                });
-            futures.add(future);
-        }
-        
+    private void processBatch(List<String> batch, Map<String, String> results) {
         try {
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            List<String> translated = translationManager.translateBatchAsync(batch)
                 .get(batchTimeoutMs, TimeUnit.MILLISECONDS);
+            for (int i = 0; i < batch.size(); i++) {
+                String translatedText = translated.get(i);
+                if (translatedText != null && !translatedText.isEmpty()) {
+                    results.put(batch.get(i), translatedText);
+                }
+            }
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
             LOGGER.warn("批次翻譯超時或失敗", e);
         }
@@ -148,14 +115,13 @@ public class BatchTranslationManager {
     /**
      * 處理失敗的翻譯
      */
-    private void handleFailedTranslations(List<String> texts, Map<String, String> results, String targetLanguage) {
+    private void handleFailedTranslations(List<String> texts, Map<String, String> results) {
         for (String text : texts) {
             if (!results.containsKey(text)) {
                 try {
                     String translated = translationManager.translate(text);
                     if (translated != null && !translated.isEmpty()) {
                         results.put(text, translated);
-                        cache.addToCache(text, translated, targetLanguage);
                     }
                 } catch (Exception e) {
                     LOGGER.warn("單獨翻譯文本失敗: {}", text, e);
@@ -0,0 +1,272 @@
+package com.smarttranslator.translation;
+
+import com.smarttranslator.cache.CacheKeyNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 術語表
+ * 地名、職業、套裝與怪物名稱等專有名詞以固定譯文替換，避免每次調用 API 時譯法不一致。
+ * 術語編譯為不分大小寫的前綴樹：每個節點的子節點連續存放並按字元排序，查找子節點為二分搜尋；
+ * 掃描文字只需一次，每個位置取最長的術語。術語必須是完整的詞（前後不能緊接字母或數字）。
+ *
+ * <p>使用者術語表為設定目錄中的 glossary.tsv：每行「術語 Tab 譯文 [Tab 目標語言]」，
+ * 未填語言的行適用於所有目標語言；譯文留空表示保留原文（例如不應翻譯的人名）。
+ */
+public final class Glossary {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Glossary.class);
+
+    public static final String FILE_NAME = "glossary.tsv";
+    public static final Glossary EMPTY = of("", Collections.emptyMap());
+
+    private final String targetLanguage;
+    // 節點以廣度優先順序排列，0 為根節點
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    // 節點結束的術語譯文編號，-1 表示不是術語結尾
+    private final int[] terms;
+    private final String[] translations;
+
+    /**
+     * 文字中找到的術語
+     *
+     * @param translation 固定譯文；為 null 時保留原文
+     */
+    public record Match(int start, int end, String translation) {
+    }
+
+    private Glossary(String targetLanguage, char[] labels, int[] firstChild, int[] childCount,
+                     int[] terms, String[] translations) {
+        this.targetLanguage = targetLanguage;
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.terms = terms;
+        this.translations = translations;
+    }
+
+    /**
+     * 編譯術語表
+     *
+     * @param entries 術語 → 譯文（譯文為 null 或空字串時保留原文）；不分大小寫重複的術語以後者為準
+     */
+    public static Glossary of(String targetLanguage, Map<String, String> entries) {
+        Builder root = new Builder();
+        List<String> translations = new ArrayList<>();
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            String term = entry.getKey().trim();
+            if (term.isEmpty()) {
+                continue;
+            }
+            Builder node = root;
+            for (int i = 0; i < term.length(); i++) {
+                node = node.children.computeIfAbsent(fold(term.charAt(i)), c -> new Builder());
+            }
+            String translation = entry.getValue();
+            if (node.term < 0) {
+                node.term = translations.size();
+                translations.add(null);
+            }
+            translations.set(node.term, translation == null || translation.isEmpty() ? null : translation);
+        }
+
+        // 廣度優先排列，使每個節點的子節點在陣列中相鄰
+        List<Builder> order = new ArrayList<>();
+        List<Character> nodeLabels = new ArrayList<>();
+        order.add(root);
+        nodeLabels.add('\0');
+        Deque<Builder> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            Builder node = queue.poll();
+            node.firstChild = order.size();
+            for (Map.Entry<Character, Builder> child : node.children.entrySet()) {
+                order.add(child.getValue());
+                nodeLabels.add(child.getKey());
+                queue.add(child.getValue());
+            }
+        }
+        int size = order.size();
+        char[] labels = new char[size];
+        int[] firstChild = new int[size];
+        int[] childCount = new int[size];
+        int[] terms = new int[size];
+        for (int i = 0; i < size; i++) {
+            Builder node = order.get(i);
+            labels[i] = nodeLabels.get(i);
+            firstChild[i] = node.firstChild;
+            childCount[i] = node.children.size();
+            terms[i] = node.term;
+        }
+        return new Glossary(CacheKeyNormalizer.language(targetLanguage), labels, firstChild, childCount,
+            terms, translations.toArray(new String[0]));
+    }
+
+    /**
+     * 從 TSV 檔案載入適用於目標語言的術語；檔案不存在時返回空術語表
+     */
+    public static Glossary load(Path file, String targetLanguage) {
+        String language = CacheKeyNormalizer.language(targetLanguage);
+        if (!Files.isRegularFile(file)) {
+            return of(language, Collections.emptyMap());
+        }
+        Map<String, String> general = new LinkedHashMap<>();
+        Map<String, String> specific = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split("\t", -1);
+                String term = columns[0].trim();
+                String translation = columns.length > 1 ? columns[1].trim() : "";
+                String lineLanguage = columns.length > 2 ? columns[2].trim() : "";
+                if (lineLanguage.isEmpty()) {
+                    general.put(term, translation);
+                } else if (CacheKeyNormalizer.language(lineLanguage).equals(language)) {
+                    specific.put(term, translation);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("讀取術語表失敗: {}", e.getMessage());
+            return of(language, Collections.emptyMap());
+        }
+        // 指定目標語言的譯文優先
+        general.putAll(specific);
+        Glossary glossary = of(language, general);
+        LOGGER.info("已載入術語表: {} 個術語（目標語言 {}）", glossary.size(), language);
+        return glossary;
+    }
+
+    /**
+     * 從左到右掃描文字，返回互不重疊的最長術語
+     */
+    public List<Match> scan(CharSequence text) {
+        if (translations.length == 0 || text == null) {
+            return Collections.emptyList();
+        }
+        List<Match> matches = null;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (!startsWord(text, i)) {
+                i++;
+                continue;
+            }
+            int node = 0;
+            int matchedEnd = -1;
+            int matchedTerm = -1;
+            for (int j = i; j < length; j++) {
+                node = child(node, fold(text.charAt(j)));
+                if (node < 0) {
+                    break;
+                }
+                if (terms[node] >= 0 && endsWord(text, j + 1)) {
+                    matchedEnd = j + 1;
+                    matchedTerm = terms[node];
+                }
+            }
+            if (matchedEnd < 0) {
+                i++;
+                continue;
+            }
+            if (matches == null) {
+                matches = new ArrayList<>(4);
+            }
+            matches.add(new Match(i, matchedEnd, translations[matchedTerm]));
+            i = matchedEnd;
+        }
+        return matches != null ? matches : Collections.emptyList();
+    }
+
+    /**
+     * 一次掃描將所有術語替換為固定譯文
+     */
+    public String replace(String text) {
+        List<Match> matches = scan(text);
+        if (matches.isEmpty()) {
+            return text;
+        }
+        StringBuilder result = new StringBuilder(text.length());
+        int last = 0;
+        for (Match match : matches) {
+            result.append(text, last, match.start());
+            result.append(match.translation() != null ? match.translation() : text.subSequence(match.start(), match.end()));
+            last = match.end();
+        }
+        return result.append(text, last, text.length()).toString();
+    }
+
+    private int child(int node, char c) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = labels[mid];
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * 詞的開頭：前一個字元不是字母或數字（格式化代碼之後也算開頭）
+     */
+    private static boolean startsWord(CharSequence text, int index) {
+        return index == 0 || !isWordChar(text.charAt(index - 1))
+            || index >= 2 && text.charAt(index - 2) == '§';
+    }
+
+    private static boolean endsWord(CharSequence text, int end) {
+        return end == text.length() || !isWordChar(text.charAt(end)) || !isWordChar(text.charAt(end - 1));
+    }
+
+    /**
+     * 會與相鄰字元組成同一個詞的字元（漢字之間沒有詞界，不需要邊界）
+     */
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) && !Character.isIdeographic(c);
+    }
+
+    public String getTargetLanguage() {
+        return targetLanguage;
+    }
+
+    /**
+     * 術語數量
+     */
+    public int size() {
+        return translations.length;
+    }
+
+    private static final class Builder {
+        final TreeMap<Character, Builder> children = new TreeMap<>();
+        int term = -1;
+        int firstChild;
+    }
+}
@@ -6,7 +6,9 @@ import net.minecraft.world.item.ItemStack;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
@@ -82,6 +84,35 @@ public class ItemTranslationService {
         return translationManager.translateAsync(originalText);
     }
     
+    /**
+     * 批量翻譯多段文字（例如同一個物品提示的各行），需要調用 API 的文字合併為一次請求
+     * 
+     * @param itemNameIndex 物品名稱所在的位置，沒有時為 -1
+     * @return 與輸入順序相同的結果（不需翻譯的文字保留原文）
+     */
+    public CompletableFuture<List<String>> translateTexts(List<String> texts, int itemNameIndex) {
+        boolean[] selected = new boolean[texts.size()];
+        List<String> translatable = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            selected[i] = shouldTranslateText(texts.get(i), i == itemNameIndex);
+            if (selected[i]) {
+                translatable.add(texts.get(i));
+            }
+        }
+        if (translatable.isEmpty()) {
+            return CompletableFuture.completedFuture(texts);
+        }
+        
+        return translationManager.translateBatchAsync(translatable).thenApply(translated -> {
+            List<String> results = new ArrayList<>(texts.size());
+            int next = 0;
+            for (int i = 0; i < texts.size(); i++) {
+                results.add(selected[i] ? translated.get(next++) : texts.get(i));
+            }
+            return results;
+        });
+    }
+    
     /**
      * 獲取緩存的翻譯
      */
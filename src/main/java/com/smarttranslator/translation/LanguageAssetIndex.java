@@ -0,0 +1,162 @@
+package com.smarttranslator.translation;
+
+import com.smarttranslator.cache.CacheKeyNormalizer;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 遊戲語言資源索引
+ * 由已載入的 en_us 語言表與目標語言的語言表建立：翻譯鍵到官方譯文，以及英文原文到官方譯文的反向索引。
+ * 原版與模組已附帶官方翻譯的文字直接從這裡取得，不查緩存也不調用 API。
+ * 反向索引以 {@link CacheKeyNormalizer} 正規化的原文為鍵，與緩存查找使用相同的等價規則。
+ */
+public final class LanguageAssetIndex {
+    public static final LanguageAssetIndex EMPTY = new LanguageAssetIndex("", Map.of(), Map.of());
+
+    // 含格式化參數的模板（%s、%1$s）渲染後才有內容，不能作為反向索引的鍵
+    private static final Pattern FORMAT_ARGUMENT = Pattern.compile("%(?:\\d+\\$)?[sd]");
+    // 同一英文原文對應多個鍵時，優先採用這些類別的譯文（方塊、物品名稱比介面文字更常出現在提示中）
+    private static final String[] PREFERRED_KEY_PREFIXES = {
+        "block.", "item.", "entity.", "effect.", "enchantment.", "biome.", "container."
+    };
+    // 只有語言代碼時使用的遊戲語言檔
+    private static final Map<String, String> DEFAULT_REGIONS = Map.of(
+        "zh", "zh_cn", "en", "en_us", "pt", "pt_br", "es", "es_es", "ja", "ja_jp",
+        "ko", "ko_kr", "fr", "fr_fr", "de", "de_de", "ru", "ru_ru", "it", "it_it");
+
+    private final String targetLanguage;
+    private final Map<String, String> byKey;
+    private final Map<String, String> byText;
+    private final AtomicLong hits = new AtomicLong();
+
+    private LanguageAssetIndex(String targetLanguage, Map<String, String> byKey, Map<String, String> byText) {
+        this.targetLanguage = targetLanguage;
+        this.byKey = byKey;
+        this.byText = byText;
+    }
+
+    /**
+     * 建立索引
+     *
+     * @param targetLanguage 目標語言（任意寫法，會先正規化）
+     * @param source         en_us 語言表（翻譯鍵 → 英文）
+     * @param target         目標語言的語言表（翻譯鍵 → 譯文）
+     */
+    public static LanguageAssetIndex build(String targetLanguage, Map<String, String> source, Map<String, String> target) {
+        String language = CacheKeyNormalizer.language(targetLanguage);
+        Map<String, String> byText = new HashMap<>();
+        Map<String, Integer> ranks = new HashMap<>();
+        for (Map.Entry<String, String> entry : source.entrySet()) {
+            String english = entry.getValue();
+            String translated = target.get(entry.getKey());
+            if (translated == null || translated.isEmpty() || translated.equals(english)
+                || FORMAT_ARGUMENT.matcher(english).find()) {
+                continue;
+            }
+            String text = CacheKeyNormalizer.text(english, language);
+            if (text == null || text.isEmpty()) {
+                continue;
+            }
+            int rank = rank(entry.getKey());
+            Integer existing = ranks.get(text);
+            if (existing == null || rank < existing) {
+                byText.put(text, translated);
+                ranks.put(text, rank);
+            }
+        }
+        return new LanguageAssetIndex(language, Map.copyOf(target), byText);
+    }
+
+    private static int rank(String key) {
+        for (int i = 0; i < PREFERRED_KEY_PREFIXES.length; i++) {
+            if (key.startsWith(PREFERRED_KEY_PREFIXES[i])) {
+                return i;
+            }
+        }
+        return PREFERRED_KEY_PREFIXES.length;
+    }
+
+    /**
+     * 查找英文原文的官方譯文
+     *
+     * @param text           原文（預處理前後皆可）
+     * @param targetLanguage 目標語言；與索引建立時的語言不同時不返回結果
+     * @return 官方譯文；沒有對應的語言資源時返回 null
+     */
+    public String get(String text, String targetLanguage) {
+        if (byText.isEmpty() || text == null || !this.targetLanguage.equals(CacheKeyNormalizer.language(targetLanguage))) {
+            return null;
+        }
+        String translated = byText.get(CacheKeyNormalizer.text(text, this.targetLanguage));
+        if (translated != null) {
+            hits.incrementAndGet();
+        }
+        return translated;
+    }
+
+    /**
+     * 以翻譯鍵查找目標語言的模板（可能含 %s 參數）
+     */
+    public String getByKey(String key) {
+        String translated = byKey.get(key);
+        if (translated != null) {
+            hits.incrementAndGet();
+        }
+        return translated;
+    }
+
+    /**
+     * 選擇目標語言對應的遊戲語言檔（zh-TW → zh_tw；只有語言代碼時選擇常用地區）
+     *
+     * @param available 已載入資源中存在的語言檔代碼
+     * @return 語言檔代碼；沒有可用的語言檔時返回 null
+     */
+    public static String minecraftCode(String targetLanguage, Collection<String> available) {
+        String tag = CacheKeyNormalizer.language(targetLanguage);
+        if (tag.isEmpty()) {
+            return null;
+        }
+        Locale locale = Locale.forLanguageTag(tag);
+        String language = locale.getLanguage();
+        String code = locale.getCountry().isEmpty() ? language : language + "_" + locale.getCountry().toLowerCase(Locale.ROOT);
+        if (available.contains(code)) {
+            return code;
+        }
+        // 以書寫系統區分的中文（zh-Hant、zh-Hans）
+        if ("zh".equals(language) && !locale.getScript().isEmpty()) {
+            code = "Hant".equals(locale.getScript()) ? "zh_tw" : "zh_cn";
+            if (available.contains(code)) {
+                return code;
+            }
+        }
+        String preferred = DEFAULT_REGIONS.get(language);
+        if (preferred != null && available.contains(preferred)) {
+            return preferred;
+        }
+        return available.stream()
+            .filter(candidate -> candidate.startsWith(language + "_"))
+            .sorted()
+            .findFirst()
+            .orElse(null);
+    }
+
+    public String getTargetLanguage() {
+        return targetLanguage;
+    }
+
+    /**
+     * 反向索引中的原文數
+     */
+    public int size() {
+        return byText.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+}
@@ -0,0 +1,247 @@
+package com.smarttranslator.translation;
+
+import com.smarttranslator.cache.CacheKeyNormalizer;
+import com.smarttranslator.config.SmartTranslatorConfig;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+import net.minecraft.locale.Language;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.ComponentContents;
+import net.minecraft.network.chat.contents.PlainTextContents;
+import net.minecraft.network.chat.contents.TranslatableContents;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimplePreparableReloadListener;
+import net.minecraft.util.profiling.ProfilerFiller;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * 遊戲語言資源解析器
+ * 資源重新載入時讀取原版與所有模組、資源包的 en_us 與目標語言的語言檔，建立 {@link LanguageAssetIndex}。
+ * 帶有翻譯鍵的組件（{@link TranslatableContents}）直接以鍵取得目標語言的譯文；
+ * 只剩渲染後字串時以反向索引查找。索引建立完成後交給翻譯管理器，在查緩存之前使用。
+ */
+public class LanguageAssetResolver extends SimplePreparableReloadListener<LanguageAssetIndex> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LanguageAssetResolver.class);
+    private static final String SOURCE_LANGUAGE = "en_us";
+
+    private volatile LanguageAssetIndex index = LanguageAssetIndex.EMPTY;
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    private final Consumer<LanguageAssetIndex> listener;
+
+    /**
+     * @param listener 索引更新時調用（在主線程或背景線程）
+     */
+    public LanguageAssetResolver(Consumer<LanguageAssetIndex> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    protected LanguageAssetIndex prepare(ResourceManager resourceManager, ProfilerFiller profiler) {
+        return load(resourceManager, SmartTranslatorConfig.TARGET_LANGUAGE.get());
+    }
+
+    @Override
+    protected void apply(LanguageAssetIndex loaded, ResourceManager resourceManager, ProfilerFiller profiler) {
+        publish(loaded);
+    }
+
+    private void publish(LanguageAssetIndex loaded) {
+        this.index = loaded;
+        listener.accept(loaded);
+    }
+
+    /**
+     * 讀取語言檔並建立索引
+     */
+    static LanguageAssetIndex load(ResourceManager resourceManager, String targetLanguage) {
+        long start = System.nanoTime();
+        String code = LanguageAssetIndex.minecraftCode(targetLanguage, availableLanguages(resourceManager));
+        if (code == null || SOURCE_LANGUAGE.equals(code)) {
+            LOGGER.info("目標語言 {} 沒有對應的遊戲語言檔，不使用官方翻譯", targetLanguage);
+            return LanguageAssetIndex.EMPTY;
+        }
+        LanguageAssetIndex loaded = LanguageAssetIndex.build(targetLanguage,
+            readLanguage(resourceManager, SOURCE_LANGUAGE), readLanguage(resourceManager, code));
+        LOGGER.info("已從遊戲語言檔 {} 建立官方翻譯索引: {} 項，耗時 {} ms",
+            code, loaded.size(), (System.nanoTime() - start) / 1_000_000);
+        return loaded;
+    }
+
+    private static Set<String> availableLanguages(ResourceManager resourceManager) {
+        Set<String> codes = new HashSet<>();
+        for (ResourceLocation location : resourceManager.listResources("lang", path -> path.getPath().endsWith(".json")).keySet()) {
+            String path = location.getPath();
+            codes.add(path.substring(path.lastIndexOf('/') + 1, path.length() - ".json".length()));
+        }
+        return codes;
+    }
+
+    /**
+     * 按資源包順序合併所有命名空間的語言檔，後載入者覆蓋先載入者（與遊戲相同）
+     */
+    private static Map<String, String> readLanguage(ResourceManager resourceManager, String code) {
+        Map<String, String> entries = new HashMap<>();
+        for (String namespace : resourceManager.getNamespaces()) {
+            ResourceLocation location = ResourceLocation.fromNamespaceAndPath(namespace, "lang/" + code + ".json");
+            for (Resource resource : resourceManager.getResourceStack(location)) {
+                try (InputStream in = resource.open()) {
+                    Language.loadFromJson(in, entries::put);
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.warn("讀取語言檔 {}（{}）失敗: {}", location, resource.sourcePackId(), e.getMessage());
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 最近一次建立的索引（不檢查目標語言）
+     */
+    public LanguageAssetIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * 目前的索引；目標語言已變更時在背景重新建立，完成前返回空索引
+     */
+    public LanguageAssetIndex current() {
+        String targetLanguage = SmartTranslatorConfig.TARGET_LANGUAGE.get();
+        LanguageAssetIndex current = index;
+        if (current.getTargetLanguage().equals(CacheKeyNormalizer.language(targetLanguage))) {
+            return current;
+        }
+        reload(targetLanguage);
+        return LanguageAssetIndex.EMPTY;
+    }
+
+    /**
+     * 在背景以目前載入的資源重新建立索引
+     */
+    public void reload(String targetLanguage) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        ResourceManager resourceManager = Minecraft.getInstance().getResourceManager();
+        CompletableFuture.supplyAsync(() -> load(resourceManager, targetLanguage), Util.backgroundExecutor())
+            .whenComplete((loaded, error) -> {
+                rebuilding.set(false);
+                if (error != null) {
+                    LOGGER.warn("重新建立官方翻譯索引失敗", error);
+                } else {
+                    publish(loaded);
+                }
+            });
+    }
+
+    /**
+     * 以翻譯鍵解析組件的目標語言文字
+     * 組件及其子組件必須都是已知的翻譯鍵或不含字母的字面文字；參數中的組件盡量解析，否則使用原文
+     *
+     * @return 目標語言文字；有無法解析的部分時返回 null
+     */
+    public String resolve(Component component) {
+        if (!SmartTranslatorConfig.USE_LANGUAGE_ASSETS.get()) {
+            return null;
+        }
+        LanguageAssetIndex current = current();
+        if (current.size() == 0) {
+            return null;
+        }
+        StringBuilder result = new StringBuilder();
+        return append(current, component, result) ? result.toString() : null;
+    }
+
+    /**
+     * 以渲染後的英文字串查找官方譯文
+     */
+    public String lookup(String text) {
+        if (!SmartTranslatorConfig.USE_LANGUAGE_ASSETS.get()) {
+            return null;
+        }
+        return current().get(text, SmartTranslatorConfig.TARGET_LANGUAGE.get());
+    }
+
+    private static boolean append(LanguageAssetIndex index, Component component, StringBuilder result) {
+        ComponentContents contents = component.getContents();
+        if (contents instanceof TranslatableContents translatable) {
+            String template = index.getByKey(translatable.getKey());
+            if (template == null) {
+                return false;
+            }
+            format(index, template, translatable.getArgs(), result);
+        } else if (contents instanceof PlainTextContents plain) {
+            String text = plain.text();
+            if (text.codePoints().anyMatch(Character::isLetter)) {
+                return false;
+            }
+            result.append(text);
+        } else {
+            return false;
+        }
+        for (Component sibling : component.getSiblings()) {
+            if (!append(index, sibling, result)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 代入 %s、%1$s 參數（遊戲語言檔只使用這兩種形式與 %%）
+     */
+    static void format(LanguageAssetIndex index, String template, Object[] args, StringBuilder result) {
+        int next = 0;
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c != '%' || i + 1 >= template.length()) {
+                result.append(c);
+                continue;
+            }
+            int end = i + 1;
+            while (end < template.length() && Character.isDigit(template.charAt(end))) {
+                end++;
+            }
+            char type = end < template.length() ? template.charAt(end) : 0;
+            int argument;
+            if (end == i + 1 && type == '%') {
+                result.append('%');
+                i = end;
+                continue;
+            } else if (end == i + 1 && type == 's') {
+                argument = next++;
+            } else if (end > i + 1 && type == '$' && end + 1 < template.length() && template.charAt(end + 1) == 's') {
+                argument = Integer.parseInt(template.substring(i + 1, end)) - 1;
+                end++;
+            } else {
+                result.append(c);
+                continue;
+            }
+            if (argument >= 0 && argument < args.length) {
+                appendArgument(index, args[argument], result);
+            }
+            i = end;
+        }
+    }
+
+    private static void appendArgument(LanguageAssetIndex index, Object argument, StringBuilder result) {
+        if (argument instanceof Component component) {
+            StringBuilder resolved = new StringBuilder();
+            result.append(append(index, component, resolved) ? resolved : component.getString());
+        } else {
+            result.append(argument);
+        }
+    }
+}
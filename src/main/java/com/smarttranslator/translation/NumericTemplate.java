@@ -0,0 +1,195 @@
+package com.smarttranslator.translation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 數值模板
+ * 將文字中的數值（含正負號、小數與千分位）替換為編號槽位，例如 "+12% Walk Speed" → "{0}% Walk Speed"、
+ * "Durability: 431/500" → "Durability: {0}/{1}"。只差在數值的提示行共用同一個模板，
+ * 模板只需翻譯與緩存一次，每次命中時再代入當前的數值。
+ * 正負號只在前面不是字母或數字時才視為數值的一部分，因此 "1-5" 是兩個槽位中間夾著連字號。
+ * 術語表中的術語同樣替換為槽位，API 不會改動它們，回填時代入術語的固定譯文。
+ */
+final class NumericTemplate {
+    // 前面緊接字母或數字的數字視為識別字的一部分（Tier3、Mk2），不作為槽位
+    private static final Pattern NUMBER_PATTERN =
+        Pattern.compile("(?<![\\p{L}\\p{N}])[+-]?(?:\\d{1,3}(?:,\\d{3})+|\\d+)(?:\\.\\d+)?");
+    // 翻譯服務偶爾在大括號內加入空白，比對時一併接受
+    private static final Pattern SLOT_PATTERN = Pattern.compile("\\{\\s*(\\d+)\\s*\\}");
+
+    private final String text;
+    private final String pattern;
+    private final List<String> values;
+    // 槽位以外只剩標點、空白與格式化代碼（所有文字都由術語表覆蓋）
+    private final boolean coveredByGlossary;
+
+    private NumericTemplate(String text, String pattern, List<String> values, boolean coveredByGlossary) {
+        this.text = text;
+        this.pattern = pattern;
+        this.values = values;
+        this.coveredByGlossary = coveredByGlossary;
+    }
+
+    /**
+     * 從預處理後的文字建立模板；沒有數值或原文本身已含有槽位形式的文字時返回不含槽位的模板
+     */
+    static NumericTemplate of(String text) {
+        return of(text, Glossary.EMPTY);
+    }
+
+    /**
+     * 從預處理後的文字建立模板，數值與術語表中的術語都替換為槽位（術語內的數字不另外建立槽位）
+     */
+    static NumericTemplate of(String text, Glossary glossary) {
+        if (text == null || text.isEmpty() || SLOT_PATTERN.matcher(text).find()) {
+            return literal(text);
+        }
+        List<Glossary.Match> terms = glossary.scan(text);
+        Matcher matcher = NUMBER_PATTERN.matcher(text);
+        List<String> values = null;
+        StringBuilder pattern = null;
+        boolean letters = false;
+        int last = 0;
+        int term = 0;
+        boolean number = matcher.find();
+        while (number || term < terms.size()) {
+            Glossary.Match next = term < terms.size() ? terms.get(term) : null;
+            int start;
+            int end;
+            String value;
+            if (next != null && (!number || next.start() <= matcher.start())) {
+                start = next.start();
+                end = next.end();
+                value = next.translation() != null ? next.translation() : text.substring(start, end);
+                term++;
+            } else {
+                start = matcher.start();
+                end = matcher.end();
+                value = matcher.group();
+            }
+            if (values == null) {
+                values = new ArrayList<>(4);
+                pattern = new StringBuilder(text.length());
+            }
+            letters |= containsLetter(text, last, start);
+            pattern.append(text, last, start).append('{').append(values.size()).append('}');
+            values.add(value);
+            last = end;
+            // 跳過與術語重疊的數值
+            while (number && matcher.start() < last) {
+                number = matcher.find();
+            }
+        }
+        if (values == null) {
+            return literal(text);
+        }
+        letters |= containsLetter(text, last, text.length());
+        pattern.append(text, last, text.length());
+        return new NumericTemplate(text, pattern.toString(), List.copyOf(values), !terms.isEmpty() && !letters);
+    }
+
+    private static boolean containsLetter(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            // 格式化代碼的字母不算文字
+            if (c == '§') {
+                i++;
+            } else if (Character.isLetter(c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 不含槽位的模板，以原文作為緩存鍵
+     */
+    static NumericTemplate literal(String text) {
+        return new NumericTemplate(text, text, Collections.emptyList(), false);
+    }
+
+    /**
+     * 原文
+     */
+    String getText() {
+        return text;
+    }
+
+    /**
+     * 送往緩存與 API 的文字（沒有槽位時與原文相同）
+     */
+    String getPattern() {
+        return pattern;
+    }
+
+    boolean hasSlots() {
+        return !values.isEmpty();
+    }
+
+    List<String> getValues() {
+        return values;
+    }
+
+    /**
+     * 文字是否完全由術語（與數值、標點）組成；此時不需要調用 API，直接以 {@link #resolveLocally()} 取得譯文
+     */
+    boolean isCoveredByGlossary() {
+        return coveredByGlossary;
+    }
+
+    /**
+     * 直接將所有槽位代回模板（術語使用固定譯文）
+     */
+    String resolveLocally() {
+        return fill(pattern);
+    }
+
+    /**
+     * 譯文是否完整保留所有槽位：每個編號恰好出現一次，且沒有多出的編號
+     */
+    boolean isPreserved(String translated) {
+        if (translated == null) {
+            return false;
+        }
+        boolean[] seen = new boolean[values.size()];
+        int count = 0;
+        Matcher matcher = SLOT_PATTERN.matcher(translated);
+        while (matcher.find()) {
+            int index = parseIndex(matcher.group(1));
+            if (index < 0 || index >= seen.length || seen[index]) {
+                return false;
+            }
+            seen[index] = true;
+            count++;
+        }
+        return count == seen.length;
+    }
+
+    /**
+     * 將當前的數值代入翻譯後的模板；槽位未完整保留時返回 null
+     */
+    String fill(String translated) {
+        if (!hasSlots()) {
+            return translated;
+        }
+        if (!isPreserved(translated)) {
+            return null;
+        }
+        Matcher matcher = SLOT_PATTERN.matcher(translated);
+        StringBuilder result = new StringBuilder(translated.length() + 8);
+        while (matcher.find()) {
+            matcher.appendReplacement(result, Matcher.quoteReplacement(values.get(parseIndex(matcher.group(1)))));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private static int parseIndex(String digits) {
+        // 槽位數量遠小於此上限，過長的數字直接視為無效
+        return digits.length() > 3 ? -1 : Integer.parseInt(digits);
+    }
+}
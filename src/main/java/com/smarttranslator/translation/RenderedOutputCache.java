@@ -0,0 +1,160 @@
+package com.smarttranslator.translation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smarttranslator.config.PerformanceConfig;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 渲染結果緩存
+ * 以未經處理的原始輸入為鍵，直接保存格式化後的最終輸出；重複顯示同一文字時只需一次雜湊查找，
+ * 不必再執行預處理、後處理與格式化。
+ * 輸出取決於顯示相關的設定、翻譯緩存的內容與使用中的官方翻譯，三者以指紋表示；指紋改變時清空全部項目。
+ */
+final class RenderedOutputCache {
+    private final Cache<String, String> outputs;
+    private final Supplier<Fingerprint> settings;
+    private volatile Fingerprint fingerprint;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    RenderedOutputCache(Supplier<Fingerprint> settings) {
+        this(settings, PerformanceConfig.RENDERED_OUTPUT_CACHE_SIZE);
+    }
+
+    RenderedOutputCache(Supplier<Fingerprint> settings, int maximumSize) {
+        this.outputs = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .build();
+        this.settings = settings;
+        this.fingerprint = settings.get();
+    }
+
+    /**
+     * 取得目前的指紋；設定或緩存內容已改變時先清空舊的輸出
+     * 調用者應在開始處理前取得指紋，並在 {@link #put} 時傳回，避免處理期間設定改變而寫入過時的輸出
+     */
+    Fingerprint current() {
+        Fingerprint latest = settings.get();
+        if (!latest.equals(fingerprint)) {
+            synchronized (this) {
+                if (!latest.equals(fingerprint)) {
+                    outputs.invalidateAll();
+                    fingerprint = latest;
+                    invalidations.increment();
+                }
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * 查找渲染結果
+     */
+    String get(Fingerprint expected, String rawText) {
+        String output = expected == fingerprint ? outputs.getIfPresent(rawText) : null;
+        if (output != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return output;
+    }
+
+    /**
+     * 保存渲染結果；指紋已改變時丟棄
+     */
+    synchronized void put(Fingerprint expected, String rawText, String output) {
+        if (expected == fingerprint) {
+            outputs.put(rawText, output);
+        }
+    }
+
+    void clear() {
+        outputs.invalidateAll();
+    }
+
+    long size() {
+        return outputs.estimatedSize();
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    /**
+     * 影響最終輸出的設定與翻譯緩存內容版本
+     */
+    static final class Fingerprint {
+        private final boolean enabled;
+        private final boolean showOriginal;
+        private final boolean showStatus;
+        private final String prefix;
+        private final MinecraftTextProcessor.SymbolProcessingMode symbolMode;
+        private final String targetLanguage;
+        private final long contentVersion;
+        // 使用中的官方翻譯索引（以實例比較），未使用時為 null
+        private final LanguageAssetIndex languageAssets;
+        // 使用中的術語表（以實例比較）
+        private final Glossary glossary;
+
+        Fingerprint(boolean enabled, boolean showOriginal, boolean showStatus, String prefix,
+                    MinecraftTextProcessor.SymbolProcessingMode symbolMode, String targetLanguage,
+                    long contentVersion) {
+            this(enabled, showOriginal, showStatus, prefix, symbolMode, targetLanguage, contentVersion, null, null);
+        }
+
+        Fingerprint(boolean enabled, boolean showOriginal, boolean showStatus, String prefix,
+                    MinecraftTextProcessor.SymbolProcessingMode symbolMode, String targetLanguage,
+                    long contentVersion, LanguageAssetIndex languageAssets, Glossary glossary) {
+            this.enabled = enabled;
+            this.showOriginal = showOriginal;
+            this.showStatus = showStatus;
+            this.prefix = prefix;
+            this.symbolMode = symbolMode;
+            this.targetLanguage = targetLanguage;
+            this.contentVersion = contentVersion;
+            this.languageAssets = languageAssets;
+            this.glossary = glossary;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint other = (Fingerprint) o;
+            return enabled == other.enabled
+                && showOriginal == other.showOriginal
+                && showStatus == other.showStatus
+                && contentVersion == other.contentVersion
+                && languageAssets == other.languageAssets
+                && glossary == other.glossary
+                && symbolMode == other.symbolMode
+                && Objects.equals(prefix, other.prefix)
+                && Objects.equals(targetLanguage, other.targetLanguage);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(enabled, showOriginal, showStatus, prefix, symbolMode, targetLanguage, contentVersion,
+                System.identityHashCode(languageAssets), System.identityHashCode(glossary));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.smarttranslator.translation;
+
+import com.smarttranslator.config.PerformanceConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 文字分段器
+ * 將書本、NPC 對話、任務說明等長文字切分為句子，每句獨立查找緩存與翻譯，段落中一句改動不影響其他句子的緩存。
+ * 切分點為換行，以及句末標點（西文標點之後需有空白，中日文標點不需要）之後；格式化代碼、槽位與
+ * 小數點不會被切開，縮寫（Mr.、e.g.）與後面接小寫字母的句點不視為句末。
+ * 分段之間的空白原樣保留，翻譯後按原順序重新組合。
+ */
+final class TextSegmenter {
+    // 句點之後不視為句末的常見縮寫（比對時忽略大小寫）
+    private static final Set<String> ABBREVIATIONS = Set.of(
+        "mr", "mrs", "ms", "dr", "st", "vs", "etc", "lv", "lvl", "approx", "e.g", "i.e");
+
+    /**
+     * 分段：文字與其後的分隔空白
+     */
+    record Segment(String text, String trailing) {
+    }
+
+    private TextSegmenter() {
+        // 工具類，不允許實例化
+    }
+
+    /**
+     * 切分值得逐句翻譯的長文字
+     *
+     * @return 各段；文字過短或只有一句時返回 null
+     */
+    static List<Segment> splitLong(String text) {
+        if (text == null || text.length() < PerformanceConfig.SENTENCE_SEGMENT_MIN_LENGTH) {
+            return null;
+        }
+        List<Segment> segments = split(text);
+        return segments.size() > 1 ? segments : null;
+    }
+
+    /**
+     * 切分文字；前導空白併入第一段，各段與分隔空白依序相接即為原文
+     */
+    static List<Segment> split(String text) {
+        List<Segment> segments = new ArrayList<>();
+        int length = text.length();
+        int start = 0;
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            int end;
+            if (c == '\n' || c == '\r') {
+                end = i;
+            } else if (isTerminator(c) && !isAbbreviation(text, start, i)) {
+                end = skipClosing(text, i + 1);
+                boolean cjk = isCjkTerminator(c);
+                if (end < length && !cjk && !Character.isWhitespace(text.charAt(end))) {
+                    // 小數點、網址、槽位內的句點
+                    i++;
+                    continue;
+                }
+                if (end < length && !cjk && startsLowercase(text, end)) {
+                    i = end;
+                    continue;
+                }
+            } else {
+                i++;
+                continue;
+            }
+
+            int next = end;
+            while (next < length && Character.isWhitespace(text.charAt(next))) {
+                next++;
+            }
+            if (end > start && next < length) {
+                segments.add(new Segment(text.substring(start, end), text.substring(end, next)));
+                start = next;
+            }
+            i = Math.max(next, i + 1);
+        }
+        if (start < length) {
+            segments.add(new Segment(text.substring(start), ""));
+        }
+        return segments;
+    }
+
+    /**
+     * 按順序組合各段的譯文與原本的分隔空白
+     */
+    static String join(List<Segment> segments, String[] translated) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < segments.size(); i++) {
+            result.append(translated[i] != null ? translated[i] : segments.get(i).text());
+            result.append(segments.get(i).trailing());
+        }
+        return result.toString();
+    }
+
+    private static boolean isTerminator(char c) {
+        return c == '.' || c == '!' || c == '?' || c == ';' || c == '…' || isCjkTerminator(c);
+    }
+
+    private static boolean isCjkTerminator(char c) {
+        return c == '。' || c == '！' || c == '？' || c == '；';
+    }
+
+    /**
+     * 跳過句末標點之後的連續標點、右引號與括號，以及格式化代碼
+     */
+    private static int skipClosing(String text, int index) {
+        int i = index;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '§' && i + 1 < text.length()) {
+                i += 2;
+            } else if (isTerminator(c) || c == '"' || c == '\'' || c == ')' || c == ']'
+                || c == '”' || c == '’' || c == '」' || c == '』' || c == '）') {
+                i++;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * 句點前是否為縮寫或單一字母（名字縮寫）
+     */
+    private static boolean isAbbreviation(String text, int start, int dot) {
+        if (text.charAt(dot) != '.') {
+            return false;
+        }
+        int wordStart = dot;
+        while (wordStart > start && (Character.isLetter(text.charAt(wordStart - 1)) || text.charAt(wordStart - 1) == '.')) {
+            wordStart--;
+        }
+        String word = text.substring(wordStart, dot);
+        return word.length() == 1 && Character.isUpperCase(word.charAt(0))
+            || ABBREVIATIONS.contains(word.toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean startsLowercase(String text, int index) {
+        int i = index;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i < text.length() && Character.isLowerCase(text.charAt(i));
+    }
+}
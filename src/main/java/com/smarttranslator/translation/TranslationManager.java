@@ -1,20 +1,40 @@
 package com.smarttranslator.translation;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.smarttranslator.translation.api.TranslationAPI;
 import com.smarttranslator.translation.api.GoogleTranslateAPI;
 import com.smarttranslator.translation.api.GoogleAIStudioAPI;
+import com.smarttranslator.translation.api.TranslationBlockedException;
+import com.smarttranslator.cache.CacheKeyNormalizer;
+import com.smarttranslator.cache.NegativeCache;
 import com.smarttranslator.cache.TranslationCache;
+import com.smarttranslator.cache.TranslationMemory;
 import com.smarttranslator.config.SmartTranslatorConfig;
 import com.smarttranslator.config.PerformanceConfig;
+import com.smarttranslator.network.PeerCache;
+import com.smarttranslator.network.TranslationRelay;
 import com.smarttranslator.ratelimit.RateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 /**
@@ -28,13 +48,40 @@ public class TranslationManager {
     private final ExecutorService executorService;
     private final RateLimiter rateLimiter;
     private final ScheduledExecutorService cleanupScheduler;
+    private final RenderedOutputCache renderedOutputs;
+    // 譯文未保留槽位的模板（目標語言 + 模板），之後改為逐行翻譯
+    private final Cache<String, Boolean> rejectedTemplates;
+    // 遊戲語言檔中的官方翻譯，資源重新載入時替換
+    private volatile LanguageAssetIndex languageAssets = LanguageAssetIndex.EMPTY;
+    // 使用者術語表，目標語言變更時重新載入
+    private volatile Glossary glossary = Glossary.EMPTY;
+    // 區域網路對等緩存，未啟用時為 null
+    private final PeerCache peers;
+    // 伺服器翻譯中繼（客戶端），連上提供中繼的伺服器時取代API
+    private volatile TranslationRelay relay;
+    // 伺服器端正在翻譯的中繼請求（目標語言 + 文字），同一段文字只調用一次API
+    private final Map<String, CompletableFuture<String>> relayInFlight = new ConcurrentHashMap<>();
+    // 批量 API 請求次數與其中包含的文字段數
+    private final AtomicLong batchRequests = new AtomicLong();
+    private final AtomicLong batchedTexts = new AtomicLong();
     private TranslationAPI currentAPI;
+    private final TranslationSettings settings;
     
     // 跳過翻譯的模式（數字、符號等）
     private static final Pattern SKIP_PATTERN = Pattern.compile("^[\\d\\s\\p{Punct}]+$");
+    // 翻譯結果與原文相同時，視為專有名詞的模式（玩家名稱、命名空間 ID）
+    private static final Pattern PROPER_NOUN_PATTERN = Pattern.compile("^(?:[A-Za-z0-9_]{3,16}|[a-z0-9_.-]+:[a-z0-9_./-]+)$");
     
     public TranslationManager(TranslationCache cache) {
+        this(cache, TranslationSettings.CONFIG);
+    }
+    
+    /**
+     * @param settings 翻譯讀取的使用者設定（測試時提供固定的值）
+     */
+    TranslationManager(TranslationCache cache, TranslationSettings settings) {
         this.cache = cache;
+        this.settings = settings;
         this.executorService = Executors.newFixedThreadPool(
             PerformanceConfig.DynamicConfig.getOptimalThreadPoolSize()
         );
@@ -43,15 +90,24 @@ public class TranslationManager {
         this.cleanupScheduler = Executors.newScheduledThreadPool(
             PerformanceConfig.CLEANUP_THREAD_POOL_SIZE
         );
+        this.renderedOutputs = new RenderedOutputCache(this::currentRenderSettings);
+        this.rejectedTemplates = Caffeine.newBuilder()
+            .maximumSize(PerformanceConfig.REJECTED_TEMPLATE_CACHE_SIZE)
+            .build();
         
         // 初始化翻譯API
-        String apiType = SmartTranslatorConfig.TRANSLATION_API.get();
+        String apiType = settings.translationApi();
         if ("google_ai_studio".equalsIgnoreCase(apiType) || "gemini".equalsIgnoreCase(apiType)) {
             this.currentAPI = new GoogleAIStudioAPI();
         } else {
             this.currentAPI = new GoogleTranslateAPI();
         }
         
+        // 預取同組文字時使用低優先級的翻譯
+        cache.setPrefetchTranslator(this::prefetchTranslation);
+        reloadGlossary();
+        this.peers = startPeerCache();
+        
         LOGGER.info("翻譯管理器初始化完成，使用API: {}, 線程池大小: {}, 速率限制: 10 req/s", 
             currentAPI.getClass().getSimpleName(),
             PerformanceConfig.DynamicConfig.getOptimalThreadPoolSize());
@@ -61,45 +117,244 @@ public class TranslationManager {
      * 異步翻譯文本（使用速率限制）
      */
     public CompletableFuture<String> translateAsync(String text) {
-        if (!shouldTranslate(text)) {
+        return translateAsync(text, null);
+    }
+    
+    /**
+     * 異步翻譯文本（使用速率限制）
+     * 長文字逐句翻譯：緩存中已有的句子查找完成、仍有句子待翻譯時，先以 partialResult 提供部分譯文（未翻譯的句子保留原文）
+     */
+    public CompletableFuture<String> translateAsync(String text, Consumer<String> partialResult) {
+        // 同一文字已渲染過時直接返回最終輸出，不再預處理、查緩存與格式化
+        RenderedOutputCache.Fingerprint fingerprint = renderedOutputs.current();
+        String rendered = renderedOutputs.get(fingerprint, text);
+        if (rendered != null) {
+            return CompletableFuture.completedFuture(rendered);
+        }
+        
+        String targetLanguage = settings.targetLanguage();
+        if (!shouldTranslate(text, targetLanguage)) {
             return CompletableFuture.completedFuture(text);
         }
         
-        // 預處理文本（處理特殊符號和格式化代碼）
+        // 預處理文本（處理特殊符號和格式化代碼），數值替換為槽位後以模板查找與翻譯
         String originalText = text;
         String processedText = MinecraftTextProcessor.preprocessText(text);
-        
-        // 檢查緩存
-        String targetLanguage = SmartTranslatorConfig.TARGET_LANGUAGE.get();
-        String cached = cache.getCachedTranslation(processedText, targetLanguage);
-        if (cached != null) {
-            String result = MinecraftTextProcessor.postprocessText(cached, originalText);
-            return CompletableFuture.completedFuture(formatTranslation(result, originalText));
+        String official = officialTranslation(processedText, targetLanguage);
+        if (official != null) {
+            String result = MinecraftTextProcessor.postprocessText(official, originalText);
+            return CompletableFuture.completedFuture(render(fingerprint, originalText, result));
+        }
+        List<TextSegmenter.Segment> segments = TextSegmenter.splitLong(processedText);
+        if (segments != null) {
+            return translateSegments(fingerprint, originalText, segments, targetLanguage, partialResult, false);
+        }
+        NumericTemplate template = templateFor(processedText, targetLanguage);
+        if (template.isCoveredByGlossary()) {
+            String result = MinecraftTextProcessor.postprocessText(template.resolveLocally(), originalText);
+            return CompletableFuture.completedFuture(render(fingerprint, originalText, result));
+        }
+        String lookupText = template.getPattern();
+        if (isNegative(lookupText, text, targetLanguage)) {
+            return CompletableFuture.completedFuture(text);
         }
         
-        // 使用速率限制器控制翻譯請求
+        // 檢查緩存：L1 命中時同步返回，未命中時在 L2 讀取線程查找後再決定是否調用API
+        return cache.getCachedTranslationAsync(lookupText, targetLanguage).thenCompose(cached -> {
+            String filled = template.fill(cached);
+            if (filled != null) {
+                String result = MinecraftTextProcessor.postprocessText(filled, originalText);
+                return CompletableFuture.completedFuture(render(fingerprint, originalText, result));
+            }
+            
+            // 使用速率限制器控制翻譯請求
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    // 緩存仍在預熱時短暫等待，避免為尚未載入的項目重複調用API
+                    String warmed = template.fill(awaitWarmingCache(lookupText, targetLanguage));
+                    if (warmed != null) {
+                        String result = MinecraftTextProcessor.postprocessText(warmed, originalText);
+                        return render(fingerprint, originalText, result);
+                    }
+                    
+                    // 翻譯記憶中只差在標點或複數的翻譯直接沿用，其他相似翻譯作為參考
+                    TranslationMemory.Match similar = cache.findSimilar(lookupText, targetLanguage);
+                    String near = acceptNearMatch(template, similar, targetLanguage);
+                    if (near != null) {
+                        String result = MinecraftTextProcessor.postprocessText(near, originalText);
+                        return render(fingerprint, originalText, result);
+                    }
+                    
+                    // 區域網路中的其他玩家已翻譯過時不調用API
+                    String shared = fromPeers(template, targetLanguage);
+                    if (shared != null) {
+                        String result = MinecraftTextProcessor.postprocessText(shared, originalText);
+                        return render(fingerprint, originalText, result);
+                    }
+                    
+                    // 嘗試獲取令牌（非阻塞）
+                    if (!rateLimiter.tryAcquire()) {
+                        LOGGER.debug("速率限制觸發，跳過翻譯: {}", text);
+                        return text; // 返回原文
+                    }
+                    
+                    String result = translateAndCache(template, targetLanguage, similar);
+                    if (result != null) {
+                        // 後處理翻譯結果
+                        String postProcessed = MinecraftTextProcessor.postprocessText(result, originalText);
+                        return render(fingerprint, originalText, postProcessed);
+                    }
+                    return text;
+                } catch (TranslationBlockedException e) {
+                    recordBlocked(lookupText, targetLanguage, e);
+                    return text;
+                } catch (Exception e) {
+                    LOGGER.error("翻譯失敗: {}", text, e);
+                    return text;
+                }
+            }, executorService);
+        });
+    }
+    
+    /**
+     * 批量翻譯多段文字（例如同一個物品提示的各行）
+     * 每段文字先經過與 {@link #translateAsync(String)} 相同的本地查找，仍需翻譯的模板合併為批量 API 請求，
+     * 每個請求只使用一個速率限制令牌。長文字與連上伺服器中繼時逐段翻譯；批量請求失敗或譯文未保留槽位的文字也改為逐段翻譯。
+     * 
+     * @return 與輸入順序相同的結果（未能翻譯的文字保留原文）
+     */
+    public CompletableFuture<List<String>> translateBatchAsync(List<String> texts) {
         return CompletableFuture.supplyAsync(() -> {
-            try {
-                // 嘗試獲取令牌（非阻塞）
+            RenderedOutputCache.Fingerprint fingerprint = renderedOutputs.current();
+            String targetLanguage = settings.targetLanguage();
+            TranslationRelay currentRelay = relay;
+            boolean relayed = currentRelay != null && currentRelay.isAvailable();
+            String[] results = texts.toArray(new String[0]);
+            NumericTemplate[] templates = new NumericTemplate[results.length];
+            // 需要調用API的模板與使用該模板的文字位置（同一模板只請求一次）
+            Map<String, List<Integer>> misses = new LinkedHashMap<>();
+            List<Integer> individual = new ArrayList<>();
+            
+            for (int i = 0; i < results.length; i++) {
+                String text = results[i];
+                if (text == null || text.trim().isEmpty()) {
+                    continue;
+                }
+                String rendered = renderedOutputs.get(fingerprint, text);
+                if (rendered != null) {
+                    results[i] = rendered;
+                    continue;
+                }
+                if (!shouldTranslate(text, targetLanguage)) {
+                    continue;
+                }
+                String processedText = MinecraftTextProcessor.preprocessText(text);
+                String official = officialTranslation(processedText, targetLanguage);
+                if (official != null) {
+                    results[i] = render(fingerprint, text, MinecraftTextProcessor.postprocessText(official, text));
+                    continue;
+                }
+                if (relayed || TextSegmenter.splitLong(processedText) != null) {
+                    individual.add(i);
+                    continue;
+                }
+                NumericTemplate template = templateFor(processedText, targetLanguage);
+                String local = null;
+                if (template.isCoveredByGlossary()) {
+                    local = template.resolveLocally();
+                } else if (isNegative(template.getPattern(), text, targetLanguage)) {
+                    continue;
+                } else {
+                    local = template.fill(cache.getCachedTranslation(template.getPattern(), targetLanguage));
+                    if (local == null) {
+                        local = acceptNearMatch(template, cache.findSimilar(template.getPattern(), targetLanguage), targetLanguage);
+                    }
+                }
+                if (local != null) {
+                    results[i] = render(fingerprint, text, MinecraftTextProcessor.postprocessText(local, text));
+                    continue;
+                }
+                templates[i] = template;
+                misses.computeIfAbsent(template.getPattern(), pattern -> new ArrayList<>()).add(i);
+            }
+            
+            // 區域網路中的對等端同時查詢，最多等待一次逾時
+            if (peers != null && !misses.isEmpty()) {
+                Map<String, CompletableFuture<String>> queries = new LinkedHashMap<>();
+                misses.keySet().forEach(pattern -> queries.put(pattern, peers.query(pattern, targetLanguage)));
+                Iterator<Map.Entry<String, List<Integer>>> iterator = misses.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<String, List<Integer>> miss = iterator.next();
+                    String translated = queries.get(miss.getKey()).join();
+                    if (translated != null && fillBatch(fingerprint, texts, templates, miss.getValue(), translated, results)) {
+                        cache.addToCache(miss.getKey(), translated, targetLanguage);
+                        iterator.remove();
+                    }
+                }
+            }
+            
+            List<String> patterns = new ArrayList<>(misses.keySet());
+            for (int start = 0; start < patterns.size(); start += PerformanceConfig.API_BATCH_MAX_TEXTS) {
+                List<String> chunk = patterns.subList(start, Math.min(patterns.size(), start + PerformanceConfig.API_BATCH_MAX_TEXTS));
+                // 令牌不足時剩餘的文字本次保留原文
                 if (!rateLimiter.tryAcquire()) {
-                    LOGGER.debug("速率限制觸發，跳過翻譯: {}", text);
-                    return text; // 返回原文
+                    LOGGER.debug("速率限制觸發，跳過批量翻譯: {} 段", patterns.size() - start);
+                    break;
                 }
-                
-                String result = currentAPI.translate(processedText, targetLanguage);
-                if (result != null && !result.equals(processedText)) {
-                    // 後處理翻譯結果
-                    String postProcessed = MinecraftTextProcessor.postprocessText(result, originalText);
-                    String formatted = formatTranslation(postProcessed, originalText);
-                    cache.addToCache(processedText, result, targetLanguage);
-                    return formatted;
+                List<String> translated;
+                try {
+                    translated = currentAPI.translateBatch(chunk, targetLanguage);
+                    batchRequests.incrementAndGet();
+                    batchedTexts.addAndGet(chunk.size());
+                } catch (Exception e) {
+                    // 整批被拒絕或失敗時逐段翻譯，個別被拒絕的文字照常記錄到負緩存
+                    LOGGER.debug("批量翻譯失敗，改為逐段翻譯: {} 段", chunk.size(), e);
+                    chunk.forEach(pattern -> individual.addAll(misses.get(pattern)));
+                    continue;
+                }
+                for (int j = 0; j < chunk.size(); j++) {
+                    String pattern = chunk.get(j);
+                    String result = j < translated.size() ? translated.get(j) : null;
+                    if (result == null || result.equals(pattern)) {
+                        recordUnchanged(pattern, result, targetLanguage);
+                    } else if (fillBatch(fingerprint, texts, templates, misses.get(pattern), result, results)) {
+                        cache.addToCache(pattern, result, targetLanguage);
+                        if (peers != null) {
+                            peers.publish(pattern, result, targetLanguage);
+                        }
+                    } else {
+                        // 譯文未保留槽位：記住此模板，這些文字改為逐段翻譯原文
+                        LOGGER.debug("譯文未保留數值槽位，改為逐行翻譯: {} -> {}", pattern, result);
+                        rejectedTemplates.put(targetLanguage + '\n' + pattern, Boolean.TRUE);
+                        individual.addAll(misses.get(pattern));
+                    }
                 }
-                return text;
-            } catch (Exception e) {
-                LOGGER.error("翻譯失敗: {}", text, e);
-                return text;
             }
-        }, executorService);
+            
+            CompletableFuture<?>[] pending = individual.stream()
+                .map(index -> translateAsync(texts.get(index)).thenAccept(result -> results[index] = result))
+                .toArray(CompletableFuture<?>[]::new);
+            return CompletableFuture.allOf(pending).thenApply(done -> Arrays.asList(results));
+        }, executorService).thenCompose(results -> results);
+    }
+    
+    /**
+     * 將模板的譯文代入使用該模板的每段文字
+     * 
+     * @return 譯文是否保留了所有槽位（未保留時不修改結果）
+     */
+    private boolean fillBatch(RenderedOutputCache.Fingerprint fingerprint, List<String> texts, NumericTemplate[] templates,
+                              List<Integer> indices, String translated, String[] results) {
+        NumericTemplate first = templates[indices.get(0)];
+        if (first.hasSlots() && !first.isPreserved(translated)) {
+            return false;
+        }
+        for (int index : indices) {
+            String text = texts.get(index);
+            String filled = templates[index].fill(translated);
+            results[index] = render(fingerprint, text, MinecraftTextProcessor.postprocessText(filled, text));
+        }
+        return true;
     }
     
     /**
@@ -108,7 +363,7 @@ public class TranslationManager {
     CompletableFuture<String> internalTranslateAsync(String text) {
         return CompletableFuture.supplyAsync(() -> {
             try {
-                String targetLanguage = SmartTranslatorConfig.TARGET_LANGUAGE.get();
+                String targetLanguage = settings.targetLanguage();
                 String result = currentAPI.translate(text, targetLanguage);
                 if (result != null && !result.equals(text)) {
                     String formatted = formatTranslation(result, text);
@@ -131,36 +386,70 @@ public class TranslationManager {
             return originalText;
         }
         
+        RenderedOutputCache.Fingerprint fingerprint = renderedOutputs.current();
+        String rendered = renderedOutputs.get(fingerprint, originalText);
+        if (rendered != null) {
+            return rendered;
+        }
+        
         // 檢查是否需要翻譯
-        if (!shouldTranslate(originalText)) {
+        String targetLanguage = settings.targetLanguage();
+        if (!shouldTranslate(originalText, targetLanguage)) {
             return originalText;
         }
         
-        // 預處理文本（處理特殊符號和格式化代碼）
+        // 預處理文本（處理特殊符號和格式化代碼），數值替換為槽位後以模板查找與翻譯
         String processedText = MinecraftTextProcessor.preprocessText(originalText);
-        
-        String targetLanguage = SmartTranslatorConfig.TARGET_LANGUAGE.get();
+        String official = officialTranslation(processedText, targetLanguage);
+        if (official != null) {
+            return render(fingerprint, originalText, MinecraftTextProcessor.postprocessText(official, originalText));
+        }
+        List<TextSegmenter.Segment> segments = TextSegmenter.splitLong(processedText);
+        if (segments != null) {
+            return translateSegments(fingerprint, originalText, segments, targetLanguage, null, true).join();
+        }
+        NumericTemplate template = templateFor(processedText, targetLanguage);
+        if (template.isCoveredByGlossary()) {
+            return render(fingerprint, originalText, MinecraftTextProcessor.postprocessText(template.resolveLocally(), originalText));
+        }
+        String lookupText = template.getPattern();
+        if (isNegative(lookupText, originalText, targetLanguage)) {
+            return originalText;
+        }
         
         // 先檢查緩存
-        String cachedResult = cache.getCachedTranslation(processedText, targetLanguage);
+        String cachedResult = template.fill(cache.getCachedTranslation(lookupText, targetLanguage));
+        if (cachedResult == null) {
+            cachedResult = template.fill(awaitWarmingCache(lookupText, targetLanguage));
+        }
+        // 翻譯記憶中只差在標點或複數的翻譯直接沿用，其他相似翻譯作為參考
+        TranslationMemory.Match similar = null;
+        if (cachedResult == null) {
+            similar = cache.findSimilar(lookupText, targetLanguage);
+            cachedResult = acceptNearMatch(template, similar, targetLanguage);
+        }
+        if (cachedResult == null) {
+            cachedResult = fromPeers(template, targetLanguage);
+        }
         if (cachedResult != null) {
             String postProcessed = MinecraftTextProcessor.postprocessText(cachedResult, originalText);
-            return formatTranslation(postProcessed, originalText);
+            return render(fingerprint, originalText, postProcessed);
         }
         
         // 使用速率限制器（阻塞等待）
         try {
             rateLimiter.acquire(); // 阻塞等待令牌
             
-            String translatedText = currentAPI.translate(processedText, targetLanguage);
+            // 翻譯並添加到緩存
+            String translatedText = translateAndCache(template, targetLanguage, similar);
             
-            if (translatedText != null && !translatedText.equals(processedText)) {
+            if (translatedText != null) {
                 // 後處理翻譯結果
                 String postProcessed = MinecraftTextProcessor.postprocessText(translatedText, originalText);
-                // 添加到緩存
-                cache.addToCache(processedText, translatedText, targetLanguage);
-                return formatTranslation(postProcessed, originalText);
+                return render(fingerprint, originalText, postProcessed);
             }
+        } catch (TranslationBlockedException e) {
+            recordBlocked(lookupText, targetLanguage, e);
         } catch (Exception e) {
             LOGGER.error("API 翻譯失敗: {}", originalText, e);
         }
@@ -168,29 +457,534 @@ public class TranslationManager {
         return originalText;
     }
     
+    /**
+     * 逐句翻譯長文字
+     * 每句經數值模板獨立查找緩存，缺少的句子並行翻譯後按原順序組合。有句子未能翻譯時該句保留原文，
+     * 結果不寫入渲染結果緩存，下次請求再補上。
+     * 
+     * @param blocking 是否等待速率限制令牌（同步翻譯）；否則取不到令牌的句子本次保留原文
+     */
+    private CompletableFuture<String> translateSegments(RenderedOutputCache.Fingerprint fingerprint, String originalText,
+                                                        List<TextSegmenter.Segment> segments, String targetLanguage,
+                                                        Consumer<String> partialResult, boolean blocking) {
+        int count = segments.size();
+        String[] translated = new String[count];
+        NumericTemplate[] templates = new NumericTemplate[count];
+        CompletableFuture<?>[] lookups = new CompletableFuture<?>[count];
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            String segment = segments.get(i).text();
+            NumericTemplate template = templateFor(segment, targetLanguage);
+            templates[i] = template;
+            if (SKIP_PATTERN.matcher(segment).matches() || cache.getNegativeReason(template.getPattern(), targetLanguage) != null) {
+                translated[i] = segment;
+                lookups[i] = CompletableFuture.completedFuture(null);
+            } else if (template.isCoveredByGlossary()) {
+                translated[i] = template.resolveLocally();
+                lookups[i] = CompletableFuture.completedFuture(null);
+            } else {
+                lookups[i] = cache.getCachedTranslationAsync(template.getPattern(), targetLanguage)
+                    .thenAccept(cached -> translated[index] = template.fill(cached));
+            }
+        }
+        
+        return CompletableFuture.allOf(lookups).thenCompose(ignored -> {
+            List<CompletableFuture<Void>> pending = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                if (translated[i] == null) {
+                    int index = i;
+                    pending.add(translateSegment(templates[index], targetLanguage, blocking)
+                        .thenAccept(result -> translated[index] = result));
+                }
+            }
+            if (partialResult != null && !pending.isEmpty() && pending.size() < count) {
+                String partial = MinecraftTextProcessor.postprocessText(TextSegmenter.join(segments, translated), originalText);
+                partialResult.accept(formatTranslation(partial, originalText));
+            }
+            
+            return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+                boolean complete = true;
+                boolean changed = false;
+                for (int i = 0; i < count; i++) {
+                    complete &= translated[i] != null;
+                    changed |= translated[i] != null && !translated[i].equals(segments.get(i).text());
+                }
+                if (!changed) {
+                    return originalText;
+                }
+                String postProcessed = MinecraftTextProcessor.postprocessText(TextSegmenter.join(segments, translated), originalText);
+                return complete ? render(fingerprint, originalText, postProcessed) : formatTranslation(postProcessed, originalText);
+            });
+        });
+    }
+    
+    /**
+     * 翻譯單句並寫入緩存
+     * 對等端查詢與等待速率限制令牌都以 future 串接，不在翻譯線程池中阻塞，
+     * 以免同步翻譯長文字時所有線程都在等待排在自己後面的任務
+     * 
+     * @return 已代入數值的譯文；不需翻譯的句子返回原句；未能翻譯時返回 null
+     */
+    private CompletableFuture<String> translateSegment(NumericTemplate template, String targetLanguage, boolean blocking) {
+        return CompletableFuture.supplyAsync(() -> cache.findSimilar(template.getPattern(), targetLanguage), executorService)
+            .thenCompose(similar -> {
+                String near = acceptNearMatch(template, similar, targetLanguage);
+                if (near != null) {
+                    return CompletableFuture.completedFuture(near);
+                }
+                return queryPeers(template, targetLanguage).thenCompose(shared -> {
+                    if (shared != null) {
+                        return CompletableFuture.completedFuture(shared);
+                    }
+                    if (blocking) {
+                        return rateLimiter.acquire()
+                            .thenApplyAsync(ready -> translateSegmentWithAPI(template, targetLanguage, similar), executorService);
+                    }
+                    if (!rateLimiter.tryAcquire()) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return CompletableFuture.supplyAsync(() -> translateSegmentWithAPI(template, targetLanguage, similar), executorService);
+                });
+            })
+            .exceptionally(e -> {
+                LOGGER.error("分句翻譯失敗: {}", template.getText(), e);
+                return null;
+            });
+    }
+    
+    /**
+     * 以 API 翻譯單句（已取得速率限制令牌）
+     */
+    private String translateSegmentWithAPI(NumericTemplate template, String targetLanguage, TranslationMemory.Match similar) {
+        try {
+            String result = translateAndCache(template, targetLanguage, similar);
+            if (result == null && cache.getNegativeReason(template.getPattern(), targetLanguage) != null) {
+                return template.getText();
+            }
+            return result;
+        } catch (TranslationBlockedException e) {
+            recordBlocked(template.getPattern(), targetLanguage, e);
+            return template.getText();
+        } catch (Exception e) {
+            LOGGER.error("分句翻譯失敗: {}", template.getText(), e);
+            return null;
+        }
+    }
+    
+    /**
+     * 預取翻譯（低優先級：速率限制器的令牌不足保留量時放棄，不與前台請求競爭）
+     * 
+     * @return 是否寫入緩存
+     */
+    private boolean prefetchTranslation(String processedText, String targetLanguage) {
+        NumericTemplate template = templateFor(processedText, targetLanguage);
+        String lookupText = template.getPattern();
+        if (template.isCoveredByGlossary() || cache.getNegativeReason(lookupText, targetLanguage) != null) {
+            return false;
+        }
+        // 同一模板的其他數值已翻譯過
+        if (template.hasSlots() && cache.containsTranslation(lookupText, targetLanguage)) {
+            return false;
+        }
+        TranslationMemory.Match similar = cache.findSimilar(lookupText, targetLanguage);
+        if (acceptNearMatch(template, similar, targetLanguage) != null || fromPeers(template, targetLanguage) != null) {
+            return true;
+        }
+        if (rateLimiter.getAvailableTokens() <= PerformanceConfig.PREFETCH_RESERVED_TOKENS || !rateLimiter.tryAcquire()) {
+            return false;
+        }
+        try {
+            return translateAndCache(template, targetLanguage, similar) != null;
+        } catch (TranslationBlockedException e) {
+            recordBlocked(lookupText, targetLanguage, e);
+        } catch (Exception e) {
+            LOGGER.debug("預取翻譯失敗: {}", processedText, e);
+        }
+        return false;
+    }
+    
+    /**
+     * 記錄一組同時顯示的文字（例如同一個物品提示的各行），供預取學習
+     */
+    public void observeTextGroup(List<String> texts) {
+        String targetLanguage = settings.targetLanguage();
+        List<String> group = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            if (text != null && !text.trim().isEmpty() && shouldTranslate(text, targetLanguage)) {
+                group.add(MinecraftTextProcessor.preprocessText(text));
+            }
+        }
+        if (group.size() >= 2) {
+            cache.observeGroup(group);
+        }
+    }
+    
+    /**
+     * 設定遊戲語言檔的官方翻譯索引（由 {@link LanguageAssetResolver} 在資源載入後調用）
+     */
+    public void setLanguageAssets(LanguageAssetIndex languageAssets) {
+        this.languageAssets = languageAssets != null ? languageAssets : LanguageAssetIndex.EMPTY;
+    }
+    
+    /**
+     * 查找遊戲語言檔中的官方譯文（原版與模組已附帶翻譯的文字不查緩存也不調用 API）
+     */
+    private String officialTranslation(String processedText, String targetLanguage) {
+        if (!settings.useLanguageAssets()) {
+            return null;
+        }
+        return languageAssets.get(processedText, targetLanguage);
+    }
+    
+    /**
+     * 從設定目錄重新載入術語表（編輯 glossary.tsv 或變更目標語言後調用）
+     */
+    public void reloadGlossary() {
+        this.glossary = Glossary.load(cache.getConfigDirectory().resolve(Glossary.FILE_NAME),
+            settings.targetLanguage());
+    }
+    
+    /**
+     * 目標語言的術語表；目標語言已變更時重新載入
+     */
+    private Glossary glossaryFor(String targetLanguage) {
+        Glossary current = glossary;
+        if (!current.getTargetLanguage().equals(CacheKeyNormalizer.language(targetLanguage))) {
+            reloadGlossary();
+            current = glossary;
+        }
+        return current;
+    }
+    
+    /**
+     * 建立數值模板（術語表中的術語同樣替換為槽位）；曾被翻譯服務破壞槽位的模板改用原文
+     */
+    private NumericTemplate templateFor(String processedText, String targetLanguage) {
+        NumericTemplate template = NumericTemplate.of(processedText, glossaryFor(targetLanguage));
+        if (template.hasSlots() && rejectedTemplates.getIfPresent(targetLanguage + '\n' + template.getPattern()) != null) {
+            return NumericTemplate.literal(processedText);
+        }
+        return template;
+    }
+    
+    /**
+     * 沿用翻譯記憶中只差在標點、空白或複數詞尾的翻譯，並以本文字為鍵寫入緩存
+     * 
+     * @return 已代入數值的譯文；沒有可沿用的翻譯或設定關閉時返回 null
+     */
+    private String acceptNearMatch(NumericTemplate template, TranslationMemory.Match similar, String targetLanguage) {
+        if (similar == null || !similar.isInterchangeable() || !settings.acceptNearMatches()) {
+            return null;
+        }
+        String filled = template.fill(similar.getTranslatedText());
+        if (filled == null) {
+            return null;
+        }
+        cache.addToCache(template.getPattern(), similar.getTranslatedText(), targetLanguage);
+        LOGGER.debug("沿用相似文字的翻譯: {} ≈ {}", template.getPattern(), similar.getOriginalText());
+        return filled;
+    }
+    
+    /**
+     * 調用API翻譯並寫入緩存
+     * 有槽位時翻譯模板；譯文未完整保留槽位時記住此模板，改為翻譯原文並以原文為鍵寫入緩存
+     * （重新翻譯需要另一個令牌，取不到時本次返回 null，下次請求直接走原文）
+     * 
+     * @param similar 翻譯記憶中的相似翻譯，提供給 API 作為用詞參考；可為 null
+     * @return 已代入數值的譯文；API 未改變文字或放棄翻譯時返回 null
+     */
+    private String translateAndCache(NumericTemplate template, String targetLanguage,
+                                     TranslationMemory.Match similar) throws Exception {
+        TranslationRelay currentRelay = relay;
+        if (currentRelay != null && currentRelay.isAvailable()) {
+            String relayed = translateThroughRelay(currentRelay, template, targetLanguage);
+            if (relayed != null) {
+                return relayed;
+            }
+            // 伺服器停用中繼、沒有可用的 API、翻譯失敗或逾時時改用本地 API
+            LOGGER.debug("伺服器中繼未返回譯文，改用本地 API: {}", template.getPattern());
+        }
+        NumericTemplate request = template;
+        String result;
+        try {
+            result = similar != null
+                ? currentAPI.translate(request.getPattern(), targetLanguage, similar.getOriginalText(), similar.getTranslatedText())
+                : currentAPI.translate(request.getPattern(), targetLanguage);
+        } catch (TranslationBlockedException e) {
+            throw e;
+        } catch (Exception e) {
+            // 過期後重新翻譯失敗時，暫時使用冷歸檔中的舊翻譯（不寫回緩存，下次仍會重新翻譯）
+            String stale = cache.getArchivedTranslation(request.getPattern(), targetLanguage);
+            if (stale == null) {
+                throw e;
+            }
+            LOGGER.debug("翻譯失敗，使用冷歸檔中的舊翻譯: {} -> {}", request.getPattern(), stale);
+            return request.fill(stale);
+        }
+        if (request.hasSlots() && result != null && !request.isPreserved(result)) {
+            LOGGER.debug("譯文未保留數值槽位，改為逐行翻譯: {} -> {}", request.getPattern(), result);
+            rejectedTemplates.put(targetLanguage + '\n' + request.getPattern(), Boolean.TRUE);
+            if (!rateLimiter.tryAcquire()) {
+                return null;
+            }
+            request = NumericTemplate.literal(template.getText());
+            result = currentAPI.translate(request.getPattern(), targetLanguage);
+        }
+        if (result != null && !result.equals(request.getPattern())) {
+            cache.addToCache(request.getPattern(), result, targetLanguage);
+            if (peers != null) {
+                peers.publish(request.getPattern(), result, targetLanguage);
+            }
+            return request.fill(result);
+        }
+        recordUnchanged(request.getPattern(), result, targetLanguage);
+        return null;
+    }
+    
+    /**
+     * 由伺服器翻譯模板（本地不調用API），譯文寫入本地緩存
+     * 伺服器的譯文未保留槽位時記住此模板，下次改以原文請求
+     * 
+     * @return 已代入數值的譯文；伺服器未能翻譯、逾時或譯文未保留槽位時返回 null
+     */
+    private String translateThroughRelay(TranslationRelay relay, NumericTemplate template, String targetLanguage) {
+        String translated = relay.request(template.getPattern(), targetLanguage).join();
+        if (translated == null) {
+            return null;
+        }
+        String filled = template.fill(translated);
+        if (filled == null) {
+            rejectedTemplates.put(targetLanguage + '\n' + template.getPattern(), Boolean.TRUE);
+            return null;
+        }
+        if (!translated.equals(template.getPattern())) {
+            cache.addToCache(template.getPattern(), translated, targetLanguage);
+        }
+        return filled;
+    }
+    
+    /**
+     * 設定伺服器翻譯中繼（客戶端設置時調用）
+     */
+    public void setRelay(TranslationRelay relay) {
+        this.relay = relay;
+    }
+    
+    /**
+     * 伺服器端：翻譯玩家透過中繼請求的文字（客戶端已完成預處理與數值模板）
+     * 先查伺服器的緩存；同一段文字與目標語言正在翻譯時返回同一個 Future，多位玩家同時請求也只調用一次API。
+     * 緩存查找可能讀取磁碟或打開分區，因此整個查找都在翻譯線程池上執行，不佔用處理封包的網路線程。
+     * 
+     * @return 譯文；不需翻譯或未能翻譯時為 null
+     */
+    public CompletableFuture<String> translateForRelay(String text, String targetLanguage) {
+        return translateForRelay(text, targetLanguage, () -> true);
+    }
+    
+    /**
+     * 伺服器端：翻譯玩家透過中繼請求的文字，需要新的翻譯時先向請求者的預算取得許可
+     * 
+     * @param budget 緩存未命中且沒有相同的翻譯正在進行時調用；返回 false 則不調用API，結果為 null
+     * @return 譯文；不需翻譯、未能翻譯或預算不足時為 null
+     */
+    public CompletableFuture<String> translateForRelay(String text, String targetLanguage, BooleanSupplier budget) {
+        return CompletableFuture.supplyAsync(() -> {
+            String cached = cache.getCachedTranslation(text, targetLanguage);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+            if (cache.getNegativeReason(text, targetLanguage) != null) {
+                return CompletableFuture.<String>completedFuture(null);
+            }
+            String key = targetLanguage + '\n' + text;
+            CompletableFuture<String> existing = relayInFlight.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            if (!budget.getAsBoolean()) {
+                return CompletableFuture.<String>completedFuture(null);
+            }
+            CompletableFuture<String> created = new CompletableFuture<>();
+            existing = relayInFlight.putIfAbsent(key, created);
+            if (existing != null) {
+                return existing;
+            }
+            String result = null;
+            try {
+                result = translateRelayed(text, targetLanguage);
+            } finally {
+                relayInFlight.remove(key);
+                created.complete(result);
+            }
+            return created;
+        }, executorService).thenCompose(result -> result);
+    }
+    
+    /**
+     * 伺服器端：以與客戶端相同的預處理與模板將訊息預先翻譯為各個目標語言（例如玩家剛發送的聊天訊息）
+     */
+    public void prewarmForRelay(String text, Collection<String> targetLanguages) {
+        String processedText = MinecraftTextProcessor.preprocessText(text);
+        for (String targetLanguage : targetLanguages) {
+            if (!shouldTranslate(text, targetLanguage) || officialTranslation(processedText, targetLanguage) != null) {
+                continue;
+            }
+            List<TextSegmenter.Segment> segments = TextSegmenter.splitLong(processedText);
+            List<String> parts = segments == null ? List.of(processedText)
+                : segments.stream().map(TextSegmenter.Segment::text).toList();
+            for (String part : parts) {
+                NumericTemplate template = templateFor(part, targetLanguage);
+                if (!template.isCoveredByGlossary() && !SKIP_PATTERN.matcher(part).matches()) {
+                    translateForRelay(template.getPattern(), targetLanguage);
+                }
+            }
+        }
+    }
+    
+    private String translateRelayed(String text, String targetLanguage) {
+        try {
+            NumericTemplate template = NumericTemplate.literal(text);
+            TranslationMemory.Match similar = cache.findSimilar(text, targetLanguage);
+            String near = acceptNearMatch(template, similar, targetLanguage);
+            if (near != null) {
+                return near;
+            }
+            rateLimiter.acquire().join();
+            String result = similar != null
+                ? currentAPI.translate(text, targetLanguage, similar.getOriginalText(), similar.getTranslatedText())
+                : currentAPI.translate(text, targetLanguage);
+            if (result != null && !result.equals(text)) {
+                cache.addToCache(text, result, targetLanguage);
+                return result;
+            }
+            recordUnchanged(text, result, targetLanguage);
+        } catch (TranslationBlockedException e) {
+            recordBlocked(text, targetLanguage, e);
+        } catch (Exception e) {
+            LOGGER.error("中繼翻譯失敗: {}", text, e);
+        }
+        return null;
+    }
+    
+    /**
+     * 向區域網路中的對等端查詢模板的譯文（最多等待 {@link PerformanceConfig#PEER_QUERY_TIMEOUT_MS}），命中時寫入本地緩存
+     * 
+     * @return 已代入數值的譯文；未啟用、未命中或譯文未保留槽位時返回 null
+     */
+    private String fromPeers(NumericTemplate template, String targetLanguage) {
+        return queryPeers(template, targetLanguage).join();
+    }
+    
+    /**
+     * 非阻塞地向區域網路中的對等端查詢模板的譯文（結果與 {@link #fromPeers} 相同）
+     */
+    private CompletableFuture<String> queryPeers(NumericTemplate template, String targetLanguage) {
+        if (peers == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return peers.query(template.getPattern(), targetLanguage).thenApply(translated -> {
+            String filled = translated != null ? template.fill(translated) : null;
+            if (filled != null) {
+                cache.addToCache(template.getPattern(), translated, targetLanguage);
+            }
+            return filled;
+        });
+    }
+    
+    /**
+     * 依設定啟動對等緩存：回答其他玩家對本地緩存的查詢，收到的新翻譯在本地沒有時寫入緩存
+     */
+    private PeerCache startPeerCache() {
+        if (!settings.peerCacheEnabled()) {
+            return null;
+        }
+        int port = SmartTranslatorConfig.PEER_CACHE_PORT.get();
+        List<InetSocketAddress> staticPeers = PeerCache.parsePeers(SmartTranslatorConfig.PEER_CACHE_PEERS.get(), port);
+        PeerCache.Store store = new PeerCache.Store() {
+            @Override
+            public String lookup(String text, String targetLanguage) {
+                return cache.getCachedTranslation(text, targetLanguage);
+            }
+            
+            @Override
+            public void store(String text, String translatedText, String targetLanguage) {
+                if (!cache.containsTranslation(text, targetLanguage)) {
+                    cache.addToCache(text, translatedText, targetLanguage);
+                }
+            }
+        };
+        try {
+            return PeerCache.start(store, port, SmartTranslatorConfig.PEER_CACHE_GROUP.get(), staticPeers,
+                SmartTranslatorConfig.PEER_CACHE_DISCOVERY.get());
+        } catch (Exception e) {
+            LOGGER.warn("無法啟動對等緩存，僅使用本地緩存", e);
+            return null;
+        }
+    }
+    
+    /**
+     * 緩存未完成載入時，等待一小段時間後重新查詢
+     * 
+     * @return 載入後找到的翻譯，緩存已就緒或仍未找到時返回 null
+     */
+    private String awaitWarmingCache(String processedText, String targetLanguage) {
+        if (cache.isReady()) {
+            return null;
+        }
+        cache.awaitReady(PerformanceConfig.CACHE_WARMING_WAIT_MS);
+        return cache.getCachedTranslation(processedText, targetLanguage);
+    }
+    
     /**
      * 判斷是否需要翻譯
+     * 先查負緩存，避免對已知不需翻譯的文字重複執行正則匹配；內容判斷為不需翻譯時記錄到負緩存
      */
-    private boolean shouldTranslate(String text) {
+    private boolean shouldTranslate(String text, String targetLanguage) {
         // 檢查是否啟用自動翻譯
-        if (!SmartTranslatorConfig.AUTO_TRANSLATE_ENABLED.get()) {
+        if (!settings.autoTranslateEnabled()) {
             return false;
         }
         
-        // 過濾不需要翻譯的內容
-        if (SKIP_PATTERN.matcher(text.trim()).matches()) {
+        if (cache.getNegativeReason(text, targetLanguage) != null) {
             return false;
         }
         
-        // 檢查是否已經是目標語言
-        String targetLanguage = SmartTranslatorConfig.TARGET_LANGUAGE.get();
-        if (isTargetLanguage(text, targetLanguage)) {
+        // 過濾不需要翻譯的內容，檢查是否已經是目標語言
+        if (SKIP_PATTERN.matcher(text.trim()).matches() || isTargetLanguage(text, targetLanguage)) {
+            cache.addNegative(text, targetLanguage, NegativeCache.Reason.SKIPPED);
             return false;
         }
         
         return true;
     }
     
+    /**
+     * 預處理後的文字是否已記錄在負緩存（與原文相同時已在 {@link #shouldTranslate} 中查過）
+     */
+    private boolean isNegative(String processedText, String originalText, String targetLanguage) {
+        return !processedText.equals(originalText) && cache.getNegativeReason(processedText, targetLanguage) != null;
+    }
+    
+    /**
+     * API 返回與原文相同的結果時記錄到負緩存，之後不再為此文字調用 API
+     */
+    private void recordUnchanged(String processedText, String result, String targetLanguage) {
+        if (result == null) {
+            return;
+        }
+        NegativeCache.Reason reason = PROPER_NOUN_PATTERN.matcher(processedText.trim()).matches()
+            ? NegativeCache.Reason.PROPER_NOUN : NegativeCache.Reason.UNCHANGED;
+        cache.addNegative(processedText, targetLanguage, reason);
+    }
+    
+    /**
+     * 內容被翻譯服務拒絕時記錄到負緩存
+     */
+    private void recordBlocked(String processedText, String targetLanguage, TranslationBlockedException e) {
+        LOGGER.debug("翻譯被拒絕 ({}): {}", e.getReason(), processedText);
+        cache.addNegative(processedText, targetLanguage, NegativeCache.Reason.BLOCKED);
+    }
+    
     /**
      * 檢查文字是否已經是目標語言
      */
@@ -202,6 +996,33 @@ public class TranslationManager {
         return false;
     }
     
+    /**
+     * 格式化翻譯結果並保存到渲染結果緩存
+     * addToCache 會在替換已有翻譯時改變內容版本，因此必須在寫入緩存之後調用
+     */
+    private String render(RenderedOutputCache.Fingerprint fingerprint, String originalText, String translatedText) {
+        String formatted = formatTranslation(translatedText, originalText);
+        renderedOutputs.put(fingerprint, originalText, formatted);
+        return formatted;
+    }
+    
+    /**
+     * 影響最終輸出的顯示設定、緩存內容版本與官方翻譯索引
+     */
+    private RenderedOutputCache.Fingerprint currentRenderSettings() {
+        return new RenderedOutputCache.Fingerprint(
+            settings.autoTranslateEnabled(),
+            settings.showOriginalText(),
+            settings.showTranslationStatus(),
+            settings.translationPrefix(),
+            MinecraftTextProcessor.getSymbolProcessingMode(),
+            settings.targetLanguage(),
+            cache.getContentVersion(),
+            settings.useLanguageAssets() ? languageAssets : null,
+            glossary
+        );
+    }
+    
     /**
      * 格式化翻譯結果
      */
@@ -209,8 +1030,8 @@ public class TranslationManager {
         StringBuilder result = new StringBuilder();
         
         // 檢查是否需要顯示原文
-        boolean showOriginal = SmartTranslatorConfig.SHOW_ORIGINAL_TEXT.get();
-        boolean showStatus = SmartTranslatorConfig.SHOW_TRANSLATION_STATUS.get();
+        boolean showOriginal = settings.showOriginalText();
+        boolean showStatus = settings.showTranslationStatus();
         
         if (showOriginal && showStatus) {
             // 同時顯示狀態和原文時，使用更清晰的格式
@@ -222,7 +1043,7 @@ public class TranslationManager {
         } else {
             // 只顯示翻譯結果 - 改善顏色處理
             if (showStatus) {
-                String prefix = SmartTranslatorConfig.TRANSLATION_PREFIX.get();
+                String prefix = settings.translationPrefix();
                 // 如果翻譯文本已經包含顏色代碼，不添加前綴顏色
                 if (translatedText.matches(".*§[0-9a-fk-or].*")) {
                     result.append(prefix);
@@ -261,6 +1082,13 @@ public class TranslationManager {
         }
     }
     
+    /**
+     * 替換翻譯 API（測試時使用不連網的實現）
+     */
+    void setTranslationAPI(TranslationAPI api) {
+        this.currentAPI = api;
+    }
+    
     /**
      * 獲取當前 API 名稱
      */
@@ -274,6 +1102,11 @@ public class TranslationManager {
     public void shutdown() {
         LOGGER.info("正在關閉翻譯管理器...");
         
+        // 停止對等緩存（先送出尚未傳播的新翻譯）
+        if (peers != null) {
+            peers.close();
+        }
+        
         // 關閉速率限制器
         if (rateLimiter != null) {
             rateLimiter.shutdown();
@@ -321,12 +1154,59 @@ public class TranslationManager {
         }
         
         if (cache != null) {
-            return cache.getCachedTranslation(originalText, "zh");
+            RenderedOutputCache.Fingerprint fingerprint = renderedOutputs.current();
+            String rendered = renderedOutputs.get(fingerprint, originalText);
+            if (rendered != null) {
+                return rendered;
+            }
+            
+            // 與翻譯時使用相同的目標語言與預處理，結果格式與 translateAsync 一致
+            String targetLanguage = settings.targetLanguage();
+            String processedText = MinecraftTextProcessor.preprocessText(originalText);
+            // 官方翻譯優先於緩存
+            String cached = officialTranslation(processedText, targetLanguage);
+            if (cached == null) {
+                List<TextSegmenter.Segment> segments = TextSegmenter.splitLong(processedText);
+                if (segments != null) {
+                    cached = getCachedSegments(segments, targetLanguage);
+                } else {
+                    NumericTemplate template = templateFor(processedText, targetLanguage);
+                    cached = template.isCoveredByGlossary() ? template.resolveLocally()
+                        : template.fill(cache.getCachedTranslation(template.getPattern(), targetLanguage));
+                }
+            }
+            if (cached != null) {
+                String postProcessed = MinecraftTextProcessor.postprocessText(cached, originalText);
+                return render(fingerprint, originalText, postProcessed);
+            }
         }
         
         return null;
     }
     
+    /**
+     * 從緩存組合逐句翻譯的長文字；有句子未緩存時返回 null
+     */
+    private String getCachedSegments(List<TextSegmenter.Segment> segments, String targetLanguage) {
+        String[] translated = new String[segments.size()];
+        boolean changed = false;
+        for (int i = 0; i < translated.length; i++) {
+            String segment = segments.get(i).text();
+            NumericTemplate template = templateFor(segment, targetLanguage);
+            if (SKIP_PATTERN.matcher(segment).matches() || cache.getNegativeReason(template.getPattern(), targetLanguage) != null) {
+                translated[i] = segment;
+                continue;
+            }
+            translated[i] = template.isCoveredByGlossary() ? template.resolveLocally()
+                : template.fill(cache.getCachedTranslation(template.getPattern(), targetLanguage));
+            if (translated[i] == null) {
+                return null;
+            }
+            changed = true;
+        }
+        return changed ? TextSegmenter.join(segments, translated) : null;
+    }
+    
     /**
      * 檢查緩存中是否存在指定文本的翻譯
      */
@@ -341,8 +1221,25 @@ public class TranslationManager {
         if (cache != null) {
             var stats = cache.getStats();
             var rateLimiterStats = rateLimiter.getStats();
-            return String.format("緩存條目數: %d, 緩存文件: %s, 速率限制器狀態: %s", 
-                stats.getTotalEntries(), stats.getCacheFilePath(), rateLimiterStats);
+            String loadState = cache.isReady() ? "已就緒"
+                : String.format("載入中 %.0f%%", cache.getLoadProgress() * 100);
+            var negativeCache = cache.getNegativeCache();
+            var memory = cache.getTranslationMemory();
+            var shared = cache.getSharedStore();
+            String batchState = String.format("%d 次 (%d 段)", batchRequests.get(), batchedTexts.get());
+            String relayState = relay == null ? "未啟用" : relay.isAvailable() ? "使用伺服器翻譯" : "伺服器未提供";
+            String peerState = peers == null ? "未啟用"
+                : String.format("%d 個對等端 (命中 %d/%d, 收到 %d 項)", peers.getPeerCount(), peers.getHits(), peers.getQueries(), peers.getReceivedEntries());
+            String sharedState = shared == null ? "未啟用"
+                : String.format("%d 項 (命中 %d, %s)", shared.size(), cache.getSharedHits(), shared.isOwner() ? "擁有者" : "共用者");
+            return String.format("緩存條目數: %d, 緩存文件: %s, 緩存狀態: %s, 分層統計: %s, 負緩存: %d 項 (命中 %d), 渲染結果: %d 項 (命中 %d/%d, 失效 %d 次), 被拒的數值模板: %d, 翻譯記憶: %d 項 (相似命中 %d/%d), 翻譯包: %d 個 (命中 %d), 官方翻譯: %d 項 (命中 %d), 術語表: %d 個術語, 共用緩存: %s, 對等緩存: %s, 伺服器中繼: %s, 正在中繼翻譯: %d, 批量請求: %s, 速率限制器狀態: %s", 
+                stats.getTotalEntries(), stats.getCacheFilePath(), loadState, cache.getTierStats(),
+                negativeCache.size(), negativeCache.getHits(),
+                renderedOutputs.size(), renderedOutputs.getHits(), renderedOutputs.getHits() + renderedOutputs.getMisses(),
+                renderedOutputs.getInvalidations(), rejectedTemplates.estimatedSize(),
+                memory.size(), memory.getMatches(), memory.getLookups(),
+                cache.getPacks().size(), cache.getPackHits(), languageAssets.size(), languageAssets.getHits(),
+                glossary.size(), sharedState, peerState, relayState, relayInFlight.size(), batchState, rateLimiterStats);
         }
         return "緩存未初始化";
     }
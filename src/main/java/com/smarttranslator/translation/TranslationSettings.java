@@ -0,0 +1,113 @@
+package com.smarttranslator.translation;
+
+import com.smarttranslator.config.SmartTranslatorConfig;
+
+/**
+ * 翻譯管理器讀取的使用者設定
+ * 遊戲中使用 {@link #CONFIG} 即時讀取設定檔；測試使用 {@link #DEFAULTS} 或自訂的 {@link Fixed}，
+ * 設定檔載入前不會讀取設定值。
+ */
+public interface TranslationSettings {
+
+    /**
+     * 翻譯 API 類型（google 或 google_ai_studio）
+     */
+    String translationApi();
+
+    String targetLanguage();
+
+    boolean autoTranslateEnabled();
+
+    boolean showOriginalText();
+
+    boolean showTranslationStatus();
+
+    String translationPrefix();
+
+    /**
+     * 是否優先使用遊戲語言檔中的官方翻譯
+     */
+    boolean useLanguageAssets();
+
+    /**
+     * 是否沿用只差在標點、空白或複數詞尾的翻譯
+     */
+    boolean acceptNearMatches();
+
+    /**
+     * 是否啟動區域網路對等緩存（其餘對等緩存設定只在啟用時讀取）
+     */
+    boolean peerCacheEnabled();
+
+    /**
+     * 即時讀取 {@link SmartTranslatorConfig}
+     */
+    TranslationSettings CONFIG = new TranslationSettings() {
+        @Override
+        public String translationApi() {
+            return SmartTranslatorConfig.TRANSLATION_API.get();
+        }
+
+        @Override
+        public String targetLanguage() {
+            return SmartTranslatorConfig.TARGET_LANGUAGE.get();
+        }
+
+        @Override
+        public boolean autoTranslateEnabled() {
+            return SmartTranslatorConfig.AUTO_TRANSLATE_ENABLED.get();
+        }
+
+        @Override
+        public boolean showOriginalText() {
+            return SmartTranslatorConfig.SHOW_ORIGINAL_TEXT.get();
+        }
+
+        @Override
+        public boolean showTranslationStatus() {
+            return SmartTranslatorConfig.SHOW_TRANSLATION_STATUS.get();
+        }
+
+        @Override
+        public String translationPrefix() {
+            return SmartTranslatorConfig.TRANSLATION_PREFIX.get();
+        }
+
+        @Override
+        public boolean useLanguageAssets() {
+            return SmartTranslatorConfig.USE_LANGUAGE_ASSETS.get();
+        }
+
+        @Override
+        public boolean acceptNearMatches() {
+            return SmartTranslatorConfig.ACCEPT_NEAR_MATCHES.get();
+        }
+
+        @Override
+        public boolean peerCacheEnabled() {
+            return SmartTranslatorConfig.PEER_CACHE_ENABLED.get();
+        }
+    };
+
+    /**
+     * 設定檔的預設值
+     */
+    Fixed DEFAULTS = new Fixed(
+        SmartTranslatorConfig.TRANSLATION_API.getDefault(),
+        SmartTranslatorConfig.TARGET_LANGUAGE.getDefault(),
+        SmartTranslatorConfig.AUTO_TRANSLATE_ENABLED.getDefault(),
+        SmartTranslatorConfig.SHOW_ORIGINAL_TEXT.getDefault(),
+        SmartTranslatorConfig.SHOW_TRANSLATION_STATUS.getDefault(),
+        SmartTranslatorConfig.TRANSLATION_PREFIX.getDefault(),
+        SmartTranslatorConfig.USE_LANGUAGE_ASSETS.getDefault(),
+        SmartTranslatorConfig.ACCEPT_NEAR_MATCHES.getDefault(),
+        SmartTranslatorConfig.PEER_CACHE_ENABLED.getDefault());
+
+    /**
+     * 固定的設定值
+     */
+    record Fixed(String translationApi, String targetLanguage, boolean autoTranslateEnabled, boolean showOriginalText,
+                 boolean showTranslationStatus, String translationPrefix, boolean useLanguageAssets,
+                 boolean acceptNearMatches, boolean peerCacheEnabled) implements TranslationSettings {
+    }
+}
@@ -1,6 +1,7 @@
 package com.smarttranslator.translation.api;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.smarttranslator.config.SmartTranslatorConfig;
@@ -15,8 +16,12 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -27,6 +32,8 @@ import java.util.regex.Pattern;
 public class GoogleAIStudioAPI implements TranslationAPI {
     private static final Logger LOGGER = LoggerFactory.getLogger(GoogleAIStudioAPI.class);
     private static final String API_BASE_URL = "https://generativelanguage.googleapis.com/v1/models/gemini-1.5-flash:generateContent";
+    // 結構化輸出（responseSchema）使用 v1beta 端點
+    private static final String BATCH_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-1.5-flash:generateContent";
     private static final int MAX_RETRIES = 3;
     private static final long RETRY_DELAY_MS = 1000;
     
@@ -36,15 +43,45 @@ public class GoogleAIStudioAPI implements TranslationAPI {
     
     @Override
     public String translate(String text, String targetLanguage) throws Exception {
+        return translate(text, targetLanguage, null, null);
+    }
+    
+    /**
+     * 翻譯文字，提示詞中附上相似文字的既有翻譯作為用詞參考
+     */
+    @Override
+    public String translate(String text, String targetLanguage, String referenceText, String referenceTranslation) throws Exception {
+        String apiKey = requireApiKey();
+        return withRetries(() -> performTranslation(text, targetLanguage, apiKey, referenceText, referenceTranslation));
+    }
+    
+    /**
+     * 批量翻譯：在同一個提示中送出所有文字，以結構化輸出（JSON 字串陣列）取得與輸入順序相同的譯文
+     */
+    @Override
+    public List<String> translateBatch(List<String> texts, String targetLanguage) throws Exception {
+        if (texts.size() == 1) {
+            return Collections.singletonList(translate(texts.get(0), targetLanguage));
+        }
+        String apiKey = requireApiKey();
+        return withRetries(() -> performBatchTranslation(texts, targetLanguage, apiKey));
+    }
+    
+    private String requireApiKey() {
         String apiKey = SmartTranslatorConfig.GOOGLE_API_KEY.get();
         if (apiKey == null || apiKey.trim().isEmpty()) {
             throw new IllegalStateException("Google AI Studio API 金鑰未設定");
         }
+        return apiKey;
+    }
         
+    private <T> T withRetries(Callable<T> request) throws Exception {
         Exception lastException = null;
         for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
             try {
-                return performTranslation(text, targetLanguage, apiKey);
+                return request.call();
+            } catch (TranslationBlockedException e) {
+                throw e; // 被過濾的內容重試也不會成功
             } catch (Exception e) {
                 lastException = e;
                 LOGGER.warn("翻譯嘗試 {}/{} 失敗: {}", attempt, MAX_RETRIES, e.getMessage());
@@ -63,19 +100,59 @@ public class GoogleAIStudioAPI implements TranslationAPI {
         throw new Exception("翻譯失敗，已重試 " + MAX_RETRIES + " 次", lastException);
     }
     
-    private String performTranslation(String text, String targetLanguage, String apiKey) throws Exception {
+    private String performTranslation(String text, String targetLanguage, String apiKey,
+                                      String referenceText, String referenceTranslation) throws Exception {
         
         // 保護占位符
         Map<String, String> placeholderMap = new HashMap<>();
         String protectedText = protectPlaceholders(text, placeholderMap);
         
-        // 構建請求URL
-        String requestUrl = API_BASE_URL + "?key=" + URLEncoder.encode(apiKey, StandardCharsets.UTF_8);
-        
         // 構建請求體
-        JsonObject requestBody = buildRequestBody(protectedText, targetLanguage);
+        JsonObject requestBody = buildRequestBody(protectedText, targetLanguage, referenceText, referenceTranslation);
+        
+        // 發送HTTP請求並恢復占位符
+        String translatedText = parseTranslationResponse(sendRequest(API_BASE_URL, apiKey, requestBody));
+        return restorePlaceholders(translatedText, placeholderMap);
+    }
+    
+    private List<String> performBatchTranslation(List<String> texts, String targetLanguage, String apiKey) throws Exception {
+        // 保護占位符
+        List<Map<String, String>> placeholderMaps = new ArrayList<>(texts.size());
+        JsonArray input = new JsonArray();
+        for (String text : texts) {
+            Map<String, String> placeholderMap = new HashMap<>();
+            placeholderMaps.add(placeholderMap);
+            input.add(protectPlaceholders(text, placeholderMap));
+        }
+        
+        JsonObject requestBody = buildBatchRequestBody(input, targetLanguage);
+        String output = parseTranslationResponse(sendRequest(BATCH_API_URL, apiKey, requestBody));
+        
+        // 解析 JSON 字串陣列，段數必須與請求相同
+        JsonArray translatedArray;
+        try {
+            translatedArray = JsonParser.parseString(output).getAsJsonArray();
+        } catch (Exception e) {
+            throw new Exception("無法解析批量翻譯結果: " + output, e);
+        }
+        if (translatedArray.size() != texts.size()) {
+            throw new Exception("批量翻譯結果的段數與請求不符，預期 " + texts.size() + " 段，實際 " + translatedArray.size() + " 段");
+        }
+        List<String> results = new ArrayList<>(texts.size());
+        for (int i = 0; i < translatedArray.size(); i++) {
+            JsonElement element = translatedArray.get(i);
+            results.add(element.isJsonNull() ? null : restorePlaceholders(element.getAsString().trim(), placeholderMaps.get(i)));
+        }
+        return results;
+    }
+    
+    /**
+     * 發送請求並返回響應內容；非 200 響應時拋出異常
+     */
+    private String sendRequest(String baseUrl, String apiKey, JsonObject requestBody) throws Exception {
+        // 構建請求URL
+        String requestUrl = baseUrl + "?key=" + URLEncoder.encode(apiKey, StandardCharsets.UTF_8);
         
-        // 發送HTTP請求
         HttpURLConnection connection = null;
         try {
             URL url = new URL(requestUrl);
@@ -102,10 +179,7 @@ public class GoogleAIStudioAPI implements TranslationAPI {
                     while ((line = reader.readLine()) != null) {
                         response.append(line);
                     }
-                    String translatedText = parseTranslationResponse(response.toString());
-                    
-                    // 恢復占位符
-                    return restorePlaceholders(translatedText, placeholderMap);
+                    return response.toString();
                 }
             } else {
                 // 讀取錯誤響應
@@ -161,16 +235,61 @@ public class GoogleAIStudioAPI implements TranslationAPI {
     /**
      * 構建請求體
      */
-    private JsonObject buildRequestBody(String text, String targetLanguage) {
+    private JsonObject buildRequestBody(String text, String targetLanguage, String referenceText, String referenceTranslation) {
         // 將語言代碼轉換為語言名稱
         String languageName = getLanguageName(targetLanguage);
         
+        // 有相似文字的既有翻譯時附上作為用詞參考
+        String reference = "";
+        if (referenceText != null && referenceTranslation != null) {
+            reference = String.format("參考：相似的文字「%s」先前翻譯為「%s」，請保持用詞一致，但依實際內容翻譯。\n",
+                referenceText, referenceTranslation);
+        }
+        
         // 構建提示詞，特別強調不要翻譯占位符
         String prompt = String.format(
-            "請將以下文字翻譯成%s。注意：請保持所有以ZZPROTECTEDPLACEHOLDERZZZ開頭和ZZEND結尾的標記不變，不要翻譯它們。只返回翻譯結果，不要添加任何解釋或額外內容：\n\n%s",
-            languageName, text
+            "請將以下文字翻譯成%s。注意：請保持所有以ZZPROTECTEDPLACEHOLDERZZZ開頭和ZZEND結尾的標記不變，不要翻譯它們。%s只返回翻譯結果，不要添加任何解釋或額外內容：\n\n%s",
+            languageName, reference, text
         );
         
+        // 設定生成配置
+        JsonObject generationConfig = new JsonObject();
+        generationConfig.addProperty("temperature", 0.1);
+        generationConfig.addProperty("maxOutputTokens", 1000);
+        generationConfig.addProperty("topP", 0.8);
+        generationConfig.addProperty("topK", 10);
+        return buildRequest(prompt, generationConfig);
+    }
+    
+    /**
+     * 構建批量翻譯的請求體：要求以相同長度與順序的 JSON 字串陣列返回
+     */
+    private JsonObject buildBatchRequestBody(JsonArray texts, String targetLanguage) {
+        String prompt = String.format(
+            "請將以下 JSON 陣列中的每一段文字分別翻譯成%s，返回長度與順序都相同的 JSON 字串陣列。注意：請保持所有以ZZPROTECTEDPLACEHOLDERZZZ開頭和ZZEND結尾的標記不變，不要翻譯它們。不要合併或拆分段落：\n\n%s",
+            getLanguageName(targetLanguage), texts
+        );
+        
+        JsonObject items = new JsonObject();
+        items.addProperty("type", "STRING");
+        JsonObject schema = new JsonObject();
+        schema.addProperty("type", "ARRAY");
+        schema.add("items", items);
+        
+        JsonObject generationConfig = new JsonObject();
+        generationConfig.addProperty("temperature", 0.1);
+        generationConfig.addProperty("maxOutputTokens", 8192);
+        generationConfig.addProperty("topP", 0.8);
+        generationConfig.addProperty("topK", 10);
+        generationConfig.addProperty("responseMimeType", "application/json");
+        generationConfig.add("responseSchema", schema);
+        return buildRequest(prompt, generationConfig);
+    }
+    
+    /**
+     * 以提示詞與生成配置構建請求體（附上安全設置）
+     */
+    private JsonObject buildRequest(String prompt, JsonObject generationConfig) {
         JsonObject requestBody = new JsonObject();
         JsonArray contents = new JsonArray();
         JsonObject content = new JsonObject();
@@ -182,13 +301,6 @@ public class GoogleAIStudioAPI implements TranslationAPI {
         content.add("parts", parts);
         contents.add(content);
         requestBody.add("contents", contents);
-        
-        // 設定生成配置
-        JsonObject generationConfig = new JsonObject();
-        generationConfig.addProperty("temperature", 0.1);
-        generationConfig.addProperty("maxOutputTokens", 1000);
-        generationConfig.addProperty("topP", 0.8);
-        generationConfig.addProperty("topK", 10);
         requestBody.add("generationConfig", generationConfig);
         
         // 設定安全設置
@@ -226,6 +338,14 @@ public class GoogleAIStudioAPI implements TranslationAPI {
                 throw new Exception("API 錯誤 (" + errorCode + "): " + errorMessage);
             }
             
+            // 整個提示被阻擋時不會返回候選結果
+            if (response.has("promptFeedback")) {
+                JsonObject feedback = response.getAsJsonObject("promptFeedback");
+                if (feedback.has("blockReason")) {
+                    throw new TranslationBlockedException(feedback.get("blockReason").getAsString(), "提示被安全過濾器阻擋");
+                }
+            }
+            
             if (response.has("candidates")) {
                 JsonArray candidates = response.getAsJsonArray("candidates");
                 if (candidates.size() > 0) {
@@ -235,9 +355,9 @@ public class GoogleAIStudioAPI implements TranslationAPI {
                     if (candidate.has("finishReason")) {
                         String finishReason = candidate.get("finishReason").getAsString();
                         if ("SAFETY".equals(finishReason)) {
-                            throw new Exception("內容被安全過濾器阻擋");
+                            throw new TranslationBlockedException(finishReason, "內容被安全過濾器阻擋");
                         } else if ("RECITATION".equals(finishReason)) {
-                            throw new Exception("內容可能包含重複內容");
+                            throw new TranslationBlockedException(finishReason, "內容可能包含重複內容");
                         }
                     }
                     
@@ -264,7 +384,7 @@ public class GoogleAIStudioAPI implements TranslationAPI {
             throw new Exception("無法解析翻譯響應");
             
         } catch (Exception e) {
-            if (e.getMessage().startsWith("API 錯誤") || e.getMessage().startsWith("內容被")) {
+            if (e instanceof TranslationBlockedException || e.getMessage().startsWith("API 錯誤")) {
                 throw e; // 重新拋出已知錯誤
             }
             LOGGER.error("解析 Google AI Studio 響應時發生錯誤: {}", jsonResponse, e);
@@ -3,16 +3,22 @@ package com.smarttranslator.translation.api;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
+import com.smarttranslator.config.PerformanceConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -24,6 +30,8 @@ import java.util.regex.Pattern;
 public class GoogleTranslateAPI implements TranslationAPI {
     private static final Logger LOGGER = LoggerFactory.getLogger(GoogleTranslateAPI.class);
     private static final String API_URL = "https://translate.googleapis.com/translate_a/single";
+    // 接受多個 q 參數的端點，每段文字返回一個結果
+    private static final String BATCH_API_URL = "https://translate.googleapis.com/translate_a/t";
     
     // 占位符保護模式
     private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\[FORMAT\\]", Pattern.CASE_INSENSITIVE);
@@ -74,6 +82,101 @@ public class GoogleTranslateAPI implements TranslationAPI {
         return restorePlaceholders(translatedText, placeholderMap);
     }
     
+    /**
+     * 批量翻譯：以 POST 在同一個請求中送出多個 q 參數
+     * 文字總長度超過 {@link PerformanceConfig#API_BATCH_MAX_CHARS} 時分成多個請求
+     */
+    @Override
+    public List<String> translateBatch(List<String> texts, String targetLanguage) throws Exception {
+        List<String> results = new ArrayList<>(texts.size());
+        int start = 0;
+        while (start < texts.size()) {
+            int end = start;
+            int chars = 0;
+            while (end < texts.size() && (end == start || chars + texts.get(end).length() <= PerformanceConfig.API_BATCH_MAX_CHARS)) {
+                chars += texts.get(end).length();
+                end++;
+            }
+            results.addAll(translateChunk(texts.subList(start, end), targetLanguage));
+            start = end;
+        }
+        return results;
+    }
+    
+    private List<String> translateChunk(List<String> texts, String targetLanguage) throws Exception {
+        if (texts.size() == 1) {
+            return Collections.singletonList(translate(texts.get(0), targetLanguage));
+        }
+        
+        // 保護占位符並組合表單內容
+        List<Map<String, String>> placeholderMaps = new ArrayList<>(texts.size());
+        StringBuilder form = new StringBuilder();
+        for (String text : texts) {
+            Map<String, String> placeholderMap = new HashMap<>();
+            placeholderMaps.add(placeholderMap);
+            if (form.length() > 0) {
+                form.append('&');
+            }
+            form.append("q=").append(URLEncoder.encode(protectPlaceholders(text, placeholderMap), StandardCharsets.UTF_8));
+        }
+        
+        // 發送 HTTP 請求
+        String url = String.format("%s?client=gtx&sl=auto&tl=%s", BATCH_API_URL, targetLanguage);
+        HttpURLConnection connection = null;
+        StringBuilder response = new StringBuilder();
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("User-Agent", 
+                    "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
+            connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8");
+            connection.setDoOutput(true);
+            connection.setConnectTimeout(5000);
+            connection.setReadTimeout(10000);
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(form.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            
+            int responseCode = connection.getResponseCode();
+            if (responseCode != 200) {
+                // 讀取錯誤響應，讓連線得以正常釋放
+                StringBuilder errorResponse = new StringBuilder();
+                InputStream errorStream = connection.getErrorStream();
+                if (errorStream != null) {
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(errorStream, StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            errorResponse.append(line);
+                        }
+                    }
+                }
+                LOGGER.error("批量翻譯請求失敗: {} - {}", responseCode, errorResponse);
+                throw new Exception("批量翻譯請求失敗，響應碼: " + responseCode);
+            }
+            
+            // 讀取響應
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    response.append(line);
+                }
+            }
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+        
+        // 解析 JSON 響應並恢復占位符
+        List<String> translated = parseBatchResponse(response.toString(), texts.size());
+        for (int i = 0; i < translated.size(); i++) {
+            translated.set(i, restorePlaceholders(translated.get(i), placeholderMaps.get(i)));
+        }
+        return translated;
+    }
+    
     /**
      * 保護占位符，將其替換為不會被翻譯的標記
      */
@@ -136,6 +239,28 @@ public class GoogleTranslateAPI implements TranslationAPI {
         throw new Exception("無法從響應中提取翻譯結果");
     }
     
+    /**
+     * 解析批量翻譯的響應：每段文字對應一個元素，自動偵測來源語言時元素為 [譯文, 來源語言]
+     */
+    private List<String> parseBatchResponse(String jsonResponse, int expected) throws Exception {
+        try {
+            JsonArray results = JsonParser.parseString(jsonResponse).getAsJsonArray();
+            if (results.size() == expected) {
+                List<String> translated = new ArrayList<>(expected);
+                for (JsonElement element : results) {
+                    JsonElement text = element.isJsonArray() ? element.getAsJsonArray().get(0) : element;
+                    translated.add(text.getAsString());
+                }
+                return translated;
+            }
+        } catch (Exception e) {
+            LOGGER.error("解析批量翻譯響應失敗: {}", jsonResponse, e);
+            throw new Exception("解析批量翻譯響應失敗", e);
+        }
+        
+        throw new Exception("批量翻譯響應的段數與請求不符，預期 " + expected + " 段");
+    }
+    
     @Override
     public String getApiName() {
         return "Google Translate";
@@ -1,5 +1,8 @@
 package com.smarttranslator.translation.api;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 翻譯 API 介面
  */
@@ -15,6 +18,42 @@ public interface TranslationAPI {
      */
     String translate(String text, String targetLanguage) throws Exception;
     
+    /**
+     * 參考相似文字的既有翻譯進行翻譯，讓用詞保持一致
+     * 預設忽略參考並調用 {@link #translate(String, String)}；能接受上下文的實現可覆寫
+     * 
+     * @param text 要翻譯的文字
+     * @param targetLanguage 目標語言代碼
+     * @param referenceText 相似的原文
+     * @param referenceTranslation 該原文的既有翻譯
+     * @return 翻譯結果
+     * @throws Exception 翻譯失敗時拋出異常
+     */
+    default String translate(String text, String targetLanguage, String referenceText, String referenceTranslation) throws Exception {
+        return translate(text, targetLanguage);
+    }
+    
+    /**
+     * 在一次請求中翻譯多段文字（例如同一個物品提示的各行）
+     * 預設逐段調用 {@link #translate(String, String)}；支援批量請求的實現應覆寫，讓 N 段文字只需一次往返
+     * 
+     * @param texts 要翻譯的文字
+     * @param targetLanguage 目標語言代碼
+     * @return 與輸入順序相同、數量相同的翻譯結果；個別文字被翻譯服務拒絕時對應位置為 null
+     * @throws Exception 整批翻譯失敗時拋出異常
+     */
+    default List<String> translateBatch(List<String> texts, String targetLanguage) throws Exception {
+        List<String> results = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            try {
+                results.add(translate(text, targetLanguage));
+            } catch (TranslationBlockedException e) {
+                results.add(null);
+            }
+        }
+        return results;
+    }
+    
     /**
      * 獲取 API 名稱
      * 
@@ -0,0 +1,21 @@
+package com.smarttranslator.translation.api;
+
+/**
+ * 內容被翻譯服務拒絕（例如安全過濾器阻擋）
+ * 重試不會得到不同的結果，調用方不應再為同一文字調用 API
+ */
+public class TranslationBlockedException extends Exception {
+    private final String reason;
+    
+    public TranslationBlockedException(String reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+    
+    /**
+     * 服務返回的拒絕原因（例如 SAFETY、RECITATION）
+     */
+    public String getReason() {
+        return reason;
+    }
+}
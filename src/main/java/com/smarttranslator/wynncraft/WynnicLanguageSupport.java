@@ -1,5 +1,6 @@
 package com.smarttranslator.wynncraft;
 
+import com.smarttranslator.translation.Glossary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -123,6 +124,8 @@ public class WynnicLanguageSupport {
         WYNNIC_PHRASES.put("DUNGEON", "地牢");
         WYNNIC_PHRASES.put("RAID", "團本");
     }
+    // 短語編譯為不分大小寫的前綴樹，一次掃描替換所有短語（較長的短語優先，WYNNCRAFT 不會被拆成 WYNN）
+    private static final Glossary WYNNIC_GLOSSARY = Glossary.of("zh-TW", WYNNIC_PHRASES);
     
     // Wynnic 文本檢測模式
     private static final Pattern WYNNIC_PATTERN = Pattern.compile("[\\uE000-\\uE0FF]+");
@@ -260,12 +263,8 @@ public class WynnicLanguageSupport {
             result = convertGavellianToLatin(result);
         }
         
-        // 檢查是否有常見短語需要翻譯
-        for (Map.Entry<String, String> entry : WYNNIC_PHRASES.entrySet()) {
-            if (result.toUpperCase().contains(entry.getKey())) {
-                result = result.replaceAll("(?i)" + Pattern.quote(entry.getKey()), entry.getValue());
-            }
-        }
+        // 翻譯常見短語
+        result = WYNNIC_GLOSSARY.replace(result);
         
         return result;
     }
@@ -0,0 +1,111 @@
+package com.smarttranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 訪問頻率持久化與熱點預熱測試
+ */
+public class AccessMetadataTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testFrequencySurvivesRestart() {
+        Path file = tempDir.resolve(FrequencyTracker.FILE_NAME);
+        FrequencyTracker tracker = new FrequencyTracker(Runnable::run);
+        for (int i = 0; i < 5; i++) {
+            tracker.record(42L);
+        }
+        tracker.save(file);
+
+        FrequencyTracker restored = new FrequencyTracker(Runnable::run);
+        assertEquals(0, restored.frequency(42L));
+        assertTrue(restored.load(file));
+        assertEquals(5, restored.frequency(42L));
+    }
+
+    @Test
+    void testHotSetKeepsMostFrequentEntries() throws Exception {
+        FrequencyTracker tracker = new FrequencyTracker(Runnable::run);
+        List<CachedTranslation> residents = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            CachedTranslation cached = new CachedTranslation("text" + i, "文字" + i, "zh-TW", 1);
+            residents.add(cached);
+            for (int j = 0; j < i; j++) {
+                tracker.record(TranslationKeyHash.hash(cached.getOriginalText(), "zh-TW"));
+                // 訪問緩衝區是有損的，逐次排空以得到確定的頻率
+                tracker.drain();
+            }
+        }
+
+        List<HotSet.Entry> hot = HotSet.select(residents, tracker, 3);
+        assertEquals(3, hot.size());
+        assertEquals("text9", hot.get(0).originalText);
+
+        Path file = tempDir.resolve(HotSet.FILE_NAME);
+        HotSet.write(file, hot);
+        List<HotSet.Entry> read = HotSet.read(file);
+        assertEquals(3, read.size());
+        assertEquals("text8", read.get(1).originalText);
+        assertEquals("zh-TW", read.get(1).targetLanguage);
+    }
+
+    @Test
+    void testHotEntriesArePrewarmedIntoL1() throws Exception {
+        TranslationCache cache = new TranslationCache(tempDir);
+        assertTrue(cache.awaitReady(5000));
+        cache.addToCache("Diamond Sword", "鑽石劍", "zh-TW");
+        cache.addToCache("Stone", "石頭", "zh-TW");
+        for (int i = 0; i < 5; i++) {
+            cache.getCachedTranslation("Diamond Sword", "zh-TW");
+        }
+        cache.shutdown();
+        assertTrue(Files.exists(tempDir.resolve(FrequencyTracker.FILE_NAME)));
+
+        TranslationCache reopened = new TranslationCache(tempDir);
+        try {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (reopened.getPrewarmedCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(1, reopened.getPrewarmedCount());
+            assertEquals(1, reopened.getResidentSize());
+
+            assertEquals("鑽石劍", reopened.getCachedTranslation("Diamond Sword", "zh-TW"));
+            assertEquals(1, reopened.getTierStats().getL1Hits());
+            // 頻率以正規化後的鍵記錄
+            assertTrue(reopened.getFrequencyTracker().frequency(
+                TranslationKeyHash.hash(CacheKeyNormalizer.text("Diamond Sword", "zh-TW"), "zh-TW")) >= 5);
+        } finally {
+            reopened.shutdown();
+        }
+    }
+
+    @Test
+    void testMergeRetainsExpiredHotEntries() throws Exception {
+        SegmentStore store = new SegmentStore(tempDir);
+        store.open();
+        store.writeSegment(List.of(
+            new CachedTranslation("Common", "常用", "zh-TW", 1),
+            new CachedTranslation("Rare", "罕見", "zh-TW", 1)), Collections.emptyList());
+        store.writeSegment(List.of(new CachedTranslation("New", "新", "zh-TW", 100)), Collections.emptyList());
+
+        long common = TranslationKeyHash.hash("Common", "zh-TW");
+        List<CachedTranslation> expired = new ArrayList<>();
+        store.mergeAll(50, key -> key == common, expired::add);
+
+        assertEquals("常用", store.get("Common", "zh-TW").getTranslatedText());
+        assertNull(store.get("Rare", "zh-TW"));
+        assertEquals(1, expired.size());
+        assertEquals("Rare", expired.get(0).getOriginalText());
+    }
+}
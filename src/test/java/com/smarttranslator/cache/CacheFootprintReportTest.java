@@ -0,0 +1,166 @@
+package com.smarttranslator.cache;
+
+import com.smarttranslator.config.PerformanceConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * 緩存佔用報告
+ * 以 Wynncraft 物品提示語料比較每個項目的堆記憶體與緩存檔案大小：
+ * 「之前」為每個項目各自持有字串、分段不壓縮；「之後」為共享字串池與字典壓縮。
+ */
+public class CacheFootprintReportTest {
+    private static final String CORPUS = "wynncraft_tooltips.tsv";
+    private static final String LANGUAGE = "zh-TW";
+    // 物件標頭 12 + 兩個引用 8 + short 2 + long 8，對齊到 8
+    private static final int ENTRY_OBJECT_BYTES = 32;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testFootprintReport() throws IOException {
+        List<String[]> corpus = loadCorpus();
+        assertTrue(corpus.size() > 1000, "語料過少: " + corpus.size());
+
+        // 模擬從日誌與分段解碼：每條記錄都產生新的字串實例，zh-TW 與 zh-CN 共用原文
+        List<String[]> unpooled = new ArrayList<>();
+        List<String[]> pooled = new ArrayList<>();
+        StringPool pool = new StringPool(1 << 14);
+        for (int language = 0; language < 2; language++) {
+            for (String[] line : corpus) {
+                String original = new String(line[0].toCharArray());
+                String translated = new String((language == 0 ? line[1] : line[2]).toCharArray());
+                unpooled.add(new String[] {original, translated});
+                pooled.add(new String[] {pool.pool(original), pool.pool(translated)});
+            }
+        }
+        long heapBefore = heapBytes(unpooled, false);
+        long heapAfter = heapBytes(pooled, true);
+
+        List<CachedTranslation> entries = new ArrayList<>();
+        for (String[] line : corpus) {
+            entries.add(new CachedTranslation(line[0], line[1], LANGUAGE, System.currentTimeMillis()));
+        }
+        long fileBefore = segmentBytes(tempDir.resolve("plain"), entries, false);
+        long fileAfter = segmentBytes(tempDir.resolve("dict"), entries, true);
+
+        // 只看記錄內容（不含檔頭與索引）的壓縮效果
+        List<String> samples = new ArrayList<>();
+        for (String[] line : corpus) {
+            samples.add(line[0]);
+            samples.add(line[1]);
+        }
+        TranslationDictionary dictionary = TranslationDictionary.train(samples, PerformanceConfig.DICTIONARY_MAX_BYTES);
+        assertNotNull(dictionary);
+        long payloadBefore = 0;
+        long payloadAfter = 0;
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        for (String[] line : corpus) {
+            byte[] raw = (line[0] + line[1]).getBytes(StandardCharsets.UTF_8);
+            byte[] compressed = dictionary.compress(raw, deflater);
+            payloadBefore += raw.length;
+            payloadAfter += compressed != null ? compressed.length : raw.length;
+        }
+        deflater.end();
+
+        int count = entries.size();
+        System.out.println("=== 緩存佔用報告（" + count + " 個 Wynncraft 提示項目）===");
+        System.out.printf("堆記憶體:  之前 %6.1f B/項, 之後 %6.1f B/項 (%.1f%%)%n",
+            (double) heapBefore / unpooled.size(), (double) heapAfter / pooled.size(),
+            100.0 * heapAfter / heapBefore);
+        System.out.printf("緩存檔案:  之前 %6.1f B/項, 之後 %6.1f B/項 (%.1f%%，含字典)%n",
+            (double) fileBefore / count, (double) fileAfter / count, 100.0 * fileAfter / fileBefore);
+        System.out.printf("記錄內容:  之前 %6.1f B/項, 之後 %6.1f B/項 (%.1f%%，字典 %d B)%n",
+            (double) payloadBefore / count, (double) payloadAfter / count, 100.0 * payloadAfter / payloadBefore,
+            dictionary.size());
+        System.out.printf("字串池命中: %d / %d%n", pool.getHits(), pool.getHits() + pool.getMisses());
+
+        assertTrue(heapAfter < heapBefore);
+        assertTrue(fileAfter < fileBefore);
+        assertTrue(payloadAfter < payloadBefore / 2);
+    }
+
+    private List<String[]> loadCorpus() throws IOException {
+        List<String[]> corpus = new ArrayList<>();
+        try (InputStream in = getClass().getResourceAsStream(CORPUS)) {
+            assertNotNull(in, "找不到語料: " + CORPUS);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split("\t");
+                if (columns.length == 3) {
+                    corpus.add(columns);
+                }
+            }
+        }
+        return corpus;
+    }
+
+    private long segmentBytes(Path directory, List<CachedTranslation> entries, boolean compression) throws IOException {
+        Files.createDirectories(directory);
+        SegmentStore store = new SegmentStore(directory, compression);
+        store.open();
+        store.writeSegment(entries, Collections.emptyList());
+
+        // 確認寫入的內容可以完整讀回
+        SegmentStore reopened = new SegmentStore(directory, compression);
+        reopened.open();
+        for (CachedTranslation cached : entries) {
+            assertEquals(cached.getTranslatedText(), reopened.get(cached.getOriginalText(), LANGUAGE).getTranslatedText());
+        }
+
+        long bytes = 0;
+        try (var files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                bytes += Files.size(path);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 估算項目及其字串佔用的堆記憶體；共享時同一字串實例只計算一次
+     */
+    private static long heapBytes(List<String[]> entries, boolean countSharedOnce) {
+        Map<String, Boolean> seen = new IdentityHashMap<>();
+        long bytes = 0;
+        for (String[] entry : entries) {
+            bytes += ENTRY_OBJECT_BYTES;
+            for (String value : entry) {
+                if (!countSharedOnce || seen.put(value, Boolean.TRUE) == null) {
+                    bytes += stringBytes(value);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * String 物件 24 位元組 + 陣列標頭 16 位元組 + 內容（壓縮字串時 Latin-1 每字元 1 位元組）
+     */
+    private static long stringBytes(String value) {
+        boolean latin1 = value.chars().allMatch(c -> c < 256);
+        long content = (long) value.length() * (latin1 ? 1 : 2);
+        return 24 + ((16 + content + 7) & ~7L);
+    }
+
+}
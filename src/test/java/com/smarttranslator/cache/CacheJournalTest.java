@@ -0,0 +1,199 @@
+package com.smarttranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 緩存寫入日誌測試
+ */
+public class CacheJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    // 模擬持久儲存
+    private final Map<String, CachedTranslation> persisted = new ConcurrentHashMap<>();
+
+    @Test
+    void testReplayAfterFlush() {
+        Map<String, CachedTranslation> live = new ConcurrentHashMap<>();
+        CacheJournal journal = new CacheJournal(tempDir, () -> persisted.putAll(live));
+
+        put(live, journal, "Hello", "你好");
+        put(live, journal, "World", "世界");
+        journal.flush();
+
+        // 只寫入了日誌，沒有寫入持久儲存
+        assertTrue(persisted.isEmpty());
+        assertTrue(journal.getJournalBytes() > 0);
+        assertEquals(2, journal.getAppendedRecords());
+
+        Map<String, CachedTranslation> restored = new ConcurrentHashMap<>();
+        replayInto(restored);
+        assertEquals(2, restored.size());
+        assertEquals("你好", restored.get("Hello").getTranslatedText());
+        assertEquals("World", restored.get("World").getOriginalText());
+    }
+
+    @Test
+    void testGroupCommitBatchesRecords() {
+        Map<String, CachedTranslation> live = new ConcurrentHashMap<>();
+        CacheJournal journal = new CacheJournal(tempDir, () -> persisted.putAll(live));
+
+        for (int i = 0; i < 100; i++) {
+            put(live, journal, "text " + i, "文本 " + i);
+        }
+        journal.flush();
+
+        assertEquals(100, journal.getAppendedRecords());
+        assertTrue(journal.getGroupCommits() < 100, "同一提交窗口內的記錄應該合併寫入");
+    }
+
+    @Test
+    void testRemoveIsReplayed() {
+        Map<String, CachedTranslation> live = new ConcurrentHashMap<>();
+        CacheJournal journal = new CacheJournal(tempDir, () -> persisted.putAll(live));
+
+        put(live, journal, "Hello", "你好");
+        journal.appendRemove(live.remove("Hello"));
+        journal.flush();
+
+        Map<String, CachedTranslation> restored = new ConcurrentHashMap<>();
+        replayInto(restored);
+        assertTrue(restored.isEmpty());
+
+        // 移除記錄保留原文與語言，供儲存層寫入刪除標記
+        List<CachedTranslation> tombstones = new ArrayList<>();
+        new CacheJournal(tempDir, () -> { }).replay(new CacheJournal.ReplayHandler() {
+            @Override
+            public void onPut(CachedTranslation cached) {
+            }
+
+            @Override
+            public void onRemove(CachedTranslation cached) {
+                tombstones.add(cached);
+            }
+        });
+        assertEquals(1, tombstones.size());
+        assertEquals("Hello", tombstones.get(0).getOriginalText());
+        assertEquals("zh-TW", tombstones.get(0).getTargetLanguage());
+    }
+
+    @Test
+    void testCompactionFoldsJournalIntoStore() throws Exception {
+        Map<String, CachedTranslation> live = new ConcurrentHashMap<>();
+        CacheJournal journal = new CacheJournal(tempDir, () -> persisted.putAll(live));
+
+        put(live, journal, "Hello", "你好");
+        assertTrue(journal.compact());
+
+        assertEquals(1, persisted.size());
+        assertEquals(0, Files.size(tempDir.resolve(CacheJournal.JOURNAL_FILE_NAME)));
+
+        // 壓縮後的新記錄繼續追加到日誌
+        put(live, journal, "World", "世界");
+        journal.flush();
+
+        Map<String, CachedTranslation> restored = new ConcurrentHashMap<>(persisted);
+        replayInto(restored);
+        assertEquals(2, restored.size());
+        journal.shutdown();
+    }
+
+    @Test
+    void testTornTailIsIgnored() throws Exception {
+        Map<String, CachedTranslation> live = new ConcurrentHashMap<>();
+        CacheJournal journal = new CacheJournal(tempDir, () -> persisted.putAll(live));
+        put(live, journal, "Hello", "你好");
+        journal.flush();
+
+        // 模擬崩潰時只寫入一半的記錄
+        Files.write(tempDir.resolve(CacheJournal.JOURNAL_FILE_NAME),
+            "{\"op\":\"put\",\"o\":\"Wor".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+
+        Map<String, CachedTranslation> restored = new ConcurrentHashMap<>();
+        replayInto(restored);
+        assertEquals(1, restored.size());
+        assertNotNull(restored.get("Hello"));
+    }
+
+    @Test
+    void testLegacySnapshotIsLoadedAndDeleted() throws Exception {
+        Files.write(tempDir.resolve(CacheJournal.SNAPSHOT_FILE_NAME),
+            "{\"k1\":{\"originalText\":\"Hello\",\"translatedText\":\"你好\",\"targetLanguage\":\"zh-TW\",\"timestamp\":1}}"
+                .getBytes(StandardCharsets.UTF_8));
+
+        CacheJournal journal = new CacheJournal(tempDir, () -> { });
+        List<CachedTranslation> restored = new ArrayList<>();
+        assertTrue(journal.loadLegacySnapshot(restored::add));
+        assertEquals(1, restored.size());
+        assertEquals("你好", restored.get(0).getTranslatedText());
+        assertEquals("zh-TW", restored.get(0).getTargetLanguage());
+        assertEquals(journal.getBytesToLoad(), journal.getBytesLoaded());
+
+        journal.deleteLegacySnapshot();
+        assertFalse(journal.loadLegacySnapshot(cached -> fail("快照已刪除")));
+    }
+
+    @Test
+    void testClearRemovesEverything() {
+        Map<String, CachedTranslation> live = new ConcurrentHashMap<>();
+        CacheJournal journal = new CacheJournal(tempDir, new CacheJournal.SnapshotWriter() {
+            @Override
+            public void write() {
+                persisted.putAll(live);
+            }
+
+            @Override
+            public void clear() {
+                persisted.clear();
+            }
+        });
+        put(live, journal, "Hello", "你好");
+        journal.compact();
+        put(live, journal, "World", "世界");
+
+        live.clear();
+        journal.clear();
+
+        assertTrue(persisted.isEmpty());
+        Map<String, CachedTranslation> restored = new ConcurrentHashMap<>();
+        replayInto(restored);
+        assertTrue(restored.isEmpty());
+    }
+
+    private void put(Map<String, CachedTranslation> live, CacheJournal journal,
+                     String original, String translated) {
+        CachedTranslation cached = new CachedTranslation(original, translated, "zh-TW", System.currentTimeMillis());
+        live.put(original, cached);
+        journal.appendPut(cached);
+    }
+
+    /**
+     * 以原文為鍵重放日誌
+     */
+    private void replayInto(Map<String, CachedTranslation> target) {
+        new CacheJournal(tempDir, () -> { }).replay(new CacheJournal.ReplayHandler() {
+            @Override
+            public void onPut(CachedTranslation cached) {
+                target.put(cached.getOriginalText(), cached);
+            }
+
+            @Override
+            public void onRemove(CachedTranslation cached) {
+                target.remove(cached.getOriginalText());
+            }
+        });
+    }
+}
@@ -0,0 +1,94 @@
+package com.smarttranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+
+/**
+ * 緩存鍵正規化測試
+ */
+public class CacheKeyNormalizerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLanguageTags() {
+        assertEquals("zh-TW", CacheKeyNormalizer.language("zh-TW"));
+        assertEquals("zh-TW", CacheKeyNormalizer.language("zh_tw"));
+        assertEquals("zh-TW", CacheKeyNormalizer.language("ZH-tw"));
+        assertEquals("ja", CacheKeyNormalizer.language("ja"));
+        assertTrue(CacheKeyNormalizer.isCaseless("zh-TW"));
+        assertFalse(CacheKeyNormalizer.isCaseless("fr"));
+    }
+
+    @Test
+    void testKnownLanguages() {
+        assertTrue(CacheKeyNormalizer.isKnownLanguage(CacheKeyNormalizer.language("zh_tw")));
+        assertTrue(CacheKeyNormalizer.isKnownLanguage("ja"));
+        assertTrue(CacheKeyNormalizer.isKnownLanguage("fil"));
+        assertTrue(CacheKeyNormalizer.isKnownLanguage("zh-Hant-TW"));
+        // 虛構的代碼、未正規化的寫法與私用標籤都不接受
+        assertFalse(CacheKeyNormalizer.isKnownLanguage("qq"));
+        assertFalse(CacheKeyNormalizer.isKnownLanguage("xx-YY"));
+        assertFalse(CacheKeyNormalizer.isKnownLanguage("en-QQ"));
+        assertFalse(CacheKeyNormalizer.isKnownLanguage("abcdefgh"));
+        assertFalse(CacheKeyNormalizer.isKnownLanguage("zh_tw"));
+        assertFalse(CacheKeyNormalizer.isKnownLanguage("en-x-foo"));
+        assertFalse(CacheKeyNormalizer.isKnownLanguage(""));
+    }
+
+    @Test
+    void testEquivalentTextsShareKey() {
+        String expected = "\"iron\" sword - +5 damage";
+        assertEquals(expected, CacheKeyNormalizer.text("\u201CIron\u201D Sword \u2014 +5 Damage", "zh-TW"));
+        assertEquals(expected, CacheKeyNormalizer.text("  \"IRON\"  sword - +5 damage ", "zh-TW"));
+        assertEquals(expected, CacheKeyNormalizer.text("§a\"Iron\" §lSword§r - +5 Damage", "zh-TW"));
+        // 全形字元經 NFKC 轉為半形
+        assertEquals(expected, CacheKeyNormalizer.text("\"Iron\" Sword - \uFF0B\uFF15 Damage", "zh-TW"));
+        assertEquals("iron sword", CacheKeyNormalizer.text("Iron\u200B Sword", "zh-TW"));
+    }
+
+    @Test
+    void testCaseKeptForCasedTargets() {
+        assertEquals("Iron Sword", CacheKeyNormalizer.text("Iron  Sword", "fr"));
+        assertNotEquals(CacheKeyNormalizer.text("Iron Sword", "fr"), CacheKeyNormalizer.text("IRON SWORD", "fr"));
+    }
+
+    @Test
+    void testCanonicalFormIsStable() {
+        String canonical = "already canonical";
+        assertSame(canonical, CacheKeyNormalizer.text(canonical, "zh-TW"));
+        String key = CacheKeyNormalizer.text("§6Legendary\u3000Item  \u2013 Tier\u2160", "ja");
+        assertEquals(key, CacheKeyNormalizer.text(key, "ja"));
+    }
+
+    @Test
+    void testRestoreCase() {
+        assertEquals("Steve 的鑽石劍", CacheKeyNormalizer.restoreCase("steve 的鑽石劍", "Steve's Diamond Sword"));
+        assertEquals("鑽石劍", CacheKeyNormalizer.restoreCase("鑽石劍", "DIAMOND SWORD"));
+        // 只還原完整字詞
+        assertEquals("ore 礦", CacheKeyNormalizer.restoreCase("ore 礦", "Iron ORES"));
+    }
+
+    @Test
+    void testCacheLookupUsesCanonicalKey() {
+        TranslationCache cache = new TranslationCache(tempDir);
+        assertTrue(cache.awaitReady(5000));
+        cache.addToCache("Iron Sword", "鐵劍", "zh-TW");
+
+        assertEquals("鐵劍", cache.getCachedTranslation("IRON  SWORD", "zh_tw"));
+        assertEquals("鐵劍", cache.getCachedTranslation("§fIron Sword", "zh-TW"));
+        assertTrue(cache.containsTranslation("iron sword", "zh-TW"));
+        assertEquals(1, cache.getCacheSize());
+
+        cache.addNegative("Steve", "zh-TW", NegativeCache.Reason.PROPER_NOUN);
+        assertEquals(NegativeCache.Reason.PROPER_NOUN, cache.getNegativeReason("STEVE", "zh_TW"));
+
+        assertTrue(cache.removeFromCache("iron sword", "zh-TW"));
+        assertNull(cache.getCachedTranslation("Iron Sword", "zh-TW"));
+        cache.shutdown();
+    }
+}
@@ -0,0 +1,129 @@
+package com.smarttranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 冷歸檔與布隆過濾器測試
+ */
+public class ColdArchiveTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static CachedTranslation entry(String original, String translated, long timestamp) {
+        return new CachedTranslation(original, translated, "zh-TW", timestamp);
+    }
+
+    private static long key(String original) {
+        return TranslationKeyHash.hash(original, "zh-TW");
+    }
+
+    @Test
+    void testBloomFilterHasNoFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(1000, 0.01);
+        for (long i = 0; i < 1000; i++) {
+            filter.put(TranslationKeyHash.mix(i));
+        }
+        int falsePositives = 0;
+        for (long i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain(TranslationKeyHash.mix(i)));
+            if (filter.mightContain(TranslationKeyHash.mix(i + 1_000_000))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 50, "誤判過多: " + falsePositives);
+    }
+
+    @Test
+    void testArchivedEntriesSurviveRestart() {
+        ColdArchive archive = new ColdArchive(tempDir, Runnable::run);
+        archive.load();
+        archive.add(entry("Hello", "你好", 100));
+        archive.add(entry("World", "世界", 100));
+        archive.shutdown();
+        assertTrue(Files.exists(tempDir.resolve(ColdArchive.FILTER_FILE_NAME)));
+
+        ColdArchive reopened = new ColdArchive(tempDir, Runnable::run);
+        reopened.load();
+        assertEquals("你好", reopened.get(key("Hello"), "Hello", "zh-TW").getTranslatedText());
+        assertNull(reopened.get(key("Missing"), "Missing", "zh-TW"));
+        assertEquals(1, reopened.getHits());
+        assertEquals(2, reopened.getLookups());
+        assertEquals(1, reopened.getFilterNegatives() + reopened.getFalsePositives());
+        reopened.shutdown();
+    }
+
+    @Test
+    void testFilterIsRebuiltWhenStale() throws Exception {
+        ColdArchive archive = new ColdArchive(tempDir, Runnable::run);
+        archive.load();
+        archive.add(entry("Hello", "你好", 100));
+        archive.shutdown();
+        Files.delete(tempDir.resolve(ColdArchive.FILTER_FILE_NAME));
+
+        ColdArchive reopened = new ColdArchive(tempDir, Runnable::run);
+        reopened.load();
+        assertEquals("你好", reopened.get(key("Hello"), "Hello", "zh-TW").getTranslatedText());
+        reopened.shutdown();
+    }
+
+    @Test
+    void testRemoveShadowsOlderBlocks() {
+        ColdArchive archive = new ColdArchive(tempDir, Runnable::run);
+        archive.load();
+        archive.add(entry("Hello", "你好", 100));
+        archive.flush();
+        archive.remove(key("Hello"), "Hello", "zh-TW");
+        archive.flush();
+        assertNull(archive.get(key("Hello"), "Hello", "zh-TW"));
+        assertFalse(archive.contains(key("Hello"), "Hello", "zh-TW"));
+        archive.shutdown();
+    }
+
+    @Test
+    void testMergeHandsExpiredEntriesToSink() throws Exception {
+        SegmentStore store = new SegmentStore(tempDir);
+        store.open();
+        store.writeSegment(List.of(entry("Old", "舊", 1), entry("New", "新", 100)), Collections.emptyList());
+        store.writeSegment(List.of(entry("Newer", "更新", 100)), Collections.emptyList());
+
+        List<CachedTranslation> expired = new ArrayList<>();
+        store.mergeAll(50, expired::add);
+
+        assertEquals(1, expired.size());
+        assertEquals("Old", expired.get(0).getOriginalText());
+        assertEquals("舊", expired.get(0).getTranslatedText());
+        assertEquals("zh-TW", expired.get(0).getTargetLanguage());
+        assertNull(store.get("Old", "zh-TW"));
+    }
+
+    @Test
+    void testArchivedTranslationIsOnlyAFallback() {
+        TranslationCache cache = new TranslationCache(tempDir);
+        try {
+            cache.awaitReady(5000);
+            cache.getArchive().load();
+            cache.getArchive().add(entry("Diamond Sword", "鑽石劍", 100));
+            cache.getArchive().flush();
+
+            // 歸檔中的過期項目不算命中，仍需重新翻譯
+            assertNull(cache.getCachedTranslation("Diamond Sword", "zh-TW"));
+            assertFalse(cache.containsTranslation("Diamond Sword", "zh-TW"));
+            // 重新翻譯失敗時可取回舊譯文，但不寫回緩存
+            assertEquals("鑽石劍", cache.getArchivedTranslation("Diamond Sword", "zh-TW"));
+            assertEquals(1, cache.getTierStats().getArchiveHits());
+            assertNull(cache.getCachedTranslation("Diamond Sword", "zh-TW"));
+            assertNull(cache.getArchivedTranslation("Iron Sword", "zh-TW"));
+        } finally {
+            cache.shutdown();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.smarttranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 訪問頻率估計與訪問緩衝區測試
+ */
+public class FrequencySketchTest {
+    // 測試中由調用線程直接排空
+    private static final Executor DIRECT = Runnable::run;
+
+    @Test
+    void testIncrementAndSaturate() {
+        FrequencySketch sketch = new FrequencySketch(512);
+        assertEquals(0, sketch.frequency(42L));
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(i, sketch.increment(42L));
+        }
+        assertEquals(5, sketch.frequency(42L));
+
+        for (int i = 0; i < 100; i++) {
+            sketch.increment(7L);
+        }
+        assertEquals(FrequencySketch.MAX_FREQUENCY, sketch.frequency(7L));
+    }
+
+    @Test
+    void testAgingHalvesCounters() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(42L);
+        }
+        sketch.reset();
+        assertEquals(5, sketch.frequency(42L));
+
+        // 大量不同的鍵觸發自動老化，舊的熱點衰減
+        for (long key = 1000; key < 1000 + 64 * 10; key++) {
+            sketch.increment(key);
+        }
+        assertTrue(sketch.frequency(42L) < 5);
+    }
+
+    @Test
+    void testHotKeyStandsOutFromNoise() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        for (long key = 0; key < 2000; key++) {
+            sketch.increment(key * 0x9e3779b97f4a7c15L);
+            if (key % 10 == 0) {
+                sketch.increment(-1L);
+            }
+        }
+        assertTrue(sketch.frequency(-1L) >= 10);
+        assertTrue(sketch.frequency(12345L) <= 2);
+    }
+
+    @Test
+    void testBufferDropsWhenFull() {
+        StripedAccessBuffer buffer = new StripedAccessBuffer(1, 4);
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(StripedAccessBuffer.SUCCESS, buffer.offer(i));
+        }
+        assertEquals(StripedAccessBuffer.FULL, buffer.offer(5));
+
+        long[] sum = new long[1];
+        assertEquals(4, buffer.drainTo(key -> sum[0] += key));
+        assertEquals(10, sum[0]);
+        assertEquals(StripedAccessBuffer.SUCCESS, buffer.offer(6));
+    }
+
+    @Test
+    void testTrackerDrainsIntoSketch() throws Exception {
+        FrequencyTracker tracker = new FrequencyTracker(new FrequencySketch(256), new StripedAccessBuffer(4, 8), DIRECT);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 3; i++) {
+                    tracker.record(99L);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        tracker.drain();
+
+        // 有損記錄：丟棄的訪問不計入，但不會多算
+        assertEquals(12, tracker.getRecorded() + tracker.getDropped());
+        assertEquals(Math.min(FrequencySketch.MAX_FREQUENCY, tracker.getRecorded()), tracker.frequency(99L));
+        assertEquals(1, tracker.getHotKeys());
+
+        tracker.reset();
+        assertEquals(0, tracker.frequency(99L));
+    }
+}
@@ -0,0 +1,109 @@
+package com.smarttranslator.cache;
+
+import com.smarttranslator.config.PerformanceConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+
+/**
+ * 記憶體壓力縮減與恢復測試（直接模擬 JMX 通知）
+ */
+public class MemoryPressureTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static void fill(TranslationCache cache, int count) {
+        for (int i = 0; i < count; i++) {
+            cache.addToCache("Some fairly ordinary tooltip line #" + i, "一行普通的提示文字 #" + i, "zh-TW");
+        }
+    }
+
+    @Test
+    void testPressureShedsByWeightDownToFloor() {
+        TranslationCache cache = new TranslationCache(tempDir);
+        assertTrue(cache.awaitReady(5000));
+        EnhancedCacheOptimizer optimizer = new EnhancedCacheOptimizer(cache, cache.getFrequencyTracker(), CacheSettings.DEFAULTS);
+        fill(cache, 5000);
+        long before = cache.getL1WeightedSize();
+        assertTrue(before > 2 * PerformanceConfig.MEMORY_SHED_FLOOR_BYTES);
+
+        optimizer.onMemoryPressure(0.9);
+        assertTrue(optimizer.isUnderMemoryPressure());
+        assertTrue(cache.getL1WeightedSize() <= before * PerformanceConfig.MEMORY_SHED_RATIO);
+
+        // 反覆的壓力通知不會縮減到下限以下
+        for (int i = 0; i < 10; i++) {
+            optimizer.onMemoryPressure(0.95);
+        }
+        assertEquals(PerformanceConfig.MEMORY_SHED_FLOOR_BYTES, cache.getL1MaximumWeight());
+        assertTrue(cache.getL1WeightedSize() <= PerformanceConfig.MEMORY_SHED_FLOOR_BYTES);
+        assertTrue(optimizer.getStats().getMemoryShedEvents() > 1);
+
+        // 被縮減的項目仍可從 L2 讀回
+        assertEquals("一行普通的提示文字 #0", cache.getCachedTranslation("Some fairly ordinary tooltip line #0", "zh-TW"));
+        optimizer.shutdown();
+        cache.shutdown();
+    }
+
+    @Test
+    void testGrowsBackOnlyAfterStableCollections() {
+        TranslationCache cache = new TranslationCache(tempDir);
+        assertTrue(cache.awaitReady(5000));
+        EnhancedCacheOptimizer optimizer = new EnhancedCacheOptimizer(cache, cache.getFrequencyTracker(), CacheSettings.DEFAULTS);
+        long target = cache.getL1MaximumWeight();
+        fill(cache, 5000);
+
+        optimizer.onMemoryPressure(0.9);
+        long shed = cache.getL1MaximumWeight();
+        assertTrue(shed < target);
+
+        // 尚未連續穩定足夠次數時不擴大；不穩定的 GC 重新計數
+        for (int i = 0; i < PerformanceConfig.MEMORY_RECOVERY_COLLECTIONS - 1; i++) {
+            optimizer.onCollection(0.3);
+        }
+        optimizer.onCollection(0.8);
+        optimizer.onCollection(0.3);
+        assertEquals(shed, cache.getL1MaximumWeight());
+
+        for (int i = 0; i < PerformanceConfig.MEMORY_RECOVERY_COLLECTIONS - 1; i++) {
+            optimizer.onCollection(0.3);
+        }
+        assertTrue(cache.getL1MaximumWeight() > shed);
+
+        // 持續穩定後恢復到目標大小
+        for (int i = 0; i < 100 && optimizer.isUnderMemoryPressure(); i++) {
+            optimizer.onCollection(0.3);
+        }
+        assertFalse(optimizer.isUnderMemoryPressure());
+        assertEquals(target, cache.getL1MaximumWeight());
+        optimizer.shutdown();
+        cache.shutdown();
+    }
+
+    @Test
+    void testSoftDemotionKeepsShedEntriesReachable() {
+        TranslationCache cache = new TranslationCache(tempDir);
+        assertTrue(cache.awaitReady(5000));
+        EnhancedCacheOptimizer optimizer = new EnhancedCacheOptimizer(cache, cache.getFrequencyTracker(),
+            CacheSettings.DEFAULTS.withSoftReferenceDemotion(true));
+        fill(cache, 5000);
+
+        optimizer.onMemoryPressure(0.9);
+        assertTrue(cache.getDemotedSize() > 0);
+
+        // 降級的項目從 L1 路徑取回，不需要讀取 L2
+        long l2Hits = cache.getTierStats().getL2Hits();
+        assertEquals("一行普通的提示文字 #0", cache.getCachedTranslation("Some fairly ordinary tooltip line #0", "zh-TW"));
+        assertEquals(l2Hits, cache.getTierStats().getL2Hits());
+
+        // 縮減之後的正常驅逐不再降級
+        long demoted = cache.getDemotedSize();
+        fill(cache, 200);
+        assertTrue(cache.getDemotedSize() <= demoted);
+        optimizer.shutdown();
+        cache.shutdown();
+    }
+}
@@ -0,0 +1,78 @@
+package com.smarttranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 負緩存測試
+ */
+public class NegativeCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPutAndGetByLanguage() {
+        NegativeCache cache = new NegativeCache(tempDir);
+        assertNull(cache.get("Steve", "zh-TW"));
+
+        cache.put("Steve", "zh-TW", NegativeCache.Reason.PROPER_NOUN);
+        assertEquals(NegativeCache.Reason.PROPER_NOUN, cache.get("Steve", "zh-TW"));
+        // 其他目標語言不受影響
+        assertNull(cache.get("Steve", "ja"));
+        assertEquals(1, cache.getHits());
+
+        cache.remove("Steve", "zh-TW");
+        assertNull(cache.get("Steve", "zh-TW"));
+    }
+
+    @Test
+    void testReasonsHaveTheirOwnTtl() {
+        assertTrue(NegativeCache.Reason.BLOCKED.getTtlMs() < NegativeCache.Reason.UNCHANGED.getTtlMs());
+        assertTrue(NegativeCache.Reason.UNCHANGED.getTtlMs() <= NegativeCache.Reason.SKIPPED.getTtlMs());
+        for (NegativeCache.Reason reason : NegativeCache.Reason.values()) {
+            assertTrue(reason.getTtlMs() > 0, reason.name());
+        }
+    }
+
+    @Test
+    void testSaveAndLoadRoundTrip() {
+        NegativeCache cache = new NegativeCache(tempDir);
+        cache.put("12345", "zh-TW", NegativeCache.Reason.SKIPPED);
+        cache.put("Unsafe text", "zh-TW", NegativeCache.Reason.BLOCKED);
+        cache.save();
+        assertTrue(Files.exists(tempDir.resolve(NegativeCache.FILE_NAME)));
+
+        NegativeCache reloaded = new NegativeCache(tempDir);
+        reloaded.load();
+        assertEquals(2, reloaded.size());
+        assertEquals(NegativeCache.Reason.SKIPPED, reloaded.get("12345", "zh-TW"));
+        assertEquals(NegativeCache.Reason.BLOCKED, reloaded.get("Unsafe text", "zh-TW"));
+    }
+
+    @Test
+    void testCorruptFileIsIgnored() throws Exception {
+        Files.write(tempDir.resolve(NegativeCache.FILE_NAME), new byte[] {1, 2, 3});
+        NegativeCache cache = new NegativeCache(tempDir);
+        cache.load();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testTranslationClearsNegativeEntry() {
+        TranslationCache cache = new TranslationCache(tempDir);
+        try {
+            cache.addNegative("Diamond Sword", "zh-TW", NegativeCache.Reason.UNCHANGED);
+            assertEquals(NegativeCache.Reason.UNCHANGED, cache.getNegativeReason("Diamond Sword", "zh-TW"));
+
+            cache.addToCache("Diamond Sword", "鑽石劍", "zh-TW");
+            assertNull(cache.getNegativeReason("Diamond Sword", "zh-TW"));
+        } finally {
+            cache.shutdown();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.smarttranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 共現學習與預取測試
+ */
+public class PrefetchTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testNeighborsRequireRepeatedCoOccurrence() {
+        CoOccurrenceIndex index = new CoOccurrenceIndex(100, 4);
+        assertTrue(index.observe(List.of("Walk Speed", "Health", "Mythic Item")));
+        // 同一組重複出現（例如每一幀重新渲染的提示）不重複計數
+        assertFalse(index.observe(List.of("Walk Speed", "Health", "Mythic Item")));
+        assertTrue(index.neighbors("Walk Speed", 2).isEmpty());
+
+        assertTrue(index.observe(List.of("Walk Speed", "Health", "Legendary Item")));
+        assertEquals(List.of("Health"), index.neighbors("Walk Speed", 2));
+        assertEquals(3, index.neighbors("Walk Speed", 1).size());
+    }
+
+    @Test
+    void testIndexIsBounded() {
+        CoOccurrenceIndex index = new CoOccurrenceIndex(10, 2);
+        for (int i = 0; i < 100; i++) {
+            index.observe(List.of("a" + i, "b" + i, "c" + i));
+        }
+        assertEquals(10, index.size());
+        assertTrue(index.neighbors("a99", 1).size() <= 2);
+    }
+
+    @Test
+    void testMissPrefetchesLearnedGroup() throws Exception {
+        TranslationCache cache = new TranslationCache(tempDir, false, CacheSettings.DEFAULTS.withPrefetch(true, 30));
+        assertTrue(cache.awaitReady(5000));
+        List<String> requested = new CopyOnWriteArrayList<>();
+        cache.setPrefetchTranslator((text, language) -> {
+            requested.add(text);
+            cache.addToCache(text, "譯:" + text, language);
+            return true;
+        });
+
+        cache.observeGroup(List.of("Walk Speed", "Health", "Mythic Item"));
+        cache.observeGroup(List.of("Walk Speed", "Health", "Legendary Item"));
+        cache.addToCache("Health", "生命值", "zh-TW");
+        cache.observeGroup(List.of("Agility", "Defence", "Rare Item"));
+        cache.observeGroup(List.of("Agility", "Defence", "Unique Item"));
+
+        // Health 已在緩存中，不需要預取
+        assertNull(cache.getCachedTranslation("Walk Speed", "zh-TW"));
+        assertNull(cache.getCachedTranslation("Agility", "zh-TW"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!requested.contains("Defence") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(List.of("Defence"), requested);
+
+        assertEquals("譯:Defence", cache.getCachedTranslation("Defence", "zh-TW"));
+        EnhancedCacheOptimizer.CacheStats stats = cache.getEnhancedStats();
+        assertEquals(1, stats.getPreloadCount());
+        assertEquals(1, stats.getPrefetchUseful());
+        assertEquals(1.0, stats.getPrefetchAccuracy(), 1e-9);
+        assertEquals(0.0, stats.getPrefetchWasteRatio(), 1e-9);
+        cache.shutdown();
+    }
+
+    @Test
+    void testDisabledPrefetchDoesNotTranslate() throws Exception {
+        TranslationCache cache = new TranslationCache(tempDir, false, CacheSettings.DEFAULTS.withPrefetch(false, 30));
+        assertTrue(cache.awaitReady(5000));
+        List<String> requested = new CopyOnWriteArrayList<>();
+        cache.setPrefetchTranslator((text, language) -> requested.add(text));
+
+        cache.observeGroup(List.of("Agility", "Defence", "Rare Item"));
+        cache.observeGroup(List.of("Agility", "Defence", "Unique Item"));
+        assertNull(cache.getCachedTranslation("Agility", "zh-TW"));
+        Thread.sleep(100);
+        assertTrue(requested.isEmpty());
+        assertEquals(0, cache.getEnhancedStats().getPreloadCount());
+        cache.shutdown();
+    }
+}
@@ -0,0 +1,176 @@
+package com.smarttranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 記憶體映射分段儲存測試
+ */
+public class SegmentStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWriteAndReopen() throws Exception {
+        SegmentStore store = new SegmentStore(tempDir);
+        store.open();
+        store.writeSegment(List.of(entry("Hello", "你好", 1), entry("World", "世界", 1)), Collections.emptyList());
+
+        assertEquals("你好", store.get("Hello", "zh-TW").getTranslatedText());
+        assertNull(store.get("Hello", "ja"));
+        assertNull(store.get("Missing", "zh-TW"));
+
+        SegmentStore reopened = new SegmentStore(tempDir);
+        reopened.open();
+        assertEquals(1, reopened.getSegmentCount());
+        assertEquals(2, reopened.getEntryCount());
+        CachedTranslation cached = reopened.get("World", "zh-TW");
+        assertEquals("世界", cached.getTranslatedText());
+        assertEquals(1, cached.getTimestamp());
+    }
+
+    @Test
+    void testNewerSegmentWinsAndTombstoneHides() throws Exception {
+        SegmentStore store = new SegmentStore(tempDir);
+        store.open();
+        store.writeSegment(List.of(entry("Hello", "哈囉", 1), entry("Bye", "再見", 1)), Collections.emptyList());
+        store.writeSegment(List.of(entry("Hello", "你好", 2)), List.of(entry("Bye", null, 2)));
+
+        assertEquals("你好", store.get("Hello", "zh-TW").getTranslatedText());
+        assertNull(store.get("Bye", "zh-TW"));
+    }
+
+    @Test
+    void testReopenKeepsAllUnmergedSegments() throws Exception {
+        SegmentStore store = new SegmentStore(tempDir);
+        store.open();
+        store.writeSegment(List.of(entry("Hello", "你好", 1)), Collections.emptyList());
+        store.writeSegment(List.of(entry("World", "世界", 2)), Collections.emptyList());
+
+        SegmentStore reopened = new SegmentStore(tempDir);
+        reopened.open();
+        assertEquals(2, reopened.getSegmentCount());
+        assertEquals("你好", reopened.get("Hello", "zh-TW").getTranslatedText());
+        assertEquals("世界", reopened.get("World", "zh-TW").getTranslatedText());
+    }
+
+    @Test
+    void testMergeDropsShadowedTombstonedAndExpired() throws Exception {
+        SegmentStore store = new SegmentStore(tempDir);
+        store.open();
+        store.writeSegment(List.of(entry("Hello", "哈囉", 100), entry("Bye", "再見", 100), entry("Old", "舊", 1)),
+            Collections.emptyList());
+        store.writeSegment(List.of(entry("Hello", "你好", 200)), List.of(entry("Bye", null, 200)));
+
+        store.mergeAll(50);
+
+        assertEquals(1, store.getSegmentCount());
+        assertEquals(1, store.getEntryCount());
+        assertEquals("你好", store.get("Hello", "zh-TW").getTranslatedText());
+        assertNull(store.get("Bye", "zh-TW"));
+        assertNull(store.get("Old", "zh-TW"));
+
+        // 合併後重新開啟只會看到合併分段
+        SegmentStore reopened = new SegmentStore(tempDir);
+        reopened.open();
+        assertEquals(1, reopened.getSegmentCount());
+        assertEquals("你好", reopened.get("Hello", "zh-TW").getTranslatedText());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.filter(p -> p.toString().endsWith(SegmentStore.SEGMENT_SUFFIX)).count());
+        }
+    }
+
+    @Test
+    void testManyEntries() throws Exception {
+        SegmentStore store = new SegmentStore(tempDir);
+        store.open();
+        List<CachedTranslation> entries = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            entries.add(entry("text " + i, "文本 " + i, i));
+        }
+        store.writeSegment(entries, Collections.emptyList());
+
+        for (int i = 0; i < 5000; i += 7) {
+            assertEquals("文本 " + i, store.get("text " + i, "zh-TW").getTranslatedText());
+        }
+        assertNull(store.get("text 5000", "zh-TW"));
+    }
+
+    @Test
+    void testClear() throws Exception {
+        SegmentStore store = new SegmentStore(tempDir);
+        store.open();
+        store.writeSegment(List.of(entry("Hello", "你好", 1)), Collections.emptyList());
+        store.clear();
+
+        assertNull(store.get("Hello", "zh-TW"));
+        SegmentStore reopened = new SegmentStore(tempDir);
+        reopened.open();
+        assertEquals(0, reopened.getSegmentCount());
+    }
+
+    @Test
+    void testDictionaryCompressionRoundTrip() throws Exception {
+        SegmentStore store = new SegmentStore(tempDir);
+        store.open();
+        store.writeSegment(tooltipEntries(0, 500), Collections.emptyList());
+        assertTrue(store.getDictionaryBytes() > 0);
+
+        SegmentStore plain = new SegmentStore(tempDir.resolve("plain"), false);
+        Files.createDirectories(tempDir.resolve("plain"));
+        plain.open();
+        plain.writeSegment(tooltipEntries(0, 500), Collections.emptyList());
+        assertEquals(0, plain.getDictionaryBytes());
+        assertTrue(store.getMappedBytes() < plain.getMappedBytes());
+
+        SegmentStore reopened = new SegmentStore(tempDir);
+        reopened.open();
+        for (int i = 0; i < 500; i++) {
+            assertEquals("§a+" + i + "% §7行走速度", reopened.get("§a+" + i + "% §7Walk Speed", "zh-TW").getTranslatedText());
+        }
+        assertNull(reopened.get("§a+500% §7Walk Speed", "zh-TW"));
+    }
+
+    @Test
+    void testMergeRetrainsDictionaryAndDropsOldOne() throws Exception {
+        SegmentStore store = new SegmentStore(tempDir);
+        store.open();
+        store.writeSegment(tooltipEntries(0, 300), Collections.emptyList());
+        store.writeSegment(List.of(entry("Health Regen", "生命恢復", 2)), List.of(entry("§a+1% §7Walk Speed", null, 2)));
+
+        store.mergeAll(0);
+
+        assertEquals(1, store.getSegmentCount());
+        assertEquals("§a+2% §7行走速度", store.get("§a+2% §7Walk Speed", "zh-TW").getTranslatedText());
+        assertEquals("生命恢復", store.get("Health Regen", "zh-TW").getTranslatedText());
+        assertNull(store.get("§a+1% §7Walk Speed", "zh-TW"));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.filter(p -> p.toString().endsWith(SegmentStore.DICTIONARY_SUFFIX)).count());
+        }
+
+        SegmentStore reopened = new SegmentStore(tempDir);
+        reopened.open();
+        assertEquals("§a+299% §7行走速度", reopened.get("§a+299% §7Walk Speed", "zh-TW").getTranslatedText());
+    }
+
+    private List<CachedTranslation> tooltipEntries(int from, int to) {
+        List<CachedTranslation> entries = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            entries.add(entry("§a+" + i + "% §7Walk Speed", "§a+" + i + "% §7行走速度", 1));
+        }
+        return entries;
+    }
+
+    private CachedTranslation entry(String original, String translated, long timestamp) {
+        return new CachedTranslation(original, translated, "zh-TW", timestamp);
+    }
+}
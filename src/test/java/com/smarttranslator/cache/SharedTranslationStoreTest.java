@@ -0,0 +1,210 @@
+package com.smarttranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 跨進程共用緩存測試（以同一 JVM 中打開同一檔案的多個實例模擬多個遊戲進程）
+ */
+public class SharedTranslationStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static CachedTranslation entry(String original, String translated) {
+        return new CachedTranslation(original, translated, "zh-TW", System.currentTimeMillis());
+    }
+
+    private static CachedTranslation get(SharedTranslationStore store, String original) {
+        return store.get(TranslationKeyHash.hash(original, "zh-TW"), original, "zh-TW");
+    }
+
+    @Test
+    void testWritesAreImmediatelyVisibleToOtherInstances() throws IOException {
+        Path directory = tempDir.resolve(SharedTranslationStore.DIRECTORY);
+        SharedTranslationStore first = SharedTranslationStore.open(directory, 1024, 64 * 1024);
+        SharedTranslationStore second = SharedTranslationStore.open(directory, 1024, 64 * 1024);
+        assertTrue(first.isOwner());
+        assertFalse(second.isOwner());
+
+        assertTrue(second.put(entry("guild bank", "公會銀行")));
+        assertEquals("公會銀行", get(first, "guild bank").getTranslatedText());
+        assertNull(get(first, "iron sword"));
+
+        // 覆蓋舊記錄，不增加項目數
+        assertTrue(first.put(entry("guild bank", "公會金庫")));
+        assertEquals("公會金庫", get(second, "guild bank").getTranslatedText());
+        assertEquals(1, second.size());
+
+        // 刪除標記以譯文為 null 的項目返回
+        assertTrue(second.put(entry("guild bank", null)));
+        assertNull(get(first, "guild bank").getTranslatedText());
+
+        // 重新打開後內容仍在
+        second.close();
+        SharedTranslationStore reopened = SharedTranslationStore.open(directory, 1024, 64 * 1024);
+        assertNull(get(reopened, "guild bank").getTranslatedText());
+        reopened.close();
+        first.close();
+    }
+
+    @Test
+    void testConcurrentWritersNeverLoseEntries() throws Exception {
+        Path directory = tempDir.resolve(SharedTranslationStore.DIRECTORY);
+        List<SharedTranslationStore> stores = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            stores.add(SharedTranslationStore.open(directory, 1 << 14, 4 * 1024 * 1024));
+        }
+        int perWriter = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < 6; w++) {
+            SharedTranslationStore store = stores.get(w % stores.size());
+            int writer = w;
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    assertTrue(store.put(entry("writer " + writer + " line " + i, "寫入者 " + writer + " 第 " + i + " 行")));
+                }
+            }));
+        }
+        for (Future<?> future : writers) {
+            future.get();
+        }
+        executor.shutdown();
+
+        for (SharedTranslationStore store : stores) {
+            assertEquals(6 * perWriter, store.size());
+            for (int w = 0; w < 6; w++) {
+                for (int i = 0; i < perWriter; i += 37) {
+                    assertEquals("寫入者 " + w + " 第 " + i + " 行", get(store, "writer " + w + " line " + i).getTranslatedText());
+                }
+            }
+            store.close();
+        }
+    }
+
+    @Test
+    void testOwnerDrainsOtherWritersAndResetsWhenFull() throws IOException {
+        Path directory = tempDir.resolve(SharedTranslationStore.DIRECTORY);
+        SharedTranslationStore owner = SharedTranslationStore.open(directory, 64, 4096);
+        SharedTranslationStore other = SharedTranslationStore.open(directory, 64, 4096);
+        owner.put(entry("owner text", "擁有者"));
+        other.put(entry("other text", "其他實例"));
+
+        List<CachedTranslation> drained = new ArrayList<>();
+        assertEquals(1, owner.drain(drained::add));
+        assertEquals("other text", drained.get(0).getOriginalText());
+        // 已匯入的記錄不重複匯入，非擁有者不能匯入
+        assertEquals(0, owner.drain(drained::add));
+        assertEquals(0, other.drain(drained::add));
+
+        // 記錄區寫滿時拒絕寫入
+        int written = 0;
+        while (other.put(entry("filler " + written, "填充文字 " + written))) {
+            written++;
+        }
+        assertTrue(written > 0);
+        assertFalse(other.put(entry("one more", "再一個")));
+
+        // 擁有者匯入後重置，之後可以繼續寫入
+        long modifications = owner.getModificationCount();
+        drained.clear();
+        assertEquals(written, owner.drain(drained::add));
+        assertEquals(modifications + 1, other.getModificationCount());
+        assertEquals(0, other.size());
+        assertNull(get(other, "filler 0"));
+        assertTrue(other.put(entry("one more", "再一個")));
+        assertEquals("再一個", get(owner, "one more").getTranslatedText());
+        other.close();
+        owner.close();
+    }
+
+    @Test
+    void testResetWaitsUntilEntriesArePersisted() throws IOException {
+        Path directory = tempDir.resolve(SharedTranslationStore.DIRECTORY);
+        SharedTranslationStore owner = SharedTranslationStore.open(directory, 64, 4096);
+        SharedTranslationStore other = SharedTranslationStore.open(directory, 64, 4096);
+        int written = 0;
+        while (other.put(entry("filler " + written, "填充文字 " + written))) {
+            written++;
+        }
+
+        // 無法寫入持久檔案時不重置，其他實例仍可讀到
+        List<CachedTranslation> drained = new ArrayList<>();
+        assertEquals(written, owner.drain(drained::add, () -> false));
+        assertEquals("填充文字 0", get(other, "filler 0").getTranslatedText());
+
+        int[] persisted = {0};
+        owner.drain(drained::add, () -> {
+            persisted[0]++;
+            return true;
+        });
+        assertEquals(1, persisted[0]);
+        assertNull(get(other, "filler 0"));
+        other.close();
+        owner.close();
+    }
+
+    @Test
+    void testOtherInstancesReadOwnerPersistedEntries() {
+        // 擁有者先前已持久化的翻譯
+        TranslationCache standalone = new TranslationCache(tempDir);
+        assertTrue(standalone.awaitReady(5000));
+        standalone.addToCache("Guild Bank", "公會銀行", "zh-TW");
+        standalone.shutdown();
+
+        TranslationCache owner = new TranslationCache(tempDir, true);
+        TranslationCache other = new TranslationCache(tempDir, true);
+        assertTrue(owner.awaitReady(5000));
+        assertTrue(other.awaitReady(5000));
+        assertFalse(other.getSharedStore().isOwner());
+
+        // 擁有者未查找過，也不在共用緩存中，非擁有者仍直接讀到擁有者的 L2
+        assertEquals("公會銀行", other.getCachedTranslation("Guild Bank", "zh-TW"));
+        assertTrue(other.containsTranslation("Guild Bank", "zh-TW"));
+        assertEquals(0, other.getSharedHits());
+        assertNull(other.getCachedTranslation("Iron Sword", "zh-TW"));
+
+        other.shutdown();
+        owner.shutdown();
+    }
+
+    @Test
+    void testSharedCacheModeAcrossCacheInstances() {
+        TranslationCache owner = new TranslationCache(tempDir, true);
+        TranslationCache other = new TranslationCache(tempDir, true);
+        assertTrue(owner.awaitReady(5000));
+        assertTrue(other.awaitReady(5000));
+        assertTrue(owner.getSharedStore().isOwner());
+        assertFalse(other.getSharedStore().isOwner());
+
+        other.addToCache("Guild Bank", "公會銀行", "zh-TW");
+        owner.addToCache("Iron Sword", "鐵劍", "zh-TW");
+        // 不經過磁碟上的 L2，另一個實例立即可見
+        assertEquals("公會銀行", owner.getCachedTranslation("Guild Bank", "zh-TW"));
+        assertEquals("鐵劍", other.getCachedTranslation("Iron Sword", "zh-TW"));
+        assertEquals(1, owner.getSharedHits());
+
+        assertTrue(owner.removeFromCache("Iron Sword", "zh-TW"));
+        assertFalse(other.containsTranslation("Iron Sword", "zh-TW"));
+
+        other.shutdown();
+        owner.shutdown();
+
+        // 擁有者關閉時已將其他實例的寫入匯入自己的 L2
+        TranslationCache standalone = new TranslationCache(tempDir);
+        assertTrue(standalone.awaitReady(5000));
+        assertEquals("公會銀行", standalone.getCachedTranslation("Guild Bank", "zh-TW"));
+        assertNull(standalone.getCachedTranslation("Iron Sword", "zh-TW"));
+        standalone.shutdown();
+    }
+}
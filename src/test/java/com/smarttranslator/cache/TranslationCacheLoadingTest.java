@@ -0,0 +1,65 @@
+package com.smarttranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 翻譯緩存後台載入測試
+ */
+public class TranslationCacheLoadingTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPersistedEntriesAreAvailableAfterWarming() {
+        TranslationCache cache = new TranslationCache(tempDir);
+        assertTrue(cache.awaitReady(5000));
+        cache.addToCache("Hello", "你好", "zh-TW");
+        cache.addToCache("World", "世界", "zh-TW");
+        cache.saveCache();
+        cache.addToCache("Journal only", "只在日誌中", "zh-TW");
+        cache.shutdown();
+
+        TranslationCache reopened = new TranslationCache(tempDir);
+        assertTrue(reopened.awaitReady(5000));
+        assertEquals(1.0, reopened.getLoadProgress());
+        assertEquals("你好", reopened.getCachedTranslation("Hello", "zh-TW"));
+        assertEquals("只在日誌中", reopened.getCachedTranslation("Journal only", "zh-TW"));
+        assertNull(reopened.getCachedTranslation("Hello", "ja"));
+        reopened.shutdown();
+    }
+
+    @Test
+    void testRemovalSurvivesRestart() {
+        TranslationCache cache = new TranslationCache(tempDir);
+        assertTrue(cache.awaitReady(5000));
+        cache.addToCache("Hello", "你好", "zh-TW");
+        cache.saveCache();
+        assertTrue(cache.removeFromCache("Hello", "zh-TW"));
+        cache.shutdown();
+
+        TranslationCache reopened = new TranslationCache(tempDir);
+        assertTrue(reopened.awaitReady(5000));
+        assertNull(reopened.getCachedTranslation("Hello", "zh-TW"));
+        reopened.shutdown();
+    }
+
+    @Test
+    void testLegacySnapshotIsMigrated() throws Exception {
+        Files.write(tempDir.resolve(CacheJournal.SNAPSHOT_FILE_NAME),
+            ("{\"0123\":{\"originalText\":\"Hello\",\"translatedText\":\"你好\",\"targetLanguage\":\"zh-TW\",\"timestamp\":"
+                + System.currentTimeMillis() + "}}").getBytes(StandardCharsets.UTF_8));
+
+        TranslationCache cache = new TranslationCache(tempDir);
+        assertTrue(cache.awaitReady(5000));
+        assertEquals("你好", cache.getCachedTranslation("Hello", "zh-TW"));
+        assertFalse(Files.exists(tempDir.resolve(CacheJournal.SNAPSHOT_FILE_NAME)));
+        cache.shutdown();
+    }
+}
@@ -0,0 +1,92 @@
+package com.smarttranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 命名空間分區測試
+ */
+public class TranslationCachePartitionTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testNamespacesAreIsolated() {
+        TranslationCache cache = new TranslationCache(tempDir);
+        cache.switchNamespace("play.wynncraft.com");
+        cache.addToCache("Walk Speed", "走路速度", "zh-TW");
+        assertTrue(cache.awaitReady(5000));
+
+        cache.switchNamespace("mc.hypixel.net");
+        assertNull(cache.getCachedTranslation("Walk Speed", "zh-TW"));
+
+        cache.switchNamespace("play.wynncraft.com");
+        assertTrue(cache.awaitReady(5000));
+        assertEquals("走路速度", cache.getCachedTranslation("Walk Speed", "zh-TW"));
+        cache.shutdown();
+
+        assertTrue(Files.isDirectory(tempDir.resolve(PartitionedTranslationStore.PARTITIONS_DIRECTORY)
+            .resolve("play.wynncraft.com").resolve("zh-tw")));
+    }
+
+    @Test
+    void testPartitionsLoadOnDemand() {
+        PartitionedTranslationStore store = new PartitionedTranslationStore(tempDir, Long.MAX_VALUE);
+        assertEquals(0, store.getLoadedPartitionCount());
+
+        long key = TranslationKeyHash.hash("Hello", "ja");
+        store.put(key, new CachedTranslation("Hello", "こんにちは", "ja", System.currentTimeMillis()));
+        assertEquals(1, store.getLoadedPartitionCount());
+        store.shutdown();
+
+        // 已存在的分區隨命名空間載入；查找未見過的語言不建立分區，寫入時才建立
+        PartitionedTranslationStore reopened = new PartitionedTranslationStore(tempDir, Long.MAX_VALUE);
+        assertTrue(reopened.awaitReady(5000));
+        assertEquals(1, reopened.getLoadedPartitionCount());
+        assertEquals("こんにちは", reopened.get(key, "Hello", "ja").getTranslatedText());
+
+        long zhKey = TranslationKeyHash.hash("Hello", "zh-TW");
+        assertNull(reopened.get(zhKey, "Hello", "zh-TW"));
+        reopened.remove(zhKey, "Hello", "zh-TW");
+        reopened.open("zh-TW");
+        assertEquals(1, reopened.getLoadedPartitionCount());
+        assertFalse(Files.exists(PartitionedTranslationStore.partitionDirectory(tempDir,
+            PartitionedTranslationStore.DEFAULT_NAMESPACE, "zh-TW")));
+
+        reopened.put(zhKey, new CachedTranslation("Hello", "你好", "zh-TW", System.currentTimeMillis()));
+        assertEquals(2, reopened.getLoadedPartitionCount());
+        reopened.shutdown();
+    }
+
+    @Test
+    void testSwitchNamespaceUnloadsPartitions() throws Exception {
+        PartitionedTranslationStore store = new PartitionedTranslationStore(tempDir, Long.MAX_VALUE);
+        store.switchNamespace("server-a");
+        store.put(TranslationKeyHash.hash("Hello", "zh-TW"),
+            new CachedTranslation("Hello", "你好", "zh-TW", System.currentTimeMillis()));
+        store.put(TranslationKeyHash.hash("Hello", "ja"),
+            new CachedTranslation("Hello", "こんにちは", "ja", System.currentTimeMillis()));
+        assertEquals(2, store.getLoadedPartitionCount());
+
+        store.switchNamespace("server-b");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (store.getLoadedPartitionCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, store.getLoadedPartitionCount());
+        store.shutdown();
+    }
+
+    @Test
+    void testNamespaceSanitizing() {
+        assertEquals("play.wynncraft.com_25565", PartitionedTranslationStore.toNamespace("Play.Wynncraft.com:25565"));
+        assertEquals("world_my_world", PartitionedTranslationStore.toNamespace("world_My World"));
+        assertEquals(PartitionedTranslationStore.DEFAULT_NAMESPACE, PartitionedTranslationStore.toNamespace(".."));
+        assertEquals(PartitionedTranslationStore.DEFAULT_NAMESPACE, PartitionedTranslationStore.toNamespace(null));
+    }
+}
@@ -0,0 +1,87 @@
+package com.smarttranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分層緩存（Caffeine L1 + 持久化 L2）測試
+ */
+public class TranslationCacheTierTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testL1EvictionFallsBackToL2() {
+        TranslationCache cache = new TranslationCache(tempDir);
+        assertTrue(cache.awaitReady(5000));
+        cache.setL1Capacity(1);
+        for (int i = 0; i < 50; i++) {
+            cache.addToCache("text " + i, "文本 " + i, "zh-TW");
+        }
+
+        TranslationCache.TierStats before = cache.getTierStats();
+        assertTrue(before.getL1Evictions() > 0);
+        assertTrue(before.getL1Size() < 50);
+
+        // 被 L1 驅逐的項目仍可從 L2 讀回
+        for (int i = 0; i < 50; i++) {
+            assertEquals("文本 " + i, cache.getCachedTranslation("text " + i, "zh-TW"));
+        }
+        assertTrue(cache.getTierStats().getL2Hits() > 0);
+        cache.shutdown();
+    }
+
+    @Test
+    void testPromotionToL1() {
+        TranslationCache cache = new TranslationCache(tempDir);
+        assertTrue(cache.awaitReady(5000));
+        cache.addToCache("Hello", "你好", "zh-TW");
+        cache.shutdown();
+
+        TranslationCache reopened = new TranslationCache(tempDir);
+        assertTrue(reopened.awaitReady(5000));
+        assertEquals("你好", reopened.getCachedTranslation("Hello", "zh-TW"));
+        assertEquals("你好", reopened.getCachedTranslation("Hello", "zh-TW"));
+
+        TranslationCache.TierStats stats = reopened.getTierStats();
+        assertEquals(1, stats.getL2Hits());
+        assertEquals(1, stats.getL1Hits());
+        // 命中率後的分數為 命中數/查找數
+        assertTrue(stats.toString().contains("L1 命中率=50.00% (1/2)"), stats.toString());
+        assertTrue(stats.toString().contains("L2 命中率=100.00% (1/1)"), stats.toString());
+        reopened.shutdown();
+    }
+
+    @Test
+    void testAsyncLookup() throws Exception {
+        TranslationCache cache = new TranslationCache(tempDir);
+        assertTrue(cache.awaitReady(5000));
+        cache.addToCache("Hello", "你好", "zh-TW");
+
+        assertEquals("你好", cache.getCachedTranslationAsync("Hello", "zh-TW").get(5, TimeUnit.SECONDS));
+        assertNull(cache.getCachedTranslationAsync("Hello", "ja").get(5, TimeUnit.SECONDS));
+        assertNull(cache.getCachedTranslationAsync("Missing", "zh-TW").get(5, TimeUnit.SECONDS));
+        assertEquals(2, cache.getTierStats().getL2Misses());
+        cache.shutdown();
+    }
+
+    @Test
+    void testLanguagesShareOriginalText() {
+        TranslationCache cache = new TranslationCache(tempDir);
+        assertTrue(cache.awaitReady(5000));
+        cache.addToCache("Hello", "你好", "zh-TW");
+        cache.addToCache("Hello", "こんにちは", "ja");
+
+        assertEquals("你好", cache.getCachedTranslation("Hello", "zh-TW"));
+        assertEquals("こんにちは", cache.getCachedTranslation("Hello", "ja"));
+        assertTrue(cache.removeFromCache("Hello", "ja"));
+        assertNull(cache.getCachedTranslation("Hello", "ja"));
+        assertEquals("你好", cache.getCachedTranslation("Hello", "zh-TW"));
+        cache.shutdown();
+    }
+}
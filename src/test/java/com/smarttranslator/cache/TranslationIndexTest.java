@@ -0,0 +1,101 @@
+package com.smarttranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 基本型別翻譯索引測試
+ */
+public class TranslationIndexTest {
+
+    @Test
+    void testPutGetAndReplace() {
+        TranslationIndex index = new TranslationIndex();
+        CachedTranslation first = entry("Hello", "哈囉", "zh-TW");
+        long hash = TranslationKeyHash.hash("Hello", "zh-TW");
+
+        assertNull(index.put(hash, first));
+        assertSame(first, index.get(hash, "Hello", LanguageIds.idOf("zh-TW")));
+
+        CachedTranslation second = entry("Hello", "你好", "zh-TW");
+        assertSame(first, index.put(hash, second));
+        assertEquals(1, index.size());
+        assertEquals("你好", index.get(hash, "Hello", LanguageIds.idOf("zh-TW")).getTranslatedText());
+    }
+
+    @Test
+    void testLanguageIsPartOfKey() {
+        TranslationIndex index = new TranslationIndex();
+        index.put(TranslationKeyHash.hash("Hello", "zh-TW"), entry("Hello", "你好", "zh-TW"));
+        index.put(TranslationKeyHash.hash("Hello", "ja"), entry("Hello", "こんにちは", "ja"));
+
+        assertEquals("こんにちは",
+            index.get(TranslationKeyHash.hash("Hello", "ja"), "Hello", LanguageIds.idOf("ja")).getTranslatedText());
+        assertNull(index.get(TranslationKeyHash.hash("Hello", "ko"), "Hello", LanguageIds.idOf("ko")));
+    }
+
+    @Test
+    void testHashCollisionIsVerifiedAgainstText() {
+        TranslationIndex index = new TranslationIndex();
+        // 強制兩個不同原文使用同一雜湊
+        long hash = 42L;
+        index.put(hash, entry("Alpha", "甲", "zh-TW"));
+        index.put(hash, entry("Beta", "乙", "zh-TW"));
+
+        int zh = LanguageIds.idOf("zh-TW");
+        assertEquals(2, index.size());
+        assertEquals("甲", index.get(hash, "Alpha", zh).getTranslatedText());
+        assertEquals("乙", index.get(hash, "Beta", zh).getTranslatedText());
+        assertNull(index.get(hash, "Gamma", zh));
+
+        index.remove(hash, "Alpha", zh);
+        assertNull(index.get(hash, "Alpha", zh));
+        assertEquals("乙", index.get(hash, "Beta", zh).getTranslatedText());
+    }
+
+    @Test
+    void testGrowAndRemoveKeepsProbeChainsIntact() {
+        TranslationIndex index = new TranslationIndex();
+        int zh = LanguageIds.intern("zh-TW");
+        for (int i = 0; i < 10000; i++) {
+            index.put(TranslationKeyHash.hash("text " + i, "zh-TW"), entry("text " + i, "文本 " + i, "zh-TW"));
+        }
+        for (int i = 0; i < 10000; i += 2) {
+            assertNotNull(index.remove(TranslationKeyHash.hash("text " + i, "zh-TW"), "text " + i, zh));
+        }
+
+        assertEquals(5000, index.size());
+        for (int i = 0; i < 10000; i++) {
+            CachedTranslation cached = index.get(TranslationKeyHash.hash("text " + i, "zh-TW"), "text " + i, zh);
+            if (i % 2 == 0) {
+                assertNull(cached);
+            } else {
+                assertEquals("文本 " + i, cached.getTranslatedText());
+            }
+        }
+    }
+
+    @Test
+    void testRemoveValueOnlyRemovesSameInstance() {
+        TranslationIndex index = new TranslationIndex();
+        long hash = TranslationKeyHash.hash("Hello", "zh-TW");
+        CachedTranslation stale = entry("Hello", "哈囉", "zh-TW");
+        CachedTranslation current = entry("Hello", "你好", "zh-TW");
+        index.put(hash, current);
+
+        assertFalse(index.removeValue(hash, stale));
+        assertTrue(index.removeValue(hash, current));
+        assertTrue(index.isEmpty());
+    }
+
+    @Test
+    void testUnknownLanguageMisses() {
+        TranslationIndex index = new TranslationIndex();
+        assertEquals(-1, LanguageIds.idOf("xx-never-used"));
+        assertNull(index.get(TranslationKeyHash.hash("Hello", "xx-never-used"), "Hello", -1));
+    }
+
+    private CachedTranslation entry(String original, String translated, String language) {
+        return new CachedTranslation(original, translated, language, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,127 @@
+package com.smarttranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+
+/**
+ * 翻譯記憶近似查找測試
+ */
+public class TranslationMemoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static void add(TranslationMemory memory, String text, String translation) {
+        memory.add(TranslationKeyHash.hash(text, "zh-TW"), text, "zh-TW", translation);
+    }
+
+    @Test
+    void testFindsNearDuplicates() {
+        TranslationMemory memory = new TranslationMemory();
+        add(memory, "steve joined the game", "steve 加入了遊戲");
+        add(memory, "iron sword", "鐵劍");
+        add(memory, "click to open the quest book", "點擊開啟任務書");
+
+        TranslationMemory.Match player = memory.find("alexander joined the game", "zh-TW", 0.6);
+        assertNotNull(player);
+        assertEquals("steve joined the game", player.getOriginalText());
+        assertFalse(player.isInterchangeable());
+
+        TranslationMemory.Match plural = memory.find("iron swords", "zh-TW", 0.6);
+        assertNotNull(plural);
+        assertEquals("鐵劍", plural.getTranslatedText());
+        assertTrue(plural.isInterchangeable());
+
+        TranslationMemory.Match punctuation = memory.find("click to open the quest book!", "zh-TW", 0.6);
+        assertNotNull(punctuation);
+        assertTrue(punctuation.isInterchangeable());
+        assertTrue(punctuation.getSimilarity() > 0.9);
+
+        assertNull(memory.find("diamond pickaxe", "zh-TW", 0.6));
+        // 其他語言的翻譯不會被找到
+        assertNull(memory.find("iron swords", "ja", 0.6));
+        // 完全相同的文字由精確查找負責
+        assertNull(memory.find("iron sword", "zh-TW", 0.6));
+    }
+
+    @Test
+    void testWordChangesAreNotInterchangeable() {
+        assertTrue(TranslationMemory.interchangeable("Open the gates.", "open the gate"));
+        assertTrue(TranslationMemory.interchangeable("Loot boxes", "Loot box"));
+        assertTrue(TranslationMemory.interchangeable("Bosses", "Boss"));
+        assertFalse(TranslationMemory.interchangeable("You can craft this item", "You can't craft this item"));
+        assertFalse(TranslationMemory.interchangeable("Enable sounds", "Disable sounds"));
+        assertEquals(0.9, TranslationMemory.similarity("abcdefghij", "abcdefghiX", 0.0), 1e-9);
+    }
+
+    @Test
+    void testRemoveAndEviction() {
+        TranslationMemory memory = new TranslationMemory(2);
+        add(memory, "ancient boots", "遠古之靴");
+        add(memory, "ancient helmet", "遠古頭盔");
+        assertNotNull(memory.find("ancient boot", "zh-TW", 0.6));
+
+        memory.remove(TranslationKeyHash.hash("ancient boots", "zh-TW"));
+        assertNull(memory.find("ancient boot", "zh-TW", 0.8));
+
+        add(memory, "burning boots", "燃燒之靴");
+        add(memory, "burning helmet", "燃燒頭盔");
+        assertEquals(2, memory.size());
+        // 最早加入的項目被淘汰
+        assertNull(memory.find("ancient helmets", "zh-TW", 0.8));
+        assertNotNull(memory.find("burning helmets", "zh-TW", 0.8));
+    }
+
+    @Test
+    void testPersistsAndRebuildsIndex() {
+        TranslationMemory memory = new TranslationMemory();
+        add(memory, "the ancient city fell silent", "古城陷入了沉寂");
+        Path file = tempDir.resolve(TranslationMemory.FILE_NAME);
+        memory.save(file);
+
+        TranslationMemory restored = new TranslationMemory();
+        assertTrue(restored.load(file));
+        TranslationMemory.Match match = restored.find("the ancient city fell silent.", "zh-TW", 0.6);
+        assertNotNull(match);
+        assertEquals("古城陷入了沉寂", match.getTranslatedText());
+    }
+
+    @Test
+    void testCacheBuildsMemoryIncrementally() {
+        TranslationCache cache = new TranslationCache(tempDir);
+        assertTrue(cache.awaitReady(5000));
+        cache.addToCache("Guild Bank", "公會銀行", "zh-TW");
+
+        TranslationMemory.Match match = cache.findSimilar("Guild Banks", "zh_TW");
+        assertNotNull(match);
+        assertEquals("公會銀行", match.getTranslatedText());
+        assertTrue(match.isInterchangeable());
+
+        cache.removeFromCache("Guild Bank", "zh-TW");
+        assertNull(cache.findSimilar("Guild Banks", "zh-TW"));
+        cache.shutdown();
+    }
+
+    @Test
+    void testLookupLatency() {
+        TranslationMemory memory = new TranslationMemory();
+        for (int i = 0; i < 20000; i++) {
+            add(memory, "quest " + i + " reward: " + Integer.toString(i * 7919, 36) + " tokens", "任務獎勵 " + i);
+        }
+        int lookups = 2000;
+        long start = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < lookups; i++) {
+            if (memory.find("quest " + i + " rewards: " + Integer.toString(i * 7919, 36) + " tokens", "zh-TW", 0.6) != null) {
+                found++;
+            }
+        }
+        double micros = (System.nanoTime() - start) / 1000.0 / lookups;
+        System.out.printf("=== 翻譯記憶 === 20000 項, 平均查找 %.1f µs, 找到 %d / %d%n", micros, found, lookups);
+        assertTrue(found > lookups * 9 / 10);
+        assertTrue(micros < 1000);
+    }
+}
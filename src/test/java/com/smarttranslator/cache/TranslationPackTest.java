@@ -0,0 +1,134 @@
+package com.smarttranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 唯讀翻譯包編譯與查找測試
+ */
+public class TranslationPackTest {
+    private static final String CORPUS = "/com/smarttranslator/cache/wynncraft_tooltips.tsv";
+
+    @TempDir
+    Path tempDir;
+
+    private Path writePack(String fileName, String name, int priority, int version, Map<String, String> entries) throws IOException {
+        Path file = tempDir.resolve(fileName);
+        TranslationPackCompiler.write(file, name, "zh-TW", priority, version, entries);
+        return file;
+    }
+
+    @Test
+    void testCompilesCorpusIntoPerfectHash() throws IOException {
+        Path corpus = tempDir.resolve("wynncraft.tsv");
+        try (InputStream in = getClass().getResourceAsStream(CORPUS)) {
+            assertNotNull(in, "找不到語料: " + CORPUS);
+            Files.copy(in, corpus, StandardCopyOption.REPLACE_EXISTING);
+        }
+        TranslationPackCompiler.Source overrides = new TranslationPackCompiler.Source();
+        overrides.language = "zh_tw";
+        Path packFile = tempDir.resolve("wynncraft.stpack");
+        int written = TranslationPackCompiler.compile(corpus, packFile, overrides);
+
+        TranslationPack pack = TranslationPack.open(packFile);
+        assertEquals(written, pack.size());
+        assertEquals("zh-TW", pack.getTargetLanguage());
+        assertEquals("wynncraft", pack.getName());
+
+        List<String> keys = new ArrayList<>();
+        for (String line : Files.readAllLines(corpus, StandardCharsets.UTF_8)) {
+            String[] columns = line.split("\t");
+            if (!line.startsWith("#") && columns.length >= 2) {
+                keys.add(CacheKeyNormalizer.text(columns[0], "zh-TW"));
+            }
+        }
+        long start = System.nanoTime();
+        for (String key : keys) {
+            assertNotNull(pack.get(key, "zh-TW"), key);
+        }
+        System.out.printf("=== 翻譯包 === %d 項, 檔案 %d 位元組, 平均查找 %.2f µs%n",
+            pack.size(), Files.size(packFile), (System.nanoTime() - start) / 1000.0 / keys.size());
+        assertTrue(keys.size() >= pack.size());
+        assertNull(pack.get("not in the pack", "zh-TW"));
+        assertNull(pack.get(CacheKeyNormalizer.text("§a+41% §7Walk Speed", "ja"), "ja"));
+    }
+
+    @Test
+    void testReadsDirectivesJsonAndFileNameLanguage() throws IOException {
+        Path tsv = tempDir.resolve("quests.zh-TW.tsv");
+        Files.writeString(tsv, "# name: quest-lines\n# priority: 5\n# version: 3\n"
+            + "Talk to the guard\t與守衛交談\nLine one\\nLine two\t第一行\\n第二行\n", StandardCharsets.UTF_8);
+        Path tsvPack = tempDir.resolve(TranslationPackCompiler.packFileName(tsv));
+        TranslationPackCompiler.compile(tsv, tsvPack, new TranslationPackCompiler.Source());
+        TranslationPack quests = TranslationPack.open(tsvPack);
+        assertEquals("quest-lines", quests.getName());
+        assertEquals(5, quests.getPriority());
+        assertEquals(3, quests.getVersion());
+        assertEquals("第一行\n第二行", quests.get(CacheKeyNormalizer.text("Line one\nLine two", "zh-TW"), "zh-TW"));
+
+        Path json = tempDir.resolve("items.json");
+        Files.writeString(json, "{\"language\": \"ja\", \"version\": 2, \"entries\": {\"Iron Sword\": \"鉄の剣\"}}",
+            StandardCharsets.UTF_8);
+        Path jsonPack = tempDir.resolve("items.stpack");
+        TranslationPackCompiler.compile(json, jsonPack, new TranslationPackCompiler.Source());
+        TranslationPack items = TranslationPack.open(jsonPack);
+        assertEquals("ja", items.getTargetLanguage());
+        assertEquals(2, items.getVersion());
+        assertEquals("鉄の剣", items.get(CacheKeyNormalizer.text("Iron Sword", "ja"), "ja"));
+    }
+
+    @Test
+    void testRejectsCorruptFiles() throws IOException {
+        Path file = tempDir.resolve("broken.stpack");
+        Files.write(file, new byte[] {1, 2, 3, 4});
+        assertThrows(IllegalStateException.class, () -> TranslationPack.open(file));
+    }
+
+    @Test
+    void testCacheConsultsPacksByPriorityAndVersion() throws IOException {
+        Path packDirectory = tempDir.resolve(TranslationPack.DIRECTORY);
+        Files.createDirectories(packDirectory);
+        Map<String, String> community = new LinkedHashMap<>();
+        community.put("guild bank", "公會銀行");
+        community.put("iron sword", "鐵劍");
+        TranslationPackCompiler.write(packDirectory.resolve("community.stpack"), "community", "zh-TW", 0, 1, community);
+        Map<String, String> official = new LinkedHashMap<>();
+        official.put("iron sword", "精鐵之劍");
+        TranslationPackCompiler.write(packDirectory.resolve("official.stpack"), "official", "zh-TW", 10, 1, official);
+
+        TranslationCache cache = new TranslationCache(tempDir);
+        assertTrue(cache.awaitReady(5000));
+        assertEquals(List.of("official", "community"), cache.getPacks().stream().map(TranslationPack::getName).toList());
+        // 優先級較高的包先查找，包中的翻譯優先於自身緩存
+        cache.addToCache("Guild Bank", "銀行", "zh-TW");
+        assertEquals("精鐵之劍", cache.getCachedTranslation("Iron Sword", "zh_TW"));
+        assertEquals("公會銀行", cache.getCachedTranslation("Guild Bank", "zh-TW"));
+        assertTrue(cache.containsTranslation("iron sword", "zh-TW"));
+        assertEquals(2, cache.getPackHits());
+
+        // 同名的包只保留較新版本
+        community.put("iron sword", "鐵之劍");
+        Path newer = writePack("community-v2.stpack", "community", 20, 2, community);
+        Path older = writePack("community-v0.stpack", "community", 30, 0, community);
+        assertTrue(cache.mountPack(newer));
+        assertFalse(cache.mountPack(older));
+        assertEquals(List.of("community", "official"), cache.getPacks().stream().map(TranslationPack::getName).toList());
+        assertEquals("鐵之劍", cache.getCachedTranslation("Iron Sword", "zh-TW"));
+
+        assertTrue(cache.unmountPack("community"));
+        assertEquals("銀行", cache.getCachedTranslation("Guild Bank", "zh-TW"));
+        cache.shutdown();
+    }
+}
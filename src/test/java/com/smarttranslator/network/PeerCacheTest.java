@@ -0,0 +1,166 @@
+package com.smarttranslator.network;
+
+import com.smarttranslator.config.PerformanceConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 區域網路對等緩存測試（以本機迴路上的多個實例模擬區域網路中的玩家）
+ */
+public class PeerCacheTest {
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    /**
+     * 以 Map 模擬本地緩存，並記錄被查詢的次數
+     */
+    private static final class MapStore implements PeerCache.Store {
+        final Map<String, String> entries = new ConcurrentHashMap<>();
+        final AtomicInteger lookups = new AtomicInteger();
+
+        @Override
+        public String lookup(String text, String targetLanguage) {
+            lookups.incrementAndGet();
+            return entries.get(targetLanguage + '\n' + text);
+        }
+
+        @Override
+        public void store(String text, String translatedText, String targetLanguage) {
+            entries.put(targetLanguage + '\n' + text, translatedText);
+        }
+
+        String get(String text) {
+            return entries.get("zh-TW\n" + text);
+        }
+    }
+
+    @AfterEach
+    void closeResources() throws Exception {
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+    }
+
+    private PeerCache start(PeerCache.Store store, String group, InetSocketAddress... peers) throws IOException {
+        PeerCache cache = PeerCache.start(store, 0, group, List.of(peers), false);
+        resources.add(cache);
+        return cache;
+    }
+
+    private static InetSocketAddress loopback(int port) {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待逾時");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void testQueryReturnsTranslationFromPeer() throws Exception {
+        MapStore remoteStore = new MapStore();
+        remoteStore.store("Guild Bank", "公會銀行", "zh-TW");
+        PeerCache remote = start(remoteStore, "guild");
+        PeerCache local = start(new MapStore(), "guild", loopback(remote.getPort()));
+        // 問候互相註冊後才會查詢
+        awaitCondition(() -> local.getPeerCount() == 1 && remote.getPeerCount() == 1);
+
+        assertEquals("公會銀行", local.query("Guild Bank", "zh-TW").join());
+        assertEquals(1, local.getHits());
+
+        // 所有對等端都回應未命中時不必等到逾時
+        long start = System.nanoTime();
+        assertNull(local.query("Iron Sword", "zh-TW").join());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < PerformanceConfig.PEER_QUERY_TIMEOUT_MS);
+        assertEquals(2, local.getQueries());
+    }
+
+    @Test
+    void testSlowPeerOnlyDelaysUntilTimeout() throws Exception {
+        // 只回應問候、從不回答查詢的對等端
+        DatagramSocket silent = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        resources.add(silent);
+        PeerCache local = start(new MapStore(), "", loopback(silent.getLocalPort()));
+        DatagramPacket hello = new DatagramPacket(new byte[2048], 2048);
+        silent.receive(hello);
+        // 改寫實例 ID 後原樣回覆，讓本地實例視為另一個對等端
+        byte[] reply = Arrays.copyOf(hello.getData(), hello.getLength());
+        reply[PeerCache.HEADER_SIZE - 1] ^= 1;
+        silent.send(new DatagramPacket(reply, reply.length, hello.getSocketAddress()));
+        awaitCondition(() -> local.getPeerCount() == 1);
+
+        long start = System.nanoTime();
+        assertNull(local.query("Guild Bank", "zh-TW").join());
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsed >= PerformanceConfig.PEER_QUERY_TIMEOUT_MS - 5);
+        assertTrue(elapsed < PerformanceConfig.PEER_QUERY_TIMEOUT_MS + 500, "查詢等待了 " + elapsed + " ms");
+    }
+
+    @Test
+    void testGossipIsBatchedAndFanOutIsBounded() throws Exception {
+        int peerCount = PerformanceConfig.PEER_GOSSIP_FANOUT + 2;
+        List<MapStore> stores = new ArrayList<>();
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (int i = 0; i < peerCount; i++) {
+            MapStore store = new MapStore();
+            stores.add(store);
+            addresses.add(loopback(start(store, "guild").getPort()));
+        }
+        PeerCache local = start(new MapStore(), "guild", addresses.toArray(new InetSocketAddress[0]));
+        awaitCondition(() -> local.getPeerCount() == peerCount);
+
+        // 一批新翻譯只傳給有限數量的對等端，每個收到的對等端都收到完整的一批（大於單一封包時分成多個封包）
+        int entries = PerformanceConfig.PEER_GOSSIP_BATCH_SIZE;
+        for (int i = 0; i < entries; i++) {
+            local.publish("Quest line " + i + " - talk to the guard near the gate of the city", "任務第 " + i + " 行", "zh-TW");
+        }
+        awaitCondition(() -> stores.stream().filter(s -> s.entries.size() == entries).count() == PerformanceConfig.PEER_GOSSIP_FANOUT);
+        Thread.sleep(100);
+        assertEquals(PerformanceConfig.PEER_GOSSIP_FANOUT, stores.stream().filter(s -> !s.entries.isEmpty()).count());
+        MapStore receiver = stores.stream().filter(s -> !s.entries.isEmpty()).findFirst().orElseThrow();
+        assertEquals("任務第 7 行", receiver.get("Quest line 7 - talk to the guard near the gate of the city"));
+
+        // 查詢最多詢問 PEER_QUERY_FANOUT 個對等端
+        assertNull(local.query("Unknown text", "zh-TW").join());
+        awaitCondition(() -> stores.stream().mapToInt(s -> s.lookups.get()).sum() == PerformanceConfig.PEER_QUERY_FANOUT);
+    }
+
+    @Test
+    void testOtherGroupsAreIgnored() throws Exception {
+        MapStore remoteStore = new MapStore();
+        remoteStore.store("Guild Bank", "公會銀行", "zh-TW");
+        PeerCache remote = start(remoteStore, "other guild");
+        PeerCache local = start(new MapStore(), "guild", loopback(remote.getPort()));
+        Thread.sleep(200);
+        assertEquals(0, local.getPeerCount());
+        assertEquals(0, remote.getPeerCount());
+        assertNull(local.query("Guild Bank", "zh-TW").join());
+        assertEquals(0, remoteStore.lookups.get());
+    }
+
+    @Test
+    void testParsePeers() {
+        List<InetSocketAddress> peers = PeerCache.parsePeers(" 127.0.0.1, localhost:25000 ,,127.0.0.1:bad", 24455);
+        assertEquals(2, peers.size());
+        assertEquals(24455, peers.get(0).getPort());
+        assertEquals(25000, peers.get(1).getPort());
+        assertTrue(PeerCache.parsePeers("", 24455).isEmpty());
+    }
+}
@@ -0,0 +1,87 @@
+package com.smarttranslator.translation;
+
+import com.smarttranslator.cache.CacheKeyNormalizer;
+import com.smarttranslator.cache.TranslationKeyHash;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 緩存鍵命中率報告
+ * 以 Wynncraft 物品提示語料重播一次遊戲過程：每行先經翻譯路徑寫入緩存，之後滑鼠再次停在同一物品上時，
+ * 提示的快速路徑以原始文字查詢緩存。比較正規化之前與之後兩條路徑的鍵是否一致。
+ */
+public class CacheKeyReplayReportTest {
+    private static final String CORPUS = "/com/smarttranslator/cache/wynncraft_tooltips.tsv";
+    private static final String TARGET_LANGUAGE = "zh-TW";
+
+    @Test
+    void testReplayReport() throws IOException {
+        List<String> session = loadSession();
+        assertTrue(session.size() > 1000, "語料過少: " + session.size());
+
+        // 之前：寫入以預處理後的文字與設定的語言為鍵，快速路徑以原始文字與固定的 "zh" 查詢
+        Set<Long> writtenBefore = new HashSet<>();
+        Set<Long> writtenAfter = new HashSet<>();
+        Set<String> distinctBefore = new HashSet<>();
+        Set<String> distinctAfter = new HashSet<>();
+        String language = CacheKeyNormalizer.language(TARGET_LANGUAGE);
+        for (String line : session) {
+            String processed = MinecraftTextProcessor.preprocessText(line);
+            writtenBefore.add(TranslationKeyHash.hash(processed, TARGET_LANGUAGE));
+            String key = CacheKeyNormalizer.text(processed, language);
+            writtenAfter.add(TranslationKeyHash.hash(key, language));
+            distinctBefore.add(processed);
+            distinctAfter.add(key);
+        }
+
+        int hitsBefore = 0;
+        int hitsAfter = 0;
+        for (String line : session) {
+            if (writtenBefore.contains(TranslationKeyHash.hash(line, "zh"))) {
+                hitsBefore++;
+            }
+            String key = CacheKeyNormalizer.text(MinecraftTextProcessor.preprocessText(line), language);
+            if (writtenAfter.contains(TranslationKeyHash.hash(key, language))) {
+                hitsAfter++;
+            }
+        }
+
+        int count = session.size();
+        System.out.println("=== 緩存鍵重播報告（" + count + " 行 Wynncraft 提示）===");
+        System.out.printf("不同的鍵:    之前 %d, 之後 %d%n", distinctBefore.size(), distinctAfter.size());
+        System.out.printf("快速路徑命中: 之前 %d / %d (%.1f%%), 之後 %d / %d (%.1f%%)%n",
+            hitsBefore, count, 100.0 * hitsBefore / count, hitsAfter, count, 100.0 * hitsAfter / count);
+
+        assertTrue(distinctAfter.size() <= distinctBefore.size());
+        assertEquals(count, hitsAfter);
+    }
+
+    private List<String> loadSession() throws IOException {
+        List<String> session = new ArrayList<>();
+        try (InputStream in = getClass().getResourceAsStream(CORPUS)) {
+            assertNotNull(in, "找不到語料: " + CORPUS);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split("\t");
+                if (columns.length == 3) {
+                    session.add(columns[0]);
+                }
+            }
+        }
+        return session;
+    }
+}
@@ -0,0 +1,114 @@
+package com.smarttranslator.translation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 術語表前綴樹與術語槽位測試
+ */
+public class GlossaryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Glossary wynncraft() {
+        Map<String, String> terms = new LinkedHashMap<>();
+        terms.put("Ragni", "拉格尼");
+        terms.put("Ragni Guard", "拉格尼守衛");
+        terms.put("Wynn", "溫恩");
+        terms.put("Wynncraft", "溫克拉夫特");
+        terms.put("Corkus", "科庫斯");
+        terms.put("Corrupted Decrepit Sewers", "腐化的破敗下水道");
+        terms.put("Aledar", "");
+        return Glossary.of("zh-TW", terms);
+    }
+
+    @Test
+    void testLongestMatchIgnoringCase() {
+        Glossary glossary = wynncraft();
+        assertEquals(7, glossary.size());
+        assertEquals("zh-TW", glossary.getTargetLanguage());
+
+        List<Glossary.Match> matches = glossary.scan("Talk to the RAGNI guard in ragni");
+        assertEquals(2, matches.size());
+        assertEquals(new Glossary.Match(12, 23, "拉格尼守衛"), matches.get(0));
+        assertEquals(new Glossary.Match(27, 32, "拉格尼"), matches.get(1));
+
+        // 較長的術語優先，不會被較短的前綴拆開
+        assertEquals("歡迎來到溫克拉夫特與溫恩", glossary.replace("歡迎來到Wynncraft與Wynn"));
+        // 譯文留空的術語保留原文
+        assertEquals("Aledar 與 科庫斯", glossary.replace("Aledar 與 Corkus"));
+        assertEquals("no terms here", glossary.replace("no terms here"));
+        assertTrue(Glossary.EMPTY.scan("Ragni").isEmpty());
+    }
+
+    @Test
+    void testRequiresWordBoundaries() {
+        Glossary glossary = wynncraft();
+        // 術語不能是較長單字的一部分
+        assertTrue(glossary.scan("Ragnir and Wynncrafter").isEmpty());
+        assertTrue(glossary.scan("SubCorkus").isEmpty());
+        // 格式化代碼與標點不影響詞界
+        assertEquals(List.of(new Glossary.Match(2, 7, "拉格尼")), glossary.scan("§eRagni§7:"));
+        assertEquals(List.of(new Glossary.Match(1, 7, "科庫斯")), glossary.scan("[Corkus]"));
+    }
+
+    @Test
+    void testLoadsTsvForTargetLanguage() throws IOException {
+        Path file = tempDir.resolve(Glossary.FILE_NAME);
+        Files.writeString(file, "# 術語\tzh-TW 譯文\n"
+            + "Ragni\tRagni\n"
+            + "Ragni\t拉格尼\tzh_tw\n"
+            + "Ragni\tラグニ\tja\n"
+            + "Detlas\t德特拉斯\n"
+            + "\n", StandardCharsets.UTF_8);
+
+        Glossary traditional = Glossary.load(file, "zh-TW");
+        assertEquals(2, traditional.size());
+        assertEquals("拉格尼與德特拉斯", traditional.replace("Ragni與Detlas"));
+        assertEquals("ラグニ", Glossary.load(file, "ja").replace("Ragni"));
+        assertEquals(0, Glossary.load(tempDir.resolve("missing.tsv"), "zh-TW").size());
+    }
+
+    @Test
+    void testTermsBecomeProtectedSlots() {
+        Glossary glossary = wynncraft();
+        NumericTemplate template = NumericTemplate.of("Travel to Corrupted Decrepit Sewers (Level 70) near Ragni", glossary);
+        assertEquals("Travel to {0} (Level {1}) near {2}", template.getPattern());
+        assertEquals(List.of("腐化的破敗下水道", "70", "拉格尼"), template.getValues());
+        assertFalse(template.isCoveredByGlossary());
+        // 翻譯後的模板代入固定譯文，順序可以改變
+        assertEquals("前往拉格尼附近的腐化的破敗下水道（等級 70）",
+            template.fill("前往{2}附近的{0}（等級 {1}）"));
+        // API 遺失術語槽位時不接受譯文
+        assertNull(template.fill("前往下水道（等級 {1}）"));
+
+        // 沒有術語時與原本的數值模板相同
+        assertEquals(NumericTemplate.of("+12% Walk Speed").getPattern(),
+            NumericTemplate.of("+12% Walk Speed", glossary).getPattern());
+    }
+
+    @Test
+    void testFullyCoveredTextResolvesLocally() {
+        Glossary glossary = wynncraft();
+        NumericTemplate covered = NumericTemplate.of("§6Ragni Guard §7- §eCorkus", glossary);
+        assertTrue(covered.isCoveredByGlossary());
+        assertEquals("§6拉格尼守衛 §7- §e科庫斯", covered.resolveLocally());
+
+        NumericTemplate withNumbers = NumericTemplate.of("Wynn 2: Ragni", glossary);
+        assertTrue(withNumbers.isCoveredByGlossary());
+        assertEquals("溫恩 2: 拉格尼", withNumbers.resolveLocally());
+
+        assertFalse(NumericTemplate.of("Ragni Guard says hello", glossary).isCoveredByGlossary());
+        assertFalse(NumericTemplate.of("12/12", glossary).isCoveredByGlossary());
+    }
+}
@@ -0,0 +1,73 @@
+package com.smarttranslator.translation;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 遊戲語言資源索引測試
+ */
+public class LanguageAssetIndexTest {
+
+    private static final Map<String, String> EN_US = Map.of(
+        "block.minecraft.oak_log", "Oak Log",
+        "block.minecraft.cobblestone", "Cobblestone",
+        "item.minecraft.orange_dye", "Orange Dye",
+        "color.minecraft.orange", "Orange",
+        "item.minecraft.orange", "Orange",
+        "container.inventory", "Inventory",
+        "chat.type.text", "<%s> %s",
+        "item.mymod.gizmo", "Gizmo");
+
+    private static final Map<String, String> ZH_TW = Map.of(
+        "block.minecraft.oak_log", "橡木原木",
+        "block.minecraft.cobblestone", "鵝卵石",
+        "item.minecraft.orange_dye", "橙色染料",
+        "color.minecraft.orange", "橙色",
+        "item.minecraft.orange", "柳橙",
+        "container.inventory", "物品欄",
+        "chat.type.text", "<%s> %s",
+        "item.mymod.gizmo", "Gizmo");
+
+    @Test
+    void testReverseLookupUsesNormalizedText() {
+        LanguageAssetIndex index = LanguageAssetIndex.build("zh_tw", EN_US, ZH_TW);
+        assertEquals("zh-TW", index.getTargetLanguage());
+        assertEquals("橡木原木", index.get("Oak Log", "zh-TW"));
+        // 與緩存相同的正規化：格式化代碼、大小寫與多餘空白不影響查找
+        assertEquals("橡木原木", index.get("§6oak  log", "zh_TW"));
+        assertEquals("鵝卵石", index.get("Cobblestone", "zh-TW"));
+        // 同一英文對應多個鍵時優先採用物品名稱
+        assertEquals("柳橙", index.get("Orange", "zh-TW"));
+        // 模板與譯文相同的項目不建立反向索引
+        assertNull(index.get("Gizmo", "zh-TW"));
+        assertEquals(5, index.size());
+        // 其他目標語言不使用此索引
+        assertNull(index.get("Oak Log", "ja"));
+        assertNull(LanguageAssetIndex.EMPTY.get("Oak Log", "zh-TW"));
+    }
+
+    @Test
+    void testKeyLookupKeepsTemplates() {
+        LanguageAssetIndex index = LanguageAssetIndex.build("zh-TW", EN_US, ZH_TW);
+        assertEquals("物品欄", index.getByKey("container.inventory"));
+        assertEquals("<%s> %s", index.getByKey("chat.type.text"));
+        assertNull(index.getByKey("item.mymod.unknown"));
+        assertEquals(2, index.getHits());
+    }
+
+    @Test
+    void testMinecraftLanguageCode() {
+        Set<String> available = Set.of("en_us", "zh_tw", "zh_cn", "zh_hk", "ja_jp", "pt_br", "pt_pt", "de_de", "de_at");
+        assertEquals("zh_tw", LanguageAssetIndex.minecraftCode("zh-TW", available));
+        assertEquals("zh_tw", LanguageAssetIndex.minecraftCode("zh-Hant", available));
+        assertEquals("zh_cn", LanguageAssetIndex.minecraftCode("zh", available));
+        assertEquals("ja_jp", LanguageAssetIndex.minecraftCode("ja", available));
+        assertEquals("pt_br", LanguageAssetIndex.minecraftCode("pt", available));
+        assertEquals("de_de", LanguageAssetIndex.minecraftCode("DE", available));
+        assertNull(LanguageAssetIndex.minecraftCode("ko", available));
+        assertNull(LanguageAssetIndex.minecraftCode("", available));
+    }
+}
@@ -0,0 +1,103 @@
+package com.smarttranslator.translation;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 數值模板測試
+ */
+public class NumericTemplateTest {
+    private static final String CORPUS = "/com/smarttranslator/cache/wynncraft_tooltips.tsv";
+
+    @Test
+    void testStatLinesShareTemplate() {
+        NumericTemplate speed = NumericTemplate.of("+12% Walk Speed");
+        assertEquals("{0}% Walk Speed", speed.getPattern());
+        assertEquals(List.of("+12"), speed.getValues());
+        assertEquals(speed.getPattern(), NumericTemplate.of("-344% Walk Speed").getPattern());
+
+        NumericTemplate durability = NumericTemplate.of("Durability: 431/500");
+        assertEquals("Durability: {0}/{1}", durability.getPattern());
+        assertEquals(List.of("431", "500"), durability.getValues());
+
+        NumericTemplate steal = NumericTemplate.of("-3.5/3s Mana Steal");
+        assertEquals("{0}/{1}s Mana Steal", steal.getPattern());
+        assertEquals(List.of("-3.5", "3"), steal.getValues());
+
+        assertEquals("Cooldown: {0}s", NumericTemplate.of("Cooldown: 14s").getPattern());
+        assertEquals("Price: {0} Emeralds", NumericTemplate.of("Price: 1,024 Emeralds").getPattern());
+    }
+
+    @Test
+    void testRangesAndIdentifiers() {
+        NumericTemplate range = NumericTemplate.of("Damage: 12-18");
+        assertEquals("Damage: {0}-{1}", range.getPattern());
+        assertEquals(List.of("12", "18"), range.getValues());
+
+        // 緊接字母的數字屬於名稱
+        assertFalse(NumericTemplate.of("Tier3 Mk2 Helmet").hasSlots());
+        assertFalse(NumericTemplate.of("Legendary Item").hasSlots());
+        // 原文已有槽位形式的文字不建立模板，避免與槽位混淆
+        NumericTemplate braces = NumericTemplate.of("Use {0} for 5 seconds");
+        assertFalse(braces.hasSlots());
+        assertEquals("Use {0} for 5 seconds", braces.getPattern());
+    }
+
+    @Test
+    void testFillSubstitutesLiveValues() {
+        NumericTemplate template = NumericTemplate.of("Durability: 431/500");
+        assertEquals("耐久度：431/500", template.fill("耐久度：{0}/{1}"));
+        // 翻譯可以調換槽位順序，也可能在大括號內加入空白
+        assertEquals("500 中的 431", template.fill("{ 1 } 中的 {0}"));
+        // 數值中的特殊字元原樣代入
+        assertEquals("$5 x", NumericTemplate.of("$5 x").fill("${0} x"));
+        // 沒有槽位時原樣返回
+        assertEquals("傳說物品", NumericTemplate.literal("Legendary Item").fill("傳說物品"));
+        assertNull(template.fill(null));
+    }
+
+    @Test
+    void testValidationRejectsBrokenSlots() {
+        NumericTemplate template = NumericTemplate.of("Durability: 431/500");
+        assertTrue(template.isPreserved("耐久度：{0}/{1}"));
+        assertFalse(template.isPreserved("耐久度：{0}"));
+        assertFalse(template.isPreserved("耐久度：{0}/{0}"));
+        assertFalse(template.isPreserved("耐久度：{0}/{1}/{2}"));
+        assertFalse(template.isPreserved("耐久度：431/500"));
+        assertNull(template.fill("耐久度：{0}"));
+    }
+
+    @Test
+    void testCorpusCollapseReport() throws IOException {
+        Set<String> lines = new HashSet<>();
+        Set<String> templates = new HashSet<>();
+        try (InputStream in = getClass().getResourceAsStream(CORPUS)) {
+            assertNotNull(in, "找不到語料: " + CORPUS);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#") || line.indexOf('\t') < 0) {
+                    continue;
+                }
+                String processed = MinecraftTextProcessor.preprocessText(line.substring(0, line.indexOf('\t')));
+                NumericTemplate template = NumericTemplate.of(processed);
+                if (template.hasSlots()) {
+                    lines.add(processed);
+                    templates.add(template.getPattern());
+                }
+            }
+        }
+        System.out.printf("=== 數值模板報告 === 含數值的不同行 %d, 模板 %d (%.1f%%)%n",
+            lines.size(), templates.size(), 100.0 * templates.size() / lines.size());
+        assertTrue(templates.size() * 10 < lines.size());
+    }
+}
@@ -0,0 +1,79 @@
+package com.smarttranslator.translation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 渲染結果緩存測試
+ */
+public class RenderedOutputCacheTest {
+
+    private boolean showOriginal;
+    private String prefix;
+    private MinecraftTextProcessor.SymbolProcessingMode symbolMode;
+    private long contentVersion;
+    private RenderedOutputCache cache;
+
+    @BeforeEach
+    void setUp() {
+        showOriginal = false;
+        prefix = "§7[譯]§r ";
+        symbolMode = MinecraftTextProcessor.SymbolProcessingMode.PRESERVE_CORE;
+        contentVersion = 0;
+        cache = new RenderedOutputCache(() -> new RenderedOutputCache.Fingerprint(
+            true, showOriginal, false, prefix, symbolMode, "zh_tw", contentVersion), 16);
+    }
+
+    @Test
+    void testHitReturnsStoredOutput() {
+        RenderedOutputCache.Fingerprint fingerprint = cache.current();
+        assertNull(cache.get(fingerprint, "§aDiamond Sword"));
+
+        cache.put(fingerprint, "§aDiamond Sword", "§a鑽石劍§r");
+        assertEquals("§a鑽石劍§r", cache.get(cache.current(), "§aDiamond Sword"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getInvalidations());
+    }
+
+    @Test
+    void testDisplaySettingChangeInvalidates() {
+        cache.put(cache.current(), "Stone", "石頭§r");
+
+        showOriginal = true;
+        assertNull(cache.get(cache.current(), "Stone"));
+        assertEquals(1, cache.getInvalidations());
+
+        cache.put(cache.current(), "Stone", "§7Stone§r → 石頭");
+        prefix = "[T] ";
+        assertNull(cache.get(cache.current(), "Stone"));
+
+        cache.put(cache.current(), "Stone", "[T] 石頭§r");
+        symbolMode = MinecraftTextProcessor.SymbolProcessingMode.PRESERVE_ALL;
+        assertNull(cache.get(cache.current(), "Stone"));
+        assertEquals(3, cache.getInvalidations());
+    }
+
+    @Test
+    void testContentVersionChangeInvalidates() {
+        cache.put(cache.current(), "Stone", "石頭§r");
+        contentVersion++;
+        assertNull(cache.get(cache.current(), "Stone"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testStalePutIsDropped() {
+        // 處理期間設定改變，舊指紋下渲染的結果不應寫入
+        RenderedOutputCache.Fingerprint stale = cache.current();
+        showOriginal = true;
+        RenderedOutputCache.Fingerprint fresh = cache.current();
+        cache.put(stale, "Stone", "石頭§r");
+        assertNull(cache.get(fresh, "Stone"));
+
+        // 相同的設定產生相等的指紋，不會重複清空
+        assertSame(fresh, cache.current());
+        assertEquals(1, cache.getInvalidations());
+    }
+}
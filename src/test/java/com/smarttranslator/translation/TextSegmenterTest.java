@@ -0,0 +1,60 @@
+package com.smarttranslator.translation;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+/**
+ * 文字分段測試
+ */
+public class TextSegmenterTest {
+
+    private static List<String> texts(String text) {
+        return TextSegmenter.split(text).stream().map(TextSegmenter.Segment::text).toList();
+    }
+
+    private static String rejoin(String text) {
+        List<TextSegmenter.Segment> segments = TextSegmenter.split(text);
+        return TextSegmenter.join(segments, new String[segments.size()]);
+    }
+
+    @Test
+    void testSplitsSentencesAndLines() {
+        assertEquals(List.of("Welcome, traveller!", "The road to Ragni is dangerous.", "Take this sword."),
+            texts("Welcome, traveller! The road to Ragni is dangerous. Take this sword."));
+        assertEquals(List.of("Quest Started:", "Find the lost scroll"), texts("Quest Started:\nFind the lost scroll"));
+        assertEquals(List.of("\"Stay close,\" he said.", "\"It's dark here.\"", "Then silence."),
+            texts("\"Stay close,\" he said. \"It's dark here.\" Then silence."));
+        assertEquals(List.of("你好。", "歡迎來到這裡！", "請跟我來。"), texts("你好。歡迎來到這裡！請跟我來。"));
+    }
+
+    @Test
+    void testKeepsNumbersAbbreviationsAndPlaceholders() {
+        assertEquals(List.of("Deal 3.5 damage per hit."), texts("Deal 3.5 damage per hit."));
+        assertEquals(List.of("Ask Dr. Smith, e.g. at the inn."), texts("Ask Dr. Smith, e.g. at the inn."));
+        assertEquals(List.of("Wait... then run."), texts("Wait... then run."));
+        assertEquals(List.of("Gain {0}.{1} mana.", "Done."), texts("Gain {0}.{1} mana. Done."));
+        // 格式化代碼緊接在句末標點之後
+        assertEquals(List.of("§aGo north.§r", "§7Then east."), texts("§aGo north.§r §7Then east."));
+    }
+
+    @Test
+    void testJoinPreservesSeparators() {
+        String text = "  First line.\n\nSecond!  Third?\tFourth ";
+        assertEquals(text, rejoin(text));
+        List<TextSegmenter.Segment> segments = TextSegmenter.split("A. Bee. Sea.\nDone");
+        assertEquals(List.of("A. Bee.", "Sea.", "Done"), segments.stream().map(TextSegmenter.Segment::text).toList());
+        assertEquals("甲 乙\n丙", TextSegmenter.join(segments, new String[] {"甲", "乙", "丙"}));
+    }
+
+    @Test
+    void testOnlyLongMultiSentenceTextsAreSegmented() {
+        assertNull(TextSegmenter.splitLong("Short. Text."));
+        String page = "The ancient city fell silent long ago. ".repeat(6).trim();
+        List<TextSegmenter.Segment> segments = TextSegmenter.splitLong(page);
+        assertNotNull(segments);
+        assertEquals(6, segments.size());
+        assertNull(TextSegmenter.splitLong("x".repeat(400)));
+    }
+}
@@ -0,0 +1,131 @@
+package com.smarttranslator.translation;
+
+import com.smarttranslator.cache.TranslationCache;
+import com.smarttranslator.translation.api.TranslationAPI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 批量翻譯測試（結果順序與逐段翻譯的後備路徑）
+ */
+public class TranslationBatchTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TranslationCache cache;
+    private TranslationManager manager;
+    private final BatchAPI api = new BatchAPI();
+
+    /**
+     * 批量請求譯為「批:」前綴，逐段請求譯為「本地:」前綴的 API；可指定整批失敗或個別譯文
+     */
+    private static final class BatchAPI implements TranslationAPI {
+        final AtomicInteger batchCalls = new AtomicInteger();
+        final AtomicInteger calls = new AtomicInteger();
+        final List<String> batched = new ArrayList<>();
+        final Map<String, String> overrides = new ConcurrentHashMap<>();
+        volatile boolean failBatch;
+
+        @Override
+        public String translate(String text, String targetLanguage) {
+            calls.incrementAndGet();
+            return "本地:" + text;
+        }
+
+        @Override
+        public List<String> translateBatch(List<String> texts, String targetLanguage) throws Exception {
+            batchCalls.incrementAndGet();
+            if (failBatch) {
+                throw new Exception("批量請求失敗");
+            }
+            batched.addAll(texts);
+            List<String> results = new ArrayList<>(texts.size());
+            for (String text : texts) {
+                results.add(overrides.getOrDefault(text, "批:" + text));
+            }
+            return results;
+        }
+
+        @Override
+        public String getApiName() {
+            return "Batch";
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        cache = new TranslationCache(tempDir);
+        assertTrue(cache.awaitReady(5000));
+        manager = new TranslationManager(cache, TranslationSettings.DEFAULTS);
+        manager.setTranslationAPI(api);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+        cache.shutdown();
+    }
+
+    @Test
+    void testBatchKeepsInputOrder() throws Exception {
+        List<String> texts = Arrays.asList("Guild Bank", "", "+12% Walk Speed", "Mana Regen", "-3% Walk Speed");
+
+        List<String> results = manager.translateBatchAsync(texts).get();
+        assertEquals(texts.size(), results.size());
+        assertTrue(results.get(0).contains("批:Guild Bank"), results.get(0));
+        assertEquals("", results.get(1));
+        assertTrue(results.get(2).contains("批:+12% Walk Speed"), results.get(2));
+        assertTrue(results.get(3).contains("批:Mana Regen"), results.get(3));
+        assertTrue(results.get(4).contains("批:-3% Walk Speed"), results.get(4));
+
+        // 同一模板只請求一次，整批只調用一次 API
+        assertEquals(1, api.batchCalls.get());
+        assertEquals(List.of("Guild Bank", "{0}% Walk Speed", "Mana Regen"), api.batched);
+        assertEquals(0, api.calls.get());
+    }
+
+    @Test
+    void testUnpreservedSlotsFallBackPerItem() throws Exception {
+        api.overrides.put("{0}% Walk Speed", "批:步行速度");
+        List<String> texts = Arrays.asList("+12% Walk Speed", "Guild Bank", "-3% Walk Speed");
+
+        List<String> results = manager.translateBatchAsync(texts).get();
+        assertEquals(texts.size(), results.size());
+        assertTrue(results.get(0).contains("本地:+12% Walk Speed"), results.get(0));
+        assertTrue(results.get(1).contains("批:Guild Bank"), results.get(1));
+        assertTrue(results.get(2).contains("本地:-3% Walk Speed"), results.get(2));
+        assertEquals(1, api.batchCalls.get());
+        assertEquals(2, api.calls.get());
+    }
+
+    @Test
+    void testFailedBatchFallsBackPerItem() throws Exception {
+        api.failBatch = true;
+        List<String> texts = Arrays.asList("Mana Regen", "Guild Bank", "Life Steal");
+
+        List<String> results = manager.translateBatchAsync(texts).get();
+        assertEquals(texts.size(), results.size());
+        for (int i = 0; i < texts.size(); i++) {
+            assertTrue(results.get(i).contains("本地:" + texts.get(i)), results.get(i));
+        }
+        assertEquals(1, api.batchCalls.get());
+        assertEquals(3, api.calls.get());
+    }
+}
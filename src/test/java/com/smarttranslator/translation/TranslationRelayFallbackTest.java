@@ -0,0 +1,145 @@
+package com.smarttranslator.translation;
+
+import com.smarttranslator.cache.TranslationCache;
+import com.smarttranslator.network.TranslationRelay;
+import com.smarttranslator.translation.api.TranslationAPI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 伺服器翻譯中繼測試（伺服器停用中繼或未能翻譯時改用本地 API）
+ */
+public class TranslationRelayFallbackTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TranslationCache cache;
+    private TranslationManager manager;
+    private final CountingAPI api = new CountingAPI();
+
+    /**
+     * 記錄調用次數的本地 API
+     */
+    private static final class CountingAPI implements TranslationAPI {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String translate(String text, String targetLanguage) {
+            calls.incrementAndGet();
+            return "本地:" + text;
+        }
+
+        @Override
+        public String getApiName() {
+            return "Counting";
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+    }
+
+    /**
+     * 已註冊中繼頻道的伺服器；reply 為 null 時模擬停用中繼或沒有 API 金鑰的伺服器（回覆空結果）
+     */
+    private static final class StubRelay implements TranslationRelay {
+        final AtomicInteger requests = new AtomicInteger();
+        final String reply;
+
+        StubRelay(String reply) {
+            this.reply = reply;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<String> request(String text, String targetLanguage) {
+            requests.incrementAndGet();
+            return CompletableFuture.completedFuture(reply);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        cache = new TranslationCache(tempDir);
+        assertTrue(cache.awaitReady(5000));
+        manager = new TranslationManager(cache, TranslationSettings.DEFAULTS);
+        manager.setTranslationAPI(api);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+        cache.shutdown();
+    }
+
+    @Test
+    void testDisabledServerFallsBackToLocalAPI() {
+        StubRelay relay = new StubRelay(null);
+        manager.setRelay(relay);
+
+        String result = manager.translate("Guild Bank");
+        assertEquals(1, relay.requests.get());
+        assertEquals(1, api.calls.get());
+        assertTrue(result.contains("本地:Guild Bank"), result);
+
+        // 本地譯文已寫入緩存，之後不再詢問伺服器
+        assertTrue(manager.translate("Guild Bank").contains("本地:Guild Bank"));
+        assertEquals(1, relay.requests.get());
+        assertEquals(1, api.calls.get());
+    }
+
+    @Test
+    void testServerTranslationSkipsLocalAPI() throws Exception {
+        StubRelay relay = new StubRelay("公會銀行");
+        manager.setRelay(relay);
+
+        String result = manager.translateAsync("Guild Bank").get();
+        assertTrue(result.contains("公會銀行"), result);
+        assertEquals(1, relay.requests.get());
+        assertEquals(0, api.calls.get());
+    }
+
+    @Test
+    void testServerSideRelayTranslatesOnce() throws Exception {
+        // 伺服器端：查找與翻譯都在線程池上完成，同一段文字只調用一次 API
+        CompletableFuture<String> first = manager.translateForRelay("Guild Bank", "zh-TW");
+        CompletableFuture<String> second = manager.translateForRelay("Guild Bank", "zh-TW");
+        assertEquals("本地:Guild Bank", first.get());
+        assertEquals("本地:Guild Bank", second.get());
+        assertEquals("本地:Guild Bank", manager.translateForRelay("Guild Bank", "zh-TW").get());
+        assertEquals(1, api.calls.get());
+    }
+
+    @Test
+    void testRelayBudgetOnlyChargesApiCalls() throws Exception {
+        AtomicInteger charged = new AtomicInteger();
+        assertNull(manager.translateForRelay("Guild Bank", "zh-TW", () -> {
+            charged.incrementAndGet();
+            return false;
+        }).get());
+        assertEquals(1, charged.get());
+        assertEquals(0, api.calls.get());
+
+        // 已緩存的譯文不消耗預算
+        assertEquals("本地:Guild Bank", manager.translateForRelay("Guild Bank", "zh-TW").get());
+        assertEquals("本地:Guild Bank", manager.translateForRelay("Guild Bank", "zh-TW", () -> {
+            charged.incrementAndGet();
+            return false;
+        }).get());
+        assertEquals(1, charged.get());
+        assertEquals(1, api.calls.get());
+    }
+}